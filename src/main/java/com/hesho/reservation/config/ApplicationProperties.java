@@ -2,6 +2,12 @@ package com.hesho.reservation.config;
 
 import org.springframework.boot.context.properties.ConfigurationProperties;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
 /**
  * Properties specific to Reservation Backend.
  * <p>
@@ -10,4 +16,733 @@ import org.springframework.boot.context.properties.ConfigurationProperties;
  */
 @ConfigurationProperties(prefix = "application", ignoreUnknownFields = false)
 public class ApplicationProperties {
+
+    private final Availability availability = new Availability();
+
+    private final Hold hold = new Hold();
+
+    private final Idempotency idempotency = new Idempotency();
+
+    private final Nearby nearby = new Nearby();
+
+    private final ImageVariants imageVariants = new ImageVariants();
+
+    private final ImageCache imageCache = new ImageCache();
+
+    private final ImageUpload imageUpload = new ImageUpload();
+
+    private final Storage storage = new Storage();
+
+    private final ImageGc imageGc = new ImageGc();
+
+    private final Jwt jwt = new Jwt();
+
+    private final Login login = new Login();
+
+    private final RateLimit rateLimit = new RateLimit();
+
+    private final Cache cache = new Cache();
+
+    public Availability getAvailability() {
+        return availability;
+    }
+
+    public Hold getHold() {
+        return hold;
+    }
+
+    public Idempotency getIdempotency() {
+        return idempotency;
+    }
+
+    public Nearby getNearby() {
+        return nearby;
+    }
+
+    public ImageVariants getImageVariants() {
+        return imageVariants;
+    }
+
+    public ImageCache getImageCache() {
+        return imageCache;
+    }
+
+    public ImageUpload getImageUpload() {
+        return imageUpload;
+    }
+
+    public Storage getStorage() {
+        return storage;
+    }
+
+    public ImageGc getImageGc() {
+        return imageGc;
+    }
+
+    public Jwt getJwt() {
+        return jwt;
+    }
+
+    public Login getLogin() {
+        return login;
+    }
+
+    public RateLimit getRateLimit() {
+        return rateLimit;
+    }
+
+    public Cache getCache() {
+        return cache;
+    }
+
+    public static class Availability {
+
+        /**
+         * Number of months, starting today, kept in the per-place availability bitmaps.
+         */
+        private int horizonMonths = 12;
+
+        /**
+         * Largest number of days a single availability request may cover.
+         */
+        private int maxRangeDays = 366;
+
+        public int getHorizonMonths() {
+            return horizonMonths;
+        }
+
+        public void setHorizonMonths(int horizonMonths) {
+            this.horizonMonths = horizonMonths;
+        }
+
+        public int getMaxRangeDays() {
+            return maxRangeDays;
+        }
+
+        public void setMaxRangeDays(int maxRangeDays) {
+            this.maxRangeDays = maxRangeDays;
+        }
+    }
+
+    public static class Hold {
+
+        /**
+         * How long a PENDING reservation holds its place before it expires.
+         */
+        private long timeToLiveSeconds = 900;
+
+        /**
+         * Delay between two runs of the hold expiry sweeper.
+         */
+        private long sweepDelayMs = 1000;
+
+        public long getTimeToLiveSeconds() {
+            return timeToLiveSeconds;
+        }
+
+        public void setTimeToLiveSeconds(long timeToLiveSeconds) {
+            this.timeToLiveSeconds = timeToLiveSeconds;
+        }
+
+        public long getSweepDelayMs() {
+            return sweepDelayMs;
+        }
+
+        public void setSweepDelayMs(long sweepDelayMs) {
+            this.sweepDelayMs = sweepDelayMs;
+        }
+    }
+
+    public static class Idempotency {
+
+        /**
+         * How long the response of a request sent with an idempotency key is replayed.
+         */
+        private long timeToLiveSeconds = 86400;
+
+        /**
+         * Maximum number of responses kept in memory.
+         */
+        private long maxEntries = 10000;
+
+        /**
+         * Also store responses in the database, so a retry reaching another node is replayed too.
+         */
+        private boolean jdbcEnabled = false;
+
+        public long getTimeToLiveSeconds() {
+            return timeToLiveSeconds;
+        }
+
+        public void setTimeToLiveSeconds(long timeToLiveSeconds) {
+            this.timeToLiveSeconds = timeToLiveSeconds;
+        }
+
+        public long getMaxEntries() {
+            return maxEntries;
+        }
+
+        public void setMaxEntries(long maxEntries) {
+            this.maxEntries = maxEntries;
+        }
+
+        public boolean isJdbcEnabled() {
+            return jdbcEnabled;
+        }
+
+        public void setJdbcEnabled(boolean jdbcEnabled) {
+            this.jdbcEnabled = jdbcEnabled;
+        }
+    }
+
+    public static class Nearby {
+
+        /**
+         * Largest radius of a nearby places search.
+         */
+        private double maxRadiusKm = 500;
+
+        public double getMaxRadiusKm() {
+            return maxRadiusKm;
+        }
+
+        public void setMaxRadiusKm(double maxRadiusKm) {
+            this.maxRadiusKm = maxRadiusKm;
+        }
+    }
+
+    public static class ImageVariants {
+
+        /**
+         * Widths, in pixels, of the resized copies generated for every uploaded image.
+         */
+        private List<Integer> widths = new ArrayList<>(Arrays.asList(320, 640, 1280));
+
+        /**
+         * Number of threads generating the resized copies.
+         */
+        private int poolSize = 2;
+
+        /**
+         * Maximum number of images waiting for their resized copies; further images are resized on their first request.
+         */
+        private int queueCapacity = 100;
+
+        /**
+         * JPEG compression quality of the resized copies, between 0 and 1.
+         */
+        private float jpegQuality = 0.8f;
+
+        public List<Integer> getWidths() {
+            return widths;
+        }
+
+        public void setWidths(List<Integer> widths) {
+            this.widths = widths;
+        }
+
+        public int getPoolSize() {
+            return poolSize;
+        }
+
+        public void setPoolSize(int poolSize) {
+            this.poolSize = poolSize;
+        }
+
+        public int getQueueCapacity() {
+            return queueCapacity;
+        }
+
+        public void setQueueCapacity(int queueCapacity) {
+            this.queueCapacity = queueCapacity;
+        }
+
+        public float getJpegQuality() {
+            return jpegQuality;
+        }
+
+        public void setJpegQuality(float jpegQuality) {
+            this.jpegQuality = jpegQuality;
+        }
+    }
+
+    public static class ImageCache {
+
+        /**
+         * Memory budget, in megabytes, of the main images of places and categories kept in memory; 0 disables it.
+         */
+        private long maxSizeMb = 64;
+
+        /**
+         * Size, in kilobytes, above which the content of an image is read from disk on every request.
+         */
+        private long maxEntrySizeKb = 1024;
+
+        public long getMaxSizeMb() {
+            return maxSizeMb;
+        }
+
+        public void setMaxSizeMb(long maxSizeMb) {
+            this.maxSizeMb = maxSizeMb;
+        }
+
+        public long getMaxEntrySizeKb() {
+            return maxEntrySizeKb;
+        }
+
+        public void setMaxEntrySizeKb(long maxEntrySizeKb) {
+            this.maxEntrySizeKb = maxEntrySizeKb;
+        }
+    }
+
+    public static class ImageUpload {
+
+        /**
+         * Number of threads writing the files of a gallery upload in parallel.
+         */
+        private int poolSize = 4;
+
+        /**
+         * Maximum number of files waiting for a writer thread; further files are written by the request thread.
+         */
+        private int queueCapacity = 100;
+
+        /**
+         * Maximum number of files of a gallery upload.
+         */
+        private int maxFiles = 50;
+
+        public int getPoolSize() {
+            return poolSize;
+        }
+
+        public void setPoolSize(int poolSize) {
+            this.poolSize = poolSize;
+        }
+
+        public int getQueueCapacity() {
+            return queueCapacity;
+        }
+
+        public void setQueueCapacity(int queueCapacity) {
+            this.queueCapacity = queueCapacity;
+        }
+
+        public int getMaxFiles() {
+            return maxFiles;
+        }
+
+        public void setMaxFiles(int maxFiles) {
+            this.maxFiles = maxFiles;
+        }
+    }
+
+    public static class ImageGc {
+
+        /**
+         * Delay, in milliseconds, between two scans of the image directories for unreferenced files.
+         */
+        private long delayMs = 3_600_000;
+
+        /**
+         * Age, in minutes, below which a file is never collected, as its image may not be committed yet.
+         */
+        private long gracePeriodMinutes = 60;
+
+        /**
+         * Time, in hours, an unreferenced file stays in quarantine before it is deleted.
+         */
+        private long quarantineHours = 24;
+
+        /**
+         * Number of file names checked against the database in one query.
+         */
+        private int chunkSize = 500;
+
+        /**
+         * Maximum number of file system operations per second, so a scan does not starve the requests.
+         */
+        private double maxFilesPerSecond = 200;
+
+        public long getDelayMs() {
+            return delayMs;
+        }
+
+        public void setDelayMs(long delayMs) {
+            this.delayMs = delayMs;
+        }
+
+        public long getGracePeriodMinutes() {
+            return gracePeriodMinutes;
+        }
+
+        public void setGracePeriodMinutes(long gracePeriodMinutes) {
+            this.gracePeriodMinutes = gracePeriodMinutes;
+        }
+
+        public long getQuarantineHours() {
+            return quarantineHours;
+        }
+
+        public void setQuarantineHours(long quarantineHours) {
+            this.quarantineHours = quarantineHours;
+        }
+
+        public int getChunkSize() {
+            return chunkSize;
+        }
+
+        public void setChunkSize(int chunkSize) {
+            this.chunkSize = chunkSize;
+        }
+
+        public double getMaxFilesPerSecond() {
+            return maxFilesPerSecond;
+        }
+
+        public void setMaxFilesPerSecond(double maxFilesPerSecond) {
+            this.maxFilesPerSecond = maxFilesPerSecond;
+        }
+    }
+
+    public static class Jwt {
+
+        /**
+         * Maximum number of validated tokens whose authentication is kept in memory; 0 disables it.
+         */
+        private long authenticationCacheSize = 10_000;
+
+        /**
+         * How often the revoked tokens are reloaded from the database, which also forgets the expired ones.
+         */
+        private long revocationRefreshMs = 60_000;
+
+        /**
+         * Number of revoked tokens the Bloom filter is sized for at least.
+         */
+        private int revocationExpectedTokens = 10_000;
+
+        public long getAuthenticationCacheSize() {
+            return authenticationCacheSize;
+        }
+
+        public void setAuthenticationCacheSize(long authenticationCacheSize) {
+            this.authenticationCacheSize = authenticationCacheSize;
+        }
+
+        public long getRevocationRefreshMs() {
+            return revocationRefreshMs;
+        }
+
+        public void setRevocationRefreshMs(long revocationRefreshMs) {
+            this.revocationRefreshMs = revocationRefreshMs;
+        }
+
+        public int getRevocationExpectedTokens() {
+            return revocationExpectedTokens;
+        }
+
+        public void setRevocationExpectedTokens(int revocationExpectedTokens) {
+            this.revocationExpectedTokens = revocationExpectedTokens;
+        }
+    }
+
+    public static class Login {
+
+        /**
+         * Number of threads checking password hashes; 0 uses one per available processor.
+         */
+        private int poolSize = 0;
+
+        /**
+         * Maximum number of password checks waiting for a thread; further logins are answered with
+         * {@code 503 (Service Unavailable)}.
+         */
+        private int queueCapacity = 32;
+
+        /**
+         * Value, in seconds, of the {@code Retry-After} header of a rejected login.
+         */
+        private long retryAfterSeconds = 1;
+
+        public int getPoolSize() {
+            return poolSize;
+        }
+
+        public void setPoolSize(int poolSize) {
+            this.poolSize = poolSize;
+        }
+
+        public int getQueueCapacity() {
+            return queueCapacity;
+        }
+
+        public void setQueueCapacity(int queueCapacity) {
+            this.queueCapacity = queueCapacity;
+        }
+
+        public long getRetryAfterSeconds() {
+            return retryAfterSeconds;
+        }
+
+        public void setRetryAfterSeconds(long retryAfterSeconds) {
+            this.retryAfterSeconds = retryAfterSeconds;
+        }
+    }
+
+    public static class RateLimit {
+
+        /**
+         * Maximum number of login, registration and password reset requests of a client in a sliding window.
+         */
+        private int requestsPerWindow = 20;
+
+        private long windowSeconds = 60;
+
+        /**
+         * Number of counters per hash row. Clients share counters when there are more of them, so the memory stays
+         * bounded whatever the number of addresses seen.
+         */
+        private int slots = 65_536;
+
+        /**
+         * Addresses or CIDR ranges of the reverse proxies in front of the server. The {@code X-Forwarded-For} header
+         * is only read from them, and the client is its right-most address that is not one of them; with none, the
+         * client is the address of the connection.
+         */
+        private List<String> trustedProxies = new ArrayList<>();
+
+        public int getRequestsPerWindow() {
+            return requestsPerWindow;
+        }
+
+        public void setRequestsPerWindow(int requestsPerWindow) {
+            this.requestsPerWindow = requestsPerWindow;
+        }
+
+        public long getWindowSeconds() {
+            return windowSeconds;
+        }
+
+        public void setWindowSeconds(long windowSeconds) {
+            this.windowSeconds = windowSeconds;
+        }
+
+        public int getSlots() {
+            return slots;
+        }
+
+        public void setSlots(int slots) {
+            this.slots = slots;
+        }
+
+        public List<String> getTrustedProxies() {
+            return trustedProxies;
+        }
+
+        public void setTrustedProxies(List<String> trustedProxies) {
+            this.trustedProxies = trustedProxies;
+        }
+    }
+
+    public static class Cache {
+
+        /**
+         * Sizing of the Ehcache regions, by cache name without the {@code com.hesho.reservation.domain.} package,
+         * e.g. {@code "[Place.images]"}. Regions not listed, and settings not set, use {@code jhipster.cache.ehcache}.
+         */
+        private final Map<String, Region> regions = new LinkedHashMap<>();
+
+        public Map<String, Region> getRegions() {
+            return regions;
+        }
+
+        public static class Region {
+
+            /**
+             * Maximum number of entries on the heap.
+             */
+            private Long maxEntries;
+
+            /**
+             * Maximum size of the heap tier, in megabytes, instead of a number of entries. Entries are then measured,
+             * which costs on every write.
+             */
+            private Long heapMb;
+
+            /**
+             * Size of an off-heap tier below the heap, in megabytes; entries there are serialized and out of reach of
+             * the garbage collector. Needs as much direct memory ({@code -XX:MaxDirectMemorySize}).
+             */
+            private Long offHeapMb;
+
+            private Long timeToLiveSeconds;
+
+            /**
+             * When set, entries expire after this long without being read or written, instead of after their time to
+             * live.
+             */
+            private Long timeToIdleSeconds;
+
+            public Long getMaxEntries() {
+                return maxEntries;
+            }
+
+            public void setMaxEntries(Long maxEntries) {
+                this.maxEntries = maxEntries;
+            }
+
+            public Long getHeapMb() {
+                return heapMb;
+            }
+
+            public void setHeapMb(Long heapMb) {
+                this.heapMb = heapMb;
+            }
+
+            public Long getOffHeapMb() {
+                return offHeapMb;
+            }
+
+            public void setOffHeapMb(Long offHeapMb) {
+                this.offHeapMb = offHeapMb;
+            }
+
+            public Long getTimeToLiveSeconds() {
+                return timeToLiveSeconds;
+            }
+
+            public void setTimeToLiveSeconds(Long timeToLiveSeconds) {
+                this.timeToLiveSeconds = timeToLiveSeconds;
+            }
+
+            public Long getTimeToIdleSeconds() {
+                return timeToIdleSeconds;
+            }
+
+            public void setTimeToIdleSeconds(Long timeToIdleSeconds) {
+                this.timeToIdleSeconds = timeToIdleSeconds;
+            }
+        }
+    }
+
+    public static class Storage {
+
+        /**
+         * Where the image files are kept: {@code filesystem}, in the {@code image.place.dir} and
+         * {@code image.category.dir} directories; {@code s3}, in a bucket of an S3 compatible object store; or
+         * {@code memory}, lost on restart, for tests and local runs.
+         */
+        private String type = "filesystem";
+
+        /**
+         * How long the presigned URLs redirecting image requests to the object store are valid, in seconds.
+         */
+        private long presignExpirySeconds = 300;
+
+        private final S3 s3 = new S3();
+
+        public String getType() {
+            return type;
+        }
+
+        public void setType(String type) {
+            this.type = type;
+        }
+
+        public long getPresignExpirySeconds() {
+            return presignExpirySeconds;
+        }
+
+        public void setPresignExpirySeconds(long presignExpirySeconds) {
+            this.presignExpirySeconds = presignExpirySeconds;
+        }
+
+        public S3 getS3() {
+            return s3;
+        }
+
+        public static class S3 {
+
+            /**
+             * URL of the object store, such as {@code https://s3.eu-west-1.amazonaws.com}.
+             */
+            private String endpoint;
+
+            private String region = "us-east-1";
+
+            private String bucket;
+
+            private String accessKey;
+
+            private String secretKey;
+
+            /**
+             * Whether the bucket is the first segment of the path rather than a sub-domain of the endpoint, as most
+             * S3 compatible stores expect.
+             */
+            private boolean pathStyleAccess = true;
+
+            /**
+             * Size, in megabytes, of the parts of the multipart uploads of larger files; at least 5.
+             */
+            private long partSizeMb = 8;
+
+            public String getEndpoint() {
+                return endpoint;
+            }
+
+            public void setEndpoint(String endpoint) {
+                this.endpoint = endpoint;
+            }
+
+            public String getRegion() {
+                return region;
+            }
+
+            public void setRegion(String region) {
+                this.region = region;
+            }
+
+            public String getBucket() {
+                return bucket;
+            }
+
+            public void setBucket(String bucket) {
+                this.bucket = bucket;
+            }
+
+            public String getAccessKey() {
+                return accessKey;
+            }
+
+            public void setAccessKey(String accessKey) {
+                this.accessKey = accessKey;
+            }
+
+            public String getSecretKey() {
+                return secretKey;
+            }
+
+            public void setSecretKey(String secretKey) {
+                this.secretKey = secretKey;
+            }
+
+            public boolean isPathStyleAccess() {
+                return pathStyleAccess;
+            }
+
+            public void setPathStyleAccess(boolean pathStyleAccess) {
+                this.pathStyleAccess = pathStyleAccess;
+            }
+
+            public long getPartSizeMb() {
+                return partSizeMb;
+            }
+
+            public void setPartSizeMb(long partSizeMb) {
+                this.partSizeMb = partSizeMb;
+            }
+        }
+    }
 }
@@ -14,6 +14,7 @@ import org.springframework.scheduling.annotation.EnableScheduling;
 import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
 
 import java.util.concurrent.Executor;
+import java.util.concurrent.ThreadPoolExecutor;
 
 @Configuration
 @EnableAsync
@@ -40,6 +41,55 @@ public class AsyncConfiguration implements AsyncConfigurer {
         return new ExceptionHandlingAsyncTaskExecutor(executor);
     }
 
+    /**
+     * Executor generating the resized copies of uploaded images, apart from the request and {@code @Async} threads.
+     */
+    @Bean(name = "imageVariantExecutor")
+    public ThreadPoolTaskExecutor imageVariantExecutor(ApplicationProperties applicationProperties) {
+        log.debug("Creating Image Variant Task Executor");
+        ApplicationProperties.ImageVariants imageVariants = applicationProperties.getImageVariants();
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(imageVariants.getPoolSize());
+        executor.setMaxPoolSize(imageVariants.getPoolSize());
+        executor.setQueueCapacity(imageVariants.getQueueCapacity());
+        executor.setThreadNamePrefix("image-variant-");
+        return executor;
+    }
+
+    /**
+     * Executor writing the files of a gallery upload in parallel. When it is saturated, the request thread writes the
+     * file itself, which slows the upload down instead of failing it.
+     */
+    @Bean(name = "imageUploadExecutor")
+    public ThreadPoolTaskExecutor imageUploadExecutor(ApplicationProperties applicationProperties) {
+        log.debug("Creating Image Upload Task Executor");
+        ApplicationProperties.ImageUpload imageUpload = applicationProperties.getImageUpload();
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(imageUpload.getPoolSize());
+        executor.setMaxPoolSize(imageUpload.getPoolSize());
+        executor.setQueueCapacity(imageUpload.getQueueCapacity());
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.CallerRunsPolicy());
+        executor.setThreadNamePrefix("image-upload-");
+        return executor;
+    }
+
+    /**
+     * Executor checking the password hashes of logins, sized to the processors so a login storm cannot take all the
+     * CPU. When its queue is full, the task is rejected and the login answered with {@code 503 (Service Unavailable)}.
+     */
+    @Bean(name = "loginExecutor")
+    public ThreadPoolTaskExecutor loginExecutor(ApplicationProperties applicationProperties) {
+        log.debug("Creating Login Task Executor");
+        ApplicationProperties.Login login = applicationProperties.getLogin();
+        int poolSize = login.getPoolSize() > 0 ? login.getPoolSize() : Runtime.getRuntime().availableProcessors();
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(poolSize);
+        executor.setMaxPoolSize(poolSize);
+        executor.setQueueCapacity(login.getQueueCapacity());
+        executor.setThreadNamePrefix("login-");
+        return executor;
+    }
+
     @Override
     public AsyncUncaughtExceptionHandler getAsyncUncaughtExceptionHandler() {
         return new SimpleAsyncUncaughtExceptionHandler();
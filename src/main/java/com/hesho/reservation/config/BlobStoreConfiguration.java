@@ -0,0 +1,77 @@
+package com.hesho.reservation.config;
+
+import com.hesho.reservation.service.storage.BlobStore;
+import com.hesho.reservation.service.storage.FileSystemBlobStore;
+import com.hesho.reservation.service.storage.InMemoryBlobStore;
+import com.hesho.reservation.service.storage.S3BlobStore;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+import software.amazon.awssdk.auth.credentials.AwsBasicCredentials;
+import software.amazon.awssdk.auth.credentials.AwsCredentialsProvider;
+import software.amazon.awssdk.auth.credentials.StaticCredentialsProvider;
+import software.amazon.awssdk.http.urlconnection.UrlConnectionHttpClient;
+import software.amazon.awssdk.regions.Region;
+import software.amazon.awssdk.services.s3.S3Client;
+import software.amazon.awssdk.services.s3.S3Configuration;
+import software.amazon.awssdk.services.s3.presigner.S3Presigner;
+
+import java.io.IOException;
+import java.net.URI;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Selects the {@link BlobStore} keeping the image files, from {@code application.storage.type}.
+ */
+@Configuration
+public class BlobStoreConfiguration {
+
+    private final Logger log = LoggerFactory.getLogger(BlobStoreConfiguration.class);
+
+    @Bean
+    public BlobStore blobStore(ApplicationProperties applicationProperties, Environment env) throws IOException {
+        ApplicationProperties.Storage storage = applicationProperties.getStorage();
+        switch (storage.getType()) {
+            case "filesystem":
+                log.debug("Storing images in the local file system");
+                Map<String, Path> directories = new HashMap<>();
+                directories.put(BlobStore.PLACE, Paths.get(env.getRequiredProperty("image.place.dir")));
+                directories.put(BlobStore.CATEGORY, Paths.get(env.getRequiredProperty("image.category.dir")));
+                return new FileSystemBlobStore(directories);
+            case "s3":
+                ApplicationProperties.Storage.S3 s3 = storage.getS3();
+                log.debug("Storing images in bucket {} of {}", s3.getBucket(), s3.getEndpoint());
+                URI endpoint = URI.create(s3.getEndpoint());
+                Region region = Region.of(s3.getRegion());
+                AwsCredentialsProvider credentials = StaticCredentialsProvider.create(
+                    AwsBasicCredentials.create(s3.getAccessKey(), s3.getSecretKey()));
+                S3Configuration s3Configuration = S3Configuration.builder()
+                    .pathStyleAccessEnabled(s3.isPathStyleAccess())
+                    .build();
+                S3Client s3Client = S3Client.builder()
+                    .endpointOverride(endpoint)
+                    .region(region)
+                    .credentialsProvider(credentials)
+                    .serviceConfiguration(s3Configuration)
+                    .httpClientBuilder(UrlConnectionHttpClient.builder())
+                    .build();
+                S3Presigner s3Presigner = S3Presigner.builder()
+                    .endpointOverride(endpoint)
+                    .region(region)
+                    .credentialsProvider(credentials)
+                    .serviceConfiguration(s3Configuration)
+                    .build();
+                return new S3BlobStore(s3Client, s3Presigner, s3.getBucket(), s3.getPartSizeMb() * 1024 * 1024);
+            case "memory":
+                log.warn("Storing images in memory, they are lost on restart");
+                return new InMemoryBlobStore();
+            default:
+                throw new IllegalStateException("Unknown storage type " + storage.getType());
+        }
+    }
+}
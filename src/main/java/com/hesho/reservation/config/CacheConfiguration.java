@@ -1,9 +1,20 @@
 package com.hesho.reservation.config;
 
 import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
 
+import org.ehcache.config.CacheRuntimeConfiguration;
+import org.ehcache.config.ResourcePools;
+import org.ehcache.config.ResourceType;
+import org.ehcache.config.SizedResourcePool;
 import org.ehcache.config.builders.*;
+import org.ehcache.config.units.MemoryUnit;
+import org.ehcache.expiry.ExpiryPolicy;
+import org.ehcache.impl.serialization.PlainJavaSerializer;
 import org.ehcache.jsr107.Eh107Configuration;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 import org.hibernate.cache.jcache.ConfigSettings;
 import io.github.jhipster.config.JHipsterProperties;
@@ -18,21 +29,27 @@ import io.github.jhipster.config.cache.PrefixedKeyGenerator;
 import org.springframework.cache.annotation.EnableCaching;
 import org.springframework.context.annotation.*;
 
+/**
+ * Configures the Ehcache caches, each sized by its region in {@code application.cache.regions} or by the
+ * {@code jhipster.cache.ehcache} defaults, and logs the effective sizing of every cache at startup.
+ */
 @Configuration
 @EnableCaching
 public class CacheConfiguration {
+
+    private static final String DOMAIN_PACKAGE = "com.hesho.reservation.domain.";
+
+    private final Logger log = LoggerFactory.getLogger(CacheConfiguration.class);
+
     private GitProperties gitProperties;
     private BuildProperties buildProperties;
-    private final javax.cache.configuration.Configuration<Object, Object> jcacheConfiguration;
+    private final JHipsterProperties.Cache.Ehcache ehcache;
+    private final ApplicationProperties.Cache cacheProperties;
+    private final List<String> cacheNames = new ArrayList<>();
 
-    public CacheConfiguration(JHipsterProperties jHipsterProperties) {
-        JHipsterProperties.Cache.Ehcache ehcache = jHipsterProperties.getCache().getEhcache();
-
-        jcacheConfiguration = Eh107Configuration.fromEhcacheCacheConfiguration(
-            CacheConfigurationBuilder.newCacheConfigurationBuilder(Object.class, Object.class,
-                ResourcePoolsBuilder.heap(ehcache.getMaxEntries()))
-                .withExpiry(ExpiryPolicyBuilder.timeToLiveExpiration(Duration.ofSeconds(ehcache.getTimeToLiveSeconds())))
-                .build());
+    public CacheConfiguration(JHipsterProperties jHipsterProperties, ApplicationProperties applicationProperties) {
+        this.ehcache = jHipsterProperties.getCache().getEhcache();
+        this.cacheProperties = applicationProperties.getCache();
     }
 
     @Bean
@@ -58,14 +75,86 @@ public class CacheConfiguration {
             createCache(cm, com.hesho.reservation.domain.Image.class.getName());
             createCache(cm, com.hesho.reservation.domain.Reservation.class.getName());
             // jhipster-needle-ehcache-add-entry
+            reportSizing(cm);
         };
     }
 
     private void createCache(javax.cache.CacheManager cm, String cacheName) {
+        cacheNames.add(cacheName);
         javax.cache.Cache<Object, Object> cache = cm.getCache(cacheName);
         if (cache == null) {
-            cm.createCache(cacheName, jcacheConfiguration);
+            cm.createCache(cacheName, cacheConfiguration(regionName(cacheName)));
+        }
+    }
+
+    javax.cache.configuration.Configuration<Object, Object> cacheConfiguration(String regionName) {
+        ApplicationProperties.Cache.Region region = cacheProperties.getRegions()
+            .getOrDefault(regionName, new ApplicationProperties.Cache.Region());
+
+        ResourcePoolsBuilder resourcePools = region.getHeapMb() != null
+            ? ResourcePoolsBuilder.newResourcePoolsBuilder().heap(region.getHeapMb(), MemoryUnit.MB)
+            : ResourcePoolsBuilder.heap(region.getMaxEntries() != null ? region.getMaxEntries() : ehcache.getMaxEntries());
+        if (region.getOffHeapMb() != null && region.getOffHeapMb() > 0) {
+            resourcePools = resourcePools.offheap(region.getOffHeapMb(), MemoryUnit.MB);
+        }
+
+        ExpiryPolicy<Object, Object> expiry = region.getTimeToIdleSeconds() != null
+            ? ExpiryPolicyBuilder.timeToIdleExpiration(Duration.ofSeconds(region.getTimeToIdleSeconds()))
+            : ExpiryPolicyBuilder.timeToLiveExpiration(Duration.ofSeconds(region.getTimeToLiveSeconds() != null
+                ? region.getTimeToLiveSeconds() : ehcache.getTimeToLiveSeconds()));
+
+        CacheConfigurationBuilder<Object, Object> builder = CacheConfigurationBuilder
+            .newCacheConfigurationBuilder(Object.class, Object.class, resourcePools)
+            .withExpiry(expiry);
+        if (region.getOffHeapMb() != null && region.getOffHeapMb() > 0) {
+            // the off-heap tier stores serialized entries, and there is no default serializer for Object
+            ClassLoader classLoader = getClass().getClassLoader();
+            builder = builder
+                .withKeySerializer(new PlainJavaSerializer<>(classLoader))
+                .withValueSerializer(new PlainJavaSerializer<>(classLoader));
         }
+        return Eh107Configuration.fromEhcacheCacheConfiguration(builder.build());
+    }
+
+    /**
+     * Log the resource pools and expiry actually applied to every cache, including caches created elsewhere.
+     */
+    @SuppressWarnings("unchecked")
+    private void reportSizing(javax.cache.CacheManager cm) {
+        cacheProperties.getRegions().keySet().stream()
+            .filter(regionName -> cacheNames.stream().noneMatch(cacheName -> regionName(cacheName).equals(regionName)))
+            .forEach(regionName -> log.warn("Cache region {} is configured but there is no such cache", regionName));
+
+        for (String cacheName : cacheNames) {
+            javax.cache.Cache<Object, Object> cache = cm.getCache(cacheName);
+            if (cache == null) {
+                continue;
+            }
+            CacheRuntimeConfiguration<Object, Object> runtime = ((Eh107Configuration<Object, Object>)
+                cache.getConfiguration(Eh107Configuration.class)).unwrap(CacheRuntimeConfiguration.class);
+            ResourcePools pools = runtime.getResourcePools();
+            ApplicationProperties.Cache.Region region = cacheProperties.getRegions().get(regionName(cacheName));
+            log.info("Cache {}: heap {}, off-heap {}, {}{}", regionName(cacheName),
+                describe(pools.getPoolForResource(ResourceType.Core.HEAP)),
+                describe(pools.getPoolForResource(ResourceType.Core.OFFHEAP)), describeExpiry(region),
+                region == null ? " (defaults)" : "");
+        }
+    }
+
+    private String describeExpiry(ApplicationProperties.Cache.Region region) {
+        if (region != null && region.getTimeToIdleSeconds() != null) {
+            return "time to idle " + region.getTimeToIdleSeconds() + "s";
+        }
+        return "time to live " + (region != null && region.getTimeToLiveSeconds() != null
+            ? region.getTimeToLiveSeconds() : ehcache.getTimeToLiveSeconds()) + "s";
+    }
+
+    private static String describe(SizedResourcePool pool) {
+        return pool == null ? "none" : pool.getSize() + " " + pool.getUnit();
+    }
+
+    static String regionName(String cacheName) {
+        return cacheName.startsWith(DOMAIN_PACKAGE) ? cacheName.substring(DOMAIN_PACKAGE.length()) : cacheName;
     }
 
     @Autowired(required = false)
@@ -0,0 +1,116 @@
+package com.hesho.reservation.domain;
+
+import org.hibernate.annotations.Type;
+import org.springframework.data.domain.Persistable;
+
+import javax.persistence.*;
+import javax.validation.constraints.NotNull;
+import java.io.Serializable;
+import java.time.Instant;
+
+/**
+ * The response of a request sent with an {@code Idempotency-Key}, shared between the nodes of a cluster.
+ * <p>
+ * Records are only ever inserted, so a new one is persisted without the select a merge of an assigned id costs.
+ */
+@Entity
+@Table(name = "idempotency_record")
+public class IdempotencyRecord implements Persistable<String>, Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * Hash of the idempotency key, scoped to the endpoint and the user.
+     */
+    @Id
+    @Column(name = "id", length = 64)
+    private String id;
+
+    /**
+     * Hash of the request body, so the key cannot be replayed for another request.
+     */
+    @Column(name = "request_hash", length = 64)
+    private String requestHash;
+
+    @Lob
+    @Type(type = "org.hibernate.type.TextType")
+    @Column(name = "body")
+    private String body;
+
+    @NotNull
+    @Column(name = "created_date", nullable = false)
+    private Instant createdDate;
+
+    @Transient
+    private boolean isNew = true;
+
+    @Override
+    public String getId() {
+        return id;
+    }
+
+    public void setId(String id) {
+        this.id = id;
+    }
+
+    public String getRequestHash() {
+        return requestHash;
+    }
+
+    public void setRequestHash(String requestHash) {
+        this.requestHash = requestHash;
+    }
+
+    public String getBody() {
+        return body;
+    }
+
+    public void setBody(String body) {
+        this.body = body;
+    }
+
+    public Instant getCreatedDate() {
+        return createdDate;
+    }
+
+    public void setCreatedDate(Instant createdDate) {
+        this.createdDate = createdDate;
+    }
+
+    @Override
+    public boolean isNew() {
+        return isNew;
+    }
+
+    @PostLoad
+    @PostPersist
+    void markNotNew() {
+        this.isNew = false;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof IdempotencyRecord)) {
+            return false;
+        }
+        return id != null && id.equals(((IdempotencyRecord) o).id);
+    }
+
+    @Override
+    public int hashCode() {
+        return 31;
+    }
+
+    // prettier-ignore
+    @Override
+    public String toString() {
+        return "IdempotencyRecord{" +
+            "id='" + getId() + "'" +
+            ", requestHash='" + getRequestHash() + "'" +
+            ", createdDate='" + getCreatedDate() + "'" +
+            "}";
+    }
+}
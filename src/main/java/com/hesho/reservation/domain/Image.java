@@ -32,6 +32,10 @@ public class Image implements Serializable {
     @Column(name = "main", nullable = false)
     private Boolean main=false;
 
+    @Size(max = 64)
+    @Column(name = "content_hash", length = 64)
+    private String contentHash;
+
     @ManyToOne
     @JsonIgnoreProperties(value = "images", allowSetters = true)
     private Place place;
@@ -75,6 +79,19 @@ public class Image implements Serializable {
         this.main = main;
     }
 
+    public String getContentHash() {
+        return contentHash;
+    }
+
+    public Image contentHash(String contentHash) {
+        this.contentHash = contentHash;
+        return this;
+    }
+
+    public void setContentHash(String contentHash) {
+        this.contentHash = contentHash;
+    }
+
     public Place getPlace() {
         return place;
     }
@@ -125,6 +142,7 @@ public class Image implements Serializable {
             "id=" + getId() +
             ", imageUrl='" + getImageUrl() + "'" +
             ", main='" + isMain() + "'" +
+            ", contentHash='" + getContentHash() + "'" +
             "}";
     }
 }
@@ -29,10 +29,10 @@ public class Location implements Serializable {
     private String address;
 
     @Column(name = "latitude")
-    private String latitude;
+    private Double latitude;
 
     @Column(name = "longitude")
-    private String longitude;
+    private Double longitude;
 
     @NotNull
     @Column(name = "city", nullable = false)
@@ -64,29 +64,29 @@ public class Location implements Serializable {
         this.address = address;
     }
 
-    public String getLatitude() {
+    public Double getLatitude() {
         return latitude;
     }
 
-    public Location latitude(String latitude) {
+    public Location latitude(Double latitude) {
         this.latitude = latitude;
         return this;
     }
 
-    public void setLatitude(String latitude) {
+    public void setLatitude(Double latitude) {
         this.latitude = latitude;
     }
 
-    public String getLongitude() {
+    public Double getLongitude() {
         return longitude;
     }
 
-    public Location longitude(String longitude) {
+    public Location longitude(Double longitude) {
         this.longitude = longitude;
         return this;
     }
 
-    public void setLongitude(String longitude) {
+    public void setLongitude(Double longitude) {
         this.longitude = longitude;
     }
 
@@ -139,8 +139,8 @@ public class Location implements Serializable {
         return "Location{" +
             "id=" + getId() +
             ", address='" + getAddress() + "'" +
-            ", latitude='" + getLatitude() + "'" +
-            ", longitude='" + getLongitude() + "'" +
+            ", latitude=" + getLatitude() +
+            ", longitude=" + getLongitude() +
             ", city='" + getCity() + "'" +
             "}";
     }
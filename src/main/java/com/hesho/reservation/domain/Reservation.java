@@ -45,6 +45,9 @@ public class Reservation implements Serializable {
     @Column(name = "fees")
     private Double fees;
 
+    @Column(name = "hold_expires_at")
+    private Instant holdExpiresAt;
+
     @ManyToOne
     @JsonIgnoreProperties(value = "reservations", allowSetters = true)
     private User user;
@@ -127,6 +130,19 @@ public class Reservation implements Serializable {
         this.fees = fees;
     }
 
+    public Instant getHoldExpiresAt() {
+        return holdExpiresAt;
+    }
+
+    public Reservation holdExpiresAt(Instant holdExpiresAt) {
+        this.holdExpiresAt = holdExpiresAt;
+        return this;
+    }
+
+    public void setHoldExpiresAt(Instant holdExpiresAt) {
+        this.holdExpiresAt = holdExpiresAt;
+    }
+
     public User getUser() {
         return user;
     }
@@ -180,6 +196,7 @@ public class Reservation implements Serializable {
             ", startDate='" + getStartDate() + "'" +
             ", endDate='" + getEndDate() + "'" +
             ", fees=" + getFees() +
+            ", holdExpiresAt='" + getHoldExpiresAt() + "'" +
             "}";
     }
 }
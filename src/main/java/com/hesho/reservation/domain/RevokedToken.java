@@ -0,0 +1,78 @@
+package com.hesho.reservation.domain;
+
+import javax.persistence.*;
+import javax.validation.constraints.NotNull;
+import java.io.Serializable;
+import java.time.Instant;
+
+/**
+ * A JWT token revoked before its expiration, kept until it expires.
+ */
+@Entity
+@Table(name = "revoked_token")
+public class RevokedToken implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * The {@code jti} claim of the token.
+     */
+    @Id
+    @Column(name = "id", length = 36)
+    private String id;
+
+    @NotNull
+    @Column(name = "expires_at", nullable = false)
+    private Instant expiresAt;
+
+    public String getId() {
+        return id;
+    }
+
+    public void setId(String id) {
+        this.id = id;
+    }
+
+    public RevokedToken id(String id) {
+        this.id = id;
+        return this;
+    }
+
+    public Instant getExpiresAt() {
+        return expiresAt;
+    }
+
+    public void setExpiresAt(Instant expiresAt) {
+        this.expiresAt = expiresAt;
+    }
+
+    public RevokedToken expiresAt(Instant expiresAt) {
+        this.expiresAt = expiresAt;
+        return this;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof RevokedToken)) {
+            return false;
+        }
+        return id != null && id.equals(((RevokedToken) o).id);
+    }
+
+    @Override
+    public int hashCode() {
+        return 31;
+    }
+
+    // prettier-ignore
+    @Override
+    public String toString() {
+        return "RevokedToken{" +
+            "id='" + getId() + "'" +
+            ", expiresAt='" + getExpiresAt() + "'" +
+            "}";
+    }
+}
@@ -4,5 +4,5 @@ package com.hesho.reservation.domain.enumeration;
  * The ReservationStatus enumeration.
  */
 public enum ReservationStatus {
-    PENDING, APPROVED, PAID, CANCELED
+    PENDING, APPROVED, PAID, CANCELED, EXPIRED
 }
@@ -0,0 +1,21 @@
+package com.hesho.reservation.repository;
+
+import com.hesho.reservation.domain.IdempotencyRecord;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.Instant;
+
+/**
+ * Spring Data JPA repository for the {@link IdempotencyRecord} entity.
+ */
+@Repository
+public interface IdempotencyRecordRepository extends JpaRepository<IdempotencyRecord, String> {
+
+    @Modifying
+    @Query("delete from IdempotencyRecord record where record.createdDate < :before")
+    int deleteByCreatedDateBefore(@Param("before") Instant before);
+}
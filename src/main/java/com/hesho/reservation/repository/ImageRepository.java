@@ -5,8 +5,11 @@ import com.hesho.reservation.domain.Image;
 
 import com.hesho.reservation.domain.Place;
 import org.springframework.data.jpa.repository.*;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 import java.util.Set;
 
@@ -21,9 +24,47 @@ public interface ImageRepository extends JpaRepository<Image, Long>, JpaSpecific
 
     Optional<Image> findOneByCategoryIdAndMainIsTrue(Long categoryId);
 
-    Optional<Image> findOneByImageUrl(String imageUrl);
+    /**
+     * Images with the same content share their file, so several images may have the same url.
+     */
+    Optional<Image> findFirstByImageUrl(String imageUrl);
+
+    long countByImageUrlAndPlaceIsNotNull(String imageUrl);
+
+    long countByImageUrlAndCategoryIsNotNull(String imageUrl);
+
+    @Query("select image.imageUrl as imageUrl, image.contentHash as contentHash, place.id as placeId, category.id as categoryId " +
+        "from Image image left join image.place place left join image.category category " +
+        "where image.imageUrl is not null and image.contentHash is not null")
+    List<ImageFileRow> findAllFiles();
+
+    /**
+     * @return the urls among {@code imageUrls} of images of places.
+     */
+    @Query("select distinct image.imageUrl from Image image where image.place is not null and image.imageUrl in :imageUrls")
+    Set<String> findPlaceImageUrls(@Param("imageUrls") Collection<String> imageUrls);
+
+    /**
+     * @return the urls among {@code imageUrls} of images of categories.
+     */
+    @Query("select distinct image.imageUrl from Image image where image.category is not null and image.imageUrl in :imageUrls")
+    Set<String> findCategoryImageUrls(@Param("imageUrls") Collection<String> imageUrls);
 
     Optional<Category> findCategoryById(Long id);
 
     Optional<Place> findPlaceById(Long id);
+
+    /**
+     * The stored file of an image and its owner, without loading the image.
+     */
+    interface ImageFileRow {
+
+        String getImageUrl();
+
+        String getContentHash();
+
+        Long getPlaceId();
+
+        Long getCategoryId();
+    }
 }
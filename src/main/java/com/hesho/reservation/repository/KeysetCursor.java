@@ -0,0 +1,197 @@
+package com.hesho.reservation.repository;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * Position of a keyset (seek) pagination: the sort key and the id of the last row returned, so the next page
+ * starts right after it without an offset.
+ * <p>
+ * Rows whose sort key is {@code null} come after all the others, ordered by id. The cursor is exchanged with
+ * clients as an opaque URL-safe token, see {@link #encode()} and {@link #decode(String)}.
+ */
+public final class KeysetCursor {
+
+    private static final String SEPARATOR = "|";
+
+    private static final Set<Class<?>> KEY_TYPES = Collections.unmodifiableSet(new HashSet<>(Arrays.asList(
+        String.class, Long.class, Integer.class, Double.class, Instant.class, LocalDate.class, Boolean.class)));
+
+    private final String sortProperty;
+
+    private final boolean ascending;
+
+    private final Long lastId;
+
+    private final boolean nullKeys;
+
+    private final String lastValue;
+
+    private KeysetCursor(String sortProperty, boolean ascending, Long lastId, boolean nullKeys, String lastValue) {
+        this.sortProperty = Objects.requireNonNull(sortProperty);
+        this.ascending = ascending;
+        this.lastId = lastId;
+        this.nullKeys = nullKeys;
+        this.lastValue = lastValue;
+    }
+
+    /**
+     * Cursor of the first page.
+     *
+     * @param sortProperty the entity attribute to sort on, {@code id} included.
+     * @param ascending the sort direction, which is also applied to the id.
+     * @return the cursor.
+     */
+    public static KeysetCursor first(String sortProperty, boolean ascending) {
+        return new KeysetCursor(sortProperty, ascending, null, false, null);
+    }
+
+    /**
+     * Cursor of the page following a row.
+     *
+     * @param lastValue the sort key of the last row returned, may be {@code null}.
+     * @param lastId the id of the last row returned.
+     * @return the cursor.
+     */
+    public KeysetCursor after(Object lastValue, Long lastId) {
+        return new KeysetCursor(sortProperty, ascending, lastId, lastValue == null, lastValue == null ? null : lastValue.toString());
+    }
+
+    /**
+     * Parse a token created by {@link #encode()}.
+     *
+     * @param token the token.
+     * @return the cursor.
+     * @throws IllegalArgumentException if the token is malformed.
+     */
+    public static KeysetCursor decode(String token) {
+        String decoded = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+        String[] parts = decoded.split("\\|", 5);
+        if (parts.length < 4 || parts[0].isEmpty() || !("A".equals(parts[1]) || "D".equals(parts[1]))) {
+            throw new IllegalArgumentException("Malformed cursor");
+        }
+        boolean nullKeys = "N".equals(parts[2]);
+        if (!nullKeys && !("V".equals(parts[2]) && parts.length == 5)) {
+            throw new IllegalArgumentException("Malformed cursor");
+        }
+        try {
+            Long lastId = Long.valueOf(parts[3]);
+            return new KeysetCursor(parts[0], "A".equals(parts[1]), lastId, nullKeys, nullKeys ? null : parts[4]);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Malformed cursor", e);
+        }
+    }
+
+    /**
+     * @param type the type of an entity attribute.
+     * @return whether a cursor can carry a sort key of that type, see {@link #parseValue(String, Class)}.
+     */
+    public static boolean isSupportedType(Class<?> type) {
+        return KEY_TYPES.contains(type) || type.isEnum();
+    }
+
+    /**
+     * Parse the sort key of a cursor.
+     *
+     * @param value the sort key, as returned by {@link #getLastValue()}.
+     * @param type the type of the sort attribute.
+     * @return the sort key.
+     * @throws IllegalArgumentException if the value is malformed or the type is not supported.
+     */
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    public static Comparable<?> parseValue(String value, Class<?> type) {
+        if (!isSupportedType(type)) {
+            throw new IllegalArgumentException("Unsupported sort key type: " + type.getName());
+        }
+        try {
+            if (type == String.class) {
+                return value;
+            }
+            if (type == Long.class) {
+                return Long.valueOf(value);
+            }
+            if (type == Integer.class) {
+                return Integer.valueOf(value);
+            }
+            if (type == Double.class) {
+                return Double.valueOf(value);
+            }
+            if (type == Instant.class) {
+                return Instant.parse(value);
+            }
+            if (type == LocalDate.class) {
+                return LocalDate.parse(value);
+            }
+            if (type == Boolean.class) {
+                if (!"true".equals(value) && !"false".equals(value)) {
+                    throw new IllegalArgumentException("Not a boolean");
+                }
+                return Boolean.valueOf(value);
+            }
+            return Enum.valueOf((Class<Enum>) type, value);
+        } catch (RuntimeException e) {
+            throw new IllegalArgumentException("Malformed cursor value: " + value, e);
+        }
+    }
+
+    /**
+     * @return the opaque token of this cursor.
+     */
+    public String encode() {
+        StringBuilder token = new StringBuilder(sortProperty)
+            .append(SEPARATOR).append(ascending ? "A" : "D")
+            .append(SEPARATOR).append(nullKeys ? "N" : "V")
+            .append(SEPARATOR).append(lastId);
+        if (!nullKeys) {
+            token.append(SEPARATOR).append(lastValue);
+        }
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(token.toString().getBytes(StandardCharsets.UTF_8));
+    }
+
+    public String getSortProperty() {
+        return sortProperty;
+    }
+
+    public boolean isAscending() {
+        return ascending;
+    }
+
+    /**
+     * @return the id of the last row returned, or {@code null} for the first page.
+     */
+    public Long getLastId() {
+        return lastId;
+    }
+
+    /**
+     * @return true if the last row returned had a {@code null} sort key, so only such rows are left.
+     */
+    public boolean isNullKeys() {
+        return nullKeys;
+    }
+
+    /**
+     * @return the sort key of the last row returned, as a string.
+     */
+    public String getLastValue() {
+        return lastValue;
+    }
+
+    @Override
+    public String toString() {
+        return "KeysetCursor{" +
+            "sortProperty='" + sortProperty + "'" +
+            ", ascending=" + ascending +
+            ", lastId=" + lastId +
+            ", nullKeys=" + nullKeys +
+            ", lastValue='" + lastValue + "'" +
+            "}";
+    }
+}
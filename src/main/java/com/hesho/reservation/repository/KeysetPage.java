@@ -0,0 +1,42 @@
+package com.hesho.reservation.repository;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * A page of a keyset pagination, see {@link KeysetRepository}.
+ *
+ * @param <T> the type of the content.
+ */
+public class KeysetPage<T> {
+
+    private final List<T> content;
+
+    private final KeysetCursor nextCursor;
+
+    public KeysetPage(List<T> content, KeysetCursor nextCursor) {
+        this.content = Collections.unmodifiableList(content);
+        this.nextCursor = nextCursor;
+    }
+
+    public List<T> getContent() {
+        return content;
+    }
+
+    /**
+     * @return the cursor of the next page, or {@code null} if this page is the last one.
+     */
+    public KeysetCursor getNextCursor() {
+        return nextCursor;
+    }
+
+    public boolean hasNext() {
+        return nextCursor != null;
+    }
+
+    public <R> KeysetPage<R> map(Function<? super T, ? extends R> converter) {
+        return new KeysetPage<>(content.stream().map(converter).collect(Collectors.toList()), nextCursor);
+    }
+}
@@ -0,0 +1,177 @@
+package com.hesho.reservation.repository;
+
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.stereotype.Repository;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import javax.persistence.criteria.CriteriaBuilder;
+import javax.persistence.criteria.CriteriaQuery;
+import javax.persistence.criteria.Expression;
+import javax.persistence.criteria.Order;
+import javax.persistence.criteria.Path;
+import javax.persistence.criteria.Predicate;
+import javax.persistence.criteria.Root;
+import javax.persistence.metamodel.EntityType;
+import javax.persistence.metamodel.SingularAttribute;
+import java.lang.reflect.Field;
+import java.lang.reflect.Member;
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Keyset (seek) pagination of entities filtered by a {@link Specification}.
+ * <p>
+ * A page is read with {@code where key >= lastKey and (key > lastKey or (key = lastKey and id > lastId))
+ * order by key, id limit size + 1}, the expansion of the row-value comparison {@code (key, id) > (lastKey, lastId)}
+ * which JPA criteria cannot express. The redundant {@code key >= lastKey} is the range bound an index on
+ * {@code (key, id)} seeks to, so the skipped rows are never scanned, and there is no count query as for an offset
+ * page. Descending pages use the mirrored comparisons. Rows with a {@code null} key are read after the others,
+ * ordered by id.
+ */
+@Repository
+public class KeysetRepository {
+
+    private static final String ID = "id";
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    /**
+     * Check the attributes a listing may be sorted on, when the listing is created: each must be an attribute of the
+     * entity, of the declared type, which a cursor can carry. Cursors are then validated against these types before
+     * they reach {@link #findAll(Class, Specification, KeysetCursor, int)}.
+     *
+     * @param domainClass the entity class.
+     * @param sortProperties the sort attributes of the listing, with their types.
+     * @throws IllegalStateException if an attribute does not exist, has another type, or cannot be carried by a cursor.
+     */
+    public void checkSortProperties(Class<?> domainClass, Map<String, Class<?>> sortProperties) {
+        EntityType<?> entityType = entityManager.getMetamodel().entity(domainClass);
+        sortProperties.forEach((property, type) -> {
+            Class<?> attributeType;
+            try {
+                attributeType = entityType.getSingularAttribute(property).getJavaType();
+            } catch (IllegalArgumentException e) {
+                throw new IllegalStateException("No sort attribute " + property + " on " + domainClass.getSimpleName(), e);
+            }
+            if (!attributeType.equals(type) || !KeysetCursor.isSupportedType(type)) {
+                throw new IllegalStateException("Cannot sort " + domainClass.getSimpleName() + " on " + property + " of type " + attributeType.getName());
+            }
+        });
+    }
+
+    /**
+     * Read the page following a cursor.
+     *
+     * @param domainClass the entity class, which must have a {@code Long id}.
+     * @param specification the filters; may be {@code null}.
+     * @param cursor the position to read from, see {@link KeysetCursor#first(String, boolean)} for the first page, whose
+     * sort key was checked against its attribute.
+     * @param size the maximum number of entities of the page.
+     * @param <T> the entity type.
+     * @return the page, with the cursor of the next one if there are more entities.
+     * @throws IllegalArgumentException if the sort property of the cursor is not an attribute of the entity.
+     */
+    public <T> KeysetPage<T> findAll(Class<T> domainClass, Specification<T> specification, KeysetCursor cursor, int size) {
+        SingularAttribute<? super T, ?> sortAttribute = entityManager.getMetamodel().entity(domainClass)
+            .getSingularAttribute(cursor.getSortProperty());
+        boolean byId = ID.equals(cursor.getSortProperty());
+        List<T> content = new ArrayList<>(size + 1);
+        if (byId || !cursor.isNullKeys()) {
+            content.addAll(findKeyed(domainClass, specification, cursor, byId, sortAttribute.isOptional(), size + 1));
+        }
+        if (!byId && sortAttribute.isOptional() && content.size() <= size) {
+            // the keyed rows are exhausted, continue with the rows without a key
+            Long lastId = cursor.isNullKeys() ? cursor.getLastId() : null;
+            content.addAll(findUnkeyed(domainClass, specification, cursor, lastId, size + 1 - content.size()));
+        }
+        if (content.size() <= size) {
+            return new KeysetPage<>(content, null);
+        }
+        content = content.subList(0, size);
+        T last = content.get(size - 1);
+        Long lastId = (Long) entityManager.getEntityManagerFactory().getPersistenceUnitUtil().getIdentifier(last);
+        return new KeysetPage<>(new ArrayList<>(content), cursor.after(byId ? lastId : read(sortAttribute, last), lastId));
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private <T> List<T> findKeyed(Class<T> domainClass, Specification<T> specification, KeysetCursor cursor,
+                                  boolean byId, boolean optional, int limit) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<T> query = cb.createQuery(domainClass);
+        Root<T> root = query.from(domainClass);
+        List<Predicate> predicates = filter(specification, root, query, cb);
+        Path<Long> id = root.get(ID);
+        List<Order> orders = new ArrayList<>();
+        if (byId) {
+            if (cursor.getLastId() != null) {
+                predicates.add(cursor.isAscending() ? cb.greaterThan(id, cursor.getLastId()) : cb.lessThan(id, cursor.getLastId()));
+            }
+        } else {
+            Path<Comparable> key = root.get(cursor.getSortProperty());
+            if (optional) {
+                predicates.add(cb.isNotNull(key));
+            }
+            if (cursor.getLastId() != null) {
+                Comparable lastValue = KeysetCursor.parseValue(cursor.getLastValue(), key.getJavaType());
+                // the range bound of the index seek, then the exact position within the rows sharing the last key
+                predicates.add(cursor.isAscending() ? cb.greaterThanOrEqualTo(key, lastValue) : cb.lessThanOrEqualTo(key, lastValue));
+                predicates.add(cb.or(
+                    cursor.isAscending() ? cb.greaterThan(key, lastValue) : cb.lessThan(key, lastValue),
+                    cb.and(cb.equal(key, lastValue),
+                        cursor.isAscending() ? cb.greaterThan(id, cursor.getLastId()) : cb.lessThan(id, cursor.getLastId()))));
+            }
+            orders.add(order(cb, key, cursor.isAscending()));
+        }
+        orders.add(order(cb, id, cursor.isAscending()));
+        query.select(root).where(predicates.toArray(new Predicate[0])).orderBy(orders);
+        return entityManager.createQuery(query).setMaxResults(limit).getResultList();
+    }
+
+    private <T> List<T> findUnkeyed(Class<T> domainClass, Specification<T> specification, KeysetCursor cursor, Long lastId, int limit) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<T> query = cb.createQuery(domainClass);
+        Root<T> root = query.from(domainClass);
+        List<Predicate> predicates = filter(specification, root, query, cb);
+        Path<Long> id = root.get(ID);
+        predicates.add(cb.isNull(root.get(cursor.getSortProperty())));
+        if (lastId != null) {
+            predicates.add(cursor.isAscending() ? cb.greaterThan(id, lastId) : cb.lessThan(id, lastId));
+        }
+        query.select(root).where(predicates.toArray(new Predicate[0])).orderBy(order(cb, id, cursor.isAscending()));
+        return entityManager.createQuery(query).setMaxResults(limit).getResultList();
+    }
+
+    private static <T> List<Predicate> filter(Specification<T> specification, Root<T> root, CriteriaQuery<T> query, CriteriaBuilder cb) {
+        List<Predicate> predicates = new ArrayList<>();
+        Predicate predicate = specification == null ? null : specification.toPredicate(root, query, cb);
+        if (predicate != null) {
+            predicates.add(predicate);
+        }
+        return predicates;
+    }
+
+    private static Order order(CriteriaBuilder cb, Expression<?> expression, boolean ascending) {
+        return ascending ? cb.asc(expression) : cb.desc(expression);
+    }
+
+    private static Object read(SingularAttribute<?, ?> attribute, Object entity) {
+        Member member = attribute.getJavaMember();
+        try {
+            if (member instanceof Field) {
+                Field field = (Field) member;
+                field.setAccessible(true);
+                return field.get(entity);
+            }
+            if (member instanceof Method) {
+                return ((Method) member).invoke(entity);
+            }
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalArgumentException("Cannot read " + attribute.getName(), e);
+        }
+        throw new IllegalArgumentException("Cannot read " + attribute.getName());
+    }
+}
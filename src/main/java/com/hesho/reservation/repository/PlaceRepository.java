@@ -3,8 +3,11 @@ package com.hesho.reservation.repository;
 import com.hesho.reservation.domain.Place;
 
 import org.springframework.data.jpa.repository.*;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 /**
@@ -14,4 +17,89 @@ import java.util.Optional;
 @Repository
 public interface PlaceRepository extends JpaRepository<Place, Long>, JpaSpecificationExecutor<Place> {
 
+    Optional<Place> findOneByLocationId(Long locationId);
+
+    @Query("select place.id from Place place")
+    List<Long> findAllIds();
+
+    /**
+     * The ids of the existing places among the given ones, without loading the places.
+     */
+    @Query("select place.id from Place place where place.id in :ids")
+    List<Long> findIdsByIdIn(@Param("ids") Collection<Long> ids);
+
+    @Query("select place.id as id, category.id as categoryId, location.latitude as latitude, location.longitude as longitude " +
+        "from Place place join place.location location left join place.category category " +
+        "where location.latitude is not null and location.longitude is not null")
+    List<PlacePoint> findAllPoints();
+
+    @Query("select place.id as id, place.name as name, place.specification as specification, place.description as description, " +
+        "category.id as categoryId, category.name as categoryName, location.city as city, location.address as address " +
+        "from Place place left join place.location location left join place.category category")
+    List<PlaceText> findAllTexts();
+
+    @Query("select place.id as id, place.name as name, place.specification as specification, place.description as description, " +
+        "place.price as price, location.id as locationId, location.city as city, category.id as categoryId, category.name as categoryName " +
+        "from Place place left join place.location location left join place.category category")
+    List<PlaceRow> findAllRows();
+
+    /**
+     * The coordinates of a place, without loading the place.
+     */
+    interface PlacePoint {
+
+        Long getId();
+
+        Long getCategoryId();
+
+        Double getLatitude();
+
+        Double getLongitude();
+    }
+
+    /**
+     * The searchable text of a place, without loading the place.
+     */
+    interface PlaceText {
+
+        Long getId();
+
+        String getName();
+
+        String getSpecification();
+
+        String getDescription();
+
+        Long getCategoryId();
+
+        String getCategoryName();
+
+        String getCity();
+
+        String getAddress();
+    }
+
+    /**
+     * The filterable columns of a place, without loading the place.
+     */
+    interface PlaceRow {
+
+        Long getId();
+
+        String getName();
+
+        String getSpecification();
+
+        String getDescription();
+
+        Double getPrice();
+
+        Long getLocationId();
+
+        String getCity();
+
+        Long getCategoryId();
+
+        String getCategoryName();
+    }
 }
@@ -2,10 +2,13 @@ package com.hesho.reservation.repository;
 
 import com.hesho.reservation.domain.Reservation;
 
-import com.hesho.reservation.domain.User;
+import com.hesho.reservation.domain.enumeration.ReservationStatus;
 import org.springframework.data.jpa.repository.*;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.Instant;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -19,5 +22,62 @@ public interface ReservationRepository extends JpaRepository<Reservation, Long>,
     @Query("select reservation from Reservation reservation where reservation.user.login = ?#{principal.username}")
     List<Reservation> findByUserIsCurrentUser();
 
-    Optional<Reservation> findByIdAndUser(Long id, User user);
+    Optional<Reservation> findByIdAndUserId(Long id, Long userId);
+
+    @Query("select reservation.id as id, reservation.place.id as placeId, reservation.startDate as startDate, reservation.endDate as endDate " +
+        "from Reservation reservation where reservation.status not in :statuses and reservation.place is not null")
+    List<ReservationSlot> findAllSlotsByStatusNotIn(@Param("statuses") Collection<ReservationStatus> statuses);
+
+    @Query("select reservation.id as id, reservation.holdExpiresAt as holdExpiresAt " +
+        "from Reservation reservation where reservation.status = com.hesho.reservation.domain.enumeration.ReservationStatus.PENDING")
+    List<ReservationHold> findAllPendingHolds();
+
+    /**
+     * Expire the reservations still pending once their hold is over. The condition is checked by the update itself,
+     * so a reservation approved or canceled concurrently is left alone.
+     *
+     * @return the number of reservations expired.
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("update Reservation reservation " +
+        "set reservation.status = com.hesho.reservation.domain.enumeration.ReservationStatus.EXPIRED " +
+        "where reservation.id in :ids " +
+        "and reservation.status = com.hesho.reservation.domain.enumeration.ReservationStatus.PENDING " +
+        "and (reservation.holdExpiresAt is null or reservation.holdExpiresAt <= :now)")
+    int expireHolds(@Param("ids") Collection<Long> ids, @Param("now") Instant now);
+
+    @Query("select reservation from Reservation reservation where reservation.id in :ids " +
+        "and reservation.status = com.hesho.reservation.domain.enumeration.ReservationStatus.EXPIRED")
+    List<Reservation> findAllExpiredByIdIn(@Param("ids") Collection<Long> ids);
+
+    /**
+     * The places of reservations, read to lock them without loading the reservations before the lock is held.
+     */
+    @Query("select distinct reservation.place.id from Reservation reservation " +
+        "where reservation.id in :ids and reservation.place is not null")
+    List<Long> findPlaceIdsByIdIn(@Param("ids") Collection<Long> ids);
+
+    /**
+     * The time slot held by a reservation, without loading its user and place.
+     */
+    interface ReservationSlot {
+
+        Long getId();
+
+        Long getPlaceId();
+
+        Instant getStartDate();
+
+        Instant getEndDate();
+    }
+
+    /**
+     * The expiry of a pending reservation.
+     */
+    interface ReservationHold {
+
+        Long getId();
+
+        Instant getHoldExpiresAt();
+    }
 }
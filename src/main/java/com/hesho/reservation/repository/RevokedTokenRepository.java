@@ -0,0 +1,25 @@
+package com.hesho.reservation.repository;
+
+import com.hesho.reservation.domain.RevokedToken;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Spring Data JPA repository for the {@link RevokedToken} entity.
+ */
+@Repository
+public interface RevokedTokenRepository extends JpaRepository<RevokedToken, String> {
+
+    @Query("select token.id from RevokedToken token where token.expiresAt > :now")
+    List<String> findIdsByExpiresAtAfter(@Param("now") Instant now);
+
+    @Modifying
+    @Query("delete from RevokedToken token where token.expiresAt <= :now")
+    int deleteExpired(@Param("now") Instant now);
+}
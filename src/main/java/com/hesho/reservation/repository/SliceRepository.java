@@ -0,0 +1,61 @@
+package com.hesho.reservation.repository;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.query.QueryUtils;
+import org.springframework.stereotype.Repository;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import javax.persistence.TypedQuery;
+import javax.persistence.criteria.CriteriaBuilder;
+import javax.persistence.criteria.CriteriaQuery;
+import javax.persistence.criteria.Predicate;
+import javax.persistence.criteria.Root;
+import java.util.List;
+
+/**
+ * Offset pagination of entities filtered by a {@link Specification}, without the count query of a
+ * {@link org.springframework.data.domain.Page}: one extra row is read to know whether a next slice exists.
+ */
+@Repository
+public class SliceRepository {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    /**
+     * Read a slice of the entities matching the specification.
+     *
+     * @param domainClass the entity class.
+     * @param specification the filters; may be {@code null}.
+     * @param pageable the pagination information.
+     * @param <T> the entity type.
+     * @return the slice.
+     */
+    public <T> Slice<T> findAll(Class<T> domainClass, Specification<T> specification, Pageable pageable) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<T> query = cb.createQuery(domainClass);
+        Root<T> root = query.from(domainClass);
+        Predicate predicate = specification == null ? null : specification.toPredicate(root, query, cb);
+        if (predicate != null) {
+            query.where(predicate);
+        }
+        query.select(root);
+        if (pageable.getSort().isSorted()) {
+            query.orderBy(QueryUtils.toOrders(pageable.getSort(), root, cb));
+        }
+        TypedQuery<T> typedQuery = entityManager.createQuery(query);
+        if (pageable.isUnpaged()) {
+            return new SliceImpl<>(typedQuery.getResultList());
+        }
+        List<T> content = typedQuery
+            .setFirstResult((int) pageable.getOffset())
+            .setMaxResults(pageable.getPageSize() + 1)
+            .getResultList();
+        boolean hasNext = content.size() > pageable.getPageSize();
+        return new SliceImpl<>(hasNext ? content.subList(0, pageable.getPageSize()) : content, pageable, hasNext);
+    }
+}
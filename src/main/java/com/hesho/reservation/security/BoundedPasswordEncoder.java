@@ -0,0 +1,91 @@
+package com.hesho.reservation.security;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+
+/**
+ * {@link PasswordEncoder} checking the password hashes on a bounded executor.
+ * <p>
+ * A BCrypt check is deliberately expensive, so a login storm checked on the request threads would take every
+ * processor and stall the whole API. Here at most one check per executor thread runs at a time, and once the
+ * executor queue is full a {@link LoginOverloadedException} is thrown right away, so a rejected login costs nothing.
+ * The check time is exported as the {@value #HASH_METRIC} metric, the rejections as {@value #REJECTED_METRIC}, and
+ * the executor load as the {@code executor} metrics of the {@value #EXECUTOR_NAME} executor.
+ */
+public class BoundedPasswordEncoder implements PasswordEncoder {
+
+    static final String HASH_METRIC = "login.hash";
+
+    static final String REJECTED_METRIC = "login.rejected";
+
+    static final String EXECUTOR_NAME = "login";
+
+    private final PasswordEncoder delegate;
+
+    private final ThreadPoolTaskExecutor executor;
+
+    private final long retryAfterSeconds;
+
+    private final Timer hashTimer;
+
+    private final Counter rejected;
+
+    public BoundedPasswordEncoder(PasswordEncoder delegate, ThreadPoolTaskExecutor executor, long retryAfterSeconds,
+                                  MeterRegistry meterRegistry) {
+        this.delegate = delegate;
+        this.executor = executor;
+        this.retryAfterSeconds = retryAfterSeconds;
+        this.hashTimer = Timer.builder(HASH_METRIC)
+            .description("Time to check a password hash")
+            .register(meterRegistry);
+        this.rejected = Counter.builder(REJECTED_METRIC)
+            .description("Logins rejected because too many password checks were waiting")
+            .register(meterRegistry);
+        new ExecutorServiceMetrics(executor.getThreadPoolExecutor(), EXECUTOR_NAME, Tags.empty()).bindTo(meterRegistry);
+    }
+
+    /**
+     * Hashing a new password is rare, so it is not bounded.
+     */
+    @Override
+    public String encode(CharSequence rawPassword) {
+        return delegate.encode(rawPassword);
+    }
+
+    @Override
+    public boolean matches(CharSequence rawPassword, String encodedPassword) {
+        Future<Boolean> match;
+        try {
+            match = executor.submit(() -> hashTimer.recordCallable(() -> delegate.matches(rawPassword, encodedPassword)));
+        } catch (TaskRejectedException e) {
+            rejected.increment();
+            throw new LoginOverloadedException(retryAfterSeconds);
+        }
+        try {
+            return match.get();
+        } catch (InterruptedException e) {
+            match.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while checking a password", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+
+    @Override
+    public boolean upgradeEncoding(String encodedPassword) {
+        return delegate.upgradeEncoding(encodedPassword);
+    }
+}
@@ -0,0 +1,97 @@
+package com.hesho.reservation.security;
+
+import com.google.common.net.InetAddresses;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.security.web.util.matcher.AntPathRequestMatcher;
+import org.springframework.security.web.util.matcher.IpAddressMatcher;
+import org.springframework.security.web.util.matcher.OrRequestMatcher;
+import org.springframework.security.web.util.matcher.RequestMatcher;
+import org.springframework.web.filter.GenericFilterBean;
+
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.ServletRequest;
+import javax.servlet.ServletResponse;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Filters the login, registration and password reset requests through the {@link ClientRateLimiter}, answering
+ * {@code 429 (Too Many Requests)} to the clients over the limit.
+ */
+public class ClientRateLimitFilter extends GenericFilterBean {
+
+    public static final String FORWARDED_FOR_HEADER = "X-Forwarded-For";
+
+    private static final RequestMatcher LIMITED_REQUESTS = new OrRequestMatcher(
+        new AntPathRequestMatcher("/api/authenticate", HttpMethod.POST.name()),
+        new AntPathRequestMatcher("/api/register", HttpMethod.POST.name()),
+        new AntPathRequestMatcher("/api/account/reset-password/init", HttpMethod.POST.name()));
+
+    private final ClientRateLimiter rateLimiter;
+
+    private final List<IpAddressMatcher> trustedProxies;
+
+    /**
+     * @param rateLimiter the rate limiter.
+     * @param trustedProxies the addresses or CIDR ranges of the reverse proxies whose {@code X-Forwarded-For}
+     * header is trusted.
+     */
+    public ClientRateLimitFilter(ClientRateLimiter rateLimiter, List<String> trustedProxies) {
+        this.rateLimiter = rateLimiter;
+        this.trustedProxies = trustedProxies.stream().map(IpAddressMatcher::new).collect(Collectors.toList());
+    }
+
+    @Override
+    public void doFilter(ServletRequest servletRequest, ServletResponse servletResponse, FilterChain filterChain)
+        throws IOException, ServletException {
+        HttpServletRequest httpServletRequest = (HttpServletRequest) servletRequest;
+        if (LIMITED_REQUESTS.matches(httpServletRequest) && !rateLimiter.tryAcquire(getClientIP(httpServletRequest))) {
+            HttpServletResponse httpServletResponse = (HttpServletResponse) servletResponse;
+            httpServletResponse.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(rateLimiter.getWindow().getSeconds()));
+            httpServletResponse.sendError(HttpStatus.TOO_MANY_REQUESTS.value());
+            return;
+        }
+        filterChain.doFilter(servletRequest, servletResponse);
+    }
+
+    /**
+     * The client is the address of the connection, unless it is a trusted proxy. Then the {@code X-Forwarded-For}
+     * header is read from the right, as every proxy appends the address it got the request from, and the client is
+     * the first address that is not a trusted proxy: whatever a client puts in the header itself is on the left of
+     * it, so it cannot choose its own key.
+     *
+     * @param request a request.
+     * @return the address of the client.
+     */
+    String getClientIP(HttpServletRequest request) {
+        String client = request.getRemoteAddr();
+        String xfHeader = request.getHeader(FORWARDED_FOR_HEADER);
+        if (xfHeader == null || !isTrustedProxy(client)) {
+            return client;
+        }
+        String[] hops = xfHeader.split(",");
+        for (int i = hops.length - 1; i >= 0; i--) {
+            String hop = hops[i].trim();
+            if (hop.isEmpty()) {
+                continue;
+            }
+            client = hop;
+            if (!isTrustedProxy(hop)) {
+                break;
+            }
+        }
+        return client;
+    }
+
+    private boolean isTrustedProxy(String address) {
+        // only address literals are matched, a host name would be resolved
+        return InetAddresses.isInetAddress(address)
+            && trustedProxies.stream().anyMatch(trustedProxy -> trustedProxy.matches(address));
+    }
+}
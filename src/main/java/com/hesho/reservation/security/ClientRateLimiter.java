@@ -0,0 +1,119 @@
+package com.hesho.reservation.security;
+
+import com.google.common.hash.HashFunction;
+import com.google.common.hash.Hashing;
+import com.hesho.reservation.config.ApplicationProperties;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.security.SecureRandom;
+import java.time.Clock;
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Sliding window rate limiter of the requests of every client, shared by all the request threads.
+ * <p>
+ * Clients are counted in a fixed table of atomic counters, like a count-min sketch: every client is hashed to one
+ * counter of each of {@value #DEPTH} rows, and its count is the smallest of them. An address spray therefore costs no
+ * memory; it only makes clients share counters, which can over-count but never under-count. Every counter packs the
+ * current window, the count of the previous window and the count of the current one in a single {@code long}
+ * updated by compare-and-set, so no lock is taken. The count of a client is the count of the current window plus the
+ * part of the previous window still inside the sliding window.
+ * <p>
+ * Rejected requests are counted too, so a client hammering the server stays blocked until it slows down.
+ */
+@Component
+public class ClientRateLimiter {
+
+    private static final int DEPTH = 2;
+
+    private static final int COUNT_BITS = 20;
+
+    private static final long COUNT_MASK = (1L << COUNT_BITS) - 1;
+
+    private static final long WINDOW_MASK = (1L << (Long.SIZE - 2 * COUNT_BITS)) - 1;
+
+    private final int limit;
+
+    private final long windowMillis;
+
+    private final int slots;
+
+    private final Clock clock;
+
+    private final AtomicLongArray counters;
+
+    // seeded at random so that colliding addresses cannot be computed in advance
+    private final HashFunction hashFunction = Hashing.murmur3_128(new SecureRandom().nextInt());
+
+    @Autowired
+    public ClientRateLimiter(ApplicationProperties applicationProperties) {
+        this(applicationProperties.getRateLimit().getRequestsPerWindow(),
+            Duration.ofSeconds(applicationProperties.getRateLimit().getWindowSeconds()),
+            applicationProperties.getRateLimit().getSlots(), Clock.systemUTC());
+    }
+
+    ClientRateLimiter(int limit, Duration window, int slots, Clock clock) {
+        if (limit <= 0 || window.toMillis() <= 0 || slots <= 0) {
+            throw new IllegalArgumentException("The limit, window and slots of a rate limiter must be positive");
+        }
+        this.limit = limit;
+        this.windowMillis = window.toMillis();
+        this.slots = slots;
+        this.clock = clock;
+        this.counters = new AtomicLongArray(DEPTH * slots);
+    }
+
+    /**
+     * Count a request of a client.
+     *
+     * @param client the client, usually its address.
+     * @return whether the request is within the limit.
+     */
+    public boolean tryAcquire(String client) {
+        long now = clock.millis();
+        long window = (now / windowMillis) & WINDOW_MASK;
+        long remaining = windowMillis - now % windowMillis;
+        long hash = hashFunction.hashUnencodedChars(client).asLong();
+        int first = (int) hash;
+        int second = (int) (hash >>> 32);
+        long count = Long.MAX_VALUE;
+        for (int row = 0; row < DEPTH; row++) {
+            int index = row * slots + Math.floorMod(first + row * second, slots);
+            count = Math.min(count, increment(index, window, remaining));
+        }
+        return count <= limit;
+    }
+
+    /**
+     * @return how long a rejected client should wait before retrying.
+     */
+    public Duration getWindow() {
+        return Duration.ofMillis(windowMillis);
+    }
+
+    private long increment(int index, long window, long remaining) {
+        while (true) {
+            long counter = counters.get(index);
+            long counterWindow = counter >>> (2 * COUNT_BITS);
+            long previous;
+            long current;
+            if (counterWindow == window) {
+                previous = (counter >>> COUNT_BITS) & COUNT_MASK;
+                current = counter & COUNT_MASK;
+            } else if (counterWindow == ((window - 1) & WINDOW_MASK)) {
+                previous = counter & COUNT_MASK;
+                current = 0;
+            } else {
+                previous = 0;
+                current = 0;
+            }
+            current = Math.min(current + 1, COUNT_MASK);
+            long next = (window << (2 * COUNT_BITS)) | (previous << COUNT_BITS) | current;
+            if (counters.compareAndSet(index, counter, next)) {
+                return current + previous * remaining / windowMillis;
+            }
+        }
+    }
+}
@@ -0,0 +1,20 @@
+package com.hesho.reservation.security;
+
+/**
+ * Thrown when too many logins are waiting for their password to be checked.
+ */
+public class LoginOverloadedException extends RuntimeException {
+
+    private static final long serialVersionUID = 1L;
+
+    private final long retryAfterSeconds;
+
+    public LoginOverloadedException(long retryAfterSeconds) {
+        super("Too many logins in progress, retry later");
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+
+    public long getRetryAfterSeconds() {
+        return retryAfterSeconds;
+    }
+}
@@ -0,0 +1,11 @@
+package com.hesho.reservation.security;
+
+/**
+ * Thrown when a reservation overlaps another reservation of the same place.
+ */
+public class ReservationConflictException extends ReservationException {
+
+    public ReservationConflictException(String message) {
+        super(message);
+    }
+}
@@ -40,6 +40,22 @@ public final class SecurityUtils {
     }
 
 
+    /**
+     * Get the database id of the current user, when the principal carries it.
+     * <p>
+     * Tokens issued before the id was added to them do not carry it; the id is then looked up by login, see
+     * {@link com.hesho.reservation.service.UserService#getCurrentUserId()}.
+     *
+     * @return the id of the current user.
+     */
+    public static Optional<Long> getCurrentUserId() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication != null && authentication.getPrincipal() instanceof UserPrincipal) {
+            return Optional.ofNullable(((UserPrincipal) authentication.getPrincipal()).getId());
+        }
+        return Optional.empty();
+    }
+
     /**
      * Get the JWT of the current user.
      *
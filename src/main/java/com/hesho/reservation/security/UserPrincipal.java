@@ -0,0 +1,28 @@
+package com.hesho.reservation.security;
+
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.userdetails.User;
+
+import java.util.Collection;
+
+/**
+ * The authenticated user, with its database id, so the current user can be identified without loading it.
+ * <p>
+ * It is the principal of the authentication of every request carrying a token issued with the id, see
+ * {@link SecurityUtils#getCurrentUserId()}.
+ */
+public class UserPrincipal extends User {
+
+    private static final long serialVersionUID = 1L;
+
+    private final Long id;
+
+    public UserPrincipal(Long id, String username, String password, Collection<? extends GrantedAuthority> authorities) {
+        super(username, password, authorities);
+        this.id = id;
+    }
+
+    public Long getId() {
+        return id;
+    }
+}
@@ -6,6 +6,10 @@ import java.util.*;
 import java.util.stream.Collectors;
 import javax.annotation.PostConstruct;
 
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.hesho.reservation.config.ApplicationProperties;
+import com.hesho.reservation.security.UserPrincipal;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
@@ -21,6 +25,14 @@ import io.jsonwebtoken.*;
 import io.jsonwebtoken.io.Decoders;
 import io.jsonwebtoken.security.Keys;
 
+/**
+ * Creates and validates the JWT tokens.
+ * <p>
+ * Validating a token checks its HMAC signature and parses its claims once. The authentication of a valid token is
+ * then kept in a bounded cache until the token expires, so a client sending the same token on every request only
+ * pays for the signature once. Every token gets a {@code jti} claim, checked against the {@link TokenRevocationList}
+ * on every request, cached or not.
+ */
 @Component
 public class TokenProvider {
 
@@ -28,16 +40,29 @@ public class TokenProvider {
 
     private static final String AUTHORITIES_KEY = "auth";
 
+    private static final String USER_ID_KEY = "userId";
+
     private Key key;
 
+    private volatile JwtParser jwtParser;
+
     private long tokenValidityInMilliseconds;
 
     private long tokenValidityInMillisecondsForRememberMe;
 
     private final JHipsterProperties jHipsterProperties;
 
-    public TokenProvider(JHipsterProperties jHipsterProperties) {
+    private final Cache<String, CachedAuthentication> authentications;
+
+    private final TokenRevocationList revocationList;
+
+    public TokenProvider(JHipsterProperties jHipsterProperties, ApplicationProperties applicationProperties,
+                         TokenRevocationList revocationList) {
         this.jHipsterProperties = jHipsterProperties;
+        this.revocationList = revocationList;
+        this.authentications = CacheBuilder.newBuilder()
+            .maximumSize(applicationProperties.getJwt().getAuthenticationCacheSize())
+            .build();
     }
 
     @PostConstruct
@@ -73,39 +98,132 @@ public class TokenProvider {
             validity = new Date(now + this.tokenValidityInMilliseconds);
         }
 
-        return Jwts.builder()
+        JwtBuilder builder = Jwts.builder()
+            .setId(UUID.randomUUID().toString())
             .setSubject(authentication.getName())
-            .claim(AUTHORITIES_KEY, authorities)
+            .claim(AUTHORITIES_KEY, authorities);
+        if (authentication.getPrincipal() instanceof UserPrincipal) {
+            builder.claim(USER_ID_KEY, ((UserPrincipal) authentication.getPrincipal()).getId());
+        }
+        return builder
             .signWith(key, SignatureAlgorithm.HS512)
             .setExpiration(validity)
             .compact();
     }
 
     public Authentication getAuthentication(String token) {
-        Claims claims = Jwts.parserBuilder()
-            .setSigningKey(key)
-            .build()
-            .parseClaimsJws(token)
-            .getBody();
+        Authentication authentication = authenticate(token);
+        if (authentication == null) {
+            throw new JwtException("Invalid JWT token");
+        }
+        return authentication;
+    }
+
+    public boolean validateToken(String authToken) {
+        return authenticate(authToken) != null;
+    }
+
+    /**
+     * Validate a token and build its authentication, with a single parse.
+     *
+     * @param token the token.
+     * @return the authentication, or {@code null} if the token is invalid, expired or revoked.
+     */
+    public Authentication authenticate(String token) {
+        CachedAuthentication cached = authentications.getIfPresent(token);
+        if (cached != null) {
+            if (System.currentTimeMillis() < cached.expiration && !revocationList.isRevoked(cached.tokenId)) {
+                return cached.toAuthentication(token);
+            }
+            authentications.invalidate(token);
+            log.info("Invalid JWT token.");
+            return null;
+        }
+        Claims claims;
+        try {
+            claims = parser().parseClaimsJws(token).getBody();
+        } catch (JwtException | IllegalArgumentException e) {
+            log.info("Invalid JWT token.");
+            log.trace("Invalid JWT token trace.", e);
+            return null;
+        }
+
+        if (revocationList.isRevoked(claims.getId())) {
+            log.info("Revoked JWT token.");
+            return null;
+        }
 
         Collection<? extends GrantedAuthority> authorities =
             Arrays.stream(claims.get(AUTHORITIES_KEY).toString().split(","))
                 .map(SimpleGrantedAuthority::new)
                 .collect(Collectors.toList());
 
-        User principal = new User(claims.getSubject(), "", authorities);
+        // tokens issued before the user id was added to them have a principal without it
+        Object userId = claims.get(USER_ID_KEY);
+        User principal = userId instanceof Number
+            ? new UserPrincipal(((Number) userId).longValue(), claims.getSubject(), "", authorities)
+            : new User(claims.getSubject(), "", authorities);
 
-        return new UsernamePasswordAuthenticationToken(principal, token, authorities);
+        CachedAuthentication authentication = new CachedAuthentication(principal, claims.getId(),
+            claims.getExpiration() == null ? Long.MAX_VALUE : claims.getExpiration().getTime());
+        authentications.put(token, authentication);
+        return authentication.toAuthentication(token);
     }
 
-    public boolean validateToken(String authToken) {
+    /**
+     * Revoke a token until its expiration, on every node.
+     *
+     * @param token the token.
+     * @return whether the token was revoked; tokens issued before they got a {@code jti} claim cannot be.
+     */
+    public boolean revoke(String token) {
+        Claims claims;
         try {
-            Jwts.parserBuilder().setSigningKey(key).build().parseClaimsJws(authToken);
-            return true;
+            claims = parser().parseClaimsJws(token).getBody();
         } catch (JwtException | IllegalArgumentException e) {
             log.info("Invalid JWT token.");
             log.trace("Invalid JWT token trace.", e);
+            return false;
+        }
+        authentications.invalidate(token);
+        if (claims.getId() == null || claims.getExpiration() == null) {
+            return false;
+        }
+        revocationList.revoke(claims.getId(), claims.getExpiration().toInstant());
+        return true;
+    }
+
+    /**
+     * The parser is immutable and thread-safe, so it is built once for the signing key.
+     */
+    private JwtParser parser() {
+        JwtParser parser = jwtParser;
+        if (parser == null) {
+            parser = Jwts.parserBuilder().setSigningKey(key).build();
+            jwtParser = parser;
+        }
+        return parser;
+    }
+
+    /**
+     * The principal of a validated token. A new {@link Authentication} is built on every request, as it is mutable.
+     */
+    private static final class CachedAuthentication {
+
+        private final User principal;
+
+        private final String tokenId;
+
+        private final long expiration;
+
+        private CachedAuthentication(User principal, String tokenId, long expiration) {
+            this.principal = principal;
+            this.tokenId = tokenId;
+            this.expiration = expiration;
+        }
+
+        private Authentication toAuthentication(String token) {
+            return new UsernamePasswordAuthenticationToken(principal, token, principal.getAuthorities());
         }
-        return false;
     }
 }
@@ -0,0 +1,105 @@
+package com.hesho.reservation.security.jwt;
+
+import com.google.common.hash.BloomFilter;
+import com.google.common.hash.Funnels;
+import com.hesho.reservation.config.ApplicationProperties;
+import com.hesho.reservation.domain.RevokedToken;
+import com.hesho.reservation.repository.RevokedTokenRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * The JWT tokens revoked before their expiration, by their {@code jti} claim.
+ * <p>
+ * The revoked tokens are stored in the {@link RevokedToken} table, shared by the nodes of a cluster, and an in-memory
+ * Bloom filter of them answers for the valid tokens of every request without querying it: only a token the filter
+ * might contain, a revoked token or a rare false positive, is looked up in the table. The filter is rebuilt from the
+ * table every {@code application.jwt.revocation-refresh-ms}, which picks up the tokens revoked by other nodes and
+ * forgets the expired ones, whose rows are deleted at the same time.
+ */
+@Component
+public class TokenRevocationList {
+
+    private static final double FALSE_POSITIVE_RATE = 0.001;
+
+    private final Logger log = LoggerFactory.getLogger(TokenRevocationList.class);
+
+    private final RevokedTokenRepository revokedTokenRepository;
+
+    private final int expectedTokens;
+
+    private volatile BloomFilter<CharSequence> filter;
+
+    // the filter being rebuilt, which must also get the tokens revoked meanwhile
+    private volatile BloomFilter<CharSequence> rebuilding;
+
+    // number of revoked tokens at the last rebuild, to size the next filter
+    private int size;
+
+    public TokenRevocationList(RevokedTokenRepository revokedTokenRepository, ApplicationProperties applicationProperties) {
+        this.revokedTokenRepository = revokedTokenRepository;
+        this.expectedTokens = applicationProperties.getJwt().getRevocationExpectedTokens();
+        this.filter = newFilter(expectedTokens);
+    }
+
+    /**
+     * @param tokenId the {@code jti} claim of a valid token; tokens without one cannot be revoked.
+     * @return whether the token is revoked.
+     */
+    public boolean isRevoked(String tokenId) {
+        if (tokenId == null || !filter.mightContain(tokenId)) {
+            return false;
+        }
+        return revokedTokenRepository.existsById(tokenId);
+    }
+
+    /**
+     * Revoke a token until its expiration. Not transactional on purpose: the row must be committed before the
+     * filter being rebuilt is read, so a concurrent rebuild either loads it or gets it here.
+     *
+     * @param tokenId the {@code jti} claim of the token.
+     * @param expiresAt the expiration of the token.
+     */
+    public void revoke(String tokenId, Instant expiresAt) {
+        revokedTokenRepository.save(new RevokedToken().id(tokenId).expiresAt(expiresAt));
+        // read before the filter: a rebuild over by now has already replaced it
+        BloomFilter<CharSequence> next = rebuilding;
+        filter.put(tokenId);
+        if (next != null) {
+            next.put(tokenId);
+        }
+    }
+
+    /**
+     * Delete the expired tokens and rebuild the filter from the remaining ones.
+     */
+    @Scheduled(fixedDelayString = "${application.jwt.revocation-refresh-ms:60000}")
+    @Transactional
+    public void refresh() {
+        // set before reading the table, whose snapshot may be taken at the first read
+        BloomFilter<CharSequence> next = newFilter(Math.max(expectedTokens, size * 2));
+        rebuilding = next;
+        try {
+            Instant now = Instant.now();
+            int expired = revokedTokenRepository.deleteExpired(now);
+            List<String> tokenIds = revokedTokenRepository.findIdsByExpiresAtAfter(now);
+            tokenIds.forEach(next::put);
+            filter = next;
+            size = tokenIds.size();
+            log.debug("Rebuilt the token revocation filter with {} tokens, {} expired", size, expired);
+        } finally {
+            rebuilding = null;
+        }
+    }
+
+    private static BloomFilter<CharSequence> newFilter(int expectedTokens) {
+        return BloomFilter.create(Funnels.stringFunnel(StandardCharsets.US_ASCII), expectedTokens, FALSE_POSITIVE_RATE);
+    }
+}
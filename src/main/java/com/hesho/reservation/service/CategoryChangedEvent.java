@@ -0,0 +1,51 @@
+package com.hesho.reservation.service;
+
+import com.hesho.reservation.service.dto.CategoryDTO;
+
+/**
+ * Published when a {@link com.hesho.reservation.domain.Category} is saved or deleted, so the in-memory place indexes
+ * holding its name can be updated. Listeners should use
+ * {@link org.springframework.transaction.event.TransactionalEventListener} to only see committed changes.
+ */
+public class CategoryChangedEvent {
+
+    private final Long categoryId;
+
+    private final CategoryDTO category;
+
+    private CategoryChangedEvent(Long categoryId, CategoryDTO category) {
+        this.categoryId = categoryId;
+        this.category = category;
+    }
+
+    public static CategoryChangedEvent saved(CategoryDTO category) {
+        return new CategoryChangedEvent(category.getId(), category);
+    }
+
+    public static CategoryChangedEvent deleted(Long categoryId) {
+        return new CategoryChangedEvent(categoryId, null);
+    }
+
+    public Long getCategoryId() {
+        return categoryId;
+    }
+
+    /**
+     * @return the saved category, or {@code null} if it was deleted.
+     */
+    public CategoryDTO getCategory() {
+        return category;
+    }
+
+    public boolean isDeleted() {
+        return category == null;
+    }
+
+    @Override
+    public String toString() {
+        return "CategoryChangedEvent{" +
+            "categoryId=" + categoryId +
+            ", deleted=" + isDeleted() +
+            "}";
+    }
+}
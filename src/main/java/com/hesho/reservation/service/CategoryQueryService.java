@@ -8,6 +8,7 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -17,6 +18,7 @@ import io.github.jhipster.service.QueryService;
 import com.hesho.reservation.domain.Category;
 import com.hesho.reservation.domain.*; // for static metamodels
 import com.hesho.reservation.repository.CategoryRepository;
+import com.hesho.reservation.repository.SliceRepository;
 import com.hesho.reservation.service.dto.CategoryCriteria;
 import com.hesho.reservation.service.dto.CategoryDTO;
 import com.hesho.reservation.service.mapper.CategoryMapper;
@@ -37,9 +39,12 @@ public class CategoryQueryService extends QueryService<Category> {
 
     private final CategoryMapper categoryMapper;
 
-    public CategoryQueryService(CategoryRepository categoryRepository, CategoryMapper categoryMapper) {
+    private final SliceRepository sliceRepository;
+
+    public CategoryQueryService(CategoryRepository categoryRepository, CategoryMapper categoryMapper, SliceRepository sliceRepository) {
         this.categoryRepository = categoryRepository;
         this.categoryMapper = categoryMapper;
+        this.sliceRepository = sliceRepository;
     }
 
     /**
@@ -68,6 +73,20 @@ public class CategoryQueryService extends QueryService<Category> {
             .map(categoryMapper::toDto);
     }
 
+    /**
+     * Return a {@link Slice} of {@link CategoryDTO} which matches the criteria from the database, without counting them.
+     * @param criteria The object which holds all the filters, which the entities should match.
+     * @param page The page, which should be returned.
+     * @return the matching entities.
+     */
+    @Transactional(readOnly = true)
+    public Slice<CategoryDTO> findSliceByCriteria(CategoryCriteria criteria, Pageable page) {
+        log.debug("find slice by criteria : {}, page: {}", criteria, page);
+        final Specification<Category> specification = createSpecification(criteria);
+        return sliceRepository.findAll(Category.class, specification, page)
+            .map(categoryMapper::toDto);
+    }
+
     /**
      * Return the number of matching entities in the database.
      * @param criteria The object which holds all the filters, which the entities should match.
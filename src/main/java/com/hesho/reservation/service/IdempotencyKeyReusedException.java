@@ -0,0 +1,13 @@
+package com.hesho.reservation.service;
+
+/**
+ * Thrown when an idempotency key is sent again with a different request.
+ */
+public class IdempotencyKeyReusedException extends RuntimeException {
+
+    private static final long serialVersionUID = 1L;
+
+    public IdempotencyKeyReusedException() {
+        super("The idempotency key was already used for a different request");
+    }
+}
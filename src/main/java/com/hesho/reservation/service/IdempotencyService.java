@@ -0,0 +1,215 @@
+package com.hesho.reservation.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.hash.Hashing;
+import com.google.common.hash.HashingInputStream;
+import com.google.common.io.ByteStreams;
+import com.hesho.reservation.config.ApplicationProperties;
+import com.hesho.reservation.domain.IdempotencyRecord;
+import com.hesho.reservation.repository.IdempotencyRecordRepository;
+import com.hesho.reservation.security.SecurityUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.dao.ConcurrencyFailureException;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
+/**
+ * Service replaying the response of requests sent again with the same {@code Idempotency-Key} header.
+ * <p>
+ * Responses are kept in a bounded in-memory cache, evicted after their time to live, so a retry is answered
+ * without running the request again nor querying the database. When {@code application.idempotency.jdbc-enabled}
+ * is set, responses are also stored in the {@link IdempotencyRecord} table, and a key unknown to this node costs
+ * one primary key lookup.
+ * <p>
+ * A hash of the request is kept with its response, and a key sent again with a different request is rejected
+ * instead of replaying a response that does not belong to it.
+ */
+@Service
+public class IdempotencyService {
+
+    public static final String IDEMPOTENCY_KEY_HEADER = "Idempotency-Key";
+
+    private static final long IN_FLIGHT_TIMEOUT_SECONDS = 30;
+
+    private final Logger log = LoggerFactory.getLogger(IdempotencyService.class);
+
+    private final IdempotencyRecordRepository idempotencyRecordRepository;
+
+    private final ObjectMapper objectMapper;
+
+    private final ApplicationProperties.Idempotency properties;
+
+    private final Cache<String, Response> responses;
+
+    public IdempotencyService(IdempotencyRecordRepository idempotencyRecordRepository, ObjectMapper objectMapper,
+                              ApplicationProperties applicationProperties) {
+        this.idempotencyRecordRepository = idempotencyRecordRepository;
+        this.objectMapper = objectMapper;
+        this.properties = applicationProperties.getIdempotency();
+        this.responses = CacheBuilder.newBuilder()
+            .maximumSize(properties.getMaxEntries())
+            .expireAfterWrite(properties.getTimeToLiveSeconds(), TimeUnit.SECONDS)
+            .build();
+    }
+
+    /**
+     * Run a request once per idempotency key.
+     * <p>
+     * The first request with a key runs the action; later requests with the same key, from the same user on the
+     * same endpoint, get its result back. A request arriving while the first one still runs waits for it.
+     * A failed action is not remembered, so it can be retried.
+     *
+     * @param scope the endpoint the key applies to.
+     * @param key the idempotency key sent by the client; the action always runs if it is {@code null}.
+     * @param request the body of the request, serialized to JSON to be compared with the first request with the key,
+     * or the uploaded file itself.
+     * @param responseType the type of the result.
+     * @param action the request to run.
+     * @param <T> the type of the result.
+     * @return the result of the action, or the result of the first request with the same key.
+     * @throws IdempotencyKeyReusedException if the first request with the key was a different request.
+     */
+    public <T> T execute(String scope, String key, Object request, Class<T> responseType, Supplier<T> action) {
+        if (key == null || key.isEmpty()) {
+            return action.get();
+        }
+        String id = hash((scope + '\n' + SecurityUtils.getCurrentUserLogin().orElse("") + '\n' + key).getBytes(StandardCharsets.UTF_8));
+        Response response = new Response(requestHash(request));
+        Response previous = responses.asMap().putIfAbsent(id, response);
+        if (previous != null) {
+            checkSameRequest(previous.requestHash, response.requestHash);
+            log.debug("Replaying response for idempotency key {} on {}", key, scope);
+            return responseType.cast(await(previous.result));
+        }
+        try {
+            T result = properties.isJdbcEnabled() ? findStored(id, response.requestHash, responseType).orElse(null) : null;
+            if (result == null) {
+                result = action.get();
+                if (properties.isJdbcEnabled()) {
+                    store(id, response.requestHash, result);
+                }
+            }
+            response.result.complete(result);
+            return result;
+        } catch (RuntimeException e) {
+            responses.asMap().remove(id, response);
+            response.result.completeExceptionally(e);
+            throw e;
+        }
+    }
+
+    /**
+     * Stored responses are deleted once their time to live is over.
+     * <p>
+     * This is scheduled to get fired every hour.
+     */
+    @Scheduled(cron = "0 0 * * * ?")
+    @Transactional
+    public void removeExpiredRecords() {
+        if (properties.isJdbcEnabled()) {
+            int removed = idempotencyRecordRepository.deleteByCreatedDateBefore(Instant.now().minusSeconds(properties.getTimeToLiveSeconds()));
+            log.debug("Removed {} expired idempotency records", removed);
+        }
+    }
+
+    private Object await(CompletableFuture<Object> response) {
+        try {
+            return response.get(IN_FLIGHT_TIMEOUT_SECONDS, TimeUnit.SECONDS);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw new IllegalStateException(e.getCause());
+        } catch (TimeoutException e) {
+            throw new ConcurrencyFailureException("A request with the same idempotency key is still in progress");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ConcurrencyFailureException("Interrupted while waiting for a request with the same idempotency key");
+        }
+    }
+
+    private <T> Optional<T> findStored(String id, String requestHash, Class<T> responseType) {
+        return idempotencyRecordRepository.findById(id).map(record -> {
+            // records stored before the request hash was kept are replayed for any request
+            if (record.getRequestHash() != null) {
+                checkSameRequest(record.getRequestHash(), requestHash);
+            }
+            try {
+                return objectMapper.readValue(record.getBody(), responseType);
+            } catch (JsonProcessingException e) {
+                throw new IllegalStateException("Could not read idempotency record " + id, e);
+            }
+        });
+    }
+
+    private void store(String id, String requestHash, Object result) {
+        IdempotencyRecord record = new IdempotencyRecord();
+        record.setId(id);
+        record.setRequestHash(requestHash);
+        record.setCreatedDate(Instant.now());
+        try {
+            record.setBody(objectMapper.writeValueAsString(result));
+            idempotencyRecordRepository.save(record);
+        } catch (JsonProcessingException | DataIntegrityViolationException e) {
+            log.warn("Could not store idempotency record {}: {}", id, e.getMessage());
+        }
+    }
+
+    private static void checkSameRequest(String firstRequestHash, String requestHash) {
+        if (!firstRequestHash.equals(requestHash)) {
+            throw new IdempotencyKeyReusedException();
+        }
+    }
+
+    private String requestHash(Object request) {
+        try {
+            if (request instanceof MultipartFile) {
+                // hash the upload as it streams, it may not fit in memory
+                try (InputStream inputStream = ((MultipartFile) request).getInputStream()) {
+                    HashingInputStream hashingInputStream = new HashingInputStream(Hashing.sha256(), inputStream);
+                    ByteStreams.exhaust(hashingInputStream);
+                    return hashingInputStream.hash().toString();
+                }
+            }
+            return hash(objectMapper.writeValueAsBytes(request));
+        } catch (IOException e) {
+            throw new IllegalStateException("Could not hash the request", e);
+        }
+    }
+
+    private static String hash(byte[] value) {
+        return Hashing.sha256().hashBytes(value).toString();
+    }
+
+    /**
+     * The result of the first request with a key, and the hash of that request.
+     */
+    private static final class Response {
+
+        private final String requestHash;
+
+        private final CompletableFuture<Object> result = new CompletableFuture<>();
+
+        private Response(String requestHash) {
+            this.requestHash = requestHash;
+        }
+    }
+}
@@ -0,0 +1,108 @@
+package com.hesho.reservation.service;
+
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronizationAdapter;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Striped locks serializing the writes and deletes of a single stored image file.
+ * <p>
+ * Image files are named after the hash of their content and shared by every {@link com.hesho.reservation.domain.Image}
+ * with that content, so an upload reusing a file and the delete of its last other reference must not interleave.
+ * <p>
+ * Uploads write the file before their transaction opens and do not hold the lock meanwhile: they only register
+ * themselves with {@link #beginUpload(String)} until their reference is committed, and a delete holding the lock
+ * keeps any file being uploaded.
+ */
+@Component
+public class ImageBlobLocks {
+
+    private static final int STRIPES = 64;
+
+    private final ReentrantLock[] locks = new ReentrantLock[STRIPES];
+
+    // number of uploads of each file whose reference is not committed yet, changed under the lock of the file
+    private final Map<String, Integer> uploads = new ConcurrentHashMap<>();
+
+    public ImageBlobLocks() {
+        for (int i = 0; i < STRIPES; i++) {
+            locks[i] = new ReentrantLock();
+        }
+    }
+
+    /**
+     * Lock the file until the current transaction completes, or until {@link #unlock(String)} is called when no
+     * transaction is active.
+     * <p>
+     * Holding the lock past the commit guarantees that the next writer of the file sees the references committed by
+     * this one, and that a file deleted after commit is gone before it checks for it.
+     *
+     * @param fileName the name of the file.
+     * @return true if the lock is released by the current transaction, false if the caller must unlock it.
+     */
+    public boolean lockUntilCompletion(String fileName) {
+        ReentrantLock lock = locks[stripeFor(fileName)];
+        lock.lock();
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            return false;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronizationAdapter() {
+            @Override
+            public void afterCompletion(int status) {
+                lock.unlock();
+            }
+        });
+        return true;
+    }
+
+    /**
+     * Release a lock taken outside of a transaction.
+     *
+     * @param fileName the name of the file.
+     */
+    public void unlock(String fileName) {
+        locks[stripeFor(fileName)].unlock();
+    }
+
+    /**
+     * Register an upload of the file, before it is written to the store. Waits for a delete of the file in progress,
+     * so the upload then finds the file gone and writes it again.
+     *
+     * @param fileName the name of the file.
+     */
+    public void beginUpload(String fileName) {
+        ReentrantLock lock = locks[stripeFor(fileName)];
+        lock.lock();
+        try {
+            uploads.merge(fileName, 1, Integer::sum);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Unregister an upload of the file, once its reference is committed or it failed.
+     *
+     * @param fileName the name of the file.
+     */
+    public void endUpload(String fileName) {
+        uploads.computeIfPresent(fileName, (name, count) -> count == 1 ? null : count - 1);
+    }
+
+    /**
+     * @param fileName the name of the file, whose lock the caller holds.
+     * @return whether the file is being uploaded, and must be kept even if no committed image references it.
+     */
+    public boolean isUploading(String fileName) {
+        return uploads.containsKey(fileName);
+    }
+
+    private int stripeFor(String fileName) {
+        int hash = fileName.hashCode();
+        return (hash ^ (hash >>> 16)) & (STRIPES - 1);
+    }
+}
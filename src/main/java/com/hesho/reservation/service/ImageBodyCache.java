@@ -0,0 +1,137 @@
+package com.hesho.reservation.service;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.hesho.reservation.config.ApplicationProperties;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.GuavaCacheMetrics;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Keeps the main images of places and categories in memory, as they are requested by every listing.
+ * <p>
+ * An entry holds the resolved file of the main image and, when it is small enough, its content, so a hit costs
+ * neither a database lookup nor a disk read. The entries are evicted least recently used first once their content
+ * exceeds the configured budget. The hits and misses are exported as the {@code cache.gets} metric of the
+ * {@value #CACHE_NAME} cache.
+ */
+@Service
+public class ImageBodyCache {
+
+    static final String CACHE_NAME = "mainImages";
+
+    /**
+     * Memory taken by an entry besides its content: the entry, its key and the {@link ImageFile}.
+     */
+    private static final int ENTRY_OVERHEAD = 512;
+
+    private final Logger log = LoggerFactory.getLogger(ImageBodyCache.class);
+
+    private final Cache<String, ImageFile> cache;
+
+    private final long maxEntrySize;
+
+    private final AtomicLong invalidations = new AtomicLong();
+
+    public ImageBodyCache(ApplicationProperties applicationProperties, MeterRegistry meterRegistry) {
+        ApplicationProperties.ImageCache imageCache = applicationProperties.getImageCache();
+        this.maxEntrySize = imageCache.getMaxEntrySizeKb() * 1024;
+        this.cache = CacheBuilder.newBuilder()
+            .maximumWeight(imageCache.getMaxSizeMb() * 1024 * 1024)
+            .weigher((String key, ImageFile file) -> ENTRY_OVERHEAD + (file.getContent() == null ? 0 : file.getContent().length))
+            .recordStats()
+            .build();
+        GuavaCacheMetrics.monitor(meterRegistry, cache, CACHE_NAME);
+    }
+
+    /**
+     * Get the main image of a place, loading it on a miss.
+     *
+     * @param placeId the id of the place.
+     * @param loader finds the main image of the place.
+     * @return the main image, with its content if it is small enough; empty if the place has none.
+     */
+    public Optional<ImageFile> getForPlace(Long placeId, Supplier<Optional<ImageFile>> loader) {
+        return get(placeKey(placeId), loader);
+    }
+
+    /**
+     * Get the main image of a category, loading it on a miss.
+     *
+     * @param categoryId the id of the category.
+     * @param loader finds the main image of the category.
+     * @return the main image, with its content if it is small enough; empty if the category has none.
+     */
+    public Optional<ImageFile> getForCategory(Long categoryId, Supplier<Optional<ImageFile>> loader) {
+        return get(categoryKey(categoryId), loader);
+    }
+
+    /**
+     * Forget the main image of a place, after it changed.
+     *
+     * @param placeId the id of the place.
+     */
+    public void invalidatePlace(Long placeId) {
+        invalidations.incrementAndGet();
+        cache.invalidate(placeKey(placeId));
+    }
+
+    /**
+     * Forget the main image of a category, after it changed.
+     *
+     * @param categoryId the id of the category.
+     */
+    public void invalidateCategory(Long categoryId) {
+        invalidations.incrementAndGet();
+        cache.invalidate(categoryKey(categoryId));
+    }
+
+    /**
+     * Forget all the main images, after a change whose owners are unknown.
+     */
+    public void invalidateAll() {
+        invalidations.incrementAndGet();
+        cache.invalidateAll();
+    }
+
+    private Optional<ImageFile> get(String key, Supplier<Optional<ImageFile>> loader) {
+        ImageFile cached = cache.getIfPresent(key);
+        if (cached != null) {
+            return Optional.of(cached);
+        }
+        long generation = invalidations.get();
+        // places and categories without a main image are not cached, they are looked up again
+        Optional<ImageFile> file = loader.get();
+        if (!file.isPresent()) {
+            return file;
+        }
+        ImageFile loaded;
+        try {
+            // a remote file is either served by its store or read in memory already
+            loaded = file.get().getPath() == null || file.get().readAttributes().size() > maxEntrySize ? file.get() : file.get().load();
+        } catch (IOException e) {
+            log.warn("Could not load image {}: {}", file.get().getFileName(), e.getMessage());
+            return file;
+        }
+        // an entry loaded before an invalidation may be stale
+        if (invalidations.get() == generation) {
+            cache.put(key, loaded);
+        }
+        return Optional.of(loaded);
+    }
+
+    private static String placeKey(Long placeId) {
+        return "place:" + placeId;
+    }
+
+    private static String categoryKey(Long categoryId) {
+        return "category:" + categoryId;
+    }
+}
@@ -0,0 +1,135 @@
+package com.hesho.reservation.service;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+
+/**
+ * The stored file of an {@link com.hesho.reservation.domain.Image}, with the hash of its content.
+ * <p>
+ * Building it does not touch the file, so a client already holding the hash can be answered without any disk access.
+ * The content of a hot file may also be kept in memory, see {@link ImageBodyCache}. A file kept in a remote
+ * {@link com.hesho.reservation.service.storage.BlobStore} has no path, only the key of its blob.
+ */
+public class ImageFile {
+
+    private final Path path;
+
+    private final String key;
+
+    private final String contentHash;
+
+    private final byte[] content;
+
+    private final long lastModified;
+
+    public ImageFile(Path path, String contentHash) {
+        this(path, null, contentHash, null, -1);
+    }
+
+    private ImageFile(Path path, String key, String contentHash, byte[] content, long lastModified) {
+        this.path = path;
+        this.key = key;
+        this.contentHash = contentHash;
+        this.content = content;
+        this.lastModified = lastModified;
+    }
+
+    /**
+     * Describe a blob of a remote store, served from the store itself.
+     *
+     * @param key the key of the blob.
+     * @param contentHash the hex encoded SHA-256 of its content.
+     * @return the file.
+     */
+    public static ImageFile remote(String key, String contentHash) {
+        return new ImageFile(null, key, contentHash, null, -1);
+    }
+
+    /**
+     * Describe a blob of a remote store read in memory, as the store cannot serve it itself.
+     *
+     * @param key the key of the blob.
+     * @param contentHash the hex encoded SHA-256 of its content.
+     * @param content its content.
+     * @return the file, without a modification time.
+     */
+    public static ImageFile remote(String key, String contentHash, byte[] content) {
+        return new ImageFile(null, key, contentHash, content, -1);
+    }
+
+    /**
+     * Read the whole file in memory.
+     *
+     * @return the same file, with its content.
+     * @throws IOException if the file cannot be read.
+     */
+    public ImageFile load() throws IOException {
+        long modified = readAttributes().lastModifiedTime().toMillis();
+        return new ImageFile(path, key, contentHash, Files.readAllBytes(path), modified);
+    }
+
+    /**
+     * @return the local file, or {@code null} if the file is kept in a remote store.
+     */
+    public Path getPath() {
+        return path;
+    }
+
+    /**
+     * @return the key of the blob in a remote store, or {@code null} if the file is local.
+     */
+    public String getKey() {
+        return key;
+    }
+
+    public String getFileName() {
+        return path != null ? path.getFileName().toString() : key.substring(key.lastIndexOf('/') + 1);
+    }
+
+    /**
+     * @return the hex encoded SHA-256 of the content of the file.
+     */
+    public String getContentHash() {
+        return contentHash;
+    }
+
+    /**
+     * @return the content of the file if it was loaded in memory, {@code null} otherwise.
+     */
+    public byte[] getContent() {
+        return content;
+    }
+
+    /**
+     * @return the modification time of a file loaded in memory, in milliseconds since the epoch, or -1 if unknown.
+     */
+    public long getLastModified() {
+        return lastModified;
+    }
+
+    /**
+     * Read the size and modification time of the file, without opening it.
+     *
+     * @return the attributes of the file.
+     * @throws IOException if the file cannot be read.
+     */
+    public BasicFileAttributes readAttributes() throws IOException {
+        if (path == null) {
+            throw new NoSuchFileException(key, null, "not a local file");
+        }
+        return Files.readAttributes(path, BasicFileAttributes.class);
+    }
+
+    @Override
+    public String toString() {
+        return "ImageFile{" +
+            "path=" + path +
+            ", key='" + key + "'" +
+            ", contentHash='" + contentHash + "'" +
+            ", loaded=" + (content != null) +
+            "}";
+    }
+}
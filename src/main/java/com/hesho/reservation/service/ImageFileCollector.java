@@ -0,0 +1,266 @@
+package com.hesho.reservation.service;
+
+import com.google.common.util.concurrent.RateLimiter;
+import com.hesho.reservation.config.ApplicationProperties;
+import com.hesho.reservation.repository.ImageRepository;
+import com.hesho.reservation.service.storage.BlobStore;
+import com.hesho.reservation.service.storage.FileSystemBlobStore;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.LinkOption;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.nio.file.attribute.FileTime;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Removes the image files no {@link com.hesho.reservation.domain.Image} references any more, such as those left by an
+ * upload whose transaction rolled back, and the staging files of interrupted uploads.
+ * <p>
+ * The directories are listed with a {@link DirectoryStream}, so they are never held in memory, and their files are
+ * checked against the database in chunks. An unreferenced file is first moved to a {@value #QUARANTINE_DIRECTORY}
+ * directory, then deleted once it stayed unreferenced for the quarantine period; a file referenced again meanwhile
+ * is put back. The scan is throttled, and the reclaimed space is exported as the {@value #RECLAIMED_METRIC} metric.
+ * <p>
+ * Only the local file system store is scanned; an object store expires unreferenced objects with its own rules.
+ */
+@Service
+public class ImageFileCollector {
+
+    static final String QUARANTINE_DIRECTORY = "quarantine";
+
+    static final String RECLAIMED_METRIC = "images.collected.bytes";
+
+    private final Logger log = LoggerFactory.getLogger(ImageFileCollector.class);
+
+    private final ImageRepository imageRepository;
+
+    private final BlobStore blobStore;
+
+    private final ImageBlobLocks imageBlobLocks;
+
+    private final ImageVariantService imageVariantService;
+
+    private final ApplicationProperties.ImageGc properties;
+
+    private final RateLimiter rateLimiter;
+
+    private final Counter reclaimedBytes;
+
+    private final Counter deletedFiles;
+
+    public ImageFileCollector(ImageRepository imageRepository, BlobStore blobStore, ImageBlobLocks imageBlobLocks,
+                              ImageVariantService imageVariantService, ApplicationProperties applicationProperties,
+                              MeterRegistry meterRegistry) {
+        this.imageRepository = imageRepository;
+        this.blobStore = blobStore;
+        this.imageBlobLocks = imageBlobLocks;
+        this.imageVariantService = imageVariantService;
+        this.properties = applicationProperties.getImageGc();
+        this.rateLimiter = RateLimiter.create(properties.getMaxFilesPerSecond());
+        this.reclaimedBytes = Counter.builder(RECLAIMED_METRIC)
+            .description("Space reclaimed from unreferenced image files")
+            .baseUnit("bytes")
+            .register(meterRegistry);
+        this.deletedFiles = Counter.builder("images.collected.files")
+            .description("Unreferenced image files deleted")
+            .register(meterRegistry);
+    }
+
+    /**
+     * Scan the place and category directories: delete the files whose quarantine is over, then quarantine the newly
+     * unreferenced ones.
+     */
+    @Scheduled(initialDelayString = "${application.image-gc.delay-ms:3600000}", fixedDelayString = "${application.image-gc.delay-ms:3600000}")
+    public void collect() {
+        if (!(blobStore instanceof FileSystemBlobStore)) {
+            return;
+        }
+        Instant now = Instant.now();
+        for (String container : new String[]{BlobStore.PLACE, BlobStore.CATEGORY}) {
+            Path directory = ((FileSystemBlobStore) blobStore).getDirectory(container);
+            try {
+                purge(container, directory, now.minus(Duration.ofHours(properties.getQuarantineHours())));
+                quarantine(container, directory, now.minus(Duration.ofMinutes(properties.getGracePeriodMinutes())), now);
+            } catch (IOException e) {
+                log.warn("Could not collect unreferenced files of {}: {}", directory, e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Quarantine the unreferenced files of a directory last modified before a date.
+     */
+    private void quarantine(String container, Path directory, Instant modifiedBefore, Instant now) throws IOException {
+        List<Path> chunk = new ArrayList<>();
+        int quarantined = 0;
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory)) {
+            for (Path file : files) {
+                // the variants and quarantine directories are skipped here
+                BasicFileAttributes attributes = readOldFileAttributes(file, modifiedBefore);
+                if (attributes == null) {
+                    continue;
+                }
+                if (FileSystemBlobStore.isStagingFile(file)) {
+                    log.debug("Deleting abandoned staging file {}", file);
+                    delete(file, attributes.size());
+                    continue;
+                }
+                chunk.add(file);
+                if (chunk.size() == properties.getChunkSize()) {
+                    quarantined += quarantine(container, directory, chunk, now);
+                    chunk.clear();
+                }
+            }
+        }
+        quarantined += quarantine(container, directory, chunk, now);
+        if (quarantined > 0) {
+            log.info("Quarantined {} unreferenced files of {}", quarantined, directory);
+        }
+    }
+
+    private int quarantine(String container, Path directory, List<Path> chunk, Instant now) throws IOException {
+        if (chunk.isEmpty()) {
+            return 0;
+        }
+        Set<String> referenced = findReferenced(container, chunk);
+        Path quarantine = directory.resolve(QUARANTINE_DIRECTORY);
+        int quarantined = 0;
+        for (Path file : chunk) {
+            String fileName = file.getFileName().toString();
+            if (referenced.contains(fileName)) {
+                continue;
+            }
+            // an upload may have reused the file since the chunk was checked, or be about to reference it
+            boolean releasedByTransaction = imageBlobLocks.lockUntilCompletion(fileName);
+            try {
+                if (imageBlobLocks.isUploading(fileName) || countReferences(container, fileName) > 0) {
+                    continue;
+                }
+                rateLimiter.acquire();
+                Files.createDirectories(quarantine);
+                Path target = quarantine.resolve(fileName);
+                Files.move(file, target, StandardCopyOption.ATOMIC_MOVE);
+                // the quarantine period starts now
+                Files.setLastModifiedTime(target, FileTime.from(now));
+                quarantined++;
+            } catch (NoSuchFileException e) {
+                // deleted meanwhile
+            } finally {
+                if (!releasedByTransaction) {
+                    imageBlobLocks.unlock(fileName);
+                }
+            }
+        }
+        return quarantined;
+    }
+
+    /**
+     * Delete the files quarantined before a date, or put them back if they are referenced again.
+     */
+    private void purge(String container, Path directory, Instant quarantinedBefore) throws IOException {
+        Path quarantine = directory.resolve(QUARANTINE_DIRECTORY);
+        if (!Files.isDirectory(quarantine)) {
+            return;
+        }
+        List<Path> chunk = new ArrayList<>();
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(quarantine)) {
+            for (Path file : files) {
+                if (readOldFileAttributes(file, quarantinedBefore) == null) {
+                    continue;
+                }
+                chunk.add(file);
+                if (chunk.size() == properties.getChunkSize()) {
+                    purge(container, directory, chunk);
+                    chunk.clear();
+                }
+            }
+        }
+        purge(container, directory, chunk);
+    }
+
+    private void purge(String container, Path directory, List<Path> chunk) throws IOException {
+        if (chunk.isEmpty()) {
+            return;
+        }
+        Set<String> referenced = findReferenced(container, chunk);
+        for (Path file : chunk) {
+            String fileName = file.getFileName().toString();
+            Path original = directory.resolve(fileName);
+            boolean releasedByTransaction = imageBlobLocks.lockUntilCompletion(fileName);
+            try {
+                boolean stillReferenced = referenced.contains(fileName) || imageBlobLocks.isUploading(fileName)
+                    || countReferences(container, fileName) > 0;
+                rateLimiter.acquire();
+                if (stillReferenced && !Files.exists(original)) {
+                    log.info("Restoring quarantined file {}, referenced again", fileName);
+                    Files.move(file, original, StandardCopyOption.ATOMIC_MOVE);
+                    continue;
+                }
+                // unreferenced, or uploaded again since it was quarantined
+                delete(file, Files.size(file));
+                if (!stillReferenced) {
+                    imageVariantService.delete(original);
+                }
+            } catch (NoSuchFileException e) {
+                // deleted meanwhile
+            } finally {
+                if (!releasedByTransaction) {
+                    imageBlobLocks.unlock(fileName);
+                }
+            }
+        }
+    }
+
+    /**
+     * @return the attributes of a regular file last modified before a date, or {@code null} for anything else.
+     */
+    private BasicFileAttributes readOldFileAttributes(Path file, Instant modifiedBefore) throws IOException {
+        rateLimiter.acquire();
+        BasicFileAttributes attributes;
+        try {
+            attributes = Files.readAttributes(file, BasicFileAttributes.class, LinkOption.NOFOLLOW_LINKS);
+        } catch (NoSuchFileException e) {
+            return null;
+        }
+        if (!attributes.isRegularFile() || !attributes.lastModifiedTime().toInstant().isBefore(modifiedBefore)) {
+            return null;
+        }
+        return attributes;
+    }
+
+    private void delete(Path file, long size) throws IOException {
+        if (Files.deleteIfExists(file)) {
+            reclaimedBytes.increment(size);
+            deletedFiles.increment();
+        }
+    }
+
+    private Set<String> findReferenced(String container, List<Path> chunk) {
+        List<String> fileNames = chunk.stream().map(file -> file.getFileName().toString()).collect(Collectors.toList());
+        return BlobStore.PLACE.equals(container)
+            ? imageRepository.findPlaceImageUrls(fileNames)
+            : imageRepository.findCategoryImageUrls(fileNames);
+    }
+
+    private long countReferences(String container, String fileName) {
+        return BlobStore.PLACE.equals(container)
+            ? imageRepository.countByImageUrlAndPlaceIsNotNull(fileName)
+            : imageRepository.countByImageUrlAndCategoryIsNotNull(fileName);
+    }
+}
@@ -0,0 +1,100 @@
+package com.hesho.reservation.service;
+
+import com.hesho.reservation.repository.ImageRepository;
+import com.hesho.reservation.service.storage.BlobStore;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * In-memory index of the stored file of every {@link com.hesho.reservation.domain.Image}, by image url.
+ * <p>
+ * The container of a file is picked from the owner of its image, so serving an image by name needs neither a
+ * database query nor a probe of the place and category containers. Images missing from the index, such as those
+ * without a content hash yet or those of a store that cannot serve them itself, are looked up in the database and
+ * added on their first request.
+ */
+@Service
+public class ImageFileIndex {
+
+    private final Logger log = LoggerFactory.getLogger(ImageFileIndex.class);
+
+    private final ImageRepository imageRepository;
+
+    private final BlobStore blobStore;
+
+    private final ConcurrentMap<String, ImageFile> filesByUrl = new ConcurrentHashMap<>();
+
+    public ImageFileIndex(ImageRepository imageRepository, BlobStore blobStore) {
+        this.imageRepository = imageRepository;
+        this.blobStore = blobStore;
+    }
+
+    /**
+     * Build the index from the images stored in the database.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        log.debug("Loading image file index");
+        imageRepository.findAllFiles().forEach(row -> {
+            String container = row.getPlaceId() != null ? BlobStore.PLACE : row.getCategoryId() != null ? BlobStore.CATEGORY : null;
+            if (container == null) {
+                return;
+            }
+            String key = BlobStore.key(container, row.getImageUrl());
+            ImageFile file = blobStore.getLocalPath(key)
+                .map(path -> new ImageFile(path, row.getContentHash()))
+                .orElseGet(() -> blobStore.supportsPresign() ? ImageFile.remote(key, row.getContentHash()) : null);
+            if (file == null) {
+                return;
+            }
+            // a file shared by a place and a category image is served from the place container
+            if (row.getPlaceId() != null) {
+                filesByUrl.put(row.getImageUrl(), file);
+            } else {
+                filesByUrl.putIfAbsent(row.getImageUrl(), file);
+            }
+        });
+        log.info("Image file index loaded: {} files", filesByUrl.size());
+    }
+
+    /**
+     * @param imageUrl the url of an image.
+     * @return its file, or empty if it is not indexed.
+     */
+    public Optional<ImageFile> get(String imageUrl) {
+        return Optional.ofNullable(filesByUrl.get(imageUrl));
+    }
+
+    /**
+     * Add the file of a committed image.
+     *
+     * @param imageUrl the url of the image.
+     * @param file its file.
+     */
+    public void put(String imageUrl, ImageFile file) {
+        filesByUrl.put(imageUrl, file);
+    }
+
+    /**
+     * Forget the file of a deleted image; it is looked up again if other images still share it.
+     *
+     * @param imageUrl the url of the image.
+     */
+    public void remove(String imageUrl) {
+        filesByUrl.remove(imageUrl);
+    }
+
+    /**
+     * Forget every file, after a change whose images are unknown.
+     */
+    public void clear() {
+        filesByUrl.clear();
+    }
+}
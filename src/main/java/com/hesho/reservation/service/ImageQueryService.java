@@ -1,13 +1,18 @@
 package com.hesho.reservation.service;
 
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
+import javax.annotation.PostConstruct;
 import javax.persistence.criteria.JoinType;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -16,7 +21,11 @@ import io.github.jhipster.service.QueryService;
 
 import com.hesho.reservation.domain.Image;
 import com.hesho.reservation.domain.*; // for static metamodels
+import com.hesho.reservation.repository.KeysetCursor;
+import com.hesho.reservation.repository.KeysetPage;
+import com.hesho.reservation.repository.KeysetRepository;
 import com.hesho.reservation.repository.ImageRepository;
+import com.hesho.reservation.repository.SliceRepository;
 import com.hesho.reservation.service.dto.ImageCriteria;
 import com.hesho.reservation.service.dto.ImageDTO;
 import com.hesho.reservation.service.mapper.ImageMapper;
@@ -31,15 +40,40 @@ import com.hesho.reservation.service.mapper.ImageMapper;
 @Transactional(readOnly = true)
 public class ImageQueryService extends QueryService<Image> {
 
+    /**
+     * Attributes a keyset page may be sorted on, each backed by a {@code (key, id)} index, with their types.
+     */
+    public static final Map<String, Class<?>> KEYSET_SORT_PROPERTIES;
+
+    static {
+        Map<String, Class<?>> sortProperties = new HashMap<>();
+        sortProperties.put("id", Long.class);
+        KEYSET_SORT_PROPERTIES = Collections.unmodifiableMap(sortProperties);
+    }
+
     private final Logger log = LoggerFactory.getLogger(ImageQueryService.class);
 
     private final ImageRepository imageRepository;
 
     private final ImageMapper imageMapper;
 
-    public ImageQueryService(ImageRepository imageRepository, ImageMapper imageMapper) {
+    private final SliceRepository sliceRepository;
+
+    private final KeysetRepository keysetRepository;
+
+    public ImageQueryService(ImageRepository imageRepository, ImageMapper imageMapper, KeysetRepository keysetRepository, SliceRepository sliceRepository) {
         this.imageRepository = imageRepository;
         this.imageMapper = imageMapper;
+        this.keysetRepository = keysetRepository;
+        this.sliceRepository = sliceRepository;
+    }
+
+    /**
+     * Check the keyset sort attributes against the entity, so no cursor can name an unsupported one.
+     */
+    @PostConstruct
+    public void checkKeysetSortProperties() {
+        keysetRepository.checkSortProperties(Image.class, KEYSET_SORT_PROPERTIES);
     }
 
     /**
@@ -68,6 +102,35 @@ public class ImageQueryService extends QueryService<Image> {
             .map(imageMapper::toDto);
     }
 
+    /**
+     * Return a {@link Slice} of {@link ImageDTO} which matches the criteria from the database, without counting them.
+     * @param criteria The object which holds all the filters, which the entities should match.
+     * @param page The page, which should be returned.
+     * @return the matching entities.
+     */
+    @Transactional(readOnly = true)
+    public Slice<ImageDTO> findSliceByCriteria(ImageCriteria criteria, Pageable page) {
+        log.debug("find slice by criteria : {}, page: {}", criteria, page);
+        final Specification<Image> specification = createSpecification(criteria);
+        return sliceRepository.findAll(Image.class, specification, page)
+            .map(imageMapper::toDto);
+    }
+
+    /**
+     * Return the {@link KeysetPage} of {@link ImageDTO} which matches the criteria from the database, following a cursor.
+     * @param criteria The object which holds all the filters, which the entities should match.
+     * @param cursor The position of the page, which should be returned.
+     * @param size The maximum number of entities of the page.
+     * @return the matching entities.
+     */
+    @Transactional(readOnly = true)
+    public KeysetPage<ImageDTO> findByCriteria(ImageCriteria criteria, KeysetCursor cursor, int size) {
+        log.debug("find by criteria : {}, cursor: {}, size: {}", criteria, cursor, size);
+        final Specification<Image> specification = createSpecification(criteria);
+        return keysetRepository.findAll(Image.class, specification, cursor, size)
+            .map(imageMapper::toDto);
+    }
+
     /**
      * Return the number of matching entities in the database.
      * @param criteria The object which holds all the filters, which the entities should match.
@@ -3,13 +3,15 @@ package com.hesho.reservation.service;
 import com.hesho.reservation.domain.Category;
 import com.hesho.reservation.domain.Place;
 import com.hesho.reservation.service.dto.ImageDTO;
+import com.hesho.reservation.service.dto.ImageUploadResultDTO;
 
-import org.springframework.core.io.UrlResource;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.web.multipart.MultipartFile;
 
+import java.net.URI;
 import java.util.Map;
+import java.util.List;
 import java.util.Optional;
 import java.util.Set;
 
@@ -44,32 +46,60 @@ public interface ImageService {
     Optional<ImageDTO> findOne(Long id);
 
     /**
-     * Get the "id" image By Place.
+     * Get the file of an image.
      *
-     * @param imageName the id of the entity.
-     * @return the entity.
+     * @param imageName the name of the file.
+     * @return the file, or empty if there is no such image or its file is missing.
      */
-    public UrlResource findOneByImageUrl(String imageName);
+    Optional<ImageFile> findOneByImageUrl(String imageName);
 
     /**
-     * Get the "id" image By Place.
+     * Get the resized copy of an image best suited to a width.
      *
-     * @param id the id of the entity.
-     * @return the entity.
+     * @param imageName the name of the file.
+     * @param width the width needed, in pixels.
+     * @param format the format of the copy: {@code jpeg} or {@code webp}.
+     * @return the copy, or the original if it is not wider; empty if there is no such image or the copy is being
+     * generated.
      */
-    public UrlResource findOneByPlaceIdAndMainIsTrue(Long id);
+    Optional<ImageFile> findVariantByImageUrl(String imageName, int width, String format);
 
     /**
-     * Get the "id" image By Category.
+     * Get the file of the main image of a place.
      *
-     * @param id the id of the entity.
-     * @return the entity.
+     * @param id the id of the place.
+     * @return the file, or empty if the place has no main image or its file is missing.
      */
-    public UrlResource findOneByCategoryIdAndMainIsTrue(Long id);
+    Optional<ImageFile> findOneByPlaceIdAndMainIsTrue(Long id);
+
+    /**
+     * Get the file of the main image of a category.
+     *
+     * @param id the id of the category.
+     * @return the file, or empty if the category has no main image or its file is missing.
+     */
+    Optional<ImageFile> findOneByCategoryIdAndMainIsTrue(Long id);
+
+    /**
+     * Sign a temporary URL reading a file straight from its store.
+     *
+     * @param file the file.
+     * @return the URL, or empty if the file is served by this server.
+     */
+    Optional<URI> presign(ImageFile file);
 
 
    public ImageDTO saveImagesForPlace(MultipartFile image, Long placeId);
 
+    /**
+     * Save a gallery of images for a place: the files are written in parallel, the images inserted in one transaction.
+     *
+     * @param images the uploaded files.
+     * @param placeId the id of the place.
+     * @return the outcome of every file, in upload order.
+     */
+    List<ImageUploadResultDTO> saveImagesForPlace(List<MultipartFile> images, Long placeId);
+
 
     public ImageDTO saveImagesForCategory(MultipartFile image, Long categoryId);
 
@@ -0,0 +1,308 @@
+package com.hesho.reservation.service;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.hesho.reservation.config.ApplicationProperties;
+import org.apache.commons.io.FilenameUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.stereotype.Service;
+
+import javax.imageio.IIOImage;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReader;
+import javax.imageio.ImageWriteParam;
+import javax.imageio.ImageWriter;
+import javax.imageio.stream.ImageInputStream;
+import javax.imageio.stream.ImageOutputStream;
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+/**
+ * Generates and finds the resized copies of the stored images.
+ * <p>
+ * Every uploaded image gets a JPEG copy for each configured width smaller than its own, plus a WebP copy when an
+ * {@link ImageIO} WebP writer is on the classpath. The copies are written in a {@value #VARIANTS_DIRECTORY}
+ * directory next to the original by the {@code imageVariantExecutor} pool, so an upload never waits for them; a copy
+ * only becomes visible once complete. An image whose copies are missing, because it was stored earlier or its task
+ * was rejected by the full pool, is resized on its first request.
+ */
+@Service
+public class ImageVariantService {
+
+    public static final String JPEG = "jpeg";
+
+    public static final String WEBP = "webp";
+
+    static final String VARIANTS_DIRECTORY = "variants";
+
+    private static final long MAX_KNOWN_WIDTHS = 10_000;
+
+    private final Logger log = LoggerFactory.getLogger(ImageVariantService.class);
+
+    private final TaskExecutor imageVariantExecutor;
+
+    private final List<Integer> widths;
+
+    private final float jpegQuality;
+
+    private final boolean webpSupported = ImageIO.getImageWritersByFormatName(WEBP).hasNext();
+
+    private final Set<Path> pending = ConcurrentHashMap.newKeySet();
+
+    /**
+     * Width of the originals, read once: {@code 0} for files {@link ImageIO} cannot decode.
+     */
+    private final Cache<Path, Integer> originalWidths = CacheBuilder.newBuilder().maximumSize(MAX_KNOWN_WIDTHS).build();
+
+    public ImageVariantService(ApplicationProperties applicationProperties,
+                               @Qualifier("imageVariantExecutor") TaskExecutor imageVariantExecutor) {
+        this.imageVariantExecutor = imageVariantExecutor;
+        this.widths = applicationProperties.getImageVariants().getWidths().stream()
+            .filter(width -> width != null && width > 0)
+            .distinct()
+            .sorted()
+            .collect(Collectors.toList());
+        this.jpegQuality = applicationProperties.getImageVariants().getJpegQuality();
+    }
+
+    /**
+     * Generate the resized copies of an image in the background.
+     *
+     * @param original the stored image.
+     */
+    public void generate(Path original) {
+        if (widths.isEmpty() || !pending.add(original)) {
+            return;
+        }
+        try {
+            imageVariantExecutor.execute(() -> {
+                try {
+                    generateNow(original);
+                } finally {
+                    pending.remove(original);
+                }
+            });
+        } catch (TaskRejectedException e) {
+            pending.remove(original);
+            log.warn("Image variant queue is full, {} will be resized on its first request", original.getFileName());
+        }
+    }
+
+    /**
+     * Find the copy of an image best suited to a width: the smallest one at least as wide.
+     *
+     * @param original the stored image.
+     * @param width the width needed, in pixels.
+     * @param format {@link #JPEG} or {@link #WEBP}; WebP falls back to JPEG when it cannot be written.
+     * @return the copy; the original if no copy is smaller than it; empty if the copy is not generated yet, in which
+     * case its generation is started.
+     */
+    public Optional<ImageFile> findVariant(ImageFile original, int width, String format) {
+        Optional<Integer> variantWidth = widths.stream().filter(candidate -> candidate >= width).findFirst();
+        // copies are only generated for the local file system store
+        if (!variantWidth.isPresent() || original.getPath() == null) {
+            return Optional.of(original);
+        }
+        String variantFormat = WEBP.equals(format) && webpSupported ? WEBP : JPEG;
+        Path variant = variantPath(original.getPath(), variantWidth.get(), variantFormat);
+        if (Files.isRegularFile(variant)) {
+            return Optional.of(new ImageFile(variant, original.getContentHash() + "-" + variantWidth.get() + "-" + variantFormat));
+        }
+        if (originalWidth(original.getPath()) <= variantWidth.get()) {
+            return Optional.of(original);
+        }
+        generate(original.getPath());
+        return Optional.empty();
+    }
+
+    /**
+     * Delete the resized copies of a deleted image.
+     *
+     * @param original the deleted image.
+     */
+    public void delete(Path original) {
+        for (int width : widths) {
+            for (String format : new String[]{JPEG, WEBP}) {
+                Path variant = variantPath(original, width, format);
+                try {
+                    Files.deleteIfExists(variant);
+                } catch (IOException e) {
+                    log.warn("Could not delete image variant {}: {}", variant.getFileName(), e.getMessage());
+                }
+            }
+        }
+        originalWidths.invalidate(original);
+    }
+
+    /**
+     * Resize an image to every configured width smaller than its own, skipping the copies already written.
+     */
+    void generateNow(Path original) {
+        BufferedImage image;
+        try {
+            image = ImageIO.read(original.toFile());
+        } catch (IOException e) {
+            log.warn("Could not read image {}: {}", original.getFileName(), e.getMessage());
+            return;
+        }
+        if (image == null) {
+            log.debug("Not resizing {}: unsupported image format", original.getFileName());
+            originalWidths.put(original, 0);
+            return;
+        }
+        originalWidths.put(original, image.getWidth());
+        List<String> formats = new ArrayList<>();
+        formats.add(JPEG);
+        if (webpSupported) {
+            formats.add(WEBP);
+        }
+        for (int width : widths) {
+            if (width >= image.getWidth()) {
+                break;
+            }
+            BufferedImage resized = null;
+            for (String format : formats) {
+                Path variant = variantPath(original, width, format);
+                if (Files.isRegularFile(variant)) {
+                    continue;
+                }
+                if (resized == null) {
+                    resized = resize(image, width);
+                }
+                try {
+                    write(resized, format, variant);
+                } catch (IOException e) {
+                    log.warn("Could not write image variant {}: {}", variant.getFileName(), e.getMessage());
+                }
+            }
+        }
+        log.debug("Resized image {}", original.getFileName());
+    }
+
+    static Path variantPath(Path original, int width, String format) {
+        String extension = JPEG.equals(format) ? "jpg" : format;
+        return original.resolveSibling(VARIANTS_DIRECTORY)
+            .resolve(FilenameUtils.getBaseName(original.getFileName().toString()) + "-" + width + "." + extension);
+    }
+
+    /**
+     * Scale an image down to a width, keeping its aspect ratio. The size is at most halved at each step, so bilinear
+     * interpolation still samples every source pixel.
+     */
+    static BufferedImage resize(BufferedImage source, int width) {
+        int height = Math.max(1, (int) Math.round((double) source.getHeight() * width / source.getWidth()));
+        int type = source.getColorModel().hasAlpha() ? BufferedImage.TYPE_INT_ARGB : BufferedImage.TYPE_INT_RGB;
+        BufferedImage current = source;
+        int currentWidth = source.getWidth();
+        int currentHeight = source.getHeight();
+        do {
+            currentWidth = Math.max(width, currentWidth / 2);
+            currentHeight = Math.max(height, currentHeight / 2);
+            BufferedImage next = new BufferedImage(currentWidth, currentHeight, type);
+            Graphics2D graphics = next.createGraphics();
+            graphics.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+            graphics.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+            graphics.drawImage(current, 0, 0, currentWidth, currentHeight, null);
+            graphics.dispose();
+            current = next;
+        } while (currentWidth != width || currentHeight != height);
+        return current;
+    }
+
+    private int originalWidth(Path original) {
+        Integer width = originalWidths.getIfPresent(original);
+        if (width != null) {
+            return width;
+        }
+        width = 0;
+        try (ImageInputStream input = ImageIO.createImageInputStream(original.toFile())) {
+            Iterator<ImageReader> readers = input == null ? null : ImageIO.getImageReaders(input);
+            if (readers != null && readers.hasNext()) {
+                ImageReader reader = readers.next();
+                try {
+                    reader.setInput(input, true, true);
+                    width = reader.getWidth(0);
+                } finally {
+                    reader.dispose();
+                }
+            }
+        } catch (IOException e) {
+            log.warn("Could not read image {}: {}", original.getFileName(), e.getMessage());
+        }
+        originalWidths.put(original, width);
+        return width;
+    }
+
+    private void write(BufferedImage image, String format, Path variant) throws IOException {
+        Iterator<ImageWriter> writers = ImageIO.getImageWritersByFormatName(format);
+        if (!writers.hasNext()) {
+            return;
+        }
+        BufferedImage encoded = JPEG.equals(format) ? withoutAlpha(image) : image;
+        Files.createDirectories(variant.getParent());
+        Path temporary = Files.createTempFile(variant.getParent(), variant.getFileName().toString(), ".tmp");
+        ImageWriter writer = writers.next();
+        try {
+            ImageWriteParam param = writer.getDefaultWriteParam();
+            if (param.canWriteCompressed()) {
+                param.setCompressionMode(ImageWriteParam.MODE_EXPLICIT);
+                String[] compressionTypes = param.getCompressionTypes();
+                if (compressionTypes != null && compressionTypes.length > 0) {
+                    param.setCompressionType(compressionTypes[0]);
+                }
+                param.setCompressionQuality(jpegQuality);
+            }
+            try (ImageOutputStream output = ImageIO.createImageOutputStream(temporary.toFile())) {
+                writer.setOutput(output);
+                writer.write(null, new IIOImage(encoded, null, null), param);
+            }
+            // readers never see a partly written copy
+            Files.move(temporary, variant, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            writer.dispose();
+            Files.deleteIfExists(temporary);
+        }
+    }
+
+    private static BufferedImage withoutAlpha(BufferedImage image) {
+        if (!image.getColorModel().hasAlpha()) {
+            return image;
+        }
+        BufferedImage opaque = new BufferedImage(image.getWidth(), image.getHeight(), BufferedImage.TYPE_INT_RGB);
+        Graphics2D graphics = opaque.createGraphics();
+        graphics.setColor(Color.WHITE);
+        graphics.fillRect(0, 0, image.getWidth(), image.getHeight());
+        graphics.drawImage(image, 0, 0, null);
+        graphics.dispose();
+        return opaque;
+    }
+
+    /**
+     * @return the format of a variant request, or {@code null} if it is not supported.
+     */
+    public static String normalizeFormat(String format) {
+        String normalized = format.toLowerCase(Locale.ROOT);
+        if ("jpg".equals(normalized)) {
+            return JPEG;
+        }
+        return JPEG.equals(normalized) || WEBP.equals(normalized) ? normalized : null;
+    }
+}
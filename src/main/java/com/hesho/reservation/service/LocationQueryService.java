@@ -8,6 +8,7 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -17,6 +18,7 @@ import io.github.jhipster.service.QueryService;
 import com.hesho.reservation.domain.Location;
 import com.hesho.reservation.domain.*; // for static metamodels
 import com.hesho.reservation.repository.LocationRepository;
+import com.hesho.reservation.repository.SliceRepository;
 import com.hesho.reservation.service.dto.LocationCriteria;
 import com.hesho.reservation.service.dto.LocationDTO;
 import com.hesho.reservation.service.mapper.LocationMapper;
@@ -37,9 +39,12 @@ public class LocationQueryService extends QueryService<Location> {
 
     private final LocationMapper locationMapper;
 
-    public LocationQueryService(LocationRepository locationRepository, LocationMapper locationMapper) {
+    private final SliceRepository sliceRepository;
+
+    public LocationQueryService(LocationRepository locationRepository, LocationMapper locationMapper, SliceRepository sliceRepository) {
         this.locationRepository = locationRepository;
         this.locationMapper = locationMapper;
+        this.sliceRepository = sliceRepository;
     }
 
     /**
@@ -68,6 +73,20 @@ public class LocationQueryService extends QueryService<Location> {
             .map(locationMapper::toDto);
     }
 
+    /**
+     * Return a {@link Slice} of {@link LocationDTO} which matches the criteria from the database, without counting them.
+     * @param criteria The object which holds all the filters, which the entities should match.
+     * @param page The page, which should be returned.
+     * @return the matching entities.
+     */
+    @Transactional(readOnly = true)
+    public Slice<LocationDTO> findSliceByCriteria(LocationCriteria criteria, Pageable page) {
+        log.debug("find slice by criteria : {}, page: {}", criteria, page);
+        final Specification<Location> specification = createSpecification(criteria);
+        return sliceRepository.findAll(Location.class, specification, page)
+            .map(locationMapper::toDto);
+    }
+
     /**
      * Return the number of matching entities in the database.
      * @param criteria The object which holds all the filters, which the entities should match.
@@ -95,10 +114,10 @@ public class LocationQueryService extends QueryService<Location> {
                 specification = specification.and(buildStringSpecification(criteria.getAddress(), Location_.address));
             }
             if (criteria.getLatitude() != null) {
-                specification = specification.and(buildStringSpecification(criteria.getLatitude(), Location_.latitude));
+                specification = specification.and(buildRangeSpecification(criteria.getLatitude(), Location_.latitude));
             }
             if (criteria.getLongitude() != null) {
-                specification = specification.and(buildStringSpecification(criteria.getLongitude(), Location_.longitude));
+                specification = specification.and(buildRangeSpecification(criteria.getLongitude(), Location_.longitude));
             }
             if (criteria.getCity() != null) {
                 specification = specification.and(buildStringSpecification(criteria.getCity(), Location_.city));
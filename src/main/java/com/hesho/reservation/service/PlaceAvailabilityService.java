@@ -0,0 +1,208 @@
+package com.hesho.reservation.service;
+
+import com.hesho.reservation.config.ApplicationProperties;
+import com.hesho.reservation.repository.PlaceRepository;
+import com.hesho.reservation.service.dto.PlaceAvailabilityDTO;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.time.temporal.ChronoUnit;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Service answering availability requests for {@link com.hesho.reservation.domain.Place}s.
+ * <p>
+ * Every place has a bitmap with one bit per day (UTC) of the configured horizon, built lazily from the
+ * {@link ReservationIntervalIndex} and updated whenever the index changes. Requests never query the database: the
+ * ids of the existing places are kept in memory, loaded at startup and updated by {@link PlaceChangedEvent}s, so no
+ * bitmap is built for an unknown id. Days outside the horizon are answered directly from the index.
+ */
+@Service
+public class PlaceAvailabilityService implements ReservationIntervalIndex.Listener {
+
+    private static final long DAY_MILLIS = ChronoUnit.DAYS.getDuration().toMillis();
+
+    private final Logger log = LoggerFactory.getLogger(PlaceAvailabilityService.class);
+
+    private final ReservationIntervalIndex reservationIntervalIndex;
+
+    private final PlaceRepository placeRepository;
+
+    private final ApplicationProperties applicationProperties;
+
+    private final Set<Long> placeIds = ConcurrentHashMap.newKeySet();
+
+    private volatile Horizon horizon;
+
+    public PlaceAvailabilityService(ReservationIntervalIndex reservationIntervalIndex, PlaceRepository placeRepository,
+                                    ApplicationProperties applicationProperties) {
+        this.reservationIntervalIndex = reservationIntervalIndex;
+        this.placeRepository = placeRepository;
+        this.applicationProperties = applicationProperties;
+        this.horizon = newHorizon();
+        reservationIntervalIndex.addListener(this);
+    }
+
+    /**
+     * Load the ids of the places stored in the database.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        placeIds.clear();
+        placeIds.addAll(placeRepository.findAllIds());
+        log.info("Place availability loaded: {} places", placeIds.size());
+    }
+
+    /**
+     * Keep the place ids in sync with committed place writes.
+     *
+     * @param event the change.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onPlaceChanged(PlaceChangedEvent event) {
+        if (event.isDeleted()) {
+            placeIds.remove(event.getPlaceId());
+            horizon.bitmaps.remove(event.getPlaceId());
+        } else {
+            placeIds.add(event.getPlaceId());
+        }
+    }
+
+    /**
+     * Get the booked and free days of a place.
+     *
+     * @param placeId the id of the place.
+     * @param from the first day, inclusive.
+     * @param to the last day, inclusive.
+     * @return the availability of the place, or empty if the place does not exist.
+     */
+    public Optional<PlaceAvailabilityDTO> getAvailability(Long placeId, LocalDate from, LocalDate to) {
+        log.debug("Request to get availability of Place {} from {} to {}", placeId, from, to);
+        if (placeId == null || !placeIds.contains(placeId)) {
+            return Optional.empty();
+        }
+        Horizon current = horizon;
+        DayBitmap bitmap = current.bitmaps.computeIfAbsent(placeId, id -> build(current, id));
+        PlaceAvailabilityDTO availability = new PlaceAvailabilityDTO();
+        availability.setPlaceId(placeId);
+        availability.setFrom(from);
+        availability.setTo(to);
+        for (long day = from.toEpochDay(); day <= to.toEpochDay(); day++) {
+            long offset = day - current.firstDay;
+            boolean booked = offset >= 0 && offset < current.days
+                ? bitmap.get((int) offset)
+                : isBooked(placeId, day);
+            if (booked) {
+                availability.getBookedDays().add(LocalDate.ofEpochDay(day));
+            } else {
+                availability.getFreeDays().add(LocalDate.ofEpochDay(day));
+            }
+        }
+        return Optional.of(availability);
+    }
+
+    @Override
+    public void intervalChanged(Long placeId, long start, long end) {
+        Horizon current = horizon;
+        // computeIfPresent waits for a bitmap being built for the same place, so no change is lost
+        current.bitmaps.computeIfPresent(placeId, (id, bitmap) -> {
+            long first = Math.max(Math.floorDiv(start, DAY_MILLIS), current.firstDay);
+            long last = Math.min(Math.floorDiv(end - 1, DAY_MILLIS), current.firstDay + current.days - 1);
+            for (long day = first; day <= last; day++) {
+                bitmap.set((int) (day - current.firstDay), isBooked(id, day));
+            }
+            return bitmap;
+        });
+    }
+
+    @Override
+    public void reloaded() {
+        horizon = newHorizon();
+    }
+
+    /**
+     * Move the horizon forward, so it always starts today.
+     * <p>
+     * This is scheduled to get fired everyday, at 00:00 (UTC).
+     */
+    @Scheduled(cron = "0 0 0 * * ?", zone = "UTC")
+    public void moveHorizon() {
+        log.debug("Moving availability horizon");
+        horizon = newHorizon();
+    }
+
+    private boolean isBooked(Long placeId, long day) {
+        return reservationIntervalIndex.hasConflict(placeId, day * DAY_MILLIS, (day + 1) * DAY_MILLIS, null);
+    }
+
+    private DayBitmap build(Horizon current, Long placeId) {
+        DayBitmap bitmap = new DayBitmap(current.days);
+        reservationIntervalIndex.forEachInterval(placeId, (start, end) -> {
+            long first = Math.max(Math.floorDiv(start, DAY_MILLIS), current.firstDay);
+            long last = Math.min(Math.floorDiv(end - 1, DAY_MILLIS), current.firstDay + current.days - 1);
+            for (long day = first; day <= last; day++) {
+                bitmap.set((int) (day - current.firstDay), true);
+            }
+        });
+        return bitmap;
+    }
+
+    private Horizon newHorizon() {
+        LocalDate today = LocalDate.now(ZoneOffset.UTC);
+        LocalDate end = today.plusMonths(applicationProperties.getAvailability().getHorizonMonths());
+        return new Horizon(today.toEpochDay(), (int) ChronoUnit.DAYS.between(today, end));
+    }
+
+    /**
+     * The days covered by the bitmaps, and the bitmaps built so far.
+     */
+    private static final class Horizon {
+
+        private final long firstDay;
+
+        private final int days;
+
+        private final ConcurrentMap<Long, DayBitmap> bitmaps = new ConcurrentHashMap<>();
+
+        private Horizon(long firstDay, int days) {
+            this.firstDay = firstDay;
+            this.days = days;
+        }
+    }
+
+    /**
+     * One bit per day, safe for concurrent reads and writes.
+     */
+    private static final class DayBitmap {
+
+        private final AtomicLongArray words;
+
+        private DayBitmap(int days) {
+            this.words = new AtomicLongArray((days + 63) >>> 6);
+        }
+
+        boolean get(int day) {
+            return (words.get(day >>> 6) & (1L << day)) != 0;
+        }
+
+        void set(int day, boolean booked) {
+            long mask = 1L << day;
+            int index = day >>> 6;
+            long word;
+            do {
+                word = words.get(index);
+            } while (!words.compareAndSet(index, word, booked ? word | mask : word & ~mask));
+        }
+    }
+}
@@ -0,0 +1,51 @@
+package com.hesho.reservation.service;
+
+import com.hesho.reservation.service.dto.PlaceDTO;
+
+/**
+ * Published when a {@link com.hesho.reservation.domain.Place} or its location is saved or deleted, so the in-memory
+ * place indexes can be updated. Listeners should use
+ * {@link org.springframework.transaction.event.TransactionalEventListener} to only see committed changes.
+ */
+public class PlaceChangedEvent {
+
+    private final Long placeId;
+
+    private final PlaceDTO place;
+
+    private PlaceChangedEvent(Long placeId, PlaceDTO place) {
+        this.placeId = placeId;
+        this.place = place;
+    }
+
+    public static PlaceChangedEvent saved(PlaceDTO place) {
+        return new PlaceChangedEvent(place.getId(), place);
+    }
+
+    public static PlaceChangedEvent deleted(Long placeId) {
+        return new PlaceChangedEvent(placeId, null);
+    }
+
+    public Long getPlaceId() {
+        return placeId;
+    }
+
+    /**
+     * @return the saved place, or {@code null} if it was deleted.
+     */
+    public PlaceDTO getPlace() {
+        return place;
+    }
+
+    public boolean isDeleted() {
+        return place == null;
+    }
+
+    @Override
+    public String toString() {
+        return "PlaceChangedEvent{" +
+            "placeId=" + placeId +
+            ", deleted=" + isDeleted() +
+            "}";
+    }
+}
@@ -0,0 +1,450 @@
+package com.hesho.reservation.service;
+
+import com.hesho.reservation.repository.PlaceRepository;
+import com.hesho.reservation.service.dto.CategoryDTO;
+import com.hesho.reservation.service.dto.PlaceCriteria;
+import com.hesho.reservation.service.dto.PlaceDTO;
+import com.hesho.reservation.service.dto.PlaceFacetsDTO;
+import io.github.jhipster.service.filter.Filter;
+import io.github.jhipster.service.filter.RangeFilter;
+import io.github.jhipster.service.filter.StringFilter;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Predicate;
+
+/**
+ * In-memory columnar snapshot of the filterable fields of every {@link com.hesho.reservation.domain.Place}, with its
+ * {@link com.hesho.reservation.domain.Location} city and {@link com.hesho.reservation.domain.Category}, used to count
+ * the places matching a {@link PlaceCriteria} by category, city and price in a single pass.
+ * <p>
+ * Each field is a primitive array indexed by row; rows are kept dense by moving the last row into the hole left by a
+ * removed place. Categories and cities are dictionary encoded, so their filters are evaluated once per distinct value
+ * rather than once per place. Filters follow the semantics of {@link io.github.jhipster.service.QueryService}.
+ */
+@Service
+public class PlaceFacetIndex {
+
+    private static final int INITIAL_CAPACITY = 1024;
+
+    private static final long NO_ID = Long.MIN_VALUE;
+
+    private static final int NO_VALUE = -1;
+
+    private final Logger log = LoggerFactory.getLogger(PlaceFacetIndex.class);
+
+    private final PlaceRepository placeRepository;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private final Map<Long, Integer> rowsByPlace = new HashMap<>();
+
+    private final Dictionary<Long> categoryDictionary = new Dictionary<>();
+
+    private final Dictionary<String> cityDictionary = new Dictionary<>();
+
+    private final Map<Long, String> categoryNames = new HashMap<>();
+
+    private int size;
+
+    private long[] ids;
+
+    private long[] locationIds;
+
+    private int[] categories;
+
+    private int[] cities;
+
+    private double[] prices;
+
+    private String[] names;
+
+    private String[] specifications;
+
+    private String[] descriptions;
+
+    public PlaceFacetIndex(PlaceRepository placeRepository) {
+        this.placeRepository = placeRepository;
+        clear();
+    }
+
+    /**
+     * Build the snapshot from the places stored in the database.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        log.debug("Loading place facet index");
+        List<PlaceRepository.PlaceRow> rows = placeRepository.findAllRows();
+        lock.writeLock().lock();
+        try {
+            clear();
+            for (PlaceRepository.PlaceRow row : rows) {
+                if (row.getCategoryId() != null && row.getCategoryName() != null) {
+                    categoryNames.put(row.getCategoryId(), row.getCategoryName());
+                }
+                put(row.getId(), row.getName(), row.getSpecification(), row.getDescription(), row.getPrice(), row.getLocationId(),
+                    row.getCity(), row.getCategoryId());
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+        log.info("Place facet index loaded: {} places, {} categories, {} cities", size, categoryDictionary.size(), cityDictionary.size());
+    }
+
+    /**
+     * Keep the snapshot in sync with committed place writes.
+     *
+     * @param event the change.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onPlaceChanged(PlaceChangedEvent event) {
+        PlaceDTO place = event.getPlace();
+        if (place == null) {
+            remove(event.getPlaceId());
+        } else {
+            put(place);
+        }
+    }
+
+    /**
+     * Keep the category names in sync with committed category writes.
+     *
+     * @param event the change.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCategoryChanged(CategoryChangedEvent event) {
+        CategoryDTO category = event.getCategory();
+        lock.writeLock().lock();
+        try {
+            if (category == null || category.getName() == null) {
+                categoryNames.remove(event.getCategoryId());
+            } else {
+                categoryNames.put(category.getId(), category.getName());
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Add or replace a place.
+     *
+     * @param place the place.
+     */
+    public void put(PlaceDTO place) {
+        if (place.getId() == null) {
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            if (place.getCategoryId() != null && place.getCategoryName() != null) {
+                categoryNames.put(place.getCategoryId(), place.getCategoryName());
+            }
+            put(place.getId(), place.getName(), place.getSpecification(), place.getDescription(), place.getPrice(),
+                place.getLocationId(), place.getCity(), place.getCategoryId());
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Remove a place from the snapshot.
+     *
+     * @param placeId the id of the place.
+     */
+    public void remove(Long placeId) {
+        lock.writeLock().lock();
+        try {
+            Integer row = rowsByPlace.remove(placeId);
+            if (row == null) {
+                return;
+            }
+            int last = --size;
+            if (row != last) {
+                ids[row] = ids[last];
+                locationIds[row] = locationIds[last];
+                categories[row] = categories[last];
+                cities[row] = cities[last];
+                prices[row] = prices[last];
+                names[row] = names[last];
+                specifications[row] = specifications[last];
+                descriptions[row] = descriptions[last];
+                rowsByPlace.put(ids[row], row);
+            }
+            names[last] = null;
+            specifications[last] = null;
+            descriptions[last] = null;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Whether the snapshot holds every field a criteria filters on.
+     *
+     * @param criteria the filters.
+     * @return false if the criteria filters on images or reservations.
+     */
+    public static boolean supports(PlaceCriteria criteria) {
+        return criteria == null || (criteria.getImagesId() == null && criteria.getReservationsId() == null);
+    }
+
+    /**
+     * Count the places matching a criteria, by category, city and price.
+     *
+     * @param criteria the filters; may be {@code null}.
+     * @param priceInterval the width of the price buckets.
+     * @return the counts; categories and cities by decreasing count, prices by increasing bucket.
+     * @throws IllegalArgumentException if the criteria is not {@link #supports(PlaceCriteria) supported}.
+     */
+    public PlaceFacetsDTO facets(PlaceCriteria criteria, double priceInterval) {
+        if (!supports(criteria)) {
+            throw new IllegalArgumentException("Facets cannot filter on images or reservations");
+        }
+        PlaceCriteria filters = criteria == null ? new PlaceCriteria() : criteria;
+        Predicate<Long> idMatcher = rangeMatcher(filters.getId());
+        Predicate<String> nameMatcher = stringMatcher(filters.getName());
+        Predicate<String> specificationMatcher = stringMatcher(filters.getSpecification());
+        Predicate<String> descriptionMatcher = stringMatcher(filters.getDescription());
+        Predicate<Long> locationMatcher = matcher(filters.getLocationId());
+        Predicate<Double> priceMatcher = rangeMatcher(filters.getPrice());
+        boolean filtersPrice = filters.getPrice() != null;
+        boolean filtersOthers = filters.getId() != null || filters.getName() != null || filters.getSpecification() != null
+            || filters.getDescription() != null || filters.getLocationId() != null;
+
+        lock.readLock().lock();
+        try {
+            boolean[] categoryMatches = categoryDictionary.matches(matcher(filters.getCategoryId()));
+            boolean[] cityMatches = cityDictionary.matches(stringMatcher(filters.getCity()));
+            boolean noCategoryMatches = matcher(filters.getCategoryId()).test(null);
+            boolean noCityMatches = stringMatcher(filters.getCity()).test(null);
+            long[] categoryCounts = new long[categoryMatches.length];
+            long[] cityCounts = new long[cityMatches.length];
+            Map<Long, long[]> priceCounts = new TreeMap<>();
+            long total = 0;
+            for (int row = 0; row < size; row++) {
+                if (filtersOthers && !(idMatcher.test(ids[row])
+                    && locationMatcher.test(locationIds[row] == NO_ID ? null : locationIds[row])
+                    && nameMatcher.test(names[row])
+                    && specificationMatcher.test(specifications[row])
+                    && descriptionMatcher.test(descriptions[row]))) {
+                    continue;
+                }
+                int category = categories[row];
+                int city = cities[row];
+                double price = prices[row];
+                boolean categoryMatch = category == NO_VALUE ? noCategoryMatches : categoryMatches[category];
+                boolean cityMatch = city == NO_VALUE ? noCityMatches : cityMatches[city];
+                boolean priceMatch = !filtersPrice || priceMatcher.test(Double.isNaN(price) ? null : price);
+                if (categoryMatch && cityMatch && priceMatch) {
+                    total++;
+                }
+                if (category != NO_VALUE && cityMatch && priceMatch) {
+                    categoryCounts[category]++;
+                }
+                if (city != NO_VALUE && categoryMatch && priceMatch) {
+                    cityCounts[city]++;
+                }
+                if (!Double.isNaN(price) && categoryMatch && cityMatch) {
+                    priceCounts.computeIfAbsent((long) Math.floor(price / priceInterval), bucket -> new long[1])[0]++;
+                }
+            }
+
+            PlaceFacetsDTO facets = new PlaceFacetsDTO();
+            facets.setTotal(total);
+            for (int category = 0; category < categoryCounts.length; category++) {
+                if (categoryCounts[category] > 0) {
+                    Long categoryId = categoryDictionary.value(category);
+                    facets.getCategories().add(new PlaceFacetsDTO.CategoryCount(categoryId, categoryNames.get(categoryId), categoryCounts[category]));
+                }
+            }
+            facets.getCategories().sort(Comparator.comparingLong(PlaceFacetsDTO.CategoryCount::getCount).reversed()
+                .thenComparing(PlaceFacetsDTO.CategoryCount::getCategoryId));
+            for (int city = 0; city < cityCounts.length; city++) {
+                if (cityCounts[city] > 0) {
+                    facets.getCities().add(new PlaceFacetsDTO.CityCount(cityDictionary.value(city), cityCounts[city]));
+                }
+            }
+            facets.getCities().sort(Comparator.comparingLong(PlaceFacetsDTO.CityCount::getCount).reversed()
+                .thenComparing(PlaceFacetsDTO.CityCount::getCity));
+            priceCounts.forEach((bucket, count) ->
+                facets.getPrices().add(new PlaceFacetsDTO.PriceBucket(bucket * priceInterval, (bucket + 1) * priceInterval, count[0])));
+            return facets;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    static <T> Predicate<T> matcher(Filter<T> filter) {
+        if (filter == null) {
+            return value -> true;
+        }
+        if (filter.getEquals() != null) {
+            T equals = filter.getEquals();
+            return equals::equals;
+        }
+        if (filter.getIn() != null) {
+            Set<T> in = new HashSet<>(filter.getIn());
+            return value -> value != null && in.contains(value);
+        }
+        Predicate<T> matcher = value -> true;
+        if (filter.getSpecified() != null) {
+            boolean specified = filter.getSpecified();
+            matcher = matcher.and(value -> (value != null) == specified);
+        }
+        if (filter.getNotEquals() != null) {
+            T notEquals = filter.getNotEquals();
+            matcher = matcher.and(value -> value != null && !notEquals.equals(value));
+        }
+        if (filter.getNotIn() != null) {
+            Set<T> notIn = new HashSet<>(filter.getNotIn());
+            matcher = matcher.and(value -> value != null && !notIn.contains(value));
+        }
+        return matcher;
+    }
+
+    static <T extends Comparable<? super T>> Predicate<T> rangeMatcher(RangeFilter<T> filter) {
+        Predicate<T> matcher = matcher(filter);
+        if (filter == null || filter.getEquals() != null || filter.getIn() != null) {
+            return matcher;
+        }
+        if (filter.getGreaterThan() != null) {
+            T bound = filter.getGreaterThan();
+            matcher = matcher.and(value -> value != null && value.compareTo(bound) > 0);
+        }
+        if (filter.getGreaterThanOrEqual() != null) {
+            T bound = filter.getGreaterThanOrEqual();
+            matcher = matcher.and(value -> value != null && value.compareTo(bound) >= 0);
+        }
+        if (filter.getLessThan() != null) {
+            T bound = filter.getLessThan();
+            matcher = matcher.and(value -> value != null && value.compareTo(bound) < 0);
+        }
+        if (filter.getLessThanOrEqual() != null) {
+            T bound = filter.getLessThanOrEqual();
+            matcher = matcher.and(value -> value != null && value.compareTo(bound) <= 0);
+        }
+        return matcher;
+    }
+
+    static Predicate<String> stringMatcher(StringFilter filter) {
+        if (filter == null || filter.getEquals() != null || filter.getIn() != null) {
+            return matcher(filter);
+        }
+        if (filter.getContains() != null) {
+            String contains = filter.getContains().toUpperCase(Locale.ROOT);
+            return value -> value != null && value.toUpperCase(Locale.ROOT).contains(contains);
+        }
+        if (filter.getDoesNotContain() != null) {
+            String doesNotContain = filter.getDoesNotContain().toUpperCase(Locale.ROOT);
+            return value -> value != null && !value.toUpperCase(Locale.ROOT).contains(doesNotContain);
+        }
+        return matcher(filter);
+    }
+
+    private void put(Long placeId, String name, String specification, String description, Double price, Long locationId,
+                     String city, Long categoryId) {
+        if (placeId == null) {
+            return;
+        }
+        Integer row = rowsByPlace.get(placeId);
+        if (row == null) {
+            if (size == ids.length) {
+                grow();
+            }
+            row = size++;
+            rowsByPlace.put(placeId, row);
+        }
+        ids[row] = placeId;
+        locationIds[row] = locationId == null ? NO_ID : locationId;
+        categories[row] = categoryId == null ? NO_VALUE : categoryDictionary.ordinal(categoryId);
+        cities[row] = city == null ? NO_VALUE : cityDictionary.ordinal(city);
+        prices[row] = price == null ? Double.NaN : price;
+        names[row] = name;
+        specifications[row] = specification;
+        descriptions[row] = description;
+    }
+
+    private void clear() {
+        rowsByPlace.clear();
+        categoryDictionary.clear();
+        cityDictionary.clear();
+        categoryNames.clear();
+        size = 0;
+        ids = new long[INITIAL_CAPACITY];
+        locationIds = new long[INITIAL_CAPACITY];
+        categories = new int[INITIAL_CAPACITY];
+        cities = new int[INITIAL_CAPACITY];
+        prices = new double[INITIAL_CAPACITY];
+        names = new String[INITIAL_CAPACITY];
+        specifications = new String[INITIAL_CAPACITY];
+        descriptions = new String[INITIAL_CAPACITY];
+    }
+
+    private void grow() {
+        int capacity = ids.length * 2;
+        ids = Arrays.copyOf(ids, capacity);
+        locationIds = Arrays.copyOf(locationIds, capacity);
+        categories = Arrays.copyOf(categories, capacity);
+        cities = Arrays.copyOf(cities, capacity);
+        prices = Arrays.copyOf(prices, capacity);
+        names = Arrays.copyOf(names, capacity);
+        specifications = Arrays.copyOf(specifications, capacity);
+        descriptions = Arrays.copyOf(descriptions, capacity);
+    }
+
+    /**
+     * Distinct values of a column, numbered in order of appearance. Values are never removed until the next
+     * {@link #load()}: one no place uses anymore simply gets a count of zero.
+     */
+    private static final class Dictionary<T> {
+
+        private final List<T> values = new ArrayList<>();
+
+        private final Map<T, Integer> ordinals = new HashMap<>();
+
+        int ordinal(T value) {
+            return ordinals.computeIfAbsent(value, key -> {
+                values.add(key);
+                return values.size() - 1;
+            });
+        }
+
+        T value(int ordinal) {
+            return values.get(ordinal);
+        }
+
+        int size() {
+            return values.size();
+        }
+
+        boolean[] matches(Predicate<T> matcher) {
+            boolean[] matches = new boolean[values.size()];
+            for (int i = 0; i < matches.length; i++) {
+                matches[i] = matcher.test(values.get(i));
+            }
+            return matches;
+        }
+
+        void clear() {
+            values.clear();
+            ordinals.clear();
+        }
+    }
+}
@@ -0,0 +1,101 @@
+package com.hesho.reservation.service;
+
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronizationAdapter;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Collection;
+import java.util.Objects;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Striped locks serializing the bookings of a single {@link com.hesho.reservation.domain.Place}.
+ * <p>
+ * A place always maps to the same stripe, so bookings of the same place are checked and written one at a time,
+ * while bookings of places on other stripes run in parallel.
+ */
+@Component
+public class PlaceLocks {
+
+    private static final int STRIPES = 256;
+
+    private final ReentrantLock[] locks = new ReentrantLock[STRIPES];
+
+    public PlaceLocks() {
+        for (int i = 0; i < STRIPES; i++) {
+            locks[i] = new ReentrantLock();
+        }
+    }
+
+    /**
+     * Lock the place until the current transaction completes, or until {@link #unlock(Long)} is called when no
+     * transaction is active.
+     * <p>
+     * Holding the lock past the commit guarantees that the next booking of the place sees this one in the
+     * {@link ReservationIntervalIndex}, which is updated after commit.
+     *
+     * @param placeId the id of the place.
+     * @return true if the lock is released by the current transaction, false if the caller must unlock it.
+     */
+    public boolean lockUntilCompletion(Long placeId) {
+        return lockUntilCompletion(new int[]{stripeFor(placeId)});
+    }
+
+    /**
+     * Lock several places until the current transaction completes, see {@link #lockUntilCompletion(Long)}.
+     * Stripes are always taken in the same order, so two batches never deadlock.
+     *
+     * @param placeIds the ids of the places; {@code null} ids are ignored.
+     * @return true if the locks are released by the current transaction, false if the caller must unlock them.
+     */
+    public boolean lockUntilCompletion(Collection<Long> placeIds) {
+        return lockUntilCompletion(stripesFor(placeIds));
+    }
+
+    /**
+     * Release a lock taken outside of a transaction.
+     *
+     * @param placeId the id of the place.
+     */
+    public void unlock(Long placeId) {
+        locks[stripeFor(placeId)].unlock();
+    }
+
+    /**
+     * Release locks taken outside of a transaction.
+     *
+     * @param placeIds the ids of the places.
+     */
+    public void unlock(Collection<Long> placeIds) {
+        for (int stripe : stripesFor(placeIds)) {
+            locks[stripe].unlock();
+        }
+    }
+
+    private boolean lockUntilCompletion(int[] stripes) {
+        for (int stripe : stripes) {
+            locks[stripe].lock();
+        }
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            return false;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronizationAdapter() {
+            @Override
+            public void afterCompletion(int status) {
+                for (int stripe : stripes) {
+                    locks[stripe].unlock();
+                }
+            }
+        });
+        return true;
+    }
+
+    private int[] stripesFor(Collection<Long> placeIds) {
+        return placeIds.stream().filter(Objects::nonNull).mapToInt(this::stripeFor).distinct().sorted().toArray();
+    }
+
+    private int stripeFor(Long placeId) {
+        int hash = placeId.hashCode();
+        return (hash ^ (hash >>> 16)) & (STRIPES - 1);
+    }
+}
@@ -1,13 +1,18 @@
 package com.hesho.reservation.service;
 
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
+import javax.annotation.PostConstruct;
 import javax.persistence.criteria.JoinType;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -16,7 +21,11 @@ import io.github.jhipster.service.QueryService;
 
 import com.hesho.reservation.domain.Place;
 import com.hesho.reservation.domain.*; // for static metamodels
+import com.hesho.reservation.repository.KeysetCursor;
+import com.hesho.reservation.repository.KeysetPage;
+import com.hesho.reservation.repository.KeysetRepository;
 import com.hesho.reservation.repository.PlaceRepository;
+import com.hesho.reservation.repository.SliceRepository;
 import com.hesho.reservation.service.dto.PlaceCriteria;
 import com.hesho.reservation.service.dto.PlaceDTO;
 import com.hesho.reservation.service.mapper.PlaceMapper;
@@ -31,15 +40,42 @@ import com.hesho.reservation.service.mapper.PlaceMapper;
 @Transactional(readOnly = true)
 public class PlaceQueryService extends QueryService<Place> {
 
+    /**
+     * Attributes a keyset page may be sorted on, each backed by a {@code (key, id)} index, with their types.
+     */
+    public static final Map<String, Class<?>> KEYSET_SORT_PROPERTIES;
+
+    static {
+        Map<String, Class<?>> sortProperties = new HashMap<>();
+        sortProperties.put("id", Long.class);
+        sortProperties.put("name", String.class);
+        sortProperties.put("price", Double.class);
+        KEYSET_SORT_PROPERTIES = Collections.unmodifiableMap(sortProperties);
+    }
+
     private final Logger log = LoggerFactory.getLogger(PlaceQueryService.class);
 
     private final PlaceRepository placeRepository;
 
     private final PlaceMapper placeMapper;
 
-    public PlaceQueryService(PlaceRepository placeRepository, PlaceMapper placeMapper) {
+    private final SliceRepository sliceRepository;
+
+    private final KeysetRepository keysetRepository;
+
+    public PlaceQueryService(PlaceRepository placeRepository, PlaceMapper placeMapper, KeysetRepository keysetRepository, SliceRepository sliceRepository) {
         this.placeRepository = placeRepository;
         this.placeMapper = placeMapper;
+        this.keysetRepository = keysetRepository;
+        this.sliceRepository = sliceRepository;
+    }
+
+    /**
+     * Check the keyset sort attributes against the entity, so no cursor can name an unsupported one.
+     */
+    @PostConstruct
+    public void checkKeysetSortProperties() {
+        keysetRepository.checkSortProperties(Place.class, KEYSET_SORT_PROPERTIES);
     }
 
     /**
@@ -68,6 +104,35 @@ public class PlaceQueryService extends QueryService<Place> {
             .map(placeMapper::toDto);
     }
 
+    /**
+     * Return a {@link Slice} of {@link PlaceDTO} which matches the criteria from the database, without counting them.
+     * @param criteria The object which holds all the filters, which the entities should match.
+     * @param page The page, which should be returned.
+     * @return the matching entities.
+     */
+    @Transactional(readOnly = true)
+    public Slice<PlaceDTO> findSliceByCriteria(PlaceCriteria criteria, Pageable page) {
+        log.debug("find slice by criteria : {}, page: {}", criteria, page);
+        final Specification<Place> specification = createSpecification(criteria);
+        return sliceRepository.findAll(Place.class, specification, page)
+            .map(placeMapper::toDto);
+    }
+
+    /**
+     * Return the {@link KeysetPage} of {@link PlaceDTO} which matches the criteria from the database, following a cursor.
+     * @param criteria The object which holds all the filters, which the entities should match.
+     * @param cursor The position of the page, which should be returned.
+     * @param size The maximum number of entities of the page.
+     * @return the matching entities.
+     */
+    @Transactional(readOnly = true)
+    public KeysetPage<PlaceDTO> findByCriteria(PlaceCriteria criteria, KeysetCursor cursor, int size) {
+        log.debug("find by criteria : {}, cursor: {}, size: {}", criteria, cursor, size);
+        final Specification<Place> specification = createSpecification(criteria);
+        return keysetRepository.findAll(Place.class, specification, cursor, size)
+            .map(placeMapper::toDto);
+    }
+
     /**
      * Return the number of matching entities in the database.
      * @param criteria The object which holds all the filters, which the entities should match.
@@ -119,6 +184,10 @@ public class PlaceQueryService extends QueryService<Place> {
                 specification = specification.and(buildSpecification(criteria.getCategoryId(),
                     root -> root.join(Place_.category, JoinType.LEFT).get(Category_.id)));
             }
+            if (criteria.getCity() != null) {
+                specification = specification.and(buildSpecification(criteria.getCity(),
+                    root -> root.join(Place_.location, JoinType.LEFT).get(Location_.city)));
+            }
         }
         return specification;
     }
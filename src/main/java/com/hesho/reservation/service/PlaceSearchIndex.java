@@ -0,0 +1,448 @@
+package com.hesho.reservation.service;
+
+import com.hesho.reservation.repository.PlaceRepository;
+import com.hesho.reservation.service.dto.CategoryDTO;
+import com.hesho.reservation.service.dto.PlaceDTO;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.regex.Pattern;
+
+/**
+ * In-memory inverted index of the text of every {@link com.hesho.reservation.domain.Place}: its name,
+ * specification and description, the name of its category and the city and address of its location.
+ * <p>
+ * A search ranks places with BM25 over field-weighted term frequencies, normalized by the field-weighted length of
+ * the place against the average one, so a term in a short text counts more than in a long one. Every query term also
+ * matches the indexed
+ * terms it is a prefix of, and, from {@value #MIN_FUZZY_LENGTH} characters, the terms one typo away (insertion,
+ * deletion, substitution or transposition), with a lower weight. Typos are found through an index of the terms
+ * with one character deleted, so no term is compared to the whole vocabulary.
+ * <p>
+ * Writes are serialized, searches read the concurrent maps without locking.
+ */
+@Service
+public class PlaceSearchIndex {
+
+    static final int MIN_PREFIX_LENGTH = 2;
+
+    static final int MIN_FUZZY_LENGTH = 4;
+
+    private static final int MAX_QUERY_TERMS = 10;
+
+    private static final int MAX_PREFIX_EXPANSIONS = 64;
+
+    private static final float NAME_WEIGHT = 3f;
+
+    private static final float CATEGORY_WEIGHT = 2f;
+
+    private static final float CITY_WEIGHT = 2f;
+
+    private static final float TEXT_WEIGHT = 1f;
+
+    private static final double EXACT_BOOST = 1.0;
+
+    private static final double PREFIX_BOOST = 0.7;
+
+    private static final double FUZZY_BOOST = 0.5;
+
+    private static final double BM25_K1 = 1.2;
+
+    private static final double BM25_B = 0.75;
+
+    private static final Pattern DIACRITICS = Pattern.compile("\\p{M}+");
+
+    private static final Pattern SEPARATORS = Pattern.compile("[^\\p{L}\\p{N}]+");
+
+    private final Logger log = LoggerFactory.getLogger(PlaceSearchIndex.class);
+
+    private final PlaceRepository placeRepository;
+
+    private final ConcurrentMap<Long, Document> documents = new ConcurrentHashMap<>();
+
+    private final ConcurrentMap<String, ConcurrentMap<Long, Float>> postings = new ConcurrentHashMap<>();
+
+    private final ConcurrentSkipListSet<String> terms = new ConcurrentSkipListSet<>();
+
+    private final ConcurrentMap<String, Set<String>> termsByDeletion = new ConcurrentHashMap<>();
+
+    private final ConcurrentMap<Long, String> categoryNames = new ConcurrentHashMap<>();
+
+    // sum of the lengths of the indexed places, changed by the serialized writes
+    private volatile double totalLength;
+
+    public PlaceSearchIndex(PlaceRepository placeRepository) {
+        this.placeRepository = placeRepository;
+    }
+
+    /**
+     * Build the index from the places stored in the database.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void load() {
+        log.debug("Loading place search index");
+        documents.clear();
+        postings.clear();
+        terms.clear();
+        termsByDeletion.clear();
+        categoryNames.clear();
+        totalLength = 0;
+        placeRepository.findAllTexts().forEach(text -> {
+            if (text.getCategoryId() != null && text.getCategoryName() != null) {
+                categoryNames.put(text.getCategoryId(), text.getCategoryName());
+            }
+            put(new Document(text.getId(), text.getCategoryId(), text.getName(), text.getSpecification(), text.getDescription(),
+                text.getCity(), text.getAddress()));
+        });
+        log.info("Place search index loaded: {} places, {} terms", documents.size(), terms.size());
+    }
+
+    /**
+     * Keep the index in sync with committed place writes.
+     *
+     * @param event the change.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onPlaceChanged(PlaceChangedEvent event) {
+        PlaceDTO place = event.getPlace();
+        if (place == null) {
+            remove(event.getPlaceId());
+        } else {
+            put(place);
+        }
+    }
+
+    /**
+     * Keep the category names of the indexed places in sync with committed category writes.
+     *
+     * @param event the change.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public synchronized void onCategoryChanged(CategoryChangedEvent event) {
+        CategoryDTO category = event.getCategory();
+        if (category == null || category.getName() == null) {
+            categoryNames.remove(event.getCategoryId());
+        } else if (category.getName().equals(categoryNames.put(category.getId(), category.getName()))) {
+            return;
+        }
+        // a new document each, so the postings and length of the indexed one can be removed
+        new ArrayList<>(documents.values()).stream()
+            .filter(document -> event.getCategoryId().equals(document.categoryId))
+            .forEach(document -> put(document.copy()));
+    }
+
+    /**
+     * Add or replace a place.
+     *
+     * @param place the place.
+     */
+    public synchronized void put(PlaceDTO place) {
+        if (place.getId() == null) {
+            return;
+        }
+        if (place.getCategoryId() != null && place.getCategoryName() != null) {
+            categoryNames.put(place.getCategoryId(), place.getCategoryName());
+        }
+        put(new Document(place.getId(), place.getCategoryId(), place.getName(), place.getSpecification(), place.getDescription(),
+            place.getCity(), place.getAddress()));
+    }
+
+    /**
+     * Remove a place from the index.
+     *
+     * @param placeId the id of the place.
+     */
+    public synchronized void remove(Long placeId) {
+        Document document = documents.remove(placeId);
+        if (document != null) {
+            removePostings(document);
+            totalLength -= document.length;
+        }
+    }
+
+    /**
+     * Find the places matching a query.
+     *
+     * @param query the words to search, in any order.
+     * @return the matching places, most relevant first.
+     */
+    public List<Hit> search(String query) {
+        List<String> queryTerms = new ArrayList<>(new LinkedHashSet<>(tokenize(query)));
+        if (queryTerms.size() > MAX_QUERY_TERMS) {
+            queryTerms = queryTerms.subList(0, MAX_QUERY_TERMS);
+        }
+        if (queryTerms.isEmpty()) {
+            return Collections.emptyList();
+        }
+        int documentCount = Math.max(1, documents.size());
+        double averageLength = Math.max(1, averageLength());
+        Map<Long, double[]> scores = new HashMap<>();
+        for (String queryTerm : queryTerms) {
+            Map<Long, Double> termScores = new HashMap<>();
+            expand(queryTerm).forEach((term, boost) -> {
+                Map<Long, Float> termPostings = postings.get(term);
+                if (termPostings == null || termPostings.isEmpty()) {
+                    return;
+                }
+                double idf = Math.log(1 + (documentCount - termPostings.size() + 0.5) / (termPostings.size() + 0.5));
+                termPostings.forEach((placeId, weight) -> {
+                    double norm = BM25_K1 * (1 - BM25_B + BM25_B * length(placeId) / averageLength);
+                    double score = boost * idf * weight * (BM25_K1 + 1) / (weight + norm);
+                    termScores.merge(placeId, score, Math::max);
+                });
+            });
+            termScores.forEach((placeId, score) -> {
+                double[] total = scores.computeIfAbsent(placeId, id -> new double[2]);
+                total[0] += score;
+                total[1]++;
+            });
+        }
+        int termCount = queryTerms.size();
+        List<Hit> hits = new ArrayList<>(scores.size());
+        // places matching every query term come first
+        scores.forEach((placeId, total) -> hits.add(new Hit(placeId, total[0] * total[1] / termCount)));
+        hits.sort(Comparator.comparingDouble(Hit::getScore).reversed().thenComparing(Hit::getPlaceId));
+        return hits;
+    }
+
+    /**
+     * Split a text into lower case terms without accents.
+     *
+     * @param text the text; may be {@code null}.
+     * @return the terms, in text order.
+     */
+    static List<String> tokenize(String text) {
+        List<String> tokens = new ArrayList<>();
+        if (text == null) {
+            return tokens;
+        }
+        String normalized = DIACRITICS.matcher(Normalizer.normalize(text, Normalizer.Form.NFD)).replaceAll("").toLowerCase(Locale.ROOT);
+        for (String token : SEPARATORS.split(normalized)) {
+            if (!token.isEmpty()) {
+                tokens.add(token);
+            }
+        }
+        return tokens;
+    }
+
+    /**
+     * Optimal string alignment distance: the edit distance where swapping two adjacent characters counts as one edit.
+     */
+    static int editDistance(String a, String b) {
+        int[][] distances = new int[a.length() + 1][b.length() + 1];
+        for (int i = 0; i <= a.length(); i++) {
+            distances[i][0] = i;
+        }
+        for (int j = 0; j <= b.length(); j++) {
+            distances[0][j] = j;
+        }
+        for (int i = 1; i <= a.length(); i++) {
+            for (int j = 1; j <= b.length(); j++) {
+                int cost = a.charAt(i - 1) == b.charAt(j - 1) ? 0 : 1;
+                int distance = Math.min(Math.min(distances[i - 1][j] + 1, distances[i][j - 1] + 1), distances[i - 1][j - 1] + cost);
+                if (i > 1 && j > 1 && a.charAt(i - 1) == b.charAt(j - 2) && a.charAt(i - 2) == b.charAt(j - 1)) {
+                    distance = Math.min(distance, distances[i - 2][j - 2] + 1);
+                }
+                distances[i][j] = distance;
+            }
+        }
+        return distances[a.length()][b.length()];
+    }
+
+    /**
+     * The indexed terms a query term matches, with their boost.
+     */
+    private Map<String, Double> expand(String queryTerm) {
+        Map<String, Double> expansions = new HashMap<>();
+        if (queryTerm.length() >= MIN_FUZZY_LENGTH) {
+            Set<String> candidates = new LinkedHashSet<>();
+            for (String deletion : deletions(queryTerm)) {
+                candidates.addAll(termsByDeletion.getOrDefault(deletion, Collections.emptySet()));
+            }
+            candidates.addAll(termsByDeletion.getOrDefault(queryTerm, Collections.emptySet()));
+            for (String candidate : candidates) {
+                if (editDistance(queryTerm, candidate) == 1) {
+                    expansions.put(candidate, FUZZY_BOOST);
+                }
+            }
+        }
+        if (queryTerm.length() >= MIN_PREFIX_LENGTH) {
+            int expanded = 0;
+            for (String term : terms.subSet(queryTerm, false, queryTerm + Character.MAX_VALUE, false)) {
+                if (!term.startsWith(queryTerm) || expanded++ >= MAX_PREFIX_EXPANSIONS) {
+                    break;
+                }
+                expansions.put(term, PREFIX_BOOST);
+            }
+        }
+        expansions.put(queryTerm, EXACT_BOOST);
+        return expansions;
+    }
+
+    /**
+     * @return the average field-weighted length of the indexed places.
+     */
+    double averageLength() {
+        return totalLength / Math.max(1, documents.size());
+    }
+
+    /**
+     * @return the length of an indexed place, or the average one if it was removed during the search.
+     */
+    private double length(Long placeId) {
+        Document document = documents.get(placeId);
+        return document != null ? document.length : averageLength();
+    }
+
+    private void put(Document document) {
+        document.weights = weigh(document);
+        document.length = document.weights.values().stream().mapToDouble(Float::doubleValue).sum();
+        Document previous = documents.put(document.placeId, document);
+        if (previous != null) {
+            removePostings(previous);
+            totalLength -= previous.length;
+        }
+        totalLength += document.length;
+        document.weights.forEach((term, weight) -> {
+            postings.computeIfAbsent(term, key -> new ConcurrentHashMap<>()).put(document.placeId, weight);
+            if (terms.add(term) && term.length() >= MIN_FUZZY_LENGTH - 1) {
+                for (String deletion : deletions(term)) {
+                    termsByDeletion.computeIfAbsent(deletion, key -> ConcurrentHashMap.newKeySet()).add(term);
+                }
+                termsByDeletion.computeIfAbsent(term, key -> ConcurrentHashMap.newKeySet()).add(term);
+            }
+        });
+    }
+
+    private Map<String, Float> weigh(Document document) {
+        Map<String, Float> weights = new HashMap<>();
+        addTerms(weights, document.name, NAME_WEIGHT);
+        addTerms(weights, document.categoryId != null ? categoryNames.get(document.categoryId) : null, CATEGORY_WEIGHT);
+        addTerms(weights, document.city, CITY_WEIGHT);
+        addTerms(weights, document.specification, TEXT_WEIGHT);
+        addTerms(weights, document.description, TEXT_WEIGHT);
+        addTerms(weights, document.address, TEXT_WEIGHT);
+        return weights;
+    }
+
+    private static void addTerms(Map<String, Float> weights, String text, float weight) {
+        for (String term : tokenize(text)) {
+            weights.merge(term, weight, Float::sum);
+        }
+    }
+
+    private void removePostings(Document document) {
+        document.weights.keySet().forEach(term -> {
+            ConcurrentMap<Long, Float> termPostings = postings.get(term);
+            if (termPostings == null) {
+                return;
+            }
+            termPostings.remove(document.placeId);
+            if (termPostings.isEmpty()) {
+                postings.remove(term);
+                terms.remove(term);
+                for (String deletion : deletions(term)) {
+                    removeFromDeletions(deletion, term);
+                }
+                removeFromDeletions(term, term);
+            }
+        });
+    }
+
+    private void removeFromDeletions(String deletion, String term) {
+        termsByDeletion.computeIfPresent(deletion, (key, deletionTerms) -> {
+            deletionTerms.remove(term);
+            return deletionTerms.isEmpty() ? null : deletionTerms;
+        });
+    }
+
+    private static List<String> deletions(String term) {
+        List<String> deletions = new ArrayList<>(term.length());
+        for (int i = 0; i < term.length(); i++) {
+            deletions.add(term.substring(0, i) + term.substring(i + 1));
+        }
+        return deletions;
+    }
+
+    /**
+     * A place found by a search.
+     */
+    public static final class Hit {
+
+        private final Long placeId;
+
+        private final double score;
+
+        Hit(Long placeId, double score) {
+            this.placeId = placeId;
+            this.score = score;
+        }
+
+        public Long getPlaceId() {
+            return placeId;
+        }
+
+        public double getScore() {
+            return score;
+        }
+    }
+
+    /**
+     * The indexed text of a place.
+     */
+    private static final class Document {
+
+        private final Long placeId;
+
+        private final Long categoryId;
+
+        private final String name;
+
+        private final String specification;
+
+        private final String description;
+
+        private final String city;
+
+        private final String address;
+
+        private Map<String, Float> weights = Collections.emptyMap();
+
+        // the sum of the field-weighted term frequencies
+        private double length;
+
+        Document(Long placeId, Long categoryId, String name, String specification, String description, String city, String address) {
+            this.placeId = placeId;
+            this.categoryId = categoryId;
+            this.name = name;
+            this.specification = specification;
+            this.description = description;
+            this.city = city;
+            this.address = address;
+        }
+
+        /**
+         * @return the same text, to be weighed again.
+         */
+        Document copy() {
+            return new Document(placeId, categoryId, name, specification, description, city, address);
+        }
+    }
+}
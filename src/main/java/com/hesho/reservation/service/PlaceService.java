@@ -1,7 +1,10 @@
 package com.hesho.reservation.service;
 
 import com.hesho.reservation.domain.Place;
+import com.hesho.reservation.service.dto.NearbyPlaceDTO;
+import com.hesho.reservation.service.dto.PlaceCriteria;
 import com.hesho.reservation.service.dto.PlaceDTO;
+import com.hesho.reservation.service.dto.PlaceFacetsDTO;
 
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
@@ -31,6 +34,36 @@ public interface PlaceService {
      */
     Page<PlaceDTO> findAll(Pageable pageable);
 
+    /**
+     * Get the places within a distance of a point, closest first.
+     *
+     * @param latitude the latitude of the point, in degrees.
+     * @param longitude the longitude of the point, in degrees.
+     * @param radiusKm the distance, in kilometers.
+     * @param categoryId only return the places of this category; may be {@code null}.
+     * @param pageable the pagination information; its sort is ignored.
+     * @return the list of places with their distance.
+     */
+    Page<NearbyPlaceDTO> findNearby(double latitude, double longitude, double radiusKm, Long categoryId, Pageable pageable);
+
+    /**
+     * Search the places by name, category, city and description, most relevant first.
+     *
+     * @param query the words to search; prefixes and words with a typo also match.
+     * @param pageable the pagination information; its sort is ignored.
+     * @return the list of entities.
+     */
+    Page<PlaceDTO> search(String query, Pageable pageable);
+
+    /**
+     * Count the places matching a criteria by category, city and price, without querying the database.
+     *
+     * @param criteria the filters; filters on images and reservations are not supported.
+     * @param priceInterval the width of the price buckets.
+     * @return the counts.
+     */
+    PlaceFacetsDTO findFacets(PlaceCriteria criteria, double priceInterval);
+
 
     /**
      * Get the "id" place.
@@ -0,0 +1,251 @@
+package com.hesho.reservation.service;
+
+import com.hesho.reservation.repository.PlaceRepository;
+import com.hesho.reservation.service.dto.PlaceDTO;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * In-memory spatial index of the coordinates of every {@link com.hesho.reservation.domain.Place}, used to find the
+ * places near a point without loading them all.
+ * <p>
+ * The globe is cut into a grid of {@value #CELL_DEGREES}° cells. A search only reads the cells overlapping the
+ * bounding box of the circle, then keeps the places whose great-circle distance is within the radius.
+ */
+@Service
+public class PlaceSpatialIndex {
+
+    /**
+     * Mean radius of the Earth, in kilometers.
+     */
+    public static final double EARTH_RADIUS_KM = 6371.0088;
+
+    static final double CELL_DEGREES = 0.25;
+
+    private static final int LATITUDE_CELLS = (int) Math.ceil(180 / CELL_DEGREES);
+
+    private static final int LONGITUDE_CELLS = (int) Math.ceil(360 / CELL_DEGREES);
+
+    private static final double KM_PER_DEGREE = Math.toRadians(EARTH_RADIUS_KM);
+
+    private final Logger log = LoggerFactory.getLogger(PlaceSpatialIndex.class);
+
+    private final PlaceRepository placeRepository;
+
+    private final ConcurrentMap<Long, PlacePoint> pointsByPlace = new ConcurrentHashMap<>();
+
+    private final ConcurrentMap<Integer, Map<Long, PlacePoint>> pointsByCell = new ConcurrentHashMap<>();
+
+    public PlaceSpatialIndex(PlaceRepository placeRepository) {
+        this.placeRepository = placeRepository;
+    }
+
+    /**
+     * Build the index from the places stored in the database.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        log.debug("Loading place spatial index");
+        pointsByPlace.clear();
+        pointsByCell.clear();
+        placeRepository.findAllPoints()
+            .forEach(point -> put(point.getId(), point.getCategoryId(), point.getLatitude(), point.getLongitude()));
+        log.info("Place spatial index loaded: {} places over {} cells", pointsByPlace.size(), pointsByCell.size());
+    }
+
+    /**
+     * Keep the index in sync with committed place writes.
+     *
+     * @param event the change.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onPlaceChanged(PlaceChangedEvent event) {
+        PlaceDTO place = event.getPlace();
+        if (place == null) {
+            remove(event.getPlaceId());
+        } else {
+            put(place.getId(), place.getCategoryId(), place.getLatitude(), place.getLongitude());
+        }
+    }
+
+    /**
+     * Add, move or remove a place. Places without valid coordinates are removed.
+     *
+     * @param placeId the id of the place.
+     * @param categoryId the id of its category; may be {@code null}.
+     * @param latitude its latitude, in degrees.
+     * @param longitude its longitude, in degrees.
+     */
+    public void put(Long placeId, Long categoryId, Double latitude, Double longitude) {
+        if (placeId == null) {
+            return;
+        }
+        if (!isValid(latitude, longitude)) {
+            remove(placeId);
+            return;
+        }
+        PlacePoint point = new PlacePoint(placeId, categoryId, latitude, longitude);
+        pointsByPlace.compute(placeId, (id, previous) -> {
+            if (previous != null) {
+                removeFromCell(previous);
+            }
+            pointsByCell.computeIfAbsent(point.cell, cell -> new ConcurrentHashMap<>()).put(placeId, point);
+            return point;
+        });
+    }
+
+    /**
+     * Remove a place from the index.
+     *
+     * @param placeId the id of the place.
+     */
+    public void remove(Long placeId) {
+        pointsByPlace.computeIfPresent(placeId, (id, previous) -> {
+            removeFromCell(previous);
+            return null;
+        });
+    }
+
+    /**
+     * Find the places within a distance of a point.
+     *
+     * @param latitude the latitude of the center, in degrees.
+     * @param longitude the longitude of the center, in degrees.
+     * @param radiusKm the radius, in kilometers.
+     * @param categoryId only keep the places of this category; may be {@code null}.
+     * @return the places, closest first.
+     */
+    public List<Hit> findWithin(double latitude, double longitude, double radiusKm, Long categoryId) {
+        double latitudeSpan = radiusKm / KM_PER_DEGREE;
+        double minLatitude = Math.max(-90, latitude - latitudeSpan);
+        double maxLatitude = Math.min(90, latitude + latitudeSpan);
+        // widest longitude offset of the circle, see http://janmatuschek.de/LatitudeLongitudeBoundingCoordinates
+        double sinLongitudeSpan = Math.sin(radiusKm / EARTH_RADIUS_KM) / Math.cos(Math.toRadians(latitude));
+        int firstLongitudeCell;
+        int longitudeCells;
+        if (minLatitude <= -90 || maxLatitude >= 90 || radiusKm / EARTH_RADIUS_KM >= Math.PI / 2 || sinLongitudeSpan >= 1) {
+            // the circle contains a pole, or is wide enough to cover every longitude
+            firstLongitudeCell = 0;
+            longitudeCells = LONGITUDE_CELLS;
+        } else {
+            double longitudeSpan = Math.toDegrees(Math.asin(sinLongitudeSpan));
+            firstLongitudeCell = longitudeCell(longitude - longitudeSpan);
+            longitudeCells = Math.min(LONGITUDE_CELLS, longitudeCell(longitude + longitudeSpan) - firstLongitudeCell + 1);
+        }
+        List<Hit> hits = new ArrayList<>();
+        for (int latitudeCell = latitudeCell(minLatitude); latitudeCell <= latitudeCell(maxLatitude); latitudeCell++) {
+            for (int i = 0; i < longitudeCells; i++) {
+                Map<Long, PlacePoint> points = pointsByCell.get(cell(latitudeCell, firstLongitudeCell + i));
+                if (points == null) {
+                    continue;
+                }
+                for (PlacePoint point : points.values()) {
+                    if (categoryId != null && !categoryId.equals(point.categoryId)) {
+                        continue;
+                    }
+                    double distance = distanceKm(latitude, longitude, point.latitude, point.longitude);
+                    if (distance <= radiusKm) {
+                        hits.add(new Hit(point.placeId, distance));
+                    }
+                }
+            }
+        }
+        hits.sort(Comparator.comparingDouble(Hit::getDistanceKm).thenComparing(Hit::getPlaceId));
+        return hits;
+    }
+
+    /**
+     * Great-circle distance between two points, with the haversine formula.
+     *
+     * @return the distance, in kilometers.
+     */
+    public static double distanceKm(double latitude1, double longitude1, double latitude2, double longitude2) {
+        double sinLatitude = Math.sin(Math.toRadians(latitude2 - latitude1) / 2);
+        double sinLongitude = Math.sin(Math.toRadians(longitude2 - longitude1) / 2);
+        double a = sinLatitude * sinLatitude
+            + Math.cos(Math.toRadians(latitude1)) * Math.cos(Math.toRadians(latitude2)) * sinLongitude * sinLongitude;
+        return 2 * EARTH_RADIUS_KM * Math.asin(Math.min(1, Math.sqrt(a)));
+    }
+
+    public static boolean isValid(Double latitude, Double longitude) {
+        return latitude != null && longitude != null
+            && latitude >= -90 && latitude <= 90 && longitude >= -180 && longitude <= 180;
+    }
+
+    private void removeFromCell(PlacePoint point) {
+        Map<Long, PlacePoint> points = pointsByCell.get(point.cell);
+        if (points != null) {
+            points.remove(point.placeId);
+        }
+    }
+
+    private static int latitudeCell(double latitude) {
+        return Math.min(LATITUDE_CELLS - 1, (int) Math.floor((latitude + 90) / CELL_DEGREES));
+    }
+
+    private static int longitudeCell(double longitude) {
+        return (int) Math.floor((longitude + 180) / CELL_DEGREES);
+    }
+
+    /**
+     * Key of a cell; the longitude index wraps around the antimeridian.
+     */
+    private static int cell(int latitudeCell, int longitudeCell) {
+        return latitudeCell * LONGITUDE_CELLS + Math.floorMod(longitudeCell, LONGITUDE_CELLS);
+    }
+
+    /**
+     * A place found by a search.
+     */
+    public static final class Hit {
+
+        private final Long placeId;
+
+        private final double distanceKm;
+
+        Hit(Long placeId, double distanceKm) {
+            this.placeId = placeId;
+            this.distanceKm = distanceKm;
+        }
+
+        public Long getPlaceId() {
+            return placeId;
+        }
+
+        public double getDistanceKm() {
+            return distanceKm;
+        }
+    }
+
+    private static final class PlacePoint {
+
+        private final Long placeId;
+
+        private final Long categoryId;
+
+        private final double latitude;
+
+        private final double longitude;
+
+        private final int cell;
+
+        PlacePoint(Long placeId, Long categoryId, double latitude, double longitude) {
+            this.placeId = placeId;
+            this.categoryId = categoryId;
+            this.latitude = latitude;
+            this.longitude = longitude;
+            this.cell = cell(latitudeCell(latitude), longitudeCell(longitude));
+        }
+    }
+}
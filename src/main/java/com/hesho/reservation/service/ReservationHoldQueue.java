@@ -0,0 +1,119 @@
+package com.hesho.reservation.service;
+
+import com.hesho.reservation.config.ApplicationProperties;
+import com.hesho.reservation.repository.ReservationRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.DelayQueue;
+import java.util.concurrent.Delayed;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Queue of the holds of {@link com.hesho.reservation.domain.enumeration.ReservationStatus#PENDING PENDING}
+ * reservations, ordered by expiry.
+ * <p>
+ * The queue is a priority heap, so the expiry sweeper only ever looks at holds which are due instead of
+ * scanning the reservation table. Entries are hints: a reservation approved or canceled before its hold
+ * expires simply stays in the queue until then, and the sweeper ignores it.
+ */
+@Service
+public class ReservationHoldQueue {
+
+    private final Logger log = LoggerFactory.getLogger(ReservationHoldQueue.class);
+
+    private final DelayQueue<Hold> holds = new DelayQueue<>();
+
+    private final ReservationRepository reservationRepository;
+
+    private final ApplicationProperties applicationProperties;
+
+    public ReservationHoldQueue(ReservationRepository reservationRepository, ApplicationProperties applicationProperties) {
+        this.reservationRepository = reservationRepository;
+        this.applicationProperties = applicationProperties;
+    }
+
+    /**
+     * Fill the queue with the pending reservations stored in the database.
+     * Holds created before expiry was tracked get a full time to live from now.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        log.debug("Loading reservation holds");
+        holds.clear();
+        Instant defaultExpiry = newExpiry();
+        reservationRepository.findAllPendingHolds().forEach(hold ->
+            add(hold.getId(), hold.getHoldExpiresAt() != null ? hold.getHoldExpiresAt() : defaultExpiry));
+        log.info("Reservation holds loaded: {} pending reservations", holds.size());
+    }
+
+    /**
+     * @return the expiry of a hold starting now.
+     */
+    public Instant newExpiry() {
+        return Instant.now().plusSeconds(applicationProperties.getHold().getTimeToLiveSeconds());
+    }
+
+    /**
+     * Schedule the expiry of a hold.
+     *
+     * @param reservationId the id of the pending reservation.
+     * @param expiresAt the expiry of the hold.
+     */
+    public void add(Long reservationId, Instant expiresAt) {
+        holds.add(new Hold(reservationId, expiresAt.toEpochMilli()));
+    }
+
+    /**
+     * Schedule holds to be retried by the next sweep.
+     *
+     * @param reservationIds the ids of the pending reservations.
+     */
+    public void retry(Collection<Long> reservationIds) {
+        Instant now = Instant.now();
+        reservationIds.forEach(id -> add(id, now));
+    }
+
+    /**
+     * Remove the holds which are due from the queue.
+     *
+     * @param maxHolds the maximum number of holds to return.
+     * @return the ids of the reservations whose hold is due.
+     */
+    public List<Long> pollExpired(int maxHolds) {
+        List<Hold> expired = new ArrayList<>();
+        holds.drainTo(expired, maxHolds);
+        List<Long> reservationIds = new ArrayList<>(expired.size());
+        expired.forEach(hold -> reservationIds.add(hold.reservationId));
+        return reservationIds;
+    }
+
+    private static final class Hold implements Delayed {
+
+        private final Long reservationId;
+
+        private final long expiresAt;
+
+        private Hold(Long reservationId, long expiresAt) {
+            this.reservationId = reservationId;
+            this.expiresAt = expiresAt;
+        }
+
+        @Override
+        public long getDelay(TimeUnit unit) {
+            return unit.convert(expiresAt - System.currentTimeMillis(), TimeUnit.MILLISECONDS);
+        }
+
+        @Override
+        public int compareTo(Delayed other) {
+            return Long.compare(expiresAt, ((Hold) other).expiresAt);
+        }
+    }
+}
@@ -0,0 +1,355 @@
+package com.hesho.reservation.service;
+
+import com.hesho.reservation.domain.Reservation;
+import com.hesho.reservation.domain.enumeration.ReservationStatus;
+import com.hesho.reservation.repository.ReservationRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import java.time.Instant;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * In-memory index of the booked intervals of every {@link com.hesho.reservation.domain.Place}, used to detect
+ * overlapping {@link Reservation}s without querying the database.
+ * <p>
+ * Each place keeps its non-canceled reservations in an immutable interval tree: a balanced tree ordered by start
+ * date where every node also holds the latest end date of its subtree, so a conflict check, even ignoring the
+ * reservation being updated, visits O(log n) nodes. Writes replace the root of a single place, copying only the
+ * O(log n) nodes on the path to the change, which keeps reads lock-free.
+ * <p>
+ * Intervals are half-open: a reservation ending at the instant another one starts does not overlap it.
+ */
+@Service
+public class ReservationIntervalIndex {
+
+    /**
+     * Statuses of reservations which no longer hold their place.
+     */
+    public static final Set<ReservationStatus> RELEASED_STATUSES =
+        Collections.unmodifiableSet(EnumSet.of(ReservationStatus.CANCELED, ReservationStatus.EXPIRED));
+
+    private final Logger log = LoggerFactory.getLogger(ReservationIntervalIndex.class);
+
+    private final ReservationRepository reservationRepository;
+
+    private final ConcurrentMap<Long, IntervalTree> intervalsByPlace = new ConcurrentHashMap<>();
+
+    private final ConcurrentMap<Long, Booking> bookingByReservation = new ConcurrentHashMap<>();
+
+    private final List<Listener> listeners = new CopyOnWriteArrayList<>();
+
+    public ReservationIntervalIndex(ReservationRepository reservationRepository) {
+        this.reservationRepository = reservationRepository;
+    }
+
+    /**
+     * Build the index from the reservations stored in the database.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        log.debug("Loading reservation interval index");
+        intervalsByPlace.clear();
+        bookingByReservation.clear();
+        reservationRepository.findAllSlotsByStatusNotIn(RELEASED_STATUSES)
+            .forEach(slot -> put(slot.getId(), slot.getPlaceId(), slot.getStartDate(), slot.getEndDate()));
+        log.info("Reservation interval index loaded: {} reservations over {} places", bookingByReservation.size(), intervalsByPlace.size());
+        listeners.forEach(Listener::reloaded);
+    }
+
+    /**
+     * Register a listener notified after every change of the index.
+     *
+     * @param listener the listener.
+     */
+    public void addListener(Listener listener) {
+        listeners.add(listener);
+    }
+
+    /**
+     * Add or replace a reservation in the index. Canceled and expired reservations are removed, as they do not
+     * hold the place.
+     *
+     * @param reservation the persisted reservation.
+     */
+    public void index(Reservation reservation) {
+        if (reservation.getId() == null) {
+            return;
+        }
+        if (RELEASED_STATUSES.contains(reservation.getStatus()) || reservation.getPlace() == null) {
+            remove(reservation.getId());
+        } else {
+            put(reservation.getId(), reservation.getPlace().getId(), reservation.getStartDate(), reservation.getEndDate());
+        }
+    }
+
+    /**
+     * Remove a reservation from the index.
+     *
+     * @param reservationId the id of the reservation.
+     */
+    public void remove(Long reservationId) {
+        Booking booking = bookingByReservation.remove(reservationId);
+        if (booking != null) {
+            removeInterval(reservationId, booking);
+        }
+    }
+
+    /**
+     * Check whether the interval {@code [startDate, endDate)} overlaps a booked reservation of the place.
+     *
+     * @param placeId the id of the place.
+     * @param startDate the start of the requested interval.
+     * @param endDate the end of the requested interval.
+     * @param excludedReservationId a reservation to ignore, typically the one being updated; may be {@code null}.
+     * @return true if another reservation already holds part of the interval.
+     */
+    public boolean hasConflict(Long placeId, Instant startDate, Instant endDate, Long excludedReservationId) {
+        if (placeId == null || startDate == null || endDate == null) {
+            return false;
+        }
+        return hasConflict(placeId, startDate.toEpochMilli(), endDate.toEpochMilli(), excludedReservationId);
+    }
+
+    /**
+     * Check whether the interval {@code [start, end)}, in epoch milliseconds, overlaps a booked reservation of the place.
+     *
+     * @param placeId the id of the place.
+     * @param start the start of the requested interval.
+     * @param end the end of the requested interval.
+     * @param excludedReservationId a reservation to ignore; may be {@code null}.
+     * @return true if another reservation already holds part of the interval.
+     */
+    public boolean hasConflict(Long placeId, long start, long end, Long excludedReservationId) {
+        if (placeId == null) {
+            return false;
+        }
+        return start < end && IntervalTree.overlaps(intervalsByPlace.get(placeId), start, end, excludedReservationId);
+    }
+
+    /**
+     * Visit the booked intervals of a place, in start order.
+     *
+     * @param placeId the id of the place.
+     * @param visitor receives the start and end of every interval, in epoch milliseconds.
+     */
+    public void forEachInterval(Long placeId, IntervalVisitor visitor) {
+        if (placeId != null) {
+            IntervalTree.forEach(intervalsByPlace.get(placeId), visitor);
+        }
+    }
+
+    private void put(Long reservationId, Long placeId, Instant startDate, Instant endDate) {
+        Booking previous = bookingByReservation.remove(reservationId);
+        if (previous != null) {
+            removeInterval(reservationId, previous);
+        }
+        if (placeId == null || startDate == null || endDate == null || !startDate.isBefore(endDate)) {
+            return;
+        }
+        long start = startDate.toEpochMilli();
+        long end = endDate.toEpochMilli();
+        intervalsByPlace.compute(placeId, (id, intervals) -> IntervalTree.insert(intervals, reservationId, start, end));
+        bookingByReservation.put(reservationId, new Booking(placeId, start, end));
+        listeners.forEach(listener -> listener.intervalChanged(placeId, start, end));
+    }
+
+    private void removeInterval(Long reservationId, Booking booking) {
+        intervalsByPlace.computeIfPresent(booking.placeId, (id, intervals) -> IntervalTree.remove(intervals, reservationId, booking.start));
+        listeners.forEach(listener -> listener.intervalChanged(booking.placeId, booking.start, booking.end));
+    }
+
+    /**
+     * Receives the intervals of a place.
+     */
+    @FunctionalInterface
+    public interface IntervalVisitor {
+
+        void visit(long start, long end);
+    }
+
+    /**
+     * Notified after the index changed, so derived structures can be kept in sync.
+     */
+    public interface Listener {
+
+        /**
+         * An interval of the place was added or removed.
+         *
+         * @param placeId the id of the place.
+         * @param start the start of the interval, in epoch milliseconds.
+         * @param end the end of the interval, in epoch milliseconds.
+         */
+        void intervalChanged(Long placeId, long start, long end);
+
+        /**
+         * The whole index was rebuilt.
+         */
+        default void reloaded() {
+        }
+    }
+
+    /**
+     * The indexed interval of a reservation.
+     */
+    private static final class Booking {
+
+        private final Long placeId;
+
+        private final long start;
+
+        private final long end;
+
+        Booking(Long placeId, long start, long end) {
+            this.placeId = placeId;
+            this.start = start;
+            this.end = end;
+        }
+    }
+
+    /**
+     * Immutable node of the interval tree of a single place, {@code null} being the empty tree.
+     * <p>
+     * Nodes are ordered by start date, then reservation id, and kept balanced as an AVL tree. Every node holds the
+     * latest end date of its subtree, so a search skips the subtrees ending before the requested interval.
+     */
+    static final class IntervalTree {
+
+        private final long id;
+
+        private final long start;
+
+        private final long end;
+
+        private final IntervalTree left;
+
+        private final IntervalTree right;
+
+        private final long maxEnd;
+
+        private final int height;
+
+        private IntervalTree(long id, long start, long end, IntervalTree left, IntervalTree right) {
+            this.id = id;
+            this.start = start;
+            this.end = end;
+            this.left = left;
+            this.right = right;
+            this.maxEnd = Math.max(end, Math.max(maxEnd(left), maxEnd(right)));
+            this.height = 1 + Math.max(height(left), height(right));
+        }
+
+        /**
+         * @return whether an interval of the tree other than {@code excludedId} overlaps {@code [start, end)}.
+         */
+        static boolean overlaps(IntervalTree node, long start, long end, Long excludedId) {
+            if (node == null || node.maxEnd <= start) {
+                return false;
+            }
+            if (overlaps(node.left, start, end, excludedId)) {
+                return true;
+            }
+            // this node and its right subtree start at or after the requested end
+            if (node.start >= end) {
+                return false;
+            }
+            if (node.end > start && (excludedId == null || node.id != excludedId)) {
+                return true;
+            }
+            return overlaps(node.right, start, end, excludedId);
+        }
+
+        static void forEach(IntervalTree node, IntervalVisitor visitor) {
+            if (node != null) {
+                forEach(node.left, visitor);
+                visitor.visit(node.start, node.end);
+                forEach(node.right, visitor);
+            }
+        }
+
+        static IntervalTree insert(IntervalTree node, long id, long start, long end) {
+            if (node == null) {
+                return new IntervalTree(id, start, end, null, null);
+            }
+            int order = compare(start, id, node);
+            if (order < 0) {
+                return balance(node.id, node.start, node.end, insert(node.left, id, start, end), node.right);
+            }
+            if (order > 0) {
+                return balance(node.id, node.start, node.end, node.left, insert(node.right, id, start, end));
+            }
+            return new IntervalTree(id, start, end, node.left, node.right);
+        }
+
+        static IntervalTree remove(IntervalTree node, long id, long start) {
+            if (node == null) {
+                return null;
+            }
+            int order = compare(start, id, node);
+            if (order < 0) {
+                return balance(node.id, node.start, node.end, remove(node.left, id, start), node.right);
+            }
+            if (order > 0) {
+                return balance(node.id, node.start, node.end, node.left, remove(node.right, id, start));
+            }
+            if (node.left == null) {
+                return node.right;
+            }
+            if (node.right == null) {
+                return node.left;
+            }
+            IntervalTree next = node.right;
+            while (next.left != null) {
+                next = next.left;
+            }
+            return balance(next.id, next.start, next.end, node.left, remove(node.right, next.id, next.start));
+        }
+
+        private static int compare(long start, long id, IntervalTree node) {
+            int order = Long.compare(start, node.start);
+            return order != 0 ? order : Long.compare(id, node.id);
+        }
+
+        /**
+         * Build a node whose subtrees differ in height by at most two, rotating it back into balance.
+         */
+        private static IntervalTree balance(long id, long start, long end, IntervalTree left, IntervalTree right) {
+            if (height(left) > height(right) + 1) {
+                if (height(left.left) >= height(left.right)) {
+                    return new IntervalTree(left.id, left.start, left.end, left.left, new IntervalTree(id, start, end, left.right, right));
+                }
+                IntervalTree pivot = left.right;
+                return new IntervalTree(pivot.id, pivot.start, pivot.end,
+                    new IntervalTree(left.id, left.start, left.end, left.left, pivot.left),
+                    new IntervalTree(id, start, end, pivot.right, right));
+            }
+            if (height(right) > height(left) + 1) {
+                if (height(right.right) >= height(right.left)) {
+                    return new IntervalTree(right.id, right.start, right.end, new IntervalTree(id, start, end, left, right.left), right.right);
+                }
+                IntervalTree pivot = right.left;
+                return new IntervalTree(pivot.id, pivot.start, pivot.end,
+                    new IntervalTree(id, start, end, left, pivot.left),
+                    new IntervalTree(right.id, right.start, right.end, pivot.right, right.right));
+            }
+            return new IntervalTree(id, start, end, left, right);
+        }
+
+        private static long maxEnd(IntervalTree node) {
+            return node == null ? Long.MIN_VALUE : node.maxEnd;
+        }
+
+        private static int height(IntervalTree node) {
+            return node == null ? 0 : node.height;
+        }
+    }
+}
@@ -1,13 +1,19 @@
 package com.hesho.reservation.service;
 
+import java.time.Instant;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
+import javax.annotation.PostConstruct;
 import javax.persistence.criteria.JoinType;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -16,7 +22,11 @@ import io.github.jhipster.service.QueryService;
 
 import com.hesho.reservation.domain.Reservation;
 import com.hesho.reservation.domain.*; // for static metamodels
+import com.hesho.reservation.repository.KeysetCursor;
+import com.hesho.reservation.repository.KeysetPage;
+import com.hesho.reservation.repository.KeysetRepository;
 import com.hesho.reservation.repository.ReservationRepository;
+import com.hesho.reservation.repository.SliceRepository;
 import com.hesho.reservation.service.dto.ReservationCriteria;
 import com.hesho.reservation.service.dto.ReservationDTO;
 import com.hesho.reservation.service.mapper.ReservationMapper;
@@ -31,15 +41,42 @@ import com.hesho.reservation.service.mapper.ReservationMapper;
 @Transactional(readOnly = true)
 public class ReservationQueryService extends QueryService<Reservation> {
 
+    /**
+     * Attributes a keyset page may be sorted on, each backed by a {@code (key, id)} index, with their types.
+     */
+    public static final Map<String, Class<?>> KEYSET_SORT_PROPERTIES;
+
+    static {
+        Map<String, Class<?>> sortProperties = new HashMap<>();
+        sortProperties.put("id", Long.class);
+        sortProperties.put("startDate", Instant.class);
+        sortProperties.put("endDate", Instant.class);
+        KEYSET_SORT_PROPERTIES = Collections.unmodifiableMap(sortProperties);
+    }
+
     private final Logger log = LoggerFactory.getLogger(ReservationQueryService.class);
 
     private final ReservationRepository reservationRepository;
 
     private final ReservationMapper reservationMapper;
 
-    public ReservationQueryService(ReservationRepository reservationRepository, ReservationMapper reservationMapper) {
+    private final SliceRepository sliceRepository;
+
+    private final KeysetRepository keysetRepository;
+
+    public ReservationQueryService(ReservationRepository reservationRepository, ReservationMapper reservationMapper, KeysetRepository keysetRepository, SliceRepository sliceRepository) {
         this.reservationRepository = reservationRepository;
         this.reservationMapper = reservationMapper;
+        this.keysetRepository = keysetRepository;
+        this.sliceRepository = sliceRepository;
+    }
+
+    /**
+     * Check the keyset sort attributes against the entity, so no cursor can name an unsupported one.
+     */
+    @PostConstruct
+    public void checkKeysetSortProperties() {
+        keysetRepository.checkSortProperties(Reservation.class, KEYSET_SORT_PROPERTIES);
     }
 
     /**
@@ -68,6 +105,35 @@ public class ReservationQueryService extends QueryService<Reservation> {
             .map(reservationMapper::toDto);
     }
 
+    /**
+     * Return a {@link Slice} of {@link ReservationDTO} which matches the criteria from the database, without counting them.
+     * @param criteria The object which holds all the filters, which the entities should match.
+     * @param page The page, which should be returned.
+     * @return the matching entities.
+     */
+    @Transactional(readOnly = true)
+    public Slice<ReservationDTO> findSliceByCriteria(ReservationCriteria criteria, Pageable page) {
+        log.debug("find slice by criteria : {}, page: {}", criteria, page);
+        final Specification<Reservation> specification = createSpecification(criteria);
+        return sliceRepository.findAll(Reservation.class, specification, page)
+            .map(reservationMapper::toDto);
+    }
+
+    /**
+     * Return the {@link KeysetPage} of {@link ReservationDTO} which matches the criteria from the database, following a cursor.
+     * @param criteria The object which holds all the filters, which the entities should match.
+     * @param cursor The position of the page, which should be returned.
+     * @param size The maximum number of entities of the page.
+     * @return the matching entities.
+     */
+    @Transactional(readOnly = true)
+    public KeysetPage<ReservationDTO> findByCriteria(ReservationCriteria criteria, KeysetCursor cursor, int size) {
+        log.debug("find by criteria : {}, cursor: {}, size: {}", criteria, cursor, size);
+        final Specification<Reservation> specification = createSpecification(criteria);
+        return keysetRepository.findAll(Reservation.class, specification, cursor, size)
+            .map(reservationMapper::toDto);
+    }
+
     /**
      * Return the number of matching entities in the database.
      * @param criteria The object which holds all the filters, which the entities should match.
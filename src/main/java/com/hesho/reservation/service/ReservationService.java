@@ -1,12 +1,14 @@
 package com.hesho.reservation.service;
 
-import com.hesho.reservation.domain.User;
 import com.hesho.reservation.domain.enumeration.ReservationStatus;
+import com.hesho.reservation.service.dto.ReservationBatchResultDTO;
 import com.hesho.reservation.service.dto.ReservationDTO;
+import com.hesho.reservation.service.dto.ReservationStatusUpdateDTO;
 
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 
+import java.util.List;
 import java.util.Optional;
 
 /**
@@ -25,6 +27,24 @@ public interface ReservationService {
 
     ReservationDTO updateStatus(Long id, ReservationStatus status);
 
+    /**
+     * Create a batch of new reservations in a single transaction. Invalid or conflicting items are reported
+     * and skipped, the others are created.
+     *
+     * @param reservationDTOs the entities to create.
+     * @return the outcome of every item, in request order.
+     */
+    List<ReservationBatchResultDTO> saveAll(List<ReservationDTO> reservationDTOs);
+
+    /**
+     * Update the status of a batch of reservations in a single transaction. Unknown or conflicting items are
+     * reported and skipped, the others are updated.
+     *
+     * @param statusUpdates the new status of every reservation.
+     * @return the outcome of every item, in request order.
+     */
+    List<ReservationBatchResultDTO> updateStatuses(List<ReservationStatusUpdateDTO> statusUpdates);
+
     /**
      * Get all the reservations.
      *
@@ -35,12 +55,13 @@ public interface ReservationService {
 
 
     /**
-     * Get the "id" reservation.
+     * Get the "id" reservation of a user.
      *
      * @param id the id of the entity.
-     * @return the entity.
+     * @param userId the id of the user.
+     * @return the entity, or empty if the user has no such reservation.
      */
-    Optional<ReservationDTO> findOne(Long id, User user);
+    Optional<ReservationDTO> findOne(Long id, Long userId);
 
     /**
      * Delete the "id" reservation.
@@ -50,4 +71,9 @@ public interface ReservationService {
     void delete(Long id);
 
     ReservationDTO cancelReservation(Long id);
+
+    /**
+     * Expire the pending reservations whose hold is over.
+     */
+    void expireHolds();
 }
@@ -297,7 +297,21 @@ public class UserService {
     @Transactional(readOnly = true)
     public Optional<User> findCurrentUser() {
         log.debug("Request to get current User");
-        return userRepository.findById(userRepository.findOneByLogin(SecurityUtils.getCurrentUserLogin().get()).get().getId());
+        return SecurityUtils.getCurrentUserLogin().flatMap(userRepository::findOneByLogin);
+    }
+
+    /**
+     * Get the id of the current user: from its token, or from the cached user of its login for older tokens.
+     *
+     * @return the id of the current user.
+     */
+    @Transactional(readOnly = true)
+    public Optional<Long> getCurrentUserId() {
+        Optional<Long> userId = SecurityUtils.getCurrentUserId();
+        if (userId.isPresent()) {
+            return userId;
+        }
+        return getUserWithAuthorities().map(User::getId);
     }
 
     private void clearUserCaches(User user) {
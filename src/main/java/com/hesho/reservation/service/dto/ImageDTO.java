@@ -16,6 +16,9 @@ public class ImageDTO implements Serializable {
     @NotNull
     private Boolean main=false;
 
+    @Size(max = 64)
+    private String contentHash;
+
     private Long placeId;
 
     private String placeName;
@@ -48,6 +51,14 @@ public class ImageDTO implements Serializable {
         this.main = main;
     }
 
+    public String getContentHash() {
+        return contentHash;
+    }
+
+    public void setContentHash(String contentHash) {
+        this.contentHash = contentHash;
+    }
+
     public Long getPlaceId() {
         return placeId;
     }
@@ -104,6 +115,7 @@ public class ImageDTO implements Serializable {
             "id=" + getId() +
             ", imageUrl='" + getImageUrl() + "'" +
             ", main='" + isMain() + "'" +
+            ", contentHash='" + getContentHash() + "'" +
             ", placeId=" + getPlaceId() +
             ", placeName='" + getPlaceName() + "'" +
             ", categoryId=" + getCategoryId() +
@@ -0,0 +1,96 @@
+package com.hesho.reservation.service.dto;
+
+import java.io.Serializable;
+
+/**
+ * The outcome of one file of a gallery upload of {@link com.hesho.reservation.domain.Image}s.
+ */
+public class ImageUploadResultDTO implements Serializable {
+
+    /**
+     * Outcome of an uploaded file.
+     */
+    public enum Outcome {
+        CREATED, INVALID, FAILED
+    }
+
+    private int index;
+
+    private String fileName;
+
+    private Outcome outcome;
+
+    private String message;
+
+    private ImageDTO image;
+
+    public static ImageUploadResultDTO success(int index, String fileName, ImageDTO image) {
+        ImageUploadResultDTO result = new ImageUploadResultDTO();
+        result.setIndex(index);
+        result.setFileName(fileName);
+        result.setOutcome(Outcome.CREATED);
+        result.setImage(image);
+        return result;
+    }
+
+    public static ImageUploadResultDTO failure(int index, String fileName, Outcome outcome, String message) {
+        ImageUploadResultDTO result = new ImageUploadResultDTO();
+        result.setIndex(index);
+        result.setFileName(fileName);
+        result.setOutcome(outcome);
+        result.setMessage(message);
+        return result;
+    }
+
+    public int getIndex() {
+        return index;
+    }
+
+    public void setIndex(int index) {
+        this.index = index;
+    }
+
+    public String getFileName() {
+        return fileName;
+    }
+
+    public void setFileName(String fileName) {
+        this.fileName = fileName;
+    }
+
+    public Outcome getOutcome() {
+        return outcome;
+    }
+
+    public void setOutcome(Outcome outcome) {
+        this.outcome = outcome;
+    }
+
+    public String getMessage() {
+        return message;
+    }
+
+    public void setMessage(String message) {
+        this.message = message;
+    }
+
+    public ImageDTO getImage() {
+        return image;
+    }
+
+    public void setImage(ImageDTO image) {
+        this.image = image;
+    }
+
+    // prettier-ignore
+    @Override
+    public String toString() {
+        return "ImageUploadResultDTO{" +
+            "index=" + getIndex() +
+            ", fileName='" + getFileName() + "'" +
+            ", outcome='" + getOutcome() + "'" +
+            ", message='" + getMessage() + "'" +
+            ", image=" + getImage() +
+            "}";
+    }
+}
@@ -28,9 +28,9 @@ public class LocationCriteria implements Serializable, Criteria {
 
     private StringFilter address;
 
-    private StringFilter latitude;
+    private DoubleFilter latitude;
 
-    private StringFilter longitude;
+    private DoubleFilter longitude;
 
     private StringFilter city;
 
@@ -69,19 +69,19 @@ public class LocationCriteria implements Serializable, Criteria {
         this.address = address;
     }
 
-    public StringFilter getLatitude() {
+    public DoubleFilter getLatitude() {
         return latitude;
     }
 
-    public void setLatitude(StringFilter latitude) {
+    public void setLatitude(DoubleFilter latitude) {
         this.latitude = latitude;
     }
 
-    public StringFilter getLongitude() {
+    public DoubleFilter getLongitude() {
         return longitude;
     }
 
-    public void setLongitude(StringFilter longitude) {
+    public void setLongitude(DoubleFilter longitude) {
         this.longitude = longitude;
     }
 
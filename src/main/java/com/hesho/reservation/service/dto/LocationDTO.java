@@ -13,9 +13,13 @@ public class LocationDTO implements Serializable {
     @NotNull
     private String address;
 
-    private String latitude;
+    @DecimalMin("-90")
+    @DecimalMax("90")
+    private Double latitude;
 
-    private String longitude;
+    @DecimalMin("-180")
+    @DecimalMax("180")
+    private Double longitude;
 
     @NotNull
     private String city;
@@ -37,19 +41,19 @@ public class LocationDTO implements Serializable {
         this.address = address;
     }
 
-    public String getLatitude() {
+    public Double getLatitude() {
         return latitude;
     }
 
-    public void setLatitude(String latitude) {
+    public void setLatitude(Double latitude) {
         this.latitude = latitude;
     }
 
-    public String getLongitude() {
+    public Double getLongitude() {
         return longitude;
     }
 
-    public void setLongitude(String longitude) {
+    public void setLongitude(Double longitude) {
         this.longitude = longitude;
     }
 
@@ -84,8 +88,8 @@ public class LocationDTO implements Serializable {
         return "LocationDTO{" +
             "id=" + getId() +
             ", address='" + getAddress() + "'" +
-            ", latitude='" + getLatitude() + "'" +
-            ", longitude='" + getLongitude() + "'" +
+            ", latitude=" + getLatitude() +
+            ", longitude=" + getLongitude() +
             ", city='" + getCity() + "'" +
             "}";
     }
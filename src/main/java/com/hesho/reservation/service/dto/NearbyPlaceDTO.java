@@ -0,0 +1,46 @@
+package com.hesho.reservation.service.dto;
+
+import java.io.Serializable;
+
+/**
+ * A {@link com.hesho.reservation.domain.Place} found by a nearby search, with its distance to the searched point.
+ */
+public class NearbyPlaceDTO implements Serializable {
+
+    private double distanceKm;
+
+    private PlaceDTO place;
+
+    public NearbyPlaceDTO() {
+    }
+
+    public NearbyPlaceDTO(double distanceKm, PlaceDTO place) {
+        this.distanceKm = distanceKm;
+        this.place = place;
+    }
+
+    public double getDistanceKm() {
+        return distanceKm;
+    }
+
+    public void setDistanceKm(double distanceKm) {
+        this.distanceKm = distanceKm;
+    }
+
+    public PlaceDTO getPlace() {
+        return place;
+    }
+
+    public void setPlace(PlaceDTO place) {
+        this.place = place;
+    }
+
+    // prettier-ignore
+    @Override
+    public String toString() {
+        return "NearbyPlaceDTO{" +
+            "distanceKm=" + getDistanceKm() +
+            ", place=" + getPlace() +
+            "}";
+    }
+}
@@ -0,0 +1,74 @@
+package com.hesho.reservation.service.dto;
+
+import java.io.Serializable;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * The booked and free days of a {@link com.hesho.reservation.domain.Place} over a date range.
+ */
+public class PlaceAvailabilityDTO implements Serializable {
+
+    private Long placeId;
+
+    private LocalDate from;
+
+    private LocalDate to;
+
+    private List<LocalDate> bookedDays = new ArrayList<>();
+
+    private List<LocalDate> freeDays = new ArrayList<>();
+
+    public Long getPlaceId() {
+        return placeId;
+    }
+
+    public void setPlaceId(Long placeId) {
+        this.placeId = placeId;
+    }
+
+    public LocalDate getFrom() {
+        return from;
+    }
+
+    public void setFrom(LocalDate from) {
+        this.from = from;
+    }
+
+    public LocalDate getTo() {
+        return to;
+    }
+
+    public void setTo(LocalDate to) {
+        this.to = to;
+    }
+
+    public List<LocalDate> getBookedDays() {
+        return bookedDays;
+    }
+
+    public void setBookedDays(List<LocalDate> bookedDays) {
+        this.bookedDays = bookedDays;
+    }
+
+    public List<LocalDate> getFreeDays() {
+        return freeDays;
+    }
+
+    public void setFreeDays(List<LocalDate> freeDays) {
+        this.freeDays = freeDays;
+    }
+
+    // prettier-ignore
+    @Override
+    public String toString() {
+        return "PlaceAvailabilityDTO{" +
+            "placeId=" + getPlaceId() +
+            ", from='" + getFrom() + "'" +
+            ", to='" + getTo() + "'" +
+            ", bookedDays=" + getBookedDays().size() +
+            ", freeDays=" + getFreeDays().size() +
+            "}";
+    }
+}
@@ -42,6 +42,8 @@ public class PlaceCriteria implements Serializable, Criteria {
 
     private LongFilter categoryId;
 
+    private StringFilter city;
+
     public PlaceCriteria() {
     }
 
@@ -55,6 +57,7 @@ public class PlaceCriteria implements Serializable, Criteria {
         this.imagesId = other.imagesId == null ? null : other.imagesId.copy();
         this.reservationsId = other.reservationsId == null ? null : other.reservationsId.copy();
         this.categoryId = other.categoryId == null ? null : other.categoryId.copy();
+        this.city = other.city == null ? null : other.city.copy();
     }
 
     @Override
@@ -134,6 +137,14 @@ public class PlaceCriteria implements Serializable, Criteria {
         this.categoryId = categoryId;
     }
 
+    public StringFilter getCity() {
+        return city;
+    }
+
+    public void setCity(StringFilter city) {
+        this.city = city;
+    }
+
 
     @Override
     public boolean equals(Object o) {
@@ -153,7 +164,8 @@ public class PlaceCriteria implements Serializable, Criteria {
             Objects.equals(locationId, that.locationId) &&
             Objects.equals(imagesId, that.imagesId) &&
             Objects.equals(reservationsId, that.reservationsId) &&
-            Objects.equals(categoryId, that.categoryId);
+            Objects.equals(categoryId, that.categoryId) &&
+            Objects.equals(city, that.city);
     }
 
     @Override
@@ -167,7 +179,8 @@ public class PlaceCriteria implements Serializable, Criteria {
         locationId,
         imagesId,
         reservationsId,
-        categoryId
+        categoryId,
+        city
         );
     }
 
@@ -184,6 +197,7 @@ public class PlaceCriteria implements Serializable, Criteria {
                 (imagesId != null ? "imagesId=" + imagesId + ", " : "") +
                 (reservationsId != null ? "reservationsId=" + reservationsId + ", " : "") +
                 (categoryId != null ? "categoryId=" + categoryId + ", " : "") +
+                (city != null ? "city=" + city + ", " : "") +
             "}";
     }
 
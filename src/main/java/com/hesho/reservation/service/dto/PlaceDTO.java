@@ -29,9 +29,13 @@ public class PlaceDTO implements Serializable {
     @NotNull
     private String address;
 
-    private String latitude;
+    @DecimalMin("-90")
+    @DecimalMax("90")
+    private Double latitude;
 
-    private String longitude;
+    @DecimalMin("-180")
+    @DecimalMax("180")
+    private Double longitude;
 
     @NotNull
     private String city;
@@ -45,19 +49,19 @@ public class PlaceDTO implements Serializable {
         this.address = address;
     }
 
-    public String getLatitude() {
+    public Double getLatitude() {
         return latitude;
     }
 
-    public void setLatitude(String latitude) {
+    public void setLatitude(Double latitude) {
         this.latitude = latitude;
     }
 
-    public String getLongitude() {
+    public Double getLongitude() {
         return longitude;
     }
 
-    public void setLongitude(String longitude) {
+    public void setLongitude(Double longitude) {
         this.longitude = longitude;
     }
 
@@ -164,8 +168,8 @@ public class PlaceDTO implements Serializable {
             ", categoryId=" + categoryId +
             ", categoryName='" + categoryName + '\'' +
             ", address='" + address + '\'' +
-            ", latitude='" + latitude + '\'' +
-            ", longitude='" + longitude + '\'' +
+            ", latitude=" + latitude +
+            ", longitude=" + longitude +
             ", city='" + city + '\'' +
             '}';
     }
@@ -0,0 +1,218 @@
+package com.hesho.reservation.service.dto;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * The number of {@link com.hesho.reservation.domain.Place}s matching a filter, broken down by category, city and price.
+ * <p>
+ * Each breakdown ignores the filter on its own field, so it gives the number of places every other value would
+ * match once selected.
+ */
+public class PlaceFacetsDTO implements Serializable {
+
+    private long total;
+
+    private List<CategoryCount> categories = new ArrayList<>();
+
+    private List<CityCount> cities = new ArrayList<>();
+
+    private List<PriceBucket> prices = new ArrayList<>();
+
+    public long getTotal() {
+        return total;
+    }
+
+    public void setTotal(long total) {
+        this.total = total;
+    }
+
+    public List<CategoryCount> getCategories() {
+        return categories;
+    }
+
+    public void setCategories(List<CategoryCount> categories) {
+        this.categories = categories;
+    }
+
+    public List<CityCount> getCities() {
+        return cities;
+    }
+
+    public void setCities(List<CityCount> cities) {
+        this.cities = cities;
+    }
+
+    public List<PriceBucket> getPrices() {
+        return prices;
+    }
+
+    public void setPrices(List<PriceBucket> prices) {
+        this.prices = prices;
+    }
+
+    // prettier-ignore
+    @Override
+    public String toString() {
+        return "PlaceFacetsDTO{" +
+            "total=" + getTotal() +
+            ", categories=" + getCategories() +
+            ", cities=" + getCities() +
+            ", prices=" + getPrices() +
+            "}";
+    }
+
+    /**
+     * The number of places of a category.
+     */
+    public static class CategoryCount implements Serializable {
+
+        private Long categoryId;
+
+        private String categoryName;
+
+        private long count;
+
+        public CategoryCount() {
+        }
+
+        public CategoryCount(Long categoryId, String categoryName, long count) {
+            this.categoryId = categoryId;
+            this.categoryName = categoryName;
+            this.count = count;
+        }
+
+        public Long getCategoryId() {
+            return categoryId;
+        }
+
+        public void setCategoryId(Long categoryId) {
+            this.categoryId = categoryId;
+        }
+
+        public String getCategoryName() {
+            return categoryName;
+        }
+
+        public void setCategoryName(String categoryName) {
+            this.categoryName = categoryName;
+        }
+
+        public long getCount() {
+            return count;
+        }
+
+        public void setCount(long count) {
+            this.count = count;
+        }
+
+        // prettier-ignore
+        @Override
+        public String toString() {
+            return "CategoryCount{" +
+                "categoryId=" + getCategoryId() +
+                ", categoryName='" + getCategoryName() + "'" +
+                ", count=" + getCount() +
+                "}";
+        }
+    }
+
+    /**
+     * The number of places in a city.
+     */
+    public static class CityCount implements Serializable {
+
+        private String city;
+
+        private long count;
+
+        public CityCount() {
+        }
+
+        public CityCount(String city, long count) {
+            this.city = city;
+            this.count = count;
+        }
+
+        public String getCity() {
+            return city;
+        }
+
+        public void setCity(String city) {
+            this.city = city;
+        }
+
+        public long getCount() {
+            return count;
+        }
+
+        public void setCount(long count) {
+            this.count = count;
+        }
+
+        // prettier-ignore
+        @Override
+        public String toString() {
+            return "CityCount{" +
+                "city='" + getCity() + "'" +
+                ", count=" + getCount() +
+                "}";
+        }
+    }
+
+    /**
+     * The number of places with a price in {@code [from, to)}.
+     */
+    public static class PriceBucket implements Serializable {
+
+        private double from;
+
+        private double to;
+
+        private long count;
+
+        public PriceBucket() {
+        }
+
+        public PriceBucket(double from, double to, long count) {
+            this.from = from;
+            this.to = to;
+            this.count = count;
+        }
+
+        public double getFrom() {
+            return from;
+        }
+
+        public void setFrom(double from) {
+            this.from = from;
+        }
+
+        public double getTo() {
+            return to;
+        }
+
+        public void setTo(double to) {
+            this.to = to;
+        }
+
+        public long getCount() {
+            return count;
+        }
+
+        public void setCount(long count) {
+            this.count = count;
+        }
+
+        // prettier-ignore
+        @Override
+        public String toString() {
+            return "PriceBucket{" +
+                "from=" + getFrom() +
+                ", to=" + getTo() +
+                ", count=" + getCount() +
+                "}";
+        }
+    }
+}
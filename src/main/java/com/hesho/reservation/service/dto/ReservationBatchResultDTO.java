@@ -0,0 +1,83 @@
+package com.hesho.reservation.service.dto;
+
+import java.io.Serializable;
+
+/**
+ * The outcome of one item of a batch of {@link com.hesho.reservation.domain.Reservation} writes.
+ */
+public class ReservationBatchResultDTO implements Serializable {
+
+    /**
+     * Outcome of a batch item.
+     */
+    public enum Outcome {
+        CREATED, UPDATED, NOT_FOUND, CONFLICT, INVALID
+    }
+
+    private int index;
+
+    private Outcome outcome;
+
+    private String message;
+
+    private ReservationDTO reservation;
+
+    public static ReservationBatchResultDTO success(int index, Outcome outcome, ReservationDTO reservation) {
+        ReservationBatchResultDTO result = new ReservationBatchResultDTO();
+        result.setIndex(index);
+        result.setOutcome(outcome);
+        result.setReservation(reservation);
+        return result;
+    }
+
+    public static ReservationBatchResultDTO failure(int index, Outcome outcome, String message) {
+        ReservationBatchResultDTO result = new ReservationBatchResultDTO();
+        result.setIndex(index);
+        result.setOutcome(outcome);
+        result.setMessage(message);
+        return result;
+    }
+
+    public int getIndex() {
+        return index;
+    }
+
+    public void setIndex(int index) {
+        this.index = index;
+    }
+
+    public Outcome getOutcome() {
+        return outcome;
+    }
+
+    public void setOutcome(Outcome outcome) {
+        this.outcome = outcome;
+    }
+
+    public String getMessage() {
+        return message;
+    }
+
+    public void setMessage(String message) {
+        this.message = message;
+    }
+
+    public ReservationDTO getReservation() {
+        return reservation;
+    }
+
+    public void setReservation(ReservationDTO reservation) {
+        this.reservation = reservation;
+    }
+
+    // prettier-ignore
+    @Override
+    public String toString() {
+        return "ReservationBatchResultDTO{" +
+            "index=" + getIndex() +
+            ", outcome='" + getOutcome() + "'" +
+            ", message='" + getMessage() + "'" +
+            ", reservation=" + getReservation() +
+            "}";
+    }
+}
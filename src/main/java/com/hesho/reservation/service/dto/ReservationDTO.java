@@ -22,6 +22,8 @@ public class ReservationDTO implements Serializable {
 
     private Double fees;
 
+    private Instant holdExpiresAt;
+
     private Long userId;
 
     private String userLogin;
@@ -78,6 +80,14 @@ public class ReservationDTO implements Serializable {
         this.fees = fees;
     }
 
+    public Instant getHoldExpiresAt() {
+        return holdExpiresAt;
+    }
+
+    public void setHoldExpiresAt(Instant holdExpiresAt) {
+        this.holdExpiresAt = holdExpiresAt;
+    }
+
     public Long getUserId() {
         return userId;
     }
@@ -137,6 +147,7 @@ public class ReservationDTO implements Serializable {
             ", startDate='" + getStartDate() + "'" +
             ", endDate='" + getEndDate() + "'" +
             ", fees=" + getFees() +
+            ", holdExpiresAt='" + getHoldExpiresAt() + "'" +
             ", userId=" + getUserId() +
             ", userLogin='" + getUserLogin() + "'" +
             ", placeId=" + getPlaceId() +
@@ -0,0 +1,43 @@
+package com.hesho.reservation.service.dto;
+
+import com.hesho.reservation.domain.enumeration.ReservationStatus;
+
+import javax.validation.constraints.NotNull;
+import java.io.Serializable;
+
+/**
+ * A new status for a {@link com.hesho.reservation.domain.Reservation}.
+ */
+public class ReservationStatusUpdateDTO implements Serializable {
+
+    @NotNull
+    private Long id;
+
+    @NotNull
+    private ReservationStatus status;
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public ReservationStatus getStatus() {
+        return status;
+    }
+
+    public void setStatus(ReservationStatus status) {
+        this.status = status;
+    }
+
+    // prettier-ignore
+    @Override
+    public String toString() {
+        return "ReservationStatusUpdateDTO{" +
+            "id=" + getId() +
+            ", status='" + getStatus() + "'" +
+            "}";
+    }
+}
@@ -1,5 +1,6 @@
 package com.hesho.reservation.service.impl;
 
+import com.hesho.reservation.service.CategoryChangedEvent;
 import com.hesho.reservation.service.CategoryService;
 import com.hesho.reservation.domain.Category;
 import com.hesho.reservation.repository.CategoryRepository;
@@ -8,6 +9,7 @@ import com.hesho.reservation.service.mapper.CategoryMapper;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
@@ -28,9 +30,13 @@ public class CategoryServiceImpl implements CategoryService {
 
     private final CategoryMapper categoryMapper;
 
-    public CategoryServiceImpl(CategoryRepository categoryRepository, CategoryMapper categoryMapper) {
+    private final ApplicationEventPublisher applicationEventPublisher;
+
+    public CategoryServiceImpl(CategoryRepository categoryRepository, CategoryMapper categoryMapper,
+                               ApplicationEventPublisher applicationEventPublisher) {
         this.categoryRepository = categoryRepository;
         this.categoryMapper = categoryMapper;
+        this.applicationEventPublisher = applicationEventPublisher;
     }
 
     @Override
@@ -38,7 +44,9 @@ public class CategoryServiceImpl implements CategoryService {
         log.debug("Request to save Category : {}", categoryDTO);
         Category category = categoryMapper.toEntity(categoryDTO);
         category = categoryRepository.save(category);
-        return categoryMapper.toDto(category);
+        CategoryDTO result = categoryMapper.toDto(category);
+        applicationEventPublisher.publishEvent(CategoryChangedEvent.saved(result));
+        return result;
     }
 
     @Override
@@ -62,6 +70,7 @@ public class CategoryServiceImpl implements CategoryService {
     public void delete(Long id) {
         log.debug("Request to delete Category : {}", id);
         categoryRepository.deleteById(id);
+        applicationEventPublisher.publishEvent(CategoryChangedEvent.deleted(id));
     }
 
 
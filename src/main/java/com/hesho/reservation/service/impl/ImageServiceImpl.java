@@ -3,37 +3,53 @@ import com.hesho.reservation.domain.Category;
 import com.hesho.reservation.domain.Place;
 import com.hesho.reservation.repository.CategoryRepository;
 import com.hesho.reservation.repository.PlaceRepository;
-import com.hesho.reservation.security.ImageException;
 import com.hesho.reservation.security.StorageException;
+import com.hesho.reservation.service.ImageBlobLocks;
+import com.hesho.reservation.service.ImageBodyCache;
+import com.hesho.reservation.service.ImageFile;
+import com.hesho.reservation.service.ImageFileIndex;
 import com.hesho.reservation.service.ImageService;
+import com.hesho.reservation.service.ImageVariantService;
 import com.hesho.reservation.domain.Image;
 import com.hesho.reservation.repository.ImageRepository;
 import com.hesho.reservation.service.dto.ImageDTO;
+import com.hesho.reservation.service.dto.ImageUploadResultDTO;
+import com.hesho.reservation.service.dto.ImageUploadResultDTO.Outcome;
 import com.hesho.reservation.service.dto.PlaceDTO;
 import com.hesho.reservation.service.mapper.ImageMapper;
-import io.github.jhipster.security.RandomUtil;
+import com.hesho.reservation.service.storage.BlobStore;
+import com.hesho.reservation.config.ApplicationProperties;
+import com.google.common.hash.Hashing;
+import com.google.common.hash.HashingInputStream;
+import com.google.common.io.ByteStreams;
 import liquibase.pro.packaged.I;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.core.env.Environment;
-import org.springframework.core.io.UrlResource;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.core.task.TaskExecutor;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
-import org.springframework.util.StringUtils;
+import org.springframework.transaction.support.TransactionSynchronizationAdapter;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
 import org.springframework.web.multipart.MultipartFile;
-import javax.annotation.PostConstruct;
 import java.io.IOException;
 import java.io.InputStream;
-import java.net.MalformedURLException;
+import java.net.URI;
 import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
 import java.nio.file.Path;
-import java.nio.file.Paths;
 import java.nio.file.StandardCopyOption;
+import java.time.Duration;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 import org.apache.commons.io.FilenameUtils;
+import org.apache.commons.io.IOUtils;
 
 /**
  * Service Implementation for managing {@link Image}.
@@ -52,64 +68,68 @@ public class ImageServiceImpl implements ImageService {
 
     private final CategoryRepository categoryRepository;
 
-    @Autowired
-    private Environment env;
+    private final ImageVariantService imageVariantService;
 
-    @PostConstruct
-    public void init() {
-        try {
-            Files.createDirectories(Paths.get(env.getProperty("image.place.dir")));
-            Files.createDirectories(Paths.get(env.getProperty("image.category.dir")));
-        } catch (Exception e) {
-            throw new StorageException("Could not initialize storage", e);
-        }
-    }
+    private final ImageBlobLocks imageBlobLocks;
+
+    private final ImageBodyCache imageBodyCache;
+
+    private final ImageFileIndex imageFileIndex;
+
+    private final TaskExecutor imageUploadExecutor;
+
+    private final BlobStore blobStore;
 
-    public ImageServiceImpl(ImageRepository imageRepository, ImageMapper imageMapper,PlaceRepository placeRepository,CategoryRepository categoryRepository) {
+    private final Duration presignExpiry;
+
+    private final TransactionTemplate transactionTemplate;
+
+    public ImageServiceImpl(ImageRepository imageRepository, ImageMapper imageMapper,PlaceRepository placeRepository,CategoryRepository categoryRepository,
+                            ImageVariantService imageVariantService, ImageBlobLocks imageBlobLocks,
+                            ImageBodyCache imageBodyCache, ImageFileIndex imageFileIndex,
+                            @Qualifier("imageUploadExecutor") TaskExecutor imageUploadExecutor, BlobStore blobStore,
+                            ApplicationProperties applicationProperties, PlatformTransactionManager transactionManager) {
         this.imageRepository = imageRepository;
         this.imageMapper = imageMapper;
         this.placeRepository=placeRepository;
         this.categoryRepository=categoryRepository;
+        this.imageVariantService = imageVariantService;
+        this.imageBlobLocks = imageBlobLocks;
+        this.imageBodyCache = imageBodyCache;
+        this.imageFileIndex = imageFileIndex;
+        this.imageUploadExecutor = imageUploadExecutor;
+        this.blobStore = blobStore;
+        this.presignExpiry = Duration.ofSeconds(applicationProperties.getStorage().getPresignExpirySeconds());
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
     }
     @Override
     public ImageDTO save(ImageDTO imageDTO) {
         log.debug("Request to save Image : {}", imageDTO);
         Image image = imageMapper.toEntity(imageDTO);
         image = imageRepository.save(image);
+        // the main flag or the owner of the image may have changed
+        afterCommit(imageBodyCache::invalidateAll);
+        afterCommit(imageFileIndex::clear);
         return imageMapper.toDto(image);
     }
     @Override
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public ImageDTO saveImagesForPlace(MultipartFile image, Long placeId){
         // find place by placeId
        Optional<Place> place=placeRepository.findById(placeId);
        if (place.isPresent()) {
            Place placeEntity=place.get();
                    Image imageEntity=new Image();
-                   String fileName = StringUtils.cleanPath(RandomUtil.generateRandomAlphanumericString() + "." + FilenameUtils.getExtension(image.getOriginalFilename()));
-                   try {
-                   if (fileName.isEmpty()) {
-                       throw new StorageException("Failed to store empty file " + fileName);
-                   }
-                   if (fileName.contains("..")) {
-                       throw new StorageException("Cannot store file with relative path outside current directory " + fileName);
-                   }
-                   try (InputStream inputStream = image.getInputStream()) {
-                       Files.copy(inputStream, Paths.get(env.getProperty("image.place.dir")).resolve(fileName), StandardCopyOption.REPLACE_EXISTING);
-                     imageEntity.setImageUrl(fileName);
-                     imageEntity.setPlace(placeEntity);
-                     imageRepository.save(imageEntity);
-                     return imageMapper.toDto(imageEntity);
-                   }
-               }
-                   catch(IOException e){
-                       throw new StorageException("Failed to store file " + fileName, e);
-                   }
+                   imageEntity.setPlace(placeEntity);
+                   store(image, BlobStore.PLACE, imageEntity);
+                   return imageMapper.toDto(imageEntity);
            }
        else {
            throw new StorageException("Could not read file: " + image);
        }
     }
     @Override
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public ImageDTO saveImagesForCategory(MultipartFile image, Long categoryId){
         // find place by placeId
         Optional<Category> category=categoryRepository.findById(categoryId);
@@ -117,28 +137,222 @@ public class ImageServiceImpl implements ImageService {
             Category categoryEntity=category.get();
             // create new image entity to save images for place
             Image imageEntity=new Image();
-            String fileName = StringUtils.cleanPath(RandomUtil.generateRandomAlphanumericString() + "." + FilenameUtils.getExtension(image.getOriginalFilename()));
-            try {
-                if (fileName.isEmpty()) {
-                    throw new StorageException("Failed to store empty file " + fileName);
+            imageEntity.setCategory(categoryEntity);
+            store(image, BlobStore.CATEGORY, imageEntity);
+            return imageMapper.toDto(imageEntity);
+        }
+        else {
+            throw new StorageException("Could not read file: " + image);
+        }
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public List<ImageUploadResultDTO> saveImagesForPlace(List<MultipartFile> images, Long placeId) {
+        log.debug("Request to save a gallery of {} Images for Place : {}", images.size(), placeId);
+        Place place = placeRepository.findById(placeId).orElseThrow(() -> new StorageException("Could not find place: " + placeId));
+        ImageUploadResultDTO[] results = new ImageUploadResultDTO[images.size()];
+        List<CompletableFuture<ReceivedFile>> receiving = new ArrayList<>();
+        for (int i = 0; i < images.size(); i++) {
+            MultipartFile image = images.get(i);
+            if (image.isEmpty()) {
+                results[i] = ImageUploadResultDTO.failure(i, image.getOriginalFilename(), Outcome.INVALID, "Empty file");
+            } else if (extensionOf(image) == null) {
+                results[i] = ImageUploadResultDTO.failure(i, image.getOriginalFilename(), Outcome.INVALID, "Invalid file extension");
+            }
+            receiving.add(results[i] != null ? null : CompletableFuture.supplyAsync(() -> upload(receive(image, BlobStore.PLACE), BlobStore.PLACE), imageUploadExecutor));
+        }
+        Map<Integer, ReceivedFile> received = new LinkedHashMap<>();
+        try {
+            for (int i = 0; i < images.size(); i++) {
+                if (receiving.get(i) == null) {
+                    continue;
                 }
-                if (fileName.contains("..")) {
-                    throw new StorageException("Cannot store file with relative path outside current directory " + fileName);
+                try {
+                    received.put(i, receiving.get(i).join());
+                } catch (CompletionException e) {
+                    log.warn("Failed to store file {}: {}", images.get(i).getOriginalFilename(), e.getCause().getMessage());
+                    results[i] = ImageUploadResultDTO.failure(i, images.get(i).getOriginalFilename(), Outcome.FAILED, "Failed to store file");
                 }
-                try (InputStream inputStream = image.getInputStream()) {
-                    Files.copy(inputStream, Paths.get(env.getProperty("image.category.dir")).resolve(fileName), StandardCopyOption.REPLACE_EXISTING);
-                    imageEntity.setImageUrl(fileName);
-                    imageEntity.setCategory(categoryEntity);
-                    imageRepository.save(imageEntity);
-                    return imageMapper.toDto(imageEntity);
+            }
+            List<Image> imageEntities = transactionTemplate.execute(status -> {
+                List<Image> entities = new ArrayList<>();
+                for (ReceivedFile file : received.values()) {
+                    Image imageEntity = new Image();
+                    imageEntity.setPlace(place);
+                    reference(file, BlobStore.PLACE, imageEntity);
+                    entities.add(imageEntity);
                 }
+                // a single transaction, with the inserts sent in JDBC batches
+                return imageRepository.saveAll(entities);
+            });
+            Iterator<Image> saved = imageEntities.iterator();
+            for (Integer index : received.keySet()) {
+                results[index] = ImageUploadResultDTO.success(index, images.get(index).getOriginalFilename(), imageMapper.toDto(saved.next()));
+            }
+        } finally {
+            // once the references are committed, or once the files still being written are if an error interrupted the upload
+            receiving.stream().filter(Objects::nonNull).forEach(future -> future.thenAccept(this::finish));
+        }
+        return Arrays.asList(results);
+    }
+
+    /**
+     * Store an uploaded file under the hash of its content, reusing the file of any image with the same content, then
+     * save the image referencing it. The file is written before the transaction saving the image opens, so no database
+     * connection waits for the store.
+     */
+    private void store(MultipartFile image, String container, Image imageEntity) {
+        if (extensionOf(image) == null) {
+            throw new StorageException("Cannot store file with extension " + FilenameUtils.getExtension(image.getOriginalFilename()));
+        }
+        ReceivedFile file = upload(receive(image, container), container);
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                reference(file, container, imageEntity);
+                imageRepository.save(imageEntity);
+            });
+        } finally {
+            finish(file);
+        }
+    }
+
+    /**
+     * Write an uploaded file to a staging file of the store. The content is hashed while it is copied, so the upload
+     * is read once; the local store stages it next to its final name, so naming it is a rename.
+     */
+    private ReceivedFile receive(MultipartFile image, String container) {
+        Path temporary = null;
+        try {
+            temporary = blobStore.createStagingFile(container);
+            try (InputStream inputStream = image.getInputStream()) {
+                return new ReceivedFile(temporary, copy(inputStream, temporary), extensionOf(image));
             }
-            catch(IOException e){
-                throw new StorageException("Failed to store file " + fileName, e);
+        } catch (IOException e) {
+            deleteQuietly(temporary);
+            throw new StorageException("Failed to store file " + image.getOriginalFilename(), e);
+        }
+    }
+
+    /**
+     * Write a received file to the store under its hash, unless a file with the same content is stored already.
+     * <p>
+     * The file is registered as being uploaded until {@link #finish(ReceivedFile)} is called once its reference is
+     * committed, so a concurrent delete of its last other reference keeps it. Registering waits for a delete in
+     * progress, which the store then reflects.
+     */
+    private ReceivedFile upload(ReceivedFile received, String container) {
+        String fileName = received.getFileName();
+        String key = BlobStore.key(container, fileName);
+        imageBlobLocks.beginUpload(fileName);
+        boolean uploaded = false;
+        try {
+            if (blobStore.exists(key)) {
+                log.debug("Reusing stored file {}", fileName);
+            } else {
+                blobStore.put(key, received.temporary);
+                blobStore.getLocalPath(key).ifPresent(imageVariantService::generate);
+            }
+            uploaded = true;
+            return received;
+        } catch (IOException e) {
+            throw new StorageException("Failed to store file " + fileName, e);
+        } finally {
+            if (!uploaded) {
+                finish(received);
             }
         }
-        else {
-            throw new StorageException("Could not read file: " + image);
+    }
+
+    /**
+     * Reference an uploaded file from an image, in the transaction saving the image.
+     */
+    private void reference(ReceivedFile received, String container, Image imageEntity) {
+        String fileName = received.getFileName();
+        String key = BlobStore.key(container, fileName);
+        imageEntity.setImageUrl(fileName);
+        imageEntity.setContentHash(received.contentHash);
+        afterCommit(() -> toImageFile(key, received.contentHash).ifPresent(file -> imageFileIndex.put(fileName, file)));
+    }
+
+    /**
+     * End the upload of a file once its reference is committed or the upload failed, deleting its staging file
+     * unless the store moved it.
+     */
+    private void finish(ReceivedFile received) {
+        imageBlobLocks.endUpload(received.getFileName());
+        deleteQuietly(received.temporary);
+    }
+
+    /**
+     * @return the lower case extension of an uploaded file, or {@code null} if it is not a plain extension.
+     */
+    private static String extensionOf(MultipartFile image) {
+        String originalFilename = image.getOriginalFilename() == null ? "" : image.getOriginalFilename();
+        String extension = FilenameUtils.getExtension(originalFilename).toLowerCase(Locale.ROOT);
+        return extension.matches("[a-z0-9]*") ? extension : null;
+    }
+
+    /**
+     * Delete the file of a deleted image once no other image references it, with its resized copies.
+     */
+    private void release(Image image) {
+        if (image.getImageUrl() == null || (image.getPlace() == null && image.getCategory() == null)) {
+            return;
+        }
+        String fileName = image.getImageUrl();
+        boolean place = image.getPlace() != null;
+        boolean releasedByTransaction = imageBlobLocks.lockUntilCompletion(fileName);
+        try {
+            long references = place
+                ? imageRepository.countByImageUrlAndPlaceIsNotNull(fileName)
+                : imageRepository.countByImageUrlAndCategoryIsNotNull(fileName);
+            if (references > 0) {
+                log.debug("Keeping file {}, still referenced by {} images", fileName, references);
+                return;
+            }
+            if (imageBlobLocks.isUploading(fileName)) {
+                log.debug("Keeping file {}, being uploaded", fileName);
+                return;
+            }
+            String key = BlobStore.key(place ? BlobStore.PLACE : BlobStore.CATEGORY, fileName);
+            afterCommit(() -> {
+                log.debug("Deleting unreferenced file {}", fileName);
+                try {
+                    blobStore.delete(key);
+                } catch (IOException e) {
+                    log.warn("Could not delete file {}: {}", key, e.getMessage());
+                }
+                blobStore.getLocalPath(key).ifPresent(imageVariantService::delete);
+            });
+        } finally {
+            if (!releasedByTransaction) {
+                imageBlobLocks.unlock(fileName);
+            }
+        }
+    }
+
+    private void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronizationAdapter() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+
+    private void deleteQuietly(Path file) {
+        if (file == null) {
+            return;
+        }
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException e) {
+            log.warn("Could not delete file {}: {}", file, e.getMessage());
         }
     }
     @Override
@@ -151,6 +365,7 @@ public class ImageServiceImpl implements ImageService {
             }
            Optional<Image> image=imageRepository.findById(imageId);
             image.get().setMain(true);
+            afterCommit(() -> imageBodyCache.invalidateCategory(categoryId));
             return imageMapper.toDto(image.get());
     }
 
@@ -170,94 +385,121 @@ public class ImageServiceImpl implements ImageService {
             .map(imageMapper::toDto);
     }
     @Override
-    @Transactional(readOnly = true)
-    public UrlResource findOneByImageUrl(String imageName){
-        log.debug("Request to get Image : {}", imageName);
-        String fileName=null;
-        try {
-            Optional<Image> image = imageRepository.findOneByImageUrl(imageName);
-            if (image.isPresent()) {
-                Image imageEntity = image.get();
-                fileName=imageEntity.getImageUrl();
-                Path file = Paths.get(env.getProperty("image.place.dir")).resolve(fileName);
-                UrlResource resource = new UrlResource(file.toUri());
-                if (resource.exists() || resource.isReadable()) {
-                    return resource;
-                } else {
-                    file = Paths.get(env.getProperty("image.category.dir")).resolve(fileName);
-                    resource = new UrlResource(file.toUri());
-                    if (resource.exists() || resource.isReadable()) {
-                        return resource;
-                    } else {
-                        throw new StorageException("Could not read file: " + fileName);
-                    }
-                }
-            }
-            else {
-                throw new ImageException("No Image Found");
-            }
-        } catch (MalformedURLException e) {
-            throw new ImageException(e);
+    public Optional<ImageFile> findOneByImageUrl(String imageName) {
+        log.debug("Request to get Image file : {}", imageName);
+        Optional<ImageFile> indexed = imageFileIndex.get(imageName);
+        if (indexed.isPresent()) {
+            return indexed;
         }
+        Optional<ImageFile> file = imageRepository.findFirstByImageUrl(imageName).flatMap(image -> {
+            if (image.getPlace() == null && image.getCategory() == null) {
+                return Optional.empty();
+            }
+            return toImageFile(image, image.getPlace() != null ? BlobStore.PLACE : BlobStore.CATEGORY);
+        });
+        file.ifPresent(found -> imageFileIndex.put(imageName, found));
+        return file;
     }
 
     @Override
-    @Transactional(readOnly = true)
-    public UrlResource findOneByPlaceIdAndMainIsTrue(Long placeId){
-            log.debug("Request to get Image : {}", placeId);
-            String fileName=null;
-        try {
-            Optional<Image> image = imageRepository.findOneByPlaceIdAndMainIsTrue(placeId);
-            if (image.isPresent()) {
-                Image imageEntity = image.get();
-                fileName=imageEntity.getImageUrl();
-                Path file = Paths.get(env.getProperty("image.place.dir")).resolve(fileName);
-                UrlResource resource = new UrlResource(file.toUri());
-                if (resource.exists() || resource.isReadable()) {
-                    return resource;
-                } else {
-                    throw new StorageException("Could not read file: " + fileName);
-                }
-            }
-            else {
-                throw new ImageException("No Image Found");
-            }
-        } catch (MalformedURLException e) {
-            throw new ImageException(e);
-        }
+    public Optional<ImageFile> findOneByPlaceIdAndMainIsTrue(Long placeId) {
+        log.debug("Request to get main Image file of Place : {}", placeId);
+        return imageBodyCache.getForPlace(placeId, () -> imageRepository.findOneByPlaceIdAndMainIsTrue(placeId)
+            .flatMap(image -> toImageFile(image, BlobStore.PLACE)));
     }
 
     @Override
-    @Transactional(readOnly = true)
-    public UrlResource findOneByCategoryIdAndMainIsTrue(Long categoryId){
-        log.debug("Request to get Image : {}", categoryId);
-        String fileName=null;
-        try {
-            Optional<Image> image = imageRepository.findOneByCategoryIdAndMainIsTrue(categoryId);
-            if (image.isPresent()) {
-                Image imageEntity = image.get();
-                fileName=imageEntity.getImageUrl();
-                Path file = Paths.get(env.getProperty("image.category.dir")).resolve(fileName);
-                UrlResource resource = new UrlResource(file.toUri());
-                if (resource.exists() || resource.isReadable()) {
-                    return resource;
-                } else {
-                    throw new StorageException("Could not read file: " + fileName);
-                }
-            }
-            else {
-                throw new ImageException("No Image Found");
+    public Optional<ImageFile> findOneByCategoryIdAndMainIsTrue(Long categoryId) {
+        log.debug("Request to get main Image file of Category : {}", categoryId);
+        return imageBodyCache.getForCategory(categoryId, () -> imageRepository.findOneByCategoryIdAndMainIsTrue(categoryId)
+            .flatMap(image -> toImageFile(image, BlobStore.CATEGORY)));
+    }
+
+    @Override
+    public Optional<ImageFile> findVariantByImageUrl(String imageName, int width, String format) {
+        log.debug("Request to get Image file : {}, width : {}, format : {}", imageName, width, format);
+        return findOneByImageUrl(imageName).flatMap(file -> imageVariantService.findVariant(file, width, format));
+    }
+
+    @Override
+    public Optional<URI> presign(ImageFile file) {
+        return file.getKey() == null ? Optional.empty() : blobStore.presign(file.getKey(), presignExpiry);
+    }
+
+    /**
+     * Describe the file of an image, hashing it first if it was stored before hashes were recorded.
+     */
+    private Optional<ImageFile> toImageFile(Image image, String container) {
+        String key = BlobStore.key(container, image.getImageUrl());
+        if (image.getContentHash() == null) {
+            try (InputStream inputStream = blobStore.open(key)) {
+                image.setContentHash(hash(inputStream));
+            } catch (NoSuchFileException e) {
+                log.warn("Could not read file of Image {}: {}", image.getId(), key);
+                return Optional.empty();
+            } catch (IOException e) {
+                throw new StorageException("Failed to hash file " + image.getImageUrl(), e);
             }
-        } catch (MalformedURLException e) {
-            throw new ImageException(e);
         }
+        return toImageFile(key, image.getContentHash());
     }
 
+    /**
+     * Describe a stored file: a local file is streamed from disk, a remote one is redirected to its store or, if the
+     * store cannot serve it, read in memory.
+     */
+    private Optional<ImageFile> toImageFile(String key, String contentHash) {
+        Optional<Path> path = blobStore.getLocalPath(key);
+        if (path.isPresent()) {
+            return Optional.of(new ImageFile(path.get(), contentHash));
+        }
+        if (blobStore.supportsPresign()) {
+            return Optional.of(ImageFile.remote(key, contentHash));
+        }
+        try (InputStream inputStream = blobStore.open(key)) {
+            return Optional.of(ImageFile.remote(key, contentHash, IOUtils.toByteArray(inputStream)));
+        } catch (NoSuchFileException e) {
+            log.warn("Could not read file {}", key);
+            return Optional.empty();
+        } catch (IOException e) {
+            throw new StorageException("Failed to read file " + key, e);
+        }
+    }
+
+    /**
+     * Copy a stream to a file.
+     *
+     * @return the hex encoded SHA-256 of the content.
+     */
+    private static String copy(InputStream inputStream, Path target) throws IOException {
+        HashingInputStream hashingInputStream = new HashingInputStream(Hashing.sha256(), inputStream);
+        Files.copy(hashingInputStream, target, StandardCopyOption.REPLACE_EXISTING);
+        return hashingInputStream.hash().toString();
+    }
+
+    private static String hash(InputStream inputStream) throws IOException {
+        HashingInputStream hashingInputStream = new HashingInputStream(Hashing.sha256(), inputStream);
+        ByteStreams.exhaust(hashingInputStream);
+        return hashingInputStream.hash().toString();
+    }
 
     @Override
     public void delete(Long id) {
         log.debug("Request to delete Image : {}", id);
+        Optional<Image> image = imageRepository.findById(id);
         imageRepository.deleteById(id);
+        image.ifPresent(deleted -> {
+            if (deleted.getPlace() != null) {
+                afterCommit(() -> imageBodyCache.invalidatePlace(deleted.getPlace().getId()));
+            }
+            if (deleted.getCategory() != null) {
+                afterCommit(() -> imageBodyCache.invalidateCategory(deleted.getCategory().getId()));
+            }
+            if (deleted.getImageUrl() != null) {
+                afterCommit(() -> imageFileIndex.remove(deleted.getImageUrl()));
+            }
+            release(deleted);
+        });
     }
 
     @Override
@@ -269,6 +511,7 @@ public class ImageServiceImpl implements ImageService {
         }
         Optional<Image> image=imageRepository.findById(imageId);
         image.get().setMain(true);
+        afterCommit(() -> imageBodyCache.invalidatePlace(placeId));
         return imageMapper.toDto(image.get());
     }
     @Override
@@ -280,4 +523,25 @@ public class ImageServiceImpl implements ImageService {
         return imageRepository.findPlaceById(id);
     }
 
+    /**
+     * An uploaded file written to disk, before it is named after the hash of its content.
+     */
+    private static final class ReceivedFile {
+
+        private final Path temporary;
+
+        private final String contentHash;
+
+        private final String extension;
+
+        private ReceivedFile(Path temporary, String contentHash, String extension) {
+            this.temporary = temporary;
+            this.contentHash = contentHash;
+            this.extension = extension;
+        }
+
+        private String getFileName() {
+            return extension.isEmpty() ? contentHash : contentHash + "." + extension;
+        }
+    }
 }
@@ -1,13 +1,17 @@
 package com.hesho.reservation.service.impl;
 
+import com.hesho.reservation.repository.PlaceRepository;
 import com.hesho.reservation.service.LocationService;
 import com.hesho.reservation.domain.Location;
 import com.hesho.reservation.repository.LocationRepository;
+import com.hesho.reservation.service.PlaceChangedEvent;
 import com.hesho.reservation.service.dto.LocationDTO;
 import com.hesho.reservation.service.mapper.LocationMapper;
+import com.hesho.reservation.service.mapper.PlaceMapper;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
@@ -32,9 +36,19 @@ public class LocationServiceImpl implements LocationService {
 
     private final LocationMapper locationMapper;
 
-    public LocationServiceImpl(LocationRepository locationRepository, LocationMapper locationMapper) {
+    private final PlaceRepository placeRepository;
+
+    private final PlaceMapper placeMapper;
+
+    private final ApplicationEventPublisher applicationEventPublisher;
+
+    public LocationServiceImpl(LocationRepository locationRepository, LocationMapper locationMapper, PlaceRepository placeRepository,
+                               PlaceMapper placeMapper, ApplicationEventPublisher applicationEventPublisher) {
         this.locationRepository = locationRepository;
         this.locationMapper = locationMapper;
+        this.placeRepository = placeRepository;
+        this.placeMapper = placeMapper;
+        this.applicationEventPublisher = applicationEventPublisher;
     }
 
     @Override
@@ -42,6 +56,9 @@ public class LocationServiceImpl implements LocationService {
         log.debug("Request to save Location : {}", locationDTO);
         Location location = locationMapper.toEntity(locationDTO);
         location = locationRepository.save(location);
+        // the place indexes hold the coordinates of the place at this location
+        placeRepository.findOneByLocationId(location.getId())
+            .ifPresent(place -> applicationEventPublisher.publishEvent(PlaceChangedEvent.saved(placeMapper.toDto(place))));
         return locationMapper.toDto(location);
     }
 
@@ -2,21 +2,34 @@ package com.hesho.reservation.service.impl;
 
 import com.hesho.reservation.domain.Location;
 import com.hesho.reservation.repository.LocationRepository;
+import com.hesho.reservation.service.PlaceChangedEvent;
 import com.hesho.reservation.service.PlaceService;
 import com.hesho.reservation.domain.Place;
 import com.hesho.reservation.repository.PlaceRepository;
+import com.hesho.reservation.service.PlaceFacetIndex;
+import com.hesho.reservation.service.PlaceSearchIndex;
+import com.hesho.reservation.service.PlaceSpatialIndex;
+import com.hesho.reservation.service.dto.NearbyPlaceDTO;
+import com.hesho.reservation.service.dto.PlaceCriteria;
 import com.hesho.reservation.service.dto.PlaceDTO;
+import com.hesho.reservation.service.dto.PlaceFacetsDTO;
 import com.hesho.reservation.service.mapper.PlaceMapper;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 /**
  * Service Implementation for managing {@link Place}.
@@ -31,12 +44,26 @@ public class PlaceServiceImpl implements PlaceService {
 
     private final PlaceMapper placeMapper;
 
+    private final PlaceSpatialIndex placeSpatialIndex;
+
+    private final PlaceSearchIndex placeSearchIndex;
+
+    private final PlaceFacetIndex placeFacetIndex;
+
+    private final ApplicationEventPublisher applicationEventPublisher;
+
     @Autowired
     private LocationRepository locationRepository;
 
-    public PlaceServiceImpl(PlaceRepository placeRepository, PlaceMapper placeMapper) {
+    public PlaceServiceImpl(PlaceRepository placeRepository, PlaceMapper placeMapper, PlaceSpatialIndex placeSpatialIndex,
+                            PlaceSearchIndex placeSearchIndex, PlaceFacetIndex placeFacetIndex,
+                            ApplicationEventPublisher applicationEventPublisher) {
         this.placeRepository = placeRepository;
         this.placeMapper = placeMapper;
+        this.placeSpatialIndex = placeSpatialIndex;
+        this.placeSearchIndex = placeSearchIndex;
+        this.placeFacetIndex = placeFacetIndex;
+        this.applicationEventPublisher = applicationEventPublisher;
     }
 
     @Override
@@ -51,7 +78,9 @@ public class PlaceServiceImpl implements PlaceService {
         Place place = placeMapper.toEntity(placeDTO);
         place.setLocation(locationEntity);
         place = placeRepository.save(place);
-        return placeMapper.toDto(place);
+        PlaceDTO result = placeMapper.toDto(place);
+        applicationEventPublisher.publishEvent(PlaceChangedEvent.saved(result));
+        return result;
     }
 
     @Override
@@ -74,7 +103,9 @@ public class PlaceServiceImpl implements PlaceService {
         placeDTO.setLocationId(location.getId());
         Place placeEntity = placeMapper.toEntity(placeDTO);
         Place place = placeRepository.save(placeEntity);
-        return placeMapper.toDto(place);
+        PlaceDTO result = placeMapper.toDto(place);
+        applicationEventPublisher.publishEvent(PlaceChangedEvent.saved(result));
+        return result;
     }
 
     @Override
@@ -86,6 +117,52 @@ public class PlaceServiceImpl implements PlaceService {
     }
 
 
+    @Override
+    @Transactional(readOnly = true)
+    public Page<NearbyPlaceDTO> findNearby(double latitude, double longitude, double radiusKm, Long categoryId, Pageable pageable) {
+        log.debug("Request to get Places within {} km of {}, {}", radiusKm, latitude, longitude);
+        List<PlaceSpatialIndex.Hit> hits = placeSpatialIndex.findWithin(latitude, longitude, radiusKm, categoryId);
+        List<PlaceSpatialIndex.Hit> pageHits = page(hits, pageable);
+        Map<Long, Place> places = findAllById(pageHits.stream().map(PlaceSpatialIndex.Hit::getPlaceId).collect(Collectors.toList()));
+        List<NearbyPlaceDTO> content = pageHits.stream()
+            .filter(hit -> places.containsKey(hit.getPlaceId()))
+            .map(hit -> new NearbyPlaceDTO(hit.getDistanceKm(), placeMapper.toDto(places.get(hit.getPlaceId()))))
+            .collect(Collectors.toList());
+        return new PageImpl<>(content, pageable, hits.size());
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Page<PlaceDTO> search(String query, Pageable pageable) {
+        log.debug("Request to search Places : {}", query);
+        List<PlaceSearchIndex.Hit> hits = placeSearchIndex.search(query);
+        List<PlaceSearchIndex.Hit> pageHits = page(hits, pageable);
+        Map<Long, Place> places = findAllById(pageHits.stream().map(PlaceSearchIndex.Hit::getPlaceId).collect(Collectors.toList()));
+        List<PlaceDTO> content = pageHits.stream()
+            .filter(hit -> places.containsKey(hit.getPlaceId()))
+            .map(hit -> placeMapper.toDto(places.get(hit.getPlaceId())))
+            .collect(Collectors.toList());
+        return new PageImpl<>(content, pageable, hits.size());
+    }
+
+    @Override
+    public PlaceFacetsDTO findFacets(PlaceCriteria criteria, double priceInterval) {
+        log.debug("Request to get Place facets by criteria : {}", criteria);
+        return placeFacetIndex.facets(criteria, priceInterval);
+    }
+
+    private static <T> List<T> page(List<T> hits, Pageable pageable) {
+        if (pageable.isUnpaged()) {
+            return hits;
+        }
+        return hits.subList((int) Math.min(pageable.getOffset(), hits.size()),
+            (int) Math.min(pageable.getOffset() + pageable.getPageSize(), hits.size()));
+    }
+
+    private Map<Long, Place> findAllById(List<Long> ids) {
+        return placeRepository.findAllById(ids).stream().collect(Collectors.toMap(Place::getId, Function.identity()));
+    }
+
     @Override
     @Transactional(readOnly = true)
     public Optional<PlaceDTO> findOne(Long id) {
@@ -98,6 +175,7 @@ public class PlaceServiceImpl implements PlaceService {
     public void delete(Long id) {
         log.debug("Request to delete Place : {}", id);
         placeRepository.deleteById(id);
+        applicationEventPublisher.publishEvent(PlaceChangedEvent.deleted(id));
     }
 
 }
@@ -1,23 +1,48 @@
 package com.hesho.reservation.service.impl;
 
-import com.hesho.reservation.domain.User;
 import com.hesho.reservation.domain.enumeration.ReservationStatus;
+import com.hesho.reservation.security.ReservationConflictException;
 import com.hesho.reservation.security.ReservationException;
+import com.hesho.reservation.service.PlaceLocks;
+import com.hesho.reservation.service.ReservationHoldQueue;
+import com.hesho.reservation.service.ReservationIntervalIndex;
 import com.hesho.reservation.service.ReservationService;
 import com.hesho.reservation.domain.Reservation;
+import com.hesho.reservation.repository.PlaceRepository;
 import com.hesho.reservation.repository.ReservationRepository;
+import com.hesho.reservation.service.dto.ReservationBatchResultDTO;
+import com.hesho.reservation.service.dto.ReservationBatchResultDTO.Outcome;
 import com.hesho.reservation.service.dto.ReservationDTO;
+import com.hesho.reservation.service.dto.ReservationStatusUpdateDTO;
 import com.hesho.reservation.service.mapper.ReservationMapper;
+import com.hesho.reservation.web.rest.errors.BadRequestAlertException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationAdapter;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
 
 /**
  * Service Implementation for managing {@link Reservation}.
@@ -26,24 +51,50 @@ import java.util.Optional;
 @Transactional
 public class ReservationServiceImpl implements ReservationService {
 
+    private static final int HOLD_SWEEP_BATCH_SIZE = 500;
+
     private final Logger log = LoggerFactory.getLogger(ReservationServiceImpl.class);
 
     private final ReservationRepository reservationRepository;
 
+    private final PlaceRepository placeRepository;
+
     private final ReservationMapper reservationMapper;
 
-    public ReservationServiceImpl(ReservationRepository reservationRepository, ReservationMapper reservationMapper) {
+    private final ReservationIntervalIndex reservationIntervalIndex;
+
+    private final PlaceLocks placeLocks;
+
+    private final ReservationHoldQueue reservationHoldQueue;
+
+    public ReservationServiceImpl(ReservationRepository reservationRepository, PlaceRepository placeRepository,
+                                  ReservationMapper reservationMapper, ReservationIntervalIndex reservationIntervalIndex,
+                                  PlaceLocks placeLocks, ReservationHoldQueue reservationHoldQueue) {
         this.reservationRepository = reservationRepository;
+        this.placeRepository = placeRepository;
         this.reservationMapper = reservationMapper;
+        this.reservationIntervalIndex = reservationIntervalIndex;
+        this.placeLocks = placeLocks;
+        this.reservationHoldQueue = reservationHoldQueue;
     }
 
     @Override
     public ReservationDTO save(ReservationDTO reservationDTO) {
         log.debug("Request to save Reservation : {}", reservationDTO);
-        Reservation reservation = reservationMapper.toEntity(reservationDTO);
-        reservation.setStatus(ReservationStatus.PENDING);
-        reservation = reservationRepository.save(reservation);
-        return reservationMapper.toDto(reservation);
+        if (reservationDTO.getStartDate() != null && reservationDTO.getEndDate() != null
+            && !reservationDTO.getStartDate().isBefore(reservationDTO.getEndDate())) {
+            throw new BadRequestAlertException("The start date must be before the end date", "reservation", "invaliddates");
+        }
+        return withPlaceLock(reservationDTO.getPlaceId(), () -> {
+            checkAvailability(reservationDTO.getPlaceId(), reservationDTO.getStartDate(), reservationDTO.getEndDate(), reservationDTO.getId());
+            Reservation reservation = reservationMapper.toEntity(reservationDTO);
+            reservation.setStatus(ReservationStatus.PENDING);
+            reservation.setHoldExpiresAt(reservationHoldQueue.newExpiry());
+            reservation = reservationRepository.save(reservation);
+            indexAfterCommit(reservation);
+            holdAfterCommit(reservation);
+            return reservationMapper.toDto(reservation);
+        });
     }
 
     @Override
@@ -51,15 +102,118 @@ public class ReservationServiceImpl implements ReservationService {
         log.debug("Request to update Reservation Status: {}", id);
         Reservation reservation = reservationRepository.getOne(id);
         if (reservation!=null) {
-            reservation.setStatus(status);
-            reservation = reservationRepository.save(reservation);
-            return reservationMapper.toDto(reservation);
+            Long placeId = reservation.getPlace() != null ? reservation.getPlace().getId() : null;
+            boolean reopened = ReservationIntervalIndex.RELEASED_STATUSES.contains(reservation.getStatus())
+                && !ReservationIntervalIndex.RELEASED_STATUSES.contains(status);
+            return withPlaceLock(reopened ? placeId : null, () -> {
+                if (reopened) {
+                    // a canceled or expired reservation no longer holds the place, so it may have been booked since
+                    checkAvailability(placeId, reservation.getStartDate(), reservation.getEndDate(), id);
+                }
+                applyStatus(reservation, status);
+                Reservation result = reservationRepository.save(reservation);
+                indexAfterCommit(result);
+                holdAfterCommit(result);
+                return reservationMapper.toDto(result);
+            });
         }
         else{
             throw new ReservationException("Reservation Not found for Id :"+id.toString());
         }
     }
 
+    @Override
+    public List<ReservationBatchResultDTO> saveAll(List<ReservationDTO> reservationDTOs) {
+        log.debug("Request to save a batch of {} Reservations", reservationDTOs.size());
+        List<ReservationBatchResultDTO> results = new ArrayList<>(reservationDTOs.size());
+        List<Reservation> accepted = new ArrayList<>();
+        List<Integer> acceptedIndexes = new ArrayList<>();
+        BatchIntervals batchIntervals = new BatchIntervals();
+        List<Long> placeIds = reservationDTOs.stream().filter(Objects::nonNull).map(ReservationDTO::getPlaceId)
+            .filter(Objects::nonNull).distinct().collect(Collectors.toList());
+        // an unknown place would fail the insert of the whole batch at flush, so it is reported with its item
+        Set<Long> existingPlaceIds = placeIds.isEmpty() ? Collections.emptySet() : new HashSet<>(placeRepository.findIdsByIdIn(placeIds));
+        withPlaceLocks(new ArrayList<>(existingPlaceIds), () -> {
+            for (int i = 0; i < reservationDTOs.size(); i++) {
+                ReservationDTO reservationDTO = reservationDTOs.get(i);
+                String invalid = validateNewReservation(reservationDTO);
+                if (invalid != null) {
+                    results.add(ReservationBatchResultDTO.failure(i, Outcome.INVALID, invalid));
+                } else if (!existingPlaceIds.contains(reservationDTO.getPlaceId())) {
+                    results.add(ReservationBatchResultDTO.failure(i, Outcome.NOT_FOUND, "Place Not found for Id :" + reservationDTO.getPlaceId()));
+                } else if (batchIntervals.hasConflict(reservationDTO.getPlaceId(), reservationDTO.getStartDate(), reservationDTO.getEndDate(), null)) {
+                    results.add(ReservationBatchResultDTO.failure(i, Outcome.CONFLICT,
+                        "Place " + reservationDTO.getPlaceId() + " is already reserved for the requested dates"));
+                } else {
+                    Reservation reservation = reservationMapper.toEntity(reservationDTO);
+                    reservation.setStatus(ReservationStatus.PENDING);
+                    reservation.setHoldExpiresAt(reservationHoldQueue.newExpiry());
+                    batchIntervals.add(reservationDTO.getPlaceId(), reservationDTO.getStartDate(), reservationDTO.getEndDate());
+                    accepted.add(reservation);
+                    acceptedIndexes.add(i);
+                    results.add(null);
+                }
+            }
+            // a single saveAll lets Hibernate send the inserts in JDBC batches
+            List<Reservation> saved = reservationRepository.saveAll(accepted);
+            for (int i = 0; i < saved.size(); i++) {
+                Reservation reservation = saved.get(i);
+                indexAfterCommit(reservation);
+                holdAfterCommit(reservation);
+                int index = acceptedIndexes.get(i);
+                results.set(index, ReservationBatchResultDTO.success(index, Outcome.CREATED, reservationMapper.toDto(reservation)));
+            }
+            return null;
+        });
+        return results;
+    }
+
+    @Override
+    public List<ReservationBatchResultDTO> updateStatuses(List<ReservationStatusUpdateDTO> statusUpdates) {
+        log.debug("Request to update the status of a batch of {} Reservations", statusUpdates.size());
+        List<Long> ids = statusUpdates.stream().map(ReservationStatusUpdateDTO::getId)
+            .filter(Objects::nonNull).distinct().collect(Collectors.toList());
+        // only the places are read before the locks: the reservations may change until they are held
+        List<Long> placeIds = ids.isEmpty() ? Collections.emptyList() : reservationRepository.findPlaceIdsByIdIn(ids);
+        List<ReservationBatchResultDTO> results = new ArrayList<>(statusUpdates.size());
+        Set<Reservation> updated = new LinkedHashSet<>();
+        BatchIntervals batchIntervals = new BatchIntervals();
+        withPlaceLocks(placeIds, () -> {
+            Map<Long, Reservation> reservations = reservationRepository.findAllById(ids).stream()
+                .collect(Collectors.toMap(Reservation::getId, Function.identity()));
+            for (int i = 0; i < statusUpdates.size(); i++) {
+                ReservationStatusUpdateDTO statusUpdate = statusUpdates.get(i);
+                Reservation reservation = statusUpdate.getId() != null ? reservations.get(statusUpdate.getId()) : null;
+                if (statusUpdate.getStatus() == null) {
+                    results.add(ReservationBatchResultDTO.failure(i, Outcome.INVALID, "A status is required"));
+                } else if (reservation == null) {
+                    results.add(ReservationBatchResultDTO.failure(i, Outcome.NOT_FOUND, "Reservation Not found for Id :" + statusUpdate.getId()));
+                } else if (isReopened(reservation, statusUpdate.getStatus()) && batchIntervals.hasConflict(reservation.getPlace().getId(),
+                    reservation.getStartDate(), reservation.getEndDate(), reservation.getId())) {
+                    results.add(ReservationBatchResultDTO.failure(i, Outcome.CONFLICT,
+                        "Place " + reservation.getPlace().getId() + " is already reserved for the requested dates"));
+                } else {
+                    if (isReopened(reservation, statusUpdate.getStatus())) {
+                        batchIntervals.add(reservation.getPlace().getId(), reservation.getStartDate(), reservation.getEndDate());
+                    }
+                    applyStatus(reservation, statusUpdate.getStatus());
+                    updated.add(reservation);
+                    results.add(ReservationBatchResultDTO.success(i, Outcome.UPDATED, null));
+                }
+            }
+            // the updated entities are flushed together, in JDBC batches
+            reservationRepository.saveAll(updated);
+            updated.forEach(reservation -> {
+                indexAfterCommit(reservation);
+                holdAfterCommit(reservation);
+            });
+            results.stream()
+                .filter(result -> result.getOutcome() == Outcome.UPDATED)
+                .forEach(result -> result.setReservation(reservationMapper.toDto(reservations.get(statusUpdates.get(result.getIndex()).getId()))));
+            return null;
+        });
+        return results;
+    }
 
     @Override
     @Transactional(readOnly = true)
@@ -72,9 +226,9 @@ public class ReservationServiceImpl implements ReservationService {
 
     @Override
     @Transactional(readOnly = true)
-    public Optional<ReservationDTO> findOne(Long id, User user) {
+    public Optional<ReservationDTO> findOne(Long id, Long userId) {
         log.debug("Request to get Reservation : {}", id);
-        return reservationRepository.findByIdAndUser(id,user)
+        return reservationRepository.findByIdAndUserId(id, userId)
             .map(reservationMapper::toDto);
     }
 
@@ -82,6 +236,7 @@ public class ReservationServiceImpl implements ReservationService {
     public void delete(Long id) {
         log.debug("Request to delete Reservation : {}", id);
         reservationRepository.deleteById(id);
+        afterCommit(() -> reservationIntervalIndex.remove(id));
     }
 
     @Override
@@ -90,10 +245,185 @@ public class ReservationServiceImpl implements ReservationService {
         Optional<Reservation> reservation=reservationRepository.findById(id);
         if (reservation.isPresent()) {
             reservation.get().setStatus(ReservationStatus.CANCELED);
-            return reservationMapper.toDto(reservationRepository.save(reservation.get()));
+            reservation.get().setHoldExpiresAt(null);
+            Reservation result = reservationRepository.save(reservation.get());
+            indexAfterCommit(result);
+            return reservationMapper.toDto(result);
         }
         else{
             throw new ReservationException("Reservation Not found for Id :"+id.toString());
         }
     }
+
+    /**
+     * Pending reservations whose hold is over are expired, which frees their place.
+     * <p>
+     * This is scheduled to get fired every {@code application.hold.sweep-delay-ms}, and only reads the holds
+     * which are due from the {@link ReservationHoldQueue}. The reservations are expired by a conditional update, so
+     * an approval or a payment committed since they were queued is never overwritten, and only the reservations the
+     * update did expire are read back for the index.
+     */
+    @Override
+    @Scheduled(fixedDelayString = "${application.hold.sweep-delay-ms:1000}")
+    public void expireHolds() {
+        List<Long> dueIds = reservationHoldQueue.pollExpired(HOLD_SWEEP_BATCH_SIZE);
+        if (dueIds.isEmpty()) {
+            return;
+        }
+        afterRollback(() -> reservationHoldQueue.retry(dueIds));
+        if (reservationRepository.expireHolds(dueIds, Instant.now()) == 0) {
+            return;
+        }
+        // the expired rows stay locked by the update until the commit, so nothing changes them in between
+        reservationRepository.findAllExpiredByIdIn(dueIds).forEach(reservation -> {
+            log.debug("Expired hold of Reservation : {}", reservation.getId());
+            indexAfterCommit(reservation);
+        });
+    }
+
+    /**
+     * Run a booking of the place while holding its lock, so the availability check and the write are atomic.
+     * Bookings of other places are not blocked.
+     */
+    private <T> T withPlaceLock(Long placeId, Supplier<T> booking) {
+        if (placeId == null) {
+            return booking.get();
+        }
+        boolean releasedByTransaction = placeLocks.lockUntilCompletion(placeId);
+        try {
+            return booking.get();
+        } finally {
+            if (!releasedByTransaction) {
+                placeLocks.unlock(placeId);
+            }
+        }
+    }
+
+    /**
+     * Same as {@link #withPlaceLock(Long, Supplier)} for a batch touching several places.
+     */
+    private <T> T withPlaceLocks(List<Long> placeIds, Supplier<T> booking) {
+        boolean releasedByTransaction = placeLocks.lockUntilCompletion(placeIds);
+        try {
+            return booking.get();
+        } finally {
+            if (!releasedByTransaction) {
+                placeLocks.unlock(placeIds);
+            }
+        }
+    }
+
+    /**
+     * A canceled or expired reservation no longer holds the place, so it may have been booked since.
+     */
+    private static boolean isReopened(Reservation reservation, ReservationStatus status) {
+        return reservation.getPlace() != null
+            && ReservationIntervalIndex.RELEASED_STATUSES.contains(reservation.getStatus())
+            && !ReservationIntervalIndex.RELEASED_STATUSES.contains(status);
+    }
+
+    private void applyStatus(Reservation reservation, ReservationStatus status) {
+        if (status == ReservationStatus.PENDING && reservation.getStatus() != ReservationStatus.PENDING) {
+            reservation.setHoldExpiresAt(reservationHoldQueue.newExpiry());
+        } else if (status != ReservationStatus.PENDING) {
+            reservation.setHoldExpiresAt(null);
+        }
+        reservation.setStatus(status);
+    }
+
+    private static String validateNewReservation(ReservationDTO reservationDTO) {
+        if (reservationDTO == null) {
+            return "A reservation is required";
+        }
+        if (reservationDTO.getId() != null) {
+            return "A new reservation cannot already have an ID";
+        }
+        if (reservationDTO.getPlaceId() == null || reservationDTO.getStartDate() == null || reservationDTO.getEndDate() == null) {
+            return "A place, a start date and an end date are required";
+        }
+        if (!reservationDTO.getStartDate().isBefore(reservationDTO.getEndDate())) {
+            return "The start date must be before the end date";
+        }
+        return null;
+    }
+
+    private void checkAvailability(Long placeId, Instant startDate, Instant endDate, Long reservationId) {
+        if (reservationIntervalIndex.hasConflict(placeId, startDate, endDate, reservationId)) {
+            throw new ReservationConflictException("Place " + placeId + " is already reserved for the requested dates");
+        }
+    }
+
+    /**
+     * Update the interval index once the reservation is committed, so a rolled back write never holds a place.
+     */
+    private void indexAfterCommit(Reservation reservation) {
+        afterCommit(() -> reservationIntervalIndex.index(reservation));
+    }
+
+    private void holdAfterCommit(Reservation reservation) {
+        if (reservation.getStatus() == ReservationStatus.PENDING && reservation.getHoldExpiresAt() != null) {
+            Long id = reservation.getId();
+            Instant holdExpiresAt = reservation.getHoldExpiresAt();
+            afterCommit(() -> reservationHoldQueue.add(id, holdExpiresAt));
+        }
+    }
+
+    private void afterRollback(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronizationAdapter() {
+                @Override
+                public void afterCompletion(int status) {
+                    if (status != TransactionSynchronization.STATUS_COMMITTED) {
+                        action.run();
+                    }
+                }
+            });
+        }
+    }
+
+    private void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronizationAdapter() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+
+    /**
+     * Intervals accepted earlier in the same batch, which are not in the index until the batch commits.
+     */
+    private final class BatchIntervals {
+
+        private final Map<Long, List<long[]>> intervalsByPlace = new HashMap<>();
+
+        boolean hasConflict(Long placeId, Instant startDate, Instant endDate, Long reservationId) {
+            if (reservationIntervalIndex.hasConflict(placeId, startDate, endDate, reservationId)) {
+                return true;
+            }
+            if (startDate == null || endDate == null) {
+                return false;
+            }
+            long start = startDate.toEpochMilli();
+            long end = endDate.toEpochMilli();
+            for (long[] interval : intervalsByPlace.getOrDefault(placeId, Collections.emptyList())) {
+                if (interval[0] < end && start < interval[1]) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        void add(Long placeId, Instant startDate, Instant endDate) {
+            if (startDate == null || endDate == null) {
+                return;
+            }
+            intervalsByPlace.computeIfAbsent(placeId, id -> new ArrayList<>())
+                .add(new long[]{startDate.toEpochMilli(), endDate.toEpochMilli()});
+        }
+    }
 }
@@ -0,0 +1,89 @@
+package com.hesho.reservation.service.storage;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Optional;
+
+/**
+ * Storage of the image files, as immutable blobs.
+ * <p>
+ * A blob is addressed by a key made of a container, {@link #PLACE} or {@link #CATEGORY}, and a name. It is written
+ * from a staging file that the caller fills first, so a store may take it over by a rename or upload it in parts.
+ */
+public interface BlobStore {
+
+    String PLACE = "place";
+
+    String CATEGORY = "category";
+
+    static String key(String container, String name) {
+        return container + "/" + name;
+    }
+
+    /**
+     * Create an empty file to write a blob of a container to before {@link #put(String, Path) storing} it.
+     *
+     * @param container the container of the future blob.
+     * @return the staging file; the caller deletes it if it is still there once stored.
+     * @throws IOException if the file cannot be created.
+     */
+    Path createStagingFile(String container) throws IOException;
+
+    boolean exists(String key) throws IOException;
+
+    /**
+     * Store a staging file under a key, replacing any previous blob.
+     *
+     * @param key the key of the blob.
+     * @param staged the staging file, which may be moved by the store.
+     * @throws IOException if the blob cannot be stored.
+     */
+    void put(String key, Path staged) throws IOException;
+
+    /**
+     * Read a blob.
+     *
+     * @param key the key of the blob.
+     * @return its content.
+     * @throws java.nio.file.NoSuchFileException if there is no such blob.
+     * @throws IOException if the blob cannot be read.
+     */
+    InputStream open(String key) throws IOException;
+
+    /**
+     * Delete a blob, if it exists.
+     *
+     * @param key the key of the blob.
+     * @throws IOException if the blob cannot be deleted.
+     */
+    void delete(String key) throws IOException;
+
+    /**
+     * @param key the key of a blob.
+     * @return the local file holding the blob, when the store is a local file system.
+     */
+    default Optional<Path> getLocalPath(String key) {
+        return Optional.empty();
+    }
+
+    /**
+     * Sign a temporary URL reading a blob straight from the store, so its content does not go through this server.
+     *
+     * @param key the key of the blob.
+     * @param expiry how long the URL is valid.
+     * @return the URL, or empty if the store cannot be read without this server.
+     */
+    default Optional<URI> presign(String key, Duration expiry) {
+        return Optional.empty();
+    }
+
+    /**
+     * @return whether blobs can be read through {@link #presign(String, Duration) presigned URLs}.
+     */
+    default boolean supportsPresign() {
+        return false;
+    }
+}
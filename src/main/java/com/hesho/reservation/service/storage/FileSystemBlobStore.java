@@ -0,0 +1,97 @@
+package com.hesho.reservation.service.storage;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * {@link BlobStore} keeping every container in a local directory, the original image storage.
+ * <p>
+ * Staging files are created in the directory of their container, so storing them is an atomic rename and readers
+ * never see a partly written blob.
+ */
+public class FileSystemBlobStore implements BlobStore {
+
+    private static final String STAGING_PREFIX = "upload-";
+
+    private static final String STAGING_SUFFIX = ".tmp";
+
+    private final Map<String, Path> directories;
+
+    /**
+     * @param directories the directory of every container; they are created if missing.
+     * @throws IOException if a directory cannot be created.
+     */
+    public FileSystemBlobStore(Map<String, Path> directories) throws IOException {
+        for (Path directory : directories.values()) {
+            Files.createDirectories(directory);
+        }
+        this.directories = Collections.unmodifiableMap(new HashMap<>(directories));
+    }
+
+    /**
+     * @param container a container.
+     * @return its directory.
+     */
+    public Path getDirectory(String container) {
+        Path directory = directories.get(container);
+        if (directory == null) {
+            throw new IllegalArgumentException("Unknown container " + container);
+        }
+        return directory;
+    }
+
+    @Override
+    public Path createStagingFile(String container) throws IOException {
+        return Files.createTempFile(getDirectory(container), STAGING_PREFIX, STAGING_SUFFIX);
+    }
+
+    @Override
+    public boolean exists(String key) {
+        return Files.exists(resolve(key));
+    }
+
+    @Override
+    public void put(String key, Path staged) throws IOException {
+        Files.move(staged, resolve(key), StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    @Override
+    public InputStream open(String key) throws IOException {
+        return Files.newInputStream(resolve(key));
+    }
+
+    @Override
+    public void delete(String key) throws IOException {
+        Files.deleteIfExists(resolve(key));
+    }
+
+    @Override
+    public Optional<Path> getLocalPath(String key) {
+        return Optional.of(resolve(key));
+    }
+
+    /**
+     * @param file a file of a container directory.
+     * @return whether it is a staging file rather than a blob.
+     */
+    public static boolean isStagingFile(Path file) {
+        String name = file.getFileName().toString();
+        return name.startsWith(STAGING_PREFIX) && name.endsWith(STAGING_SUFFIX);
+    }
+
+    private Path resolve(String key) {
+        int separator = key.indexOf('/');
+        String name = key.substring(separator + 1);
+        if (separator < 0 || name.isEmpty() || name.contains("/") || name.contains("\\") || name.contains("..")) {
+            throw new IllegalArgumentException("Invalid blob key " + key);
+        }
+        return getDirectory(key.substring(0, separator)).resolve(name);
+    }
+}
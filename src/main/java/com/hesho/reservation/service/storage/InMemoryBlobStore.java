@@ -0,0 +1,56 @@
+package com.hesho.reservation.service.storage;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * {@link BlobStore} keeping the blobs in memory, standing in for a shared object store in tests and local runs.
+ * Its blobs are lost on restart.
+ */
+public class InMemoryBlobStore implements BlobStore {
+
+    private final ConcurrentMap<String, byte[]> blobs = new ConcurrentHashMap<>();
+
+    @Override
+    public Path createStagingFile(String container) throws IOException {
+        return Files.createTempFile("upload-", ".tmp");
+    }
+
+    @Override
+    public boolean exists(String key) {
+        return blobs.containsKey(key);
+    }
+
+    @Override
+    public void put(String key, Path staged) throws IOException {
+        blobs.put(key, Files.readAllBytes(staged));
+    }
+
+    @Override
+    public InputStream open(String key) throws IOException {
+        byte[] content = blobs.get(key);
+        if (content == null) {
+            throw new NoSuchFileException(key);
+        }
+        return new ByteArrayInputStream(content);
+    }
+
+    @Override
+    public void delete(String key) {
+        blobs.remove(key);
+    }
+
+    /**
+     * @return the keys of the stored blobs.
+     */
+    public Set<String> keys() {
+        return blobs.keySet();
+    }
+}
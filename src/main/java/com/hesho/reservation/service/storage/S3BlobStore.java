@@ -0,0 +1,175 @@
+package com.hesho.reservation.service.storage;
+
+import software.amazon.awssdk.core.exception.SdkException;
+import software.amazon.awssdk.core.sync.RequestBody;
+import software.amazon.awssdk.services.s3.S3Client;
+import software.amazon.awssdk.services.s3.model.CompletedPart;
+import software.amazon.awssdk.services.s3.model.S3Exception;
+import software.amazon.awssdk.services.s3.presigner.S3Presigner;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.HttpURLConnection;
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * {@link BlobStore} in a bucket of an S3 compatible object store, shared by every node, through the AWS SDK.
+ * <p>
+ * Blobs larger than the part size are uploaded with a multipart upload, one part at a time straight from the staging
+ * file, so a blob is never held in memory. Reads are meant to go through {@link #presign(String, Duration) presigned
+ * URLs}, which clients follow to the store directly.
+ */
+public class S3BlobStore implements BlobStore, AutoCloseable {
+
+    /**
+     * The smallest part size accepted by S3, for every part but the last.
+     */
+    private static final long MIN_PART_SIZE = 5L * 1024 * 1024;
+
+    private final S3Client s3Client;
+
+    private final S3Presigner s3Presigner;
+
+    private final String bucket;
+
+    private final long partSize;
+
+    /**
+     * @param s3Client the client of the store.
+     * @param s3Presigner the presigner of the URLs reading the store.
+     * @param bucket the bucket.
+     * @param partSize the size of the parts of a multipart upload, at least 5 MB.
+     */
+    public S3BlobStore(S3Client s3Client, S3Presigner s3Presigner, String bucket, long partSize) {
+        this.s3Client = s3Client;
+        this.s3Presigner = s3Presigner;
+        this.bucket = bucket;
+        this.partSize = Math.max(MIN_PART_SIZE, partSize);
+    }
+
+    @Override
+    public Path createStagingFile(String container) throws IOException {
+        return Files.createTempFile("upload-", ".tmp");
+    }
+
+    @Override
+    public boolean exists(String key) throws IOException {
+        try {
+            s3Client.headObject(request -> request.bucket(bucket).key(key));
+            return true;
+        } catch (S3Exception e) {
+            if (e.statusCode() == HttpURLConnection.HTTP_NOT_FOUND) {
+                return false;
+            }
+            throw failure("HEAD", key, e);
+        } catch (SdkException e) {
+            throw failure("HEAD", key, e);
+        }
+    }
+
+    @Override
+    public void put(String key, Path staged) throws IOException {
+        long size = Files.size(staged);
+        if (size > partSize) {
+            putMultipart(key, staged, size);
+            return;
+        }
+        try {
+            s3Client.putObject(request -> request.bucket(bucket).key(key), RequestBody.fromFile(staged));
+        } catch (SdkException e) {
+            throw failure("PUT", key, e);
+        }
+    }
+
+    @Override
+    public InputStream open(String key) throws IOException {
+        try {
+            return s3Client.getObject(request -> request.bucket(bucket).key(key));
+        } catch (S3Exception e) {
+            if (e.statusCode() == HttpURLConnection.HTTP_NOT_FOUND) {
+                throw new NoSuchFileException(key);
+            }
+            throw failure("GET", key, e);
+        } catch (SdkException e) {
+            throw failure("GET", key, e);
+        }
+    }
+
+    @Override
+    public void delete(String key) throws IOException {
+        try {
+            s3Client.deleteObject(request -> request.bucket(bucket).key(key));
+        } catch (SdkException e) {
+            throw failure("DELETE", key, e);
+        }
+    }
+
+    @Override
+    public Optional<URI> presign(String key, Duration expiry) {
+        try {
+            return Optional.of(s3Presigner.presignGetObject(presign -> presign
+                .signatureDuration(expiry)
+                .getObjectRequest(request -> request.bucket(bucket).key(key))).url().toURI());
+        } catch (URISyntaxException e) {
+            throw new IllegalStateException("Invalid presigned URL for " + key, e);
+        }
+    }
+
+    @Override
+    public boolean supportsPresign() {
+        return true;
+    }
+
+    @Override
+    public void close() {
+        s3Presigner.close();
+        s3Client.close();
+    }
+
+    private void putMultipart(String key, Path staged, long size) throws IOException {
+        String uploadId;
+        try {
+            uploadId = s3Client.createMultipartUpload(request -> request.bucket(bucket).key(key)).uploadId();
+        } catch (SdkException e) {
+            throw failure("POST", key, e);
+        }
+        try (InputStream inputStream = Files.newInputStream(staged)) {
+            List<CompletedPart> parts = new ArrayList<>();
+            for (long offset = 0; offset < size; offset += partSize) {
+                int partNumber = parts.size() + 1;
+                long length = Math.min(partSize, size - offset);
+                String eTag = s3Client.uploadPart(request -> request.bucket(bucket).key(key).uploadId(uploadId)
+                    .partNumber(partNumber).contentLength(length), RequestBody.fromInputStream(inputStream, length)).eTag();
+                parts.add(CompletedPart.builder().partNumber(partNumber).eTag(eTag).build());
+            }
+            s3Client.completeMultipartUpload(request -> request.bucket(bucket).key(key).uploadId(uploadId)
+                .multipartUpload(upload -> upload.parts(parts)));
+        } catch (SdkException e) {
+            abort(key, uploadId);
+            throw failure("PUT", key, e);
+        } catch (IOException | RuntimeException e) {
+            abort(key, uploadId);
+            throw e;
+        }
+    }
+
+    private void abort(String key, String uploadId) {
+        try {
+            s3Client.abortMultipartUpload(request -> request.bucket(bucket).key(key).uploadId(uploadId));
+        } catch (SdkException e) {
+            // the store expires abandoned uploads
+        }
+    }
+
+    private static IOException failure(String method, String key, SdkException e) {
+        return new IOException(method + " " + key + " failed: " + e.getMessage(), e);
+    }
+}
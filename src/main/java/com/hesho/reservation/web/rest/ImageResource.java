@@ -1,18 +1,28 @@
 package com.hesho.reservation.web.rest;
 
-import com.google.cloud.storage.StorageException;
+import com.hesho.reservation.config.ApplicationProperties;
 import com.hesho.reservation.domain.Category;
 import com.hesho.reservation.domain.Place;
 import com.hesho.reservation.security.AuthoritiesConstants;
 import com.hesho.reservation.service.CategoryService;
+import com.hesho.reservation.service.IdempotencyService;
+import com.hesho.reservation.service.ImageFile;
 import com.hesho.reservation.service.ImageService;
+import com.hesho.reservation.service.ImageVariantService;
 import com.hesho.reservation.service.PlaceService;
 import com.hesho.reservation.service.dto.PlaceDTO;
 import com.hesho.reservation.web.rest.errors.BadRequestAlertException;
+import com.hesho.reservation.web.rest.util.FileStreamingUtil;
+import com.hesho.reservation.web.rest.util.KeysetPaginationUtil;
+import com.hesho.reservation.web.rest.util.SlicePaginationUtil;
+import com.hesho.reservation.repository.KeysetCursor;
+import com.hesho.reservation.repository.KeysetPage;
 import com.hesho.reservation.service.dto.ImageDTO;
+import com.hesho.reservation.service.dto.ImageUploadResultDTO;
 import com.hesho.reservation.service.dto.ImageCriteria;
 import com.hesho.reservation.service.ImageQueryService;
 
+import io.github.jhipster.config.JHipsterProperties;
 import io.github.jhipster.web.util.HeaderUtil;
 import io.github.jhipster.web.util.PaginationUtil;
 import io.github.jhipster.web.util.ResponseUtil;
@@ -21,11 +31,14 @@ import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.http.CacheControl;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
-import org.springframework.http.MediaType;
 import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.context.request.ServletWebRequest;
 import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
@@ -34,6 +47,7 @@ import javax.validation.Valid;
 import java.net.URI;
 import java.net.URISyntaxException;
 import java.util.*;
+import java.util.concurrent.TimeUnit;
 
 /**
  * REST controller for managing {@link com.hesho.reservation.domain.Image}.
@@ -46,6 +60,10 @@ public class ImageResource {
 
     private static final String ENTITY_NAME = "image";
 
+    private static final int MAX_IMAGE_WIDTH = 10_000;
+
+    private static final String REVALIDATED_CACHE_CONTROL = CacheControl.noCache().getHeaderValue();
+
     @Value("${jhipster.clientApp.name}")
     private String applicationName;
 
@@ -57,11 +75,23 @@ public class ImageResource {
 
     private final PlaceService placeService;
 
-    public ImageResource(ImageService imageService, ImageQueryService imageQueryService,CategoryService categoryService,PlaceService placeService) {
+    private final IdempotencyService idempotencyService;
+
+    private final String immutableCacheControl;
+
+    private final int maxGalleryFiles;
+
+    public ImageResource(ImageService imageService, ImageQueryService imageQueryService,CategoryService categoryService,PlaceService placeService,
+                         IdempotencyService idempotencyService, JHipsterProperties jHipsterProperties,
+                         ApplicationProperties applicationProperties) {
         this.imageService = imageService;
         this.imageQueryService = imageQueryService;
         this.categoryService =categoryService;
         this.placeService=placeService;
+        this.idempotencyService = idempotencyService;
+        this.immutableCacheControl = CacheControl.maxAge(jHipsterProperties.getHttp().getCache().getTimeToLiveInDays(), TimeUnit.DAYS)
+            .cachePublic().getHeaderValue() + ", immutable";
+        this.maxGalleryFiles = applicationProperties.getImageUpload().getMaxFiles();
 
     }
 
@@ -94,13 +124,38 @@ public class ImageResource {
      */
     @PostMapping("/images/place/{placeId}")
     @PreAuthorize("hasAuthority(\"" + AuthoritiesConstants.ADMIN + "\")")
-    public ResponseEntity<ImageDTO> addImageForPlace(@RequestParam("data") MultipartFile  image,@PathVariable Long placeId) throws URISyntaxException {
+    public ResponseEntity<ImageDTO> addImageForPlace(@RequestParam("data") MultipartFile  image,@PathVariable Long placeId,
+                                                     @RequestHeader(value = IdempotencyService.IDEMPOTENCY_KEY_HEADER, required = false) String idempotencyKey) throws URISyntaxException {
 
         log.debug("REST request to save Place images");
-       ImageDTO result = imageService.saveImagesForPlace(image,placeId);
+        ImageDTO result = idempotencyService.execute("POST /api/images/place/" + placeId, idempotencyKey, image, ImageDTO.class,
+            () -> imageService.saveImagesForPlace(image,placeId));
         return ResponseEntity.ok().body(result);
     }
 
+    /**
+     * {@code POST  /images/place/:placeId/gallery} : Add several images to a place in a single request.
+     * Files that are empty, have an invalid extension or cannot be written are reported in the response instead of
+     * failing the whole gallery.
+     *
+     * @param images the files, all sent as {@code data} parts.
+     * @param placeId the id of the place.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the outcome of every file, in upload order,
+     * or with status {@code 400 (Bad Request)} if there are no files or too many.
+     */
+    @PostMapping("/images/place/{placeId}/gallery")
+    @PreAuthorize("hasAuthority(\"" + AuthoritiesConstants.ADMIN + "\")")
+    public ResponseEntity<List<ImageUploadResultDTO>> addImagesForPlace(@RequestParam("data") List<MultipartFile> images, @PathVariable Long placeId) {
+        log.debug("REST request to save a gallery of {} Place images", images.size());
+        if (images.isEmpty()) {
+            throw new BadRequestAlertException("The gallery is empty", ENTITY_NAME, "emptygallery");
+        }
+        if (images.size() > maxGalleryFiles) {
+            throw new BadRequestAlertException("A gallery cannot contain more than " + maxGalleryFiles + " files", ENTITY_NAME, "gallerytoolarge");
+        }
+        return ResponseEntity.ok().body(imageService.saveImagesForPlace(images, placeId));
+    }
+
     /**
      * {@code POST  /images} : Create a new image.
      *
@@ -109,10 +164,12 @@ public class ImageResource {
      */
     @PostMapping("/images/category/{categoryId}")
     @PreAuthorize("hasAuthority(\"" + AuthoritiesConstants.ADMIN + "\")")
-    public ResponseEntity<ImageDTO> addImageForCategory(@RequestParam("data") MultipartFile  image,@PathVariable Long categoryId) throws URISyntaxException {
+    public ResponseEntity<ImageDTO> addImageForCategory(@RequestParam("data") MultipartFile  image,@PathVariable Long categoryId,
+                                                        @RequestHeader(value = IdempotencyService.IDEMPOTENCY_KEY_HEADER, required = false) String idempotencyKey) throws URISyntaxException {
 
         log.debug("REST request to save category images");
-        ImageDTO result = imageService.saveImagesForCategory(image,categoryId);
+        ImageDTO result = idempotencyService.execute("POST /api/images/category/" + categoryId, idempotencyKey, image, ImageDTO.class,
+            () -> imageService.saveImagesForCategory(image,categoryId));
         return ResponseEntity.ok().body(result);
     }
 
@@ -176,11 +233,27 @@ public class ImageResource {
      *
      * @param pageable the pagination information.
      * @param criteria the criteria which the requested entities should match.
+     * @param after optional cursor: when present, the page following it is returned without a total count,
+     * and the {@code X-Next-Cursor} and {@code Link} headers point to the next page. Empty for the first page.
+     * @param count false to skip the count query: the {@code X-Total-Count} header is omitted and only a next {@code Link} is returned.
      * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the list of images in body.
      */
     @GetMapping("/images")
-    public ResponseEntity<List<ImageDTO>> getAllImages(ImageCriteria criteria, Pageable pageable) {
+    public ResponseEntity<List<ImageDTO>> getAllImages(ImageCriteria criteria, Pageable pageable,
+                                                       @RequestParam(value = KeysetPaginationUtil.AFTER_PARAMETER, required = false) String after,
+                                                       @RequestParam(value = SlicePaginationUtil.COUNT_PARAMETER, defaultValue = "true") boolean count) {
         log.debug("REST request to get Images by criteria: {}", criteria);
+        if (after != null) {
+            KeysetCursor cursor = KeysetPaginationUtil.getCursor(after, pageable, ImageQueryService.KEYSET_SORT_PROPERTIES, ENTITY_NAME);
+            KeysetPage<ImageDTO> keysetPage = imageQueryService.findByCriteria(criteria, cursor, pageable.getPageSize());
+            HttpHeaders headers = KeysetPaginationUtil.generateKeysetHttpHeaders(ServletUriComponentsBuilder.fromCurrentRequest(), keysetPage, pageable.getPageSize());
+            return ResponseEntity.ok().headers(headers).body(keysetPage.getContent());
+        }
+        if (!count) {
+            Slice<ImageDTO> slice = imageQueryService.findSliceByCriteria(criteria, pageable);
+            HttpHeaders headers = SlicePaginationUtil.generateSliceHttpHeaders(ServletUriComponentsBuilder.fromCurrentRequest(), slice);
+            return ResponseEntity.ok().headers(headers).body(slice.getContent());
+        }
         Page<ImageDTO> page = imageQueryService.findByCriteria(criteria, pageable);
         HttpHeaders headers = PaginationUtil.generatePaginationHttpHeaders(ServletUriComponentsBuilder.fromCurrentRequest(), page);
         return ResponseEntity.ok().headers(headers).body(page.getContent());
@@ -212,34 +285,93 @@ public class ImageResource {
         return ResponseUtil.wrapOrNotFound(imageDTO);
     }
 
-    @GetMapping(value = "/images/load/{imageName}",produces = MediaType.APPLICATION_OCTET_STREAM_VALUE)
-    public ResponseEntity<?> getImageByImageName(@PathVariable String imageName) {
-        log.debug("REST request to get Main Image By imageName : {}", imageName);
-        try {
-            return ResponseEntity.ok(imageService.findOneByImageUrl(imageName));
-        } catch (StorageException e) {
-            return ResponseEntity.notFound().build();
+    /**
+     * {@code GET  /images/load/:imageName} : get the content of an image, or of its resized copy.
+     * <p>
+     * Image names are random and never reused, so the content is cached for as long as the static assets. While the
+     * copy for a width is being generated the original is served instead, without letting the client keep it.
+     *
+     * @param imageName the name of the image file.
+     * @param w the width needed, in pixels: the smallest copy at least as wide is served.
+     * @param format the format of the copy: {@code jpeg} or {@code webp}, which falls back to {@code jpeg} when unsupported.
+     * @param request the current request, for its conditional and range headers.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} or {@code 206 (Partial Content)} and the content in body,
+     * with status {@code 302 (Found)} to the object store holding the content, with status {@code 304 (Not Modified)} if the client has it already, with status {@code 400 (Bad Request)} if the
+     * width or format is invalid, or with status {@code 404 (Not Found)}.
+     */
+    @GetMapping("/images/load/{imageName}")
+    public ResponseEntity<StreamingResponseBody> getImageByImageName(@PathVariable String imageName,
+                                                                     @RequestParam(required = false) Integer w,
+                                                                     @RequestParam(defaultValue = ImageVariantService.JPEG) String format,
+                                                                     ServletWebRequest request) {
+        log.debug("REST request to get Image By imageName : {}", imageName);
+        if (w == null) {
+            return imageService.findOneByImageUrl(imageName)
+                .map(file -> serve(file, immutableCacheControl, request))
+                .orElseGet(() -> ResponseEntity.notFound().build());
+        }
+        if (w < 1 || w > MAX_IMAGE_WIDTH) {
+            throw new BadRequestAlertException("Invalid width", ENTITY_NAME, "invalidwidth");
+        }
+        String variantFormat = ImageVariantService.normalizeFormat(format);
+        if (variantFormat == null) {
+            throw new BadRequestAlertException("Invalid format", ENTITY_NAME, "invalidformat");
         }
+        Optional<ImageFile> variant = imageService.findVariantByImageUrl(imageName, w, variantFormat);
+        if (variant.isPresent()) {
+            return serve(variant.get(), immutableCacheControl, request);
+        }
+        return imageService.findOneByImageUrl(imageName)
+            .map(file -> serve(file, REVALIDATED_CACHE_CONTROL, request))
+            .orElseGet(() -> ResponseEntity.notFound().build());
     }
 
-    @GetMapping(value = "/images/place/{placeId}",produces = MediaType.APPLICATION_OCTET_STREAM_VALUE)
-    public ResponseEntity<?> getMainImageByPlaceId(@PathVariable Long placeId) {
-        log.debug("REST request to get Main Image By CategoryId : {}", placeId);
-        try {
-            return ResponseEntity.ok(imageService.findOneByPlaceIdAndMainIsTrue(placeId));
-        } catch (StorageException e) {
-            return ResponseEntity.notFound().build();
-        }
+    /**
+     * {@code GET  /images/place/:placeId} : get the content of the main image of a place.
+     * <p>
+     * The main image can change, so clients must revalidate it; an unchanged image costs a {@code 304 (Not Modified)}.
+     *
+     * @param placeId the id of the place.
+     * @param request the current request, for its conditional and range headers.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} or {@code 206 (Partial Content)} and the content in body,
+     * with status {@code 302 (Found)} to the object store holding the content, with status {@code 304 (Not Modified)} if the client has it already, or with status {@code 404 (Not Found)}.
+     */
+    @GetMapping("/images/place/{placeId}")
+    public ResponseEntity<StreamingResponseBody> getMainImageByPlaceId(@PathVariable Long placeId, ServletWebRequest request) {
+        log.debug("REST request to get Main Image By PlaceId : {}", placeId);
+        return imageService.findOneByPlaceIdAndMainIsTrue(placeId)
+            .map(file -> serve(file, REVALIDATED_CACHE_CONTROL, request))
+            .orElseGet(() -> ResponseEntity.notFound().build());
     }
 
-    @GetMapping(value="/images/category/{categoryId}",produces = MediaType.APPLICATION_OCTET_STREAM_VALUE)
-    public ResponseEntity<?> getMainImageByCategoryId(@PathVariable Long categoryId) {
+    /**
+     * {@code GET  /images/category/:categoryId} : get the content of the main image of a category.
+     * <p>
+     * The main image can change, so clients must revalidate it; an unchanged image costs a {@code 304 (Not Modified)}.
+     *
+     * @param categoryId the id of the category.
+     * @param request the current request, for its conditional and range headers.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} or {@code 206 (Partial Content)} and the content in body,
+     * with status {@code 302 (Found)} to the object store holding the content, with status {@code 304 (Not Modified)} if the client has it already, or with status {@code 404 (Not Found)}.
+     */
+    @GetMapping("/images/category/{categoryId}")
+    public ResponseEntity<StreamingResponseBody> getMainImageByCategoryId(@PathVariable Long categoryId, ServletWebRequest request) {
         log.debug("REST request to get Main Image By CategoryId : {}", categoryId);
-        try {
-            return ResponseEntity.ok(imageService.findOneByCategoryIdAndMainIsTrue(categoryId));
-        } catch (StorageException e) {
-            return ResponseEntity.notFound().build();
+        return imageService.findOneByCategoryIdAndMainIsTrue(categoryId)
+            .map(file -> serve(file, REVALIDATED_CACHE_CONTROL, request))
+            .orElseGet(() -> ResponseEntity.notFound().build());
+    }
+
+    /**
+     * Serve a file, or redirect to a presigned URL of the object store holding it. The URL expires, so the redirect
+     * itself is not cached.
+     */
+    private ResponseEntity<StreamingResponseBody> serve(ImageFile file, String cacheControl, ServletWebRequest request) {
+        Optional<URI> presigned = imageService.presign(file);
+        if (presigned.isPresent()) {
+            return ResponseEntity.status(HttpStatus.FOUND).location(presigned.get()).cacheControl(CacheControl.noStore()).build();
         }
+        return FileStreamingUtil.stream(file, cacheControl, request);
     }
 
     /**
@@ -3,6 +3,7 @@ package com.hesho.reservation.web.rest;
 import com.hesho.reservation.security.AuthoritiesConstants;
 import com.hesho.reservation.service.LocationService;
 import com.hesho.reservation.web.rest.errors.BadRequestAlertException;
+import com.hesho.reservation.web.rest.util.SlicePaginationUtil;
 import com.hesho.reservation.service.dto.LocationDTO;
 import com.hesho.reservation.service.dto.LocationCriteria;
 import com.hesho.reservation.service.LocationQueryService;
@@ -15,6 +16,7 @@ import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.security.access.prepost.PreAuthorize;
@@ -99,11 +101,18 @@ public class LocationResource {
      *
      * @param pageable the pagination information.
      * @param criteria the criteria which the requested entities should match.
+     * @param count false to skip the count query: the {@code X-Total-Count} header is omitted and only a next {@code Link} is returned.
      * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the list of locations in body.
      */
     @GetMapping("/locations")
-    public ResponseEntity<List<LocationDTO>> getAllLocations(LocationCriteria criteria, Pageable pageable) {
+    public ResponseEntity<List<LocationDTO>> getAllLocations(LocationCriteria criteria, Pageable pageable,
+                                                             @RequestParam(value = SlicePaginationUtil.COUNT_PARAMETER, defaultValue = "true") boolean count) {
         log.debug("REST request to get Locations by criteria: {}", criteria);
+        if (!count) {
+            Slice<LocationDTO> slice = locationQueryService.findSliceByCriteria(criteria, pageable);
+            HttpHeaders headers = SlicePaginationUtil.generateSliceHttpHeaders(ServletUriComponentsBuilder.fromCurrentRequest(), slice);
+            return ResponseEntity.ok().headers(headers).body(slice.getContent());
+        }
         Page<LocationDTO> page = locationQueryService.findByCriteria(criteria, pageable);
         HttpHeaders headers = PaginationUtil.generatePaginationHttpHeaders(ServletUriComponentsBuilder.fromCurrentRequest(), page);
         return ResponseEntity.ok().headers(headers).body(page.getContent());
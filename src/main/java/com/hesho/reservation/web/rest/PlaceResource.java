@@ -1,9 +1,20 @@
 package com.hesho.reservation.web.rest;
 
+import com.hesho.reservation.config.ApplicationProperties;
 import com.hesho.reservation.security.AuthoritiesConstants;
+import com.hesho.reservation.service.PlaceAvailabilityService;
+import com.hesho.reservation.service.PlaceFacetIndex;
 import com.hesho.reservation.service.PlaceService;
 import com.hesho.reservation.web.rest.errors.BadRequestAlertException;
+import com.hesho.reservation.web.rest.util.KeysetPaginationUtil;
+import com.hesho.reservation.web.rest.util.SlicePaginationUtil;
+import com.hesho.reservation.repository.KeysetCursor;
+import com.hesho.reservation.repository.KeysetPage;
+import com.hesho.reservation.service.PlaceSpatialIndex;
+import com.hesho.reservation.service.dto.NearbyPlaceDTO;
+import com.hesho.reservation.service.dto.PlaceAvailabilityDTO;
 import com.hesho.reservation.service.dto.PlaceDTO;
+import com.hesho.reservation.service.dto.PlaceFacetsDTO;
 import com.hesho.reservation.service.dto.PlaceCriteria;
 import com.hesho.reservation.service.PlaceQueryService;
 
@@ -15,6 +26,7 @@ import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.security.access.prepost.PreAuthorize;
@@ -25,6 +37,8 @@ import org.springframework.web.bind.annotation.*;
 import javax.validation.Valid;
 import java.net.URI;
 import java.net.URISyntaxException;
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
 import java.util.List;
 import java.util.Optional;
 
@@ -46,9 +60,16 @@ public class PlaceResource {
 
     private final PlaceQueryService placeQueryService;
 
-    public PlaceResource(PlaceService placeService, PlaceQueryService placeQueryService) {
+    private final PlaceAvailabilityService placeAvailabilityService;
+
+    private final ApplicationProperties applicationProperties;
+
+    public PlaceResource(PlaceService placeService, PlaceQueryService placeQueryService,
+                         PlaceAvailabilityService placeAvailabilityService, ApplicationProperties applicationProperties) {
         this.placeService = placeService;
         this.placeQueryService = placeQueryService;
+        this.placeAvailabilityService = placeAvailabilityService;
+        this.applicationProperties = applicationProperties;
     }
 
     /**
@@ -98,11 +119,27 @@ public class PlaceResource {
      *
      * @param pageable the pagination information.
      * @param criteria the criteria which the requested entities should match.
+     * @param after optional cursor: when present, the page following it is returned without a total count,
+     * and the {@code X-Next-Cursor} and {@code Link} headers point to the next page. Empty for the first page.
+     * @param count false to skip the count query: the {@code X-Total-Count} header is omitted and only a next {@code Link} is returned.
      * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the list of places in body.
      */
     @GetMapping("/places")
-    public ResponseEntity<List<PlaceDTO>> getAllPlaces(PlaceCriteria criteria, Pageable pageable) {
+    public ResponseEntity<List<PlaceDTO>> getAllPlaces(PlaceCriteria criteria, Pageable pageable,
+                                                       @RequestParam(value = KeysetPaginationUtil.AFTER_PARAMETER, required = false) String after,
+                                                       @RequestParam(value = SlicePaginationUtil.COUNT_PARAMETER, defaultValue = "true") boolean count) {
         log.debug("REST request to get Places by criteria: {}", criteria);
+        if (after != null) {
+            KeysetCursor cursor = KeysetPaginationUtil.getCursor(after, pageable, PlaceQueryService.KEYSET_SORT_PROPERTIES, ENTITY_NAME);
+            KeysetPage<PlaceDTO> keysetPage = placeQueryService.findByCriteria(criteria, cursor, pageable.getPageSize());
+            HttpHeaders headers = KeysetPaginationUtil.generateKeysetHttpHeaders(ServletUriComponentsBuilder.fromCurrentRequest(), keysetPage, pageable.getPageSize());
+            return ResponseEntity.ok().headers(headers).body(keysetPage.getContent());
+        }
+        if (!count) {
+            Slice<PlaceDTO> slice = placeQueryService.findSliceByCriteria(criteria, pageable);
+            HttpHeaders headers = SlicePaginationUtil.generateSliceHttpHeaders(ServletUriComponentsBuilder.fromCurrentRequest(), slice);
+            return ResponseEntity.ok().headers(headers).body(slice.getContent());
+        }
         Page<PlaceDTO> page = placeQueryService.findByCriteria(criteria, pageable);
         HttpHeaders headers = PaginationUtil.generatePaginationHttpHeaders(ServletUriComponentsBuilder.fromCurrentRequest(), page);
         return ResponseEntity.ok().headers(headers).body(page.getContent());
@@ -120,6 +157,72 @@ public class PlaceResource {
         return ResponseEntity.ok().body(placeQueryService.countByCriteria(criteria));
     }
 
+    /**
+     * {@code GET  /places/facets} : count the places by category, city and price.
+     *
+     * @param criteria the criteria which the requested entities should match; filters on images and reservations are not supported.
+     * @param priceInterval the width of the price buckets.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the counts in body,
+     * or with status {@code 400 (Bad Request)} if the criteria is not supported or the price interval is invalid.
+     */
+    @GetMapping("/places/facets")
+    public ResponseEntity<PlaceFacetsDTO> getPlaceFacets(PlaceCriteria criteria, @RequestParam(defaultValue = "100") double priceInterval) {
+        log.debug("REST request to get Place facets by criteria: {}", criteria);
+        if (!PlaceFacetIndex.supports(criteria)) {
+            throw new BadRequestAlertException("Facets cannot filter on images or reservations", ENTITY_NAME, "unsupportedfilter");
+        }
+        if (!(priceInterval > 0) || Double.isInfinite(priceInterval)) {
+            throw new BadRequestAlertException("The price interval must be positive", ENTITY_NAME, "invalidpriceinterval");
+        }
+        return ResponseEntity.ok().body(placeService.findFacets(criteria, priceInterval));
+    }
+
+    /**
+     * {@code GET  /places/nearby} : get the places within a distance of a point, closest first.
+     *
+     * @param lat the latitude of the point, in degrees.
+     * @param lng the longitude of the point, in degrees.
+     * @param radiusKm the distance, in kilometers.
+     * @param categoryId only return the places of this category.
+     * @param pageable the pagination information; its sort is ignored.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the list of places with their distance in body,
+     * or with status {@code 400 (Bad Request)} if the point or the radius is invalid.
+     */
+    @GetMapping("/places/nearby")
+    public ResponseEntity<List<NearbyPlaceDTO>> getNearbyPlaces(@RequestParam double lat, @RequestParam double lng, @RequestParam double radiusKm,
+                                                                @RequestParam(required = false) Long categoryId, Pageable pageable) {
+        log.debug("REST request to get Places within {} km of {}, {}", radiusKm, lat, lng);
+        if (!PlaceSpatialIndex.isValid(lat, lng)) {
+            throw new BadRequestAlertException("Invalid coordinates", ENTITY_NAME, "invalidcoordinates");
+        }
+        if (!(radiusKm > 0) || radiusKm > applicationProperties.getNearby().getMaxRadiusKm()) {
+            throw new BadRequestAlertException("The radius must be positive and at most "
+                + applicationProperties.getNearby().getMaxRadiusKm() + " km", ENTITY_NAME, "invalidradius");
+        }
+        Page<NearbyPlaceDTO> page = placeService.findNearby(lat, lng, radiusKm, categoryId, pageable);
+        HttpHeaders headers = PaginationUtil.generatePaginationHttpHeaders(ServletUriComponentsBuilder.fromCurrentRequest(), page);
+        return ResponseEntity.ok().headers(headers).body(page.getContent());
+    }
+
+    /**
+     * {@code GET  /places/search?q=:query} : search the places by name, category, city and description, most relevant first.
+     *
+     * @param q the words to search; prefixes and words with a typo also match.
+     * @param pageable the pagination information; its sort is ignored.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the list of places in body,
+     * or with status {@code 400 (Bad Request)} if the query is empty.
+     */
+    @GetMapping("/places/search")
+    public ResponseEntity<List<PlaceDTO>> searchPlaces(@RequestParam String q, Pageable pageable) {
+        log.debug("REST request to search Places : {}", q);
+        if (q.trim().isEmpty()) {
+            throw new BadRequestAlertException("The query must not be empty", ENTITY_NAME, "emptyquery");
+        }
+        Page<PlaceDTO> page = placeService.search(q, pageable);
+        HttpHeaders headers = PaginationUtil.generatePaginationHttpHeaders(ServletUriComponentsBuilder.fromCurrentRequest(), page);
+        return ResponseEntity.ok().headers(headers).body(page.getContent());
+    }
+
     /**
      * {@code GET  /places/:id} : get the "id" place.
      *
@@ -133,6 +236,27 @@ public class PlaceResource {
         return ResponseUtil.wrapOrNotFound(placeDTO);
     }
 
+    /**
+     * {@code GET  /places/:id/availability} : get the booked and free days of the "id" place.
+     *
+     * @param id the id of the place.
+     * @param from the first day, inclusive.
+     * @param to the last day, inclusive.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the availability of the place,
+     * with status {@code 400 (Bad Request)} if the range is invalid or too large, or with status {@code 404 (Not Found)}.
+     */
+    @GetMapping("/places/{id}/availability")
+    public ResponseEntity<PlaceAvailabilityDTO> getPlaceAvailability(@PathVariable Long id, @RequestParam LocalDate from, @RequestParam LocalDate to) {
+        log.debug("REST request to get availability of Place {} from {} to {}", id, from, to);
+        if (to.isBefore(from)) {
+            throw new BadRequestAlertException("The end of the range is before its start", ENTITY_NAME, "invalidrange");
+        }
+        if (ChronoUnit.DAYS.between(from, to) >= applicationProperties.getAvailability().getMaxRangeDays()) {
+            throw new BadRequestAlertException("The requested range is too large", ENTITY_NAME, "rangetoolarge");
+        }
+        return ResponseUtil.wrapOrNotFound(placeAvailabilityService.getAvailability(id, from, to));
+    }
+
     /**
      * {@code DELETE  /places/:id} : delete the "id" place.
      *
@@ -1,14 +1,20 @@
 package com.hesho.reservation.web.rest;
 
 import com.hesho.reservation.domain.Reservation;
-import com.hesho.reservation.domain.User;
 import com.hesho.reservation.domain.enumeration.ReservationStatus;
 import com.hesho.reservation.security.AuthoritiesConstants;
 import com.hesho.reservation.security.SecurityUtils;
+import com.hesho.reservation.service.IdempotencyService;
 import com.hesho.reservation.service.ReservationService;
 import com.hesho.reservation.service.UserService;
 import com.hesho.reservation.web.rest.errors.BadRequestAlertException;
+import com.hesho.reservation.web.rest.util.KeysetPaginationUtil;
+import com.hesho.reservation.web.rest.util.SlicePaginationUtil;
+import com.hesho.reservation.repository.KeysetCursor;
+import com.hesho.reservation.repository.KeysetPage;
+import com.hesho.reservation.service.dto.ReservationBatchResultDTO;
 import com.hesho.reservation.service.dto.ReservationDTO;
+import com.hesho.reservation.service.dto.ReservationStatusUpdateDTO;
 import com.hesho.reservation.service.dto.ReservationCriteria;
 import com.hesho.reservation.service.ReservationQueryService;
 
@@ -21,6 +27,7 @@ import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.security.access.prepost.PreAuthorize;
@@ -31,6 +38,7 @@ import org.springframework.web.bind.annotation.*;
 import java.net.URI;
 import java.net.URISyntaxException;
 import java.util.List;
+import java.util.Objects;
 import java.util.Optional;
 
 /**
@@ -44,6 +52,8 @@ public class ReservationResource {
 
     private static final String ENTITY_NAME = "reservation";
 
+    private static final int MAX_BATCH_SIZE = 500;
+
     @Value("${jhipster.clientApp.name}")
     private String applicationName;
 
@@ -53,34 +63,74 @@ public class ReservationResource {
 
     private final UserService userService;
 
-    public ReservationResource(ReservationService reservationService, ReservationQueryService reservationQueryService,UserService userService) {
+    private final IdempotencyService idempotencyService;
+
+    public ReservationResource(ReservationService reservationService, ReservationQueryService reservationQueryService,UserService userService,
+                               IdempotencyService idempotencyService) {
         this.reservationService = reservationService;
         this.reservationQueryService = reservationQueryService;
         this.userService=userService;
+        this.idempotencyService = idempotencyService;
     }
 
     /**
      * {@code POST  /reservations} : Create a new reservation.
      *
      * @param reservationDTO the reservationDTO to create.
+     * @param idempotencyKey optional key identifying retries of the same request, which then return the first reservation created.
      * @return the {@link ResponseEntity} with status {@code 201 (Created)} and with body the new reservationDTO, or with status {@code 400 (Bad Request)} if the reservation has already an ID.
      * @throws URISyntaxException if the Location URI syntax is incorrect.
      */
     @PostMapping("/reservations")
-    public ResponseEntity<ReservationDTO> createReservation(@RequestBody ReservationDTO reservationDTO) throws URISyntaxException {
+    public ResponseEntity<ReservationDTO> createReservation(@RequestBody ReservationDTO reservationDTO,
+                                                            @RequestHeader(value = IdempotencyService.IDEMPOTENCY_KEY_HEADER, required = false) String idempotencyKey) throws URISyntaxException {
         log.debug("REST request to save Reservation : {}", reservationDTO);
-        Optional<User> user = userService.findCurrentUser();
-        if (!user.isPresent()) {
-            throw new BadRequestAlertException("No user detected", ENTITY_NAME, "noUser");
-        }
+        Long userId = getCurrentUserId();
         if (reservationDTO.getId() != null) {
             throw new BadRequestAlertException("A new reservation cannot already have an ID", ENTITY_NAME, "idExists");
         }
-        reservationDTO.setUserId(user.get().getId());
-        ReservationDTO result = reservationService.save(reservationDTO);
+        reservationDTO.setUserId(userId);
+        ReservationDTO result = idempotencyService.execute("POST /api/reservations", idempotencyKey, reservationDTO, ReservationDTO.class,
+            () -> reservationService.save(reservationDTO));
         return ResponseEntity.ok().body(result);
     }
 
+    /**
+     * {@code POST  /reservations/batch} : Create several reservations of the current user in a single transaction.
+     * Invalid or conflicting items are reported in the response instead of failing the whole batch.
+     *
+     * @param reservationDTOs the reservations to create.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the outcome of every item, in request order,
+     * or with status {@code 400 (Bad Request)} if the batch is empty or too large.
+     */
+    @PostMapping("/reservations/batch")
+    public ResponseEntity<List<ReservationBatchResultDTO>> createReservations(@RequestBody List<ReservationDTO> reservationDTOs) {
+        log.debug("REST request to save a batch of {} Reservations", reservationDTOs.size());
+        Long userId = getCurrentUserId();
+        checkBatchSize(reservationDTOs);
+        reservationDTOs.stream().filter(Objects::nonNull).forEach(reservationDTO -> reservationDTO.setUserId(userId));
+        return ResponseEntity.ok().body(reservationService.saveAll(reservationDTOs));
+    }
+
+    /**
+     * {@code PUT  /reservations/status/batch} : Update the status of several reservations in a single transaction.
+     * Unknown or conflicting items are reported in the response instead of failing the whole batch.
+     *
+     * @param statusUpdates the new status of every reservation.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the outcome of every item, in request order,
+     * or with status {@code 400 (Bad Request)} if the batch is empty or too large.
+     */
+    @PutMapping("/reservations/status/batch")
+    @PreAuthorize("hasAuthority(\"" + AuthoritiesConstants.ADMIN + "\")")
+    public ResponseEntity<List<ReservationBatchResultDTO>> updateReservationStatuses(@RequestBody List<ReservationStatusUpdateDTO> statusUpdates) {
+        log.debug("REST request to update the status of a batch of {} Reservations", statusUpdates.size());
+        checkBatchSize(statusUpdates);
+        if (statusUpdates.contains(null)) {
+            throw new BadRequestAlertException("Batch items cannot be null", ENTITY_NAME, "nullitem");
+        }
+        return ResponseEntity.ok().body(reservationService.updateStatuses(statusUpdates));
+    }
+
     /**
      * {@code PUT  /reservations} : Updates an existing reservation.
      *
@@ -93,18 +143,15 @@ public class ReservationResource {
     @PutMapping("/reservations")
     public ResponseEntity<ReservationDTO> updateReservation(@RequestBody ReservationDTO reservationDTO) throws URISyntaxException {
         log.debug("REST request to update Reservation : {}", reservationDTO);
-        Optional<User> user = userService.findCurrentUser();
-        if (!user.isPresent()) {
-            throw new BadRequestAlertException("No user detected", ENTITY_NAME, "noUser");
-        }
+        Long userId = getCurrentUserId();
         if (reservationDTO.getId() == null) {
             throw new BadRequestAlertException("Invalid id", ENTITY_NAME, "idNull");
         }
-        Optional<ReservationDTO> oldReservation = reservationService.findOne(reservationDTO.getId(),user.get());
+        Optional<ReservationDTO> oldReservation = reservationService.findOne(reservationDTO.getId(), userId);
         if (!oldReservation.isPresent()) {
             throw new BadRequestAlertException("Reservation Not Registered with User", ENTITY_NAME, "NoReservation");
         }
-        reservationDTO.setUserId(user.get().getId());
+        reservationDTO.setUserId(userId);
         ReservationDTO result = reservationService.save(reservationDTO);
         return ResponseEntity.ok().body(result);
     }
@@ -137,11 +184,8 @@ public class ReservationResource {
     @PutMapping("/reservations/canceled/{id}")
     public ResponseEntity<ReservationDTO> cancelReservation(@PathVariable Long id) throws URISyntaxException {
         log.debug("REST request to cancel Reservation Status: {}", id);
-        Optional<User> user = userService.findCurrentUser();
-        if (!user.isPresent()) {
-            throw new BadRequestAlertException("No user detected", ENTITY_NAME, "noUser");
-        }
-        Optional<ReservationDTO> reservationDTO = reservationService.findOne(id,user.get());
+        Long userId = getCurrentUserId();
+        Optional<ReservationDTO> reservationDTO = reservationService.findOne(id, userId);
         if (!reservationDTO.isPresent()) {
             throw new BadRequestAlertException("No Reservation detected", ENTITY_NAME, "NoReservation");
         }
@@ -154,11 +198,27 @@ public class ReservationResource {
      *
      * @param pageable the pagination information.
      * @param criteria the criteria which the requested entities should match.
+     * @param after optional cursor: when present, the page following it is returned without a total count,
+     * and the {@code X-Next-Cursor} and {@code Link} headers point to the next page. Empty for the first page.
+     * @param count false to skip the count query: the {@code X-Total-Count} header is omitted and only a next {@code Link} is returned.
      * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the list of reservations in body.
      */
     @GetMapping("/reservations")
-    public ResponseEntity<List<ReservationDTO>> getAllReservations(ReservationCriteria criteria, Pageable pageable) {
+    public ResponseEntity<List<ReservationDTO>> getAllReservations(ReservationCriteria criteria, Pageable pageable,
+                                                                   @RequestParam(value = KeysetPaginationUtil.AFTER_PARAMETER, required = false) String after,
+                                                                   @RequestParam(value = SlicePaginationUtil.COUNT_PARAMETER, defaultValue = "true") boolean count) {
         log.debug("REST request to get Reservations by criteria: {}", criteria);
+        if (after != null) {
+            KeysetCursor cursor = KeysetPaginationUtil.getCursor(after, pageable, ReservationQueryService.KEYSET_SORT_PROPERTIES, ENTITY_NAME);
+            KeysetPage<ReservationDTO> keysetPage = reservationQueryService.findByCriteria(limitToUserData(criteria), cursor, pageable.getPageSize());
+            HttpHeaders headers = KeysetPaginationUtil.generateKeysetHttpHeaders(ServletUriComponentsBuilder.fromCurrentRequest(), keysetPage, pageable.getPageSize());
+            return ResponseEntity.ok().headers(headers).body(keysetPage.getContent());
+        }
+        if (!count) {
+            Slice<ReservationDTO> slice = reservationQueryService.findSliceByCriteria(limitToUserData(criteria), pageable);
+            HttpHeaders headers = SlicePaginationUtil.generateSliceHttpHeaders(ServletUriComponentsBuilder.fromCurrentRequest(), slice);
+            return ResponseEntity.ok().headers(headers).body(slice.getContent());
+        }
         Page<ReservationDTO> page = reservationQueryService.findByCriteria(limitToUserData(criteria), pageable);
         HttpHeaders headers = PaginationUtil.generatePaginationHttpHeaders(ServletUriComponentsBuilder.fromCurrentRequest(), page);
         return ResponseEntity.ok().headers(headers).body(page.getContent());
@@ -183,11 +243,8 @@ public class ReservationResource {
     @GetMapping("/reservations/{id}")
     public ResponseEntity<ReservationDTO> getReservation(@PathVariable Long id) {
         log.debug("REST request to get Reservation : {}", id);
-        Optional<User> user = userService.findCurrentUser();
-        if (!user.isPresent()) {
-            throw new BadRequestAlertException("No user detected", ENTITY_NAME, "noUser");
-        }
-        Optional<ReservationDTO> reservationDTO = reservationService.findOne(id,user.get());
+        Long userId = getCurrentUserId();
+        Optional<ReservationDTO> reservationDTO = reservationService.findOne(id, userId);
         return ResponseUtil.wrapOrNotFound(reservationDTO);
     }
     /**
@@ -199,24 +256,34 @@ public class ReservationResource {
     @DeleteMapping("/reservations/{id}")
     public ResponseEntity<Void> deleteReservation(@PathVariable Long id) {
         log.debug("REST request to delete Reservation : {}", id);
-        Optional<User> user = userService.findCurrentUser();
-        if (!user.isPresent()) {
-            throw new BadRequestAlertException("No user detected", ENTITY_NAME, "noUser");
-        }
-        Optional<ReservationDTO> reservationDTO = reservationService.findOne(id,user.get());
+        Long userId = getCurrentUserId();
+        Optional<ReservationDTO> reservationDTO = reservationService.findOne(id, userId);
         if (!reservationDTO.isPresent()) {
             throw new BadRequestAlertException("No Reservation detected", ENTITY_NAME, "NoReservation");
         }
         reservationService.delete(id);
         return ResponseEntity.noContent().headers(HeaderUtil.createEntityDeletionAlert(applicationName, true, ENTITY_NAME, id.toString())).build();
     }
+    private void checkBatchSize(List<?> items) {
+        if (items.isEmpty()) {
+            throw new BadRequestAlertException("The batch is empty", ENTITY_NAME, "emptybatch");
+        }
+        if (items.size() > MAX_BATCH_SIZE) {
+            throw new BadRequestAlertException("A batch cannot contain more than " + MAX_BATCH_SIZE + " items", ENTITY_NAME, "batchtoolarge");
+        }
+    }
+
+    /**
+     * The id of the current user, from its token: the hot paths do not load the user.
+     */
+    private Long getCurrentUserId() {
+        return userService.getCurrentUserId()
+            .orElseThrow(() -> new BadRequestAlertException("No user detected", ENTITY_NAME, "noUser"));
+    }
+
     private ReservationCriteria limitToUserData(ReservationCriteria criteria) {
         if (!SecurityUtils.isCurrentUserInRole(AuthoritiesConstants.ADMIN)) {
-            Optional<User> user = userService.getUserWithAuthorities();
-            if (!user.isPresent()) {
-                throw new BadRequestAlertException("No User detected", ENTITY_NAME, "noUser");
-            }
-            Long userId = user.get().getId();
+            Long userId = getCurrentUserId();
             LongFilter longFilter = new LongFilter();
             longFilter.setEquals(userId);
             criteria.setUserId(longFilter);
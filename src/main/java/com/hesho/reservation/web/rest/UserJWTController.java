@@ -47,6 +47,20 @@ public class UserJWTController {
         httpHeaders.add(JWTFilter.AUTHORIZATION_HEADER, "Bearer " + jwt);
         return new ResponseEntity<>(new JWTToken(jwt), httpHeaders, HttpStatus.OK);
     }
+
+    /**
+     * {@code POST  /logout} : revoke the token of the current request, which is refused from then on.
+     *
+     * @return the {@link ResponseEntity} with status {@code 204 (No Content)}.
+     */
+    @PostMapping("/logout")
+    public ResponseEntity<Void> logout() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication != null && authentication.getCredentials() instanceof String) {
+            tokenProvider.revoke((String) authentication.getCredentials());
+        }
+        return ResponseEntity.noContent().build();
+    }
     /**
      * Object to return as body in JWT Authentication.
      */
@@ -6,6 +6,9 @@ public final class ErrorConstants {
 
     public static final String ERR_CONCURRENCY_FAILURE = "error.concurrencyFailure";
     public static final String ERR_VALIDATION = "error.validation";
+    public static final String ERR_RESERVATION_CONFLICT = "error.reservationConflict";
+    public static final String ERR_LOGIN_OVERLOADED = "error.loginOverloaded";
+    public static final String ERR_IDEMPOTENCY_KEY_REUSED = "error.idempotencyKeyReused";
     public static final URI DEFAULT_TYPE = URI.create(  "/problem-with-message");
     public static final URI CONSTRAINT_VIOLATION_TYPE = URI.create(  "/constraint-violation");
     public static final URI INVALID_PASSWORD_TYPE = URI.create( "/invalid-password");
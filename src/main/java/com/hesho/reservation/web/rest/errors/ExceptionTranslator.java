@@ -1,5 +1,8 @@
 package com.hesho.reservation.web.rest.errors;
 
+import com.hesho.reservation.security.LoginOverloadedException;
+import com.hesho.reservation.security.ReservationConflictException;
+import com.hesho.reservation.service.IdempotencyKeyReusedException;
 import io.github.jhipster.config.JHipsterConstants;
 import io.github.jhipster.web.util.HeaderUtil;
 
@@ -7,6 +10,7 @@ import org.apache.commons.lang3.StringUtils;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.dao.ConcurrencyFailureException;
 import org.springframework.dao.DataAccessException;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
 import org.springframework.http.converter.HttpMessageConversionException;
 import org.springframework.validation.BindingResult;
@@ -138,6 +142,41 @@ public class ExceptionTranslator implements ProblemHandling, SecurityAdviceTrait
         return create(ex, problem, request);
     }
 
+    @ExceptionHandler
+    public ResponseEntity<Problem> handleReservationConflict(ReservationConflictException ex, NativeWebRequest request) {
+        Problem problem = Problem.builder()
+            .withStatus(Status.CONFLICT)
+            .withTitle("Reservation conflict")
+            .withDetail(ex.getMessage())
+            .with(MESSAGE_KEY, ErrorConstants.ERR_RESERVATION_CONFLICT)
+            .build();
+        return create(ex, problem, request);
+    }
+
+    @ExceptionHandler
+    public ResponseEntity<Problem> handleLoginOverloaded(LoginOverloadedException ex, NativeWebRequest request) {
+        Problem problem = Problem.builder()
+            .withStatus(Status.SERVICE_UNAVAILABLE)
+            .withTitle("Too many logins")
+            .withDetail(ex.getMessage())
+            .with(MESSAGE_KEY, ErrorConstants.ERR_LOGIN_OVERLOADED)
+            .build();
+        HttpHeaders headers = new HttpHeaders();
+        headers.set(HttpHeaders.RETRY_AFTER, String.valueOf(ex.getRetryAfterSeconds()));
+        return create(ex, problem, request, headers);
+    }
+
+    @ExceptionHandler
+    public ResponseEntity<Problem> handleIdempotencyKeyReused(IdempotencyKeyReusedException ex, NativeWebRequest request) {
+        Problem problem = Problem.builder()
+            .withStatus(Status.UNPROCESSABLE_ENTITY)
+            .withTitle("Idempotency key reused")
+            .withDetail(ex.getMessage())
+            .with(MESSAGE_KEY, ErrorConstants.ERR_IDEMPOTENCY_KEY_REUSED)
+            .build();
+        return create(ex, problem, request);
+    }
+
     @Override
     public ProblemBuilder prepare(final Throwable throwable, final StatusType status, final URI type) {
 
@@ -0,0 +1,207 @@
+package com.hesho.reservation.web.rest.util;
+
+import com.hesho.reservation.service.ImageFile;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpRange;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.MediaTypeFactory;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Utility class for serving stored files with HTTP caching and range requests.
+ * <p>
+ * The strong {@code ETag} of a file is the hash of its content, so a matching {@code If-None-Match} is answered with
+ * {@code 304 (Not Modified)} before the file is even looked at. Otherwise a single {@code Range} is answered with
+ * {@code 206 (Partial Content)}; several ranges are answered with the whole file, as RFC 7233 allows. The content is
+ * written with {@link FileChannel#transferTo}, which skips the user space buffer of an {@link java.io.InputStream} copy,
+ * or straight from memory when the file was loaded.
+ */
+public final class FileStreamingUtil {
+
+    private static final String BYTES = "bytes";
+
+    private static final MediaType IMAGE_WEBP = MediaType.valueOf("image/webp");
+
+    private FileStreamingUtil() {
+    }
+
+    /**
+     * Build the response serving a file.
+     *
+     * @param file the file.
+     * @param cacheControl the {@code Cache-Control} header of the response.
+     * @param request the current request.
+     * @return the response: {@code 200 (OK)}, {@code 206 (Partial Content)}, {@code 304 (Not Modified)},
+     * {@code 404 (Not Found)} if the file is missing or {@code 416 (Requested Range Not Satisfiable)}.
+     */
+    public static ResponseEntity<StreamingResponseBody> stream(ImageFile file, String cacheControl, ServletWebRequest request) {
+        String etag = "\"" + file.getContentHash() + "\"";
+        HttpHeaders headers = new HttpHeaders();
+        headers.setETag(etag);
+        headers.setCacheControl(cacheControl);
+        headers.set(HttpHeaders.ACCEPT_RANGES, BYTES);
+
+        String ifNoneMatch = request.getHeader(HttpHeaders.IF_NONE_MATCH);
+        if (ifNoneMatch != null && matches(ifNoneMatch, etag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).headers(headers).build();
+        }
+
+        long size;
+        long lastModified;
+        byte[] content = file.getContent();
+        if (content != null) {
+            size = content.length;
+            lastModified = file.getLastModified();
+        } else {
+            BasicFileAttributes attributes;
+            try {
+                attributes = file.readAttributes();
+            } catch (NoSuchFileException e) {
+                return ResponseEntity.notFound().build();
+            } catch (IOException e) {
+                throw new IllegalStateException("Could not read attributes of " + file.getFileName(), e);
+            }
+            size = attributes.size();
+            lastModified = attributes.lastModifiedTime().toMillis();
+        }
+        if (lastModified >= 0) {
+            headers.setLastModified(lastModified);
+        }
+        if (ifNoneMatch == null && lastModified >= 0) {
+            // HTTP dates have a precision of one second
+            long ifModifiedSince = getDateHeader(request, HttpHeaders.IF_MODIFIED_SINCE);
+            if (ifModifiedSince != -1 && lastModified / 1000 * 1000 <= ifModifiedSince) {
+                return ResponseEntity.status(HttpStatus.NOT_MODIFIED).headers(headers).build();
+            }
+        }
+
+        long start = 0;
+        long length = size;
+        HttpStatus status = HttpStatus.OK;
+        String range = request.getHeader(HttpHeaders.RANGE);
+        if (range != null && isRangeApplicable(request.getHeader(HttpHeaders.IF_RANGE), etag, lastModified)) {
+            List<HttpRange> ranges = parseRanges(range);
+            if (ranges.size() == 1) {
+                HttpRange httpRange = ranges.get(0);
+                start = size == 0 ? 0 : httpRange.getRangeStart(size);
+                long end = size == 0 ? -1 : httpRange.getRangeEnd(size);
+                if (start >= size || start > end) {
+                    headers.set(HttpHeaders.CONTENT_RANGE, BYTES + " */" + size);
+                    return ResponseEntity.status(HttpStatus.REQUESTED_RANGE_NOT_SATISFIABLE).headers(headers).build();
+                }
+                length = end - start + 1;
+                status = HttpStatus.PARTIAL_CONTENT;
+                headers.set(HttpHeaders.CONTENT_RANGE, BYTES + " " + start + "-" + end + "/" + size);
+            }
+        }
+
+        headers.setContentType(getMediaType(file.getFileName()));
+        headers.setContentLength(length);
+        if (HttpMethod.HEAD.equals(request.getHttpMethod())) {
+            return ResponseEntity.status(status).headers(headers).build();
+        }
+        Path path = file.getPath();
+        long position = start;
+        long count = length;
+        if (content != null) {
+            return ResponseEntity.status(status).headers(headers).body(outputStream -> outputStream.write(content, (int) position, (int) count));
+        }
+        return ResponseEntity.status(status).headers(headers).body(outputStream -> transfer(path, position, count, outputStream));
+    }
+
+    /**
+     * Whether an {@code If-None-Match} or {@code If-Match} header matches an entity tag, with the weak comparison.
+     */
+    static boolean matches(String header, String etag) {
+        for (String candidate : header.split(",")) {
+            candidate = candidate.trim();
+            if (candidate.startsWith("W/")) {
+                candidate = candidate.substring(2);
+            }
+            if (candidate.equals("*") || candidate.equals(etag)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Whether to honor the {@code Range} header: an {@code If-Range} header must hold the current strong entity tag or
+     * the exact modification date.
+     */
+    private static boolean isRangeApplicable(String ifRange, String etag, long lastModified) {
+        if (ifRange == null) {
+            return true;
+        }
+        if (ifRange.startsWith("\"") || ifRange.startsWith("W/")) {
+            return ifRange.equals(etag);
+        }
+        return lastModified >= 0 && getDateHeader(ifRange) == lastModified / 1000 * 1000;
+    }
+
+    /**
+     * @return the date of a header, in milliseconds since the epoch, or -1 if it is missing or malformed.
+     */
+    private static long getDateHeader(ServletWebRequest request, String headerName) {
+        String value = request.getHeader(headerName);
+        return value == null ? -1 : getDateHeader(value);
+    }
+
+    private static long getDateHeader(String value) {
+        HttpHeaders headers = new HttpHeaders();
+        headers.set(HttpHeaders.DATE, value);
+        try {
+            return headers.getDate();
+        } catch (IllegalArgumentException e) {
+            return -1;
+        }
+    }
+
+    private static MediaType getMediaType(String fileName) {
+        if (fileName.endsWith(".webp")) {
+            // not in the mime types of older Spring versions
+            return IMAGE_WEBP;
+        }
+        return MediaTypeFactory.getMediaType(fileName).orElse(MediaType.APPLICATION_OCTET_STREAM);
+    }
+
+    private static List<HttpRange> parseRanges(String range) {
+        try {
+            return HttpRange.parseRanges(range);
+        } catch (IllegalArgumentException e) {
+            // a malformed Range header is ignored
+            return Collections.emptyList();
+        }
+    }
+
+    private static void transfer(Path path, long position, long count, OutputStream outputStream) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            WritableByteChannel target = Channels.newChannel(outputStream);
+            long transferred = 0;
+            while (transferred < count) {
+                long written = channel.transferTo(position + transferred, count - transferred, target);
+                if (written <= 0) {
+                    // the file was truncated after its size was read
+                    break;
+                }
+                transferred += written;
+            }
+        }
+    }
+}
@@ -0,0 +1,95 @@
+package com.hesho.reservation.web.rest.util;
+
+import com.hesho.reservation.repository.KeysetCursor;
+import com.hesho.reservation.repository.KeysetPage;
+import com.hesho.reservation.web.rest.errors.BadRequestAlertException;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.http.HttpHeaders;
+import org.springframework.web.util.UriComponentsBuilder;
+
+import java.util.Iterator;
+import java.util.Map;
+
+/**
+ * Utility class for handling keyset (cursor) pagination.
+ * <p>
+ * A listing switches to keyset pagination when the {@code after} request parameter is present: empty for the
+ * first page, then the value of the {@code X-Next-Cursor} header of the previous page. The sort is taken from the
+ * {@code sort} parameter of the first page and carried by the cursor afterwards; no total count is computed.
+ */
+public final class KeysetPaginationUtil {
+
+    public static final String AFTER_PARAMETER = "after";
+
+    public static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+
+    private static final String DEFAULT_SORT_PROPERTY = "id";
+
+    private KeysetPaginationUtil() {
+    }
+
+    /**
+     * Get the cursor of the requested page.
+     *
+     * @param after the {@code after} request parameter, empty for the first page.
+     * @param pageable the pagination information, whose sort is used for the first page.
+     * @param sortProperties the attributes which may be sorted on, backed by a {@code (key, id)} index, with their types.
+     * @param entityName the name of the listed entity, for error messages.
+     * @return the cursor.
+     * @throws BadRequestAlertException if the cursor is malformed, its sort key included, or the sort is not supported.
+     */
+    public static KeysetCursor getCursor(String after, Pageable pageable, Map<String, Class<?>> sortProperties, String entityName) {
+        KeysetCursor cursor;
+        if (after.isEmpty()) {
+            Iterator<Sort.Order> orders = pageable.getSort().iterator();
+            Sort.Order order = orders.hasNext() ? orders.next() : Sort.Order.asc(DEFAULT_SORT_PROPERTY);
+            if (orders.hasNext()) {
+                throw new BadRequestAlertException("Cursor pagination supports a single sort property", entityName, "invalidsort");
+            }
+            cursor = KeysetCursor.first(order.getProperty(), order.isAscending());
+        } else {
+            try {
+                cursor = KeysetCursor.decode(after);
+            } catch (IllegalArgumentException e) {
+                throw new BadRequestAlertException("Invalid cursor", entityName, "invalidcursor");
+            }
+        }
+        Class<?> sortType = sortProperties.get(cursor.getSortProperty());
+        if (sortType == null) {
+            throw new BadRequestAlertException("Cursor pagination cannot sort on " + cursor.getSortProperty(), entityName, "invalidsort");
+        }
+        if (cursor.getLastValue() != null) {
+            try {
+                KeysetCursor.parseValue(cursor.getLastValue(), sortType);
+            } catch (IllegalArgumentException e) {
+                throw new BadRequestAlertException("Invalid cursor", entityName, "invalidcursor");
+            }
+        }
+        return cursor;
+    }
+
+    /**
+     * Generate the headers of a keyset page: {@code X-Next-Cursor} and a {@code Link} to the next page, if any.
+     *
+     * @param uriBuilder the builder of the current request URI.
+     * @param page the page.
+     * @param size the size of the page.
+     * @return the headers.
+     */
+    public static HttpHeaders generateKeysetHttpHeaders(UriComponentsBuilder uriBuilder, KeysetPage<?> page, int size) {
+        HttpHeaders headers = new HttpHeaders();
+        if (page.hasNext()) {
+            String nextCursor = page.getNextCursor().encode();
+            headers.add(NEXT_CURSOR_HEADER, nextCursor);
+            String next = uriBuilder
+                .replaceQueryParam(AFTER_PARAMETER, nextCursor)
+                .replaceQueryParam("size", size)
+                .replaceQueryParam("page")
+                .replaceQueryParam("sort")
+                .toUriString();
+            headers.add(HttpHeaders.LINK, "<" + next + ">; rel=\"next\"");
+        }
+        return headers;
+    }
+}
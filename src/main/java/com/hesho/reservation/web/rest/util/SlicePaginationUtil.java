@@ -0,0 +1,39 @@
+package com.hesho.reservation.web.rest.util;
+
+import org.springframework.data.domain.Slice;
+import org.springframework.http.HttpHeaders;
+import org.springframework.web.util.UriComponentsBuilder;
+
+/**
+ * Utility class for handling count-free pagination.
+ * <p>
+ * A listing returns a {@link Slice} instead of a {@link org.springframework.data.domain.Page} when the
+ * {@code count} request parameter is {@code false}: the {@code X-Total-Count} header is then omitted and the
+ * {@code Link} header only points to the next page, if there is one.
+ */
+public final class SlicePaginationUtil {
+
+    public static final String COUNT_PARAMETER = "count";
+
+    private SlicePaginationUtil() {
+    }
+
+    /**
+     * Generate the pagination headers of a slice.
+     *
+     * @param uriBuilder the builder of the current request URI.
+     * @param slice the slice.
+     * @return the headers.
+     */
+    public static HttpHeaders generateSliceHttpHeaders(UriComponentsBuilder uriBuilder, Slice<?> slice) {
+        HttpHeaders headers = new HttpHeaders();
+        if (slice.hasNext()) {
+            String next = uriBuilder
+                .replaceQueryParam("page", slice.getNumber() + 1)
+                .replaceQueryParam("size", slice.getSize())
+                .toUriString();
+            headers.add(HttpHeaders.LINK, "<" + next + ">; rel=\"next\"");
+        }
+        return headers;
+    }
+}
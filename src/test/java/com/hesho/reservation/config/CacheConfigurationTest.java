@@ -0,0 +1,87 @@
+package com.hesho.reservation.config;
+
+import io.github.jhipster.config.JHipsterProperties;
+import org.ehcache.config.CacheRuntimeConfiguration;
+import org.ehcache.config.ResourcePools;
+import org.ehcache.config.ResourceType;
+import org.ehcache.config.units.EntryUnit;
+import org.ehcache.config.units.MemoryUnit;
+import org.ehcache.jsr107.Eh107Configuration;
+import org.ehcache.jsr107.EhcacheCachingProvider;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import javax.cache.CacheManager;
+import javax.cache.Caching;
+import java.net.URI;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Unit tests for the {@link CacheConfiguration}.
+ */
+public class CacheConfigurationTest {
+
+    private static final String DOMAIN_PACKAGE = "com.hesho.reservation.domain.";
+
+    private CacheManager cacheManager;
+
+    @BeforeEach
+    public void setup() {
+        JHipsterProperties jHipsterProperties = new JHipsterProperties();
+        jHipsterProperties.getCache().getEhcache().setMaxEntries(100);
+        ApplicationProperties applicationProperties = new ApplicationProperties();
+        ApplicationProperties.Cache.Region reservations = new ApplicationProperties.Cache.Region();
+        reservations.setMaxEntries(10L);
+        reservations.setTimeToIdleSeconds(60L);
+        applicationProperties.getCache().getRegions().put("Reservation", reservations);
+        ApplicationProperties.Cache.Region images = new ApplicationProperties.Cache.Region();
+        images.setOffHeapMb(1L);
+        applicationProperties.getCache().getRegions().put("Place.images", images);
+
+        cacheManager = Caching.getCachingProvider(EhcacheCachingProvider.class.getName())
+            .getCacheManager(URI.create("cache-configuration-test"), getClass().getClassLoader());
+        new CacheConfiguration(jHipsterProperties, applicationProperties).cacheManagerCustomizer().customize(cacheManager);
+    }
+
+    @AfterEach
+    public void tearDown() {
+        cacheManager.close();
+    }
+
+    @Test
+    public void testRegionsOverrideDefaults() {
+        assertThat(pools(DOMAIN_PACKAGE + "Reservation").getPoolForResource(ResourceType.Core.HEAP).getSize()).isEqualTo(10);
+        assertThat(pools(DOMAIN_PACKAGE + "Category").getPoolForResource(ResourceType.Core.HEAP).getSize()).isEqualTo(100);
+        assertThat(pools(DOMAIN_PACKAGE + "Category").getPoolForResource(ResourceType.Core.HEAP).getUnit())
+            .isEqualTo(EntryUnit.ENTRIES);
+        assertThat(pools(DOMAIN_PACKAGE + "Category").getPoolForResource(ResourceType.Core.OFFHEAP)).isNull();
+    }
+
+    @Test
+    public void testOffHeapTierStoresEntries() {
+        String cacheName = DOMAIN_PACKAGE + "Place.images";
+        assertThat(pools(cacheName).getPoolForResource(ResourceType.Core.OFFHEAP).getSize()).isEqualTo(1);
+        assertThat(pools(cacheName).getPoolForResource(ResourceType.Core.OFFHEAP).getUnit()).isEqualTo(MemoryUnit.MB);
+
+        javax.cache.Cache<Object, Object> cache = cacheManager.getCache(cacheName);
+        for (long i = 0; i < 1000; i++) {
+            cache.put(i, "image-" + i);
+        }
+        assertThat(cache.get(0L)).isEqualTo("image-0");
+    }
+
+    @Test
+    public void testRegionName() {
+        assertThat(CacheConfiguration.regionName(DOMAIN_PACKAGE + "Place.images")).isEqualTo("Place.images");
+        assertThat(CacheConfiguration.regionName("usersByLogin")).isEqualTo("usersByLogin");
+    }
+
+    @SuppressWarnings("unchecked")
+    private ResourcePools pools(String cacheName) {
+        Eh107Configuration<Object, Object> configuration =
+            cacheManager.getCache(cacheName).getConfiguration(Eh107Configuration.class);
+        return configuration.unwrap(CacheRuntimeConfiguration.class).getResourcePools();
+    }
+}
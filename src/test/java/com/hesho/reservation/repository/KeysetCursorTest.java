@@ -0,0 +1,70 @@
+package com.hesho.reservation.repository;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Test class for the {@link KeysetCursor}.
+ */
+public class KeysetCursorTest {
+
+    @Test
+    public void testEncodeDecodeKeyedCursor() {
+        Instant startDate = Instant.parse("2021-03-01T10:15:30Z");
+        KeysetCursor cursor = KeysetCursor.first("startDate", false).after(startDate, 42L);
+
+        KeysetCursor decoded = KeysetCursor.decode(cursor.encode());
+
+        assertThat(decoded.getSortProperty()).isEqualTo("startDate");
+        assertThat(decoded.isAscending()).isFalse();
+        assertThat(decoded.getLastId()).isEqualTo(42L);
+        assertThat(decoded.isNullKeys()).isFalse();
+        assertThat(Instant.parse(decoded.getLastValue())).isEqualTo(startDate);
+    }
+
+    @Test
+    public void testEncodeDecodeValueWithSeparator() {
+        KeysetCursor cursor = KeysetCursor.first("name", true).after("a|b", 7L);
+
+        KeysetCursor decoded = KeysetCursor.decode(cursor.encode());
+
+        assertThat(decoded.getLastValue()).isEqualTo("a|b");
+        assertThat(decoded.getLastId()).isEqualTo(7L);
+    }
+
+    @Test
+    public void testEncodeDecodeNullKeyCursor() {
+        KeysetCursor cursor = KeysetCursor.first("price", true).after(null, 3L);
+
+        KeysetCursor decoded = KeysetCursor.decode(cursor.encode());
+
+        assertThat(decoded.isNullKeys()).isTrue();
+        assertThat(decoded.getLastValue()).isNull();
+        assertThat(decoded.getLastId()).isEqualTo(3L);
+    }
+
+    @Test
+    public void testParseValue() {
+        assertThat(KeysetCursor.parseValue("2021-03-01T10:15:30Z", Instant.class)).isEqualTo(Instant.parse("2021-03-01T10:15:30Z"));
+        assertThat(KeysetCursor.parseValue("12.5", Double.class)).isEqualTo(12.5);
+        assertThat(KeysetCursor.parseValue("a|b", String.class)).isEqualTo("a|b");
+    }
+
+    @Test
+    public void testParseMalformedValue() {
+        assertThatThrownBy(() -> KeysetCursor.parseValue("yesterday", Instant.class)).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> KeysetCursor.parseValue("12,5", Double.class)).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> KeysetCursor.parseValue("yes", Boolean.class)).isInstanceOf(IllegalArgumentException.class);
+        assertThat(KeysetCursor.isSupportedType(Object.class)).isFalse();
+    }
+
+    @Test
+    public void testDecodeMalformedCursor() {
+        assertThatThrownBy(() -> KeysetCursor.decode("not a cursor")).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> KeysetCursor.decode("aWR8QXxWfHg")).isInstanceOf(IllegalArgumentException.class);
+    }
+}
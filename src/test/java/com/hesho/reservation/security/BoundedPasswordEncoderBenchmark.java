@@ -0,0 +1,100 @@
+package com.hesho.reservation.security;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Group;
+import org.openjdk.jmh.annotations.GroupThreads;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmark of a login flood: many threads check passwords through the {@link BoundedPasswordEncoder} while another
+ * one serves cheap API requests, whose latency must not suffer from the flood. The accepted and rejected logins are
+ * reported as secondary results.
+ */
+@State(Scope.Group)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class BoundedPasswordEncoderBenchmark {
+
+    private static final int POOL_SIZE = 2;
+
+    private static final int QUEUE_CAPACITY = 2;
+
+    private ThreadPoolTaskExecutor loginExecutor;
+
+    private BoundedPasswordEncoder passwordEncoder;
+
+    private String hash;
+
+    @Setup
+    public void setup() {
+        loginExecutor = new ThreadPoolTaskExecutor();
+        loginExecutor.setCorePoolSize(POOL_SIZE);
+        loginExecutor.setMaxPoolSize(POOL_SIZE);
+        loginExecutor.setQueueCapacity(QUEUE_CAPACITY);
+        loginExecutor.setThreadNamePrefix("login-");
+        loginExecutor.initialize();
+        BCryptPasswordEncoder bcrypt = new BCryptPasswordEncoder();
+        passwordEncoder = new BoundedPasswordEncoder(bcrypt, loginExecutor, 1, new SimpleMeterRegistry());
+        hash = bcrypt.encode("password");
+    }
+
+    @TearDown
+    public void tearDown() {
+        loginExecutor.shutdown();
+    }
+
+    @Benchmark
+    @Group("flood")
+    @GroupThreads(16)
+    public boolean login(Logins logins) {
+        try {
+            boolean matches = passwordEncoder.matches("password", hash);
+            logins.accepted++;
+            return matches;
+        } catch (LoginOverloadedException e) {
+            logins.rejected++;
+            return false;
+        }
+    }
+
+    @Benchmark
+    @Group("flood")
+    @GroupThreads(1)
+    public String apiRequest() {
+        StringBuilder body = new StringBuilder();
+        for (int i = 0; i < 100; i++) {
+            body.append("{\"id\":").append(i).append('}');
+        }
+        return body.toString();
+    }
+
+    /**
+     * The logins of a thread, by outcome.
+     */
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class Logins {
+
+        public long accepted;
+
+        public long rejected;
+    }
+}
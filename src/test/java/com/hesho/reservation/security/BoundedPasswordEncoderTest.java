@@ -0,0 +1,149 @@
+package com.hesho.reservation.security;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class BoundedPasswordEncoderTest {
+
+    private static final int POOL_SIZE = 2;
+
+    private static final int QUEUE_CAPACITY = 2;
+
+    private static final int FLOOD_LOGINS = 32;
+
+    private final BCryptPasswordEncoder bcrypt = new BCryptPasswordEncoder();
+
+    private final AtomicInteger running = new AtomicInteger();
+
+    private final AtomicInteger maxRunning = new AtomicInteger();
+
+    private ThreadPoolTaskExecutor loginExecutor;
+
+    private MeterRegistry meterRegistry;
+
+    private BoundedPasswordEncoder passwordEncoder;
+
+    @BeforeEach
+    public void setup() {
+        loginExecutor = new ThreadPoolTaskExecutor();
+        loginExecutor.setCorePoolSize(POOL_SIZE);
+        loginExecutor.setMaxPoolSize(POOL_SIZE);
+        loginExecutor.setQueueCapacity(QUEUE_CAPACITY);
+        loginExecutor.setThreadNamePrefix("login-");
+        loginExecutor.initialize();
+        meterRegistry = new SimpleMeterRegistry();
+        passwordEncoder = new BoundedPasswordEncoder(new CountingPasswordEncoder(), loginExecutor, 3, meterRegistry);
+    }
+
+    @AfterEach
+    public void tearDown() {
+        loginExecutor.shutdown();
+    }
+
+    @Test
+    public void testMatchesOnLoginExecutor() {
+        String hash = passwordEncoder.encode("password");
+
+        assertThat(passwordEncoder.matches("password", hash)).isTrue();
+        assertThat(passwordEncoder.matches("wrong", hash)).isFalse();
+        assertThat(meterRegistry.get(BoundedPasswordEncoder.HASH_METRIC).timer().count()).isEqualTo(2);
+        assertThat(meterRegistry.get("executor.pool.size").tag("name", BoundedPasswordEncoder.EXECUTOR_NAME)
+            .gauge().value()).isEqualTo(POOL_SIZE);
+    }
+
+    @Test
+    public void testRejectsWhenSaturated() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        for (int i = 0; i < POOL_SIZE + QUEUE_CAPACITY; i++) {
+            loginExecutor.execute(() -> {
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            });
+        }
+        try {
+            assertThatThrownBy(() -> passwordEncoder.matches("password", bcrypt.encode("password")))
+                .isInstanceOfSatisfying(LoginOverloadedException.class,
+                    e -> assertThat(e.getRetryAfterSeconds()).isEqualTo(3));
+            assertThat(meterRegistry.get(BoundedPasswordEncoder.REJECTED_METRIC).counter().count()).isEqualTo(1);
+        } finally {
+            release.countDown();
+        }
+    }
+
+    @Test
+    public void testFloodNeverRunsMoreChecksThanThePool() throws Exception {
+        String hash = bcrypt.encode("password");
+        ExecutorService requestThreads = Executors.newFixedThreadPool(FLOOD_LOGINS);
+        AtomicInteger accepted = new AtomicInteger();
+        AtomicInteger rejected = new AtomicInteger();
+        try {
+            CountDownLatch start = new CountDownLatch(1);
+            List<Future<?>> logins = new ArrayList<>();
+            for (int i = 0; i < FLOOD_LOGINS; i++) {
+                logins.add(requestThreads.submit(() -> {
+                    start.await();
+                    try {
+                        assertThat(passwordEncoder.matches("password", hash)).isTrue();
+                        accepted.incrementAndGet();
+                    } catch (LoginOverloadedException e) {
+                        rejected.incrementAndGet();
+                    }
+                    return null;
+                }));
+            }
+            start.countDown();
+            for (Future<?> login : logins) {
+                login.get(1, TimeUnit.MINUTES);
+            }
+
+            assertThat(maxRunning.get()).isLessThanOrEqualTo(POOL_SIZE);
+            assertThat(accepted.get()).isGreaterThanOrEqualTo(POOL_SIZE + QUEUE_CAPACITY);
+            assertThat(rejected.get()).isPositive();
+            assertThat(accepted.get() + rejected.get()).isEqualTo(FLOOD_LOGINS);
+        } finally {
+            requestThreads.shutdownNow();
+        }
+    }
+
+    /**
+     * BCrypt encoder recording how many checks run at once.
+     */
+    private class CountingPasswordEncoder implements PasswordEncoder {
+
+        @Override
+        public String encode(CharSequence rawPassword) {
+            return bcrypt.encode(rawPassword);
+        }
+
+        @Override
+        public boolean matches(CharSequence rawPassword, String encodedPassword) {
+            maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+            try {
+                return bcrypt.matches(rawPassword, encodedPassword);
+            } finally {
+                running.decrementAndGet();
+            }
+        }
+    }
+}
@@ -0,0 +1,82 @@
+package com.hesho.reservation.security;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.util.Collections;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class ClientRateLimitFilterTest {
+
+    private static final String TRUSTED_PROXIES = "10.0.0.0/8";
+
+    private static final String PROXY = "10.0.0.1";
+
+    private ClientRateLimitFilter filter;
+
+    @BeforeEach
+    public void setup() {
+        filter = new ClientRateLimitFilter(new ClientRateLimiter(1, Duration.ofSeconds(60), 1024, Clock.systemUTC()),
+            Collections.singletonList(TRUSTED_PROXIES));
+    }
+
+    @Test
+    public void testRejectsClientOverLimit() throws Exception {
+        assertThat(authenticate("192.168.0.1", null).getStatus()).isEqualTo(HttpStatus.OK.value());
+
+        MockHttpServletResponse response = authenticate("192.168.0.1", null);
+        assertThat(response.getStatus()).isEqualTo(HttpStatus.TOO_MANY_REQUESTS.value());
+        assertThat(response.getHeader(HttpHeaders.RETRY_AFTER)).isEqualTo("60");
+    }
+
+    @Test
+    public void testIgnoresForwardedAddressFromUntrustedClient() throws Exception {
+        assertThat(authenticate("192.168.0.1", "172.16.0.1").getStatus()).isEqualTo(HttpStatus.OK.value());
+        assertThat(authenticate("192.168.0.1", "172.16.0.2").getStatus()).isEqualTo(HttpStatus.TOO_MANY_REQUESTS.value());
+    }
+
+    @Test
+    public void testKeysByForwardedAddressBehindTrustedProxy() throws Exception {
+        assertThat(authenticate(PROXY, "192.168.0.1").getStatus()).isEqualTo(HttpStatus.OK.value());
+        assertThat(authenticate(PROXY, "192.168.0.2, 10.0.0.2").getStatus()).isEqualTo(HttpStatus.OK.value());
+        assertThat(authenticate("10.0.0.3", "192.168.0.1").getStatus()).isEqualTo(HttpStatus.TOO_MANY_REQUESTS.value());
+    }
+
+    @Test
+    public void testIgnoresSpoofedForwardedAddress() throws Exception {
+        assertThat(authenticate(PROXY, "172.16.0.1, 192.168.0.1").getStatus()).isEqualTo(HttpStatus.OK.value());
+        assertThat(authenticate(PROXY, "172.16.0.2, 192.168.0.1").getStatus()).isEqualTo(HttpStatus.TOO_MANY_REQUESTS.value());
+        assertThat(authenticate(PROXY, "unknown, 192.168.0.1").getStatus()).isEqualTo(HttpStatus.TOO_MANY_REQUESTS.value());
+    }
+
+    @Test
+    public void testIgnoresOtherRequests() throws Exception {
+        for (int i = 0; i < 3; i++) {
+            MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/places");
+            request.setServletPath("/api/places");
+            MockHttpServletResponse response = new MockHttpServletResponse();
+            filter.doFilter(request, response, new MockFilterChain());
+            assertThat(response.getStatus()).isEqualTo(HttpStatus.OK.value());
+        }
+    }
+
+    private MockHttpServletResponse authenticate(String remoteAddress, String forwardedFor) throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/api/authenticate");
+        request.setServletPath("/api/authenticate");
+        request.setRemoteAddr(remoteAddress);
+        if (forwardedFor != null) {
+            request.addHeader(ClientRateLimitFilter.FORWARDED_FOR_HEADER, forwardedFor);
+        }
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(request, response, new MockFilterChain());
+        return response;
+    }
+}
@@ -0,0 +1,142 @@
+package com.hesho.reservation.security;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class ClientRateLimiterTest {
+
+    private static final int LIMIT = 5;
+
+    private static final Duration WINDOW = Duration.ofMinutes(1);
+
+    private MutableClock clock;
+
+    private ClientRateLimiter rateLimiter;
+
+    @BeforeEach
+    public void setup() {
+        // at the start of a window
+        clock = new MutableClock(Instant.ofEpochMilli(WINDOW.toMillis() * 1000));
+        rateLimiter = new ClientRateLimiter(LIMIT, WINDOW, 1024, clock);
+    }
+
+    @Test
+    public void testLimitsEachClient() {
+        for (int i = 0; i < LIMIT; i++) {
+            assertThat(rateLimiter.tryAcquire("10.0.0.1")).isTrue();
+        }
+        assertThat(rateLimiter.tryAcquire("10.0.0.1")).isFalse();
+        assertThat(rateLimiter.tryAcquire("10.0.0.2")).isTrue();
+    }
+
+    @Test
+    public void testSlidesWindow() {
+        for (int i = 0; i < LIMIT; i++) {
+            assertThat(rateLimiter.tryAcquire("10.0.0.1")).isTrue();
+        }
+
+        // the previous window still counts for 4 requests of the 5 allowed
+        clock.advance(WINDOW.plus(WINDOW.dividedBy(5)));
+        assertThat(rateLimiter.tryAcquire("10.0.0.1")).isTrue();
+        assertThat(rateLimiter.tryAcquire("10.0.0.1")).isFalse();
+
+        clock.advance(WINDOW.multipliedBy(2));
+        assertThat(rateLimiter.tryAcquire("10.0.0.1")).isTrue();
+    }
+
+    @Test
+    public void testKeepsCountingRejectedRequests() {
+        for (int i = 0; i < LIMIT * 2; i++) {
+            rateLimiter.tryAcquire("10.0.0.1");
+        }
+
+        // 10 requests weighted by half are still over the limit
+        clock.advance(WINDOW.plus(WINDOW.dividedBy(2)));
+        assertThat(rateLimiter.tryAcquire("10.0.0.1")).isFalse();
+    }
+
+    @Test
+    public void testAddressSprayDoesNotBlockOtherClients() {
+        rateLimiter = new ClientRateLimiter(LIMIT, WINDOW, 65_536, clock);
+        for (int i = 0; i < 100_000; i++) {
+            rateLimiter.tryAcquire("spray-" + i);
+        }
+
+        assertThat(rateLimiter.tryAcquire("10.0.0.1")).isTrue();
+    }
+
+    @Test
+    public void testCountsConcurrentRequestsExactly() throws Exception {
+        int threads = 8;
+        rateLimiter = new ClientRateLimiter(1000, WINDOW, 1024, clock);
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        AtomicInteger accepted = new AtomicInteger();
+        try {
+            CountDownLatch start = new CountDownLatch(1);
+            List<Future<?>> futures = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    for (int i = 0; i < 500; i++) {
+                        if (rateLimiter.tryAcquire("10.0.0.1")) {
+                            accepted.incrementAndGet();
+                        }
+                    }
+                    return null;
+                }));
+            }
+            start.countDown();
+            for (Future<?> future : futures) {
+                future.get(1, TimeUnit.MINUTES);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertThat(accepted.get()).isEqualTo(1000);
+    }
+
+    private static class MutableClock extends Clock {
+
+        private Instant instant;
+
+        MutableClock(Instant instant) {
+            this.instant = instant;
+        }
+
+        void advance(Duration duration) {
+            instant = instant.plus(duration);
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return instant;
+        }
+    }
+}
@@ -1,6 +1,9 @@
 package com.hesho.reservation.security.jwt;
 
+import com.hesho.reservation.config.ApplicationProperties;
+import com.hesho.reservation.repository.RevokedTokenRepository;
 import com.hesho.reservation.security.AuthoritiesConstants;
+import com.hesho.reservation.security.UserPrincipal;
 
 import java.security.Key;
 import java.util.*;
@@ -20,17 +23,26 @@ import io.jsonwebtoken.io.Decoders;
 import io.jsonwebtoken.security.Keys;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
 
 public class TokenProviderTest {
 
     private static final long ONE_MINUTE = 60000;
 
     private Key key;
+    private RevokedTokenRepository revokedTokenRepository;
     private TokenProvider tokenProvider;
 
     @BeforeEach
     public void setup() {
-        tokenProvider = new TokenProvider( new JHipsterProperties());
+        revokedTokenRepository = mock(RevokedTokenRepository.class);
+        tokenProvider = new TokenProvider( new JHipsterProperties(), new ApplicationProperties(),
+            new TokenRevocationList(revokedTokenRepository, new ApplicationProperties()));
         key = Keys.hmacShaKeyFor(Decoders.BASE64
             .decode("fd54a45s65fds737b9aafcb3412e07ed99b267f33413274720ddbb7f6c5e64e9f14075f2d7ed041592f0b7657baf8"));
 
@@ -83,6 +95,77 @@ public class TokenProviderTest {
         assertThat(isTokenValid).isEqualTo(false);
     }
 
+    @Test
+    public void testCachedAuthenticationHonorsExpiry() throws InterruptedException {
+        ReflectionTestUtils.setField(tokenProvider, "tokenValidityInMilliseconds", 1000);
+
+        String token = tokenProvider.createToken(createAuthentication(), false);
+        Authentication first = tokenProvider.authenticate(token);
+        Authentication second = tokenProvider.authenticate(token);
+
+        assertThat(first.getName()).isEqualTo("anonymous");
+        assertThat(second.getName()).isEqualTo("anonymous");
+        assertThat(second).isNotSameAs(first);
+        assertThat(second.getCredentials()).isEqualTo(token);
+
+        Thread.sleep(1100);
+        assertThat(tokenProvider.authenticate(token)).isNull();
+    }
+
+    @Test
+    public void testTokenCarriesUserId() {
+        UserPrincipal principal = new UserPrincipal(42L, "user", "", Collections.singletonList(new SimpleGrantedAuthority(AuthoritiesConstants.USER)));
+        String token = tokenProvider.createToken(new UsernamePasswordAuthenticationToken(principal, "", principal.getAuthorities()), false);
+
+        Authentication authentication = tokenProvider.authenticate(token);
+
+        assertThat(authentication.getPrincipal()).isInstanceOf(UserPrincipal.class);
+        assertThat(((UserPrincipal) authentication.getPrincipal()).getId()).isEqualTo(42L);
+        assertThat(authentication.getName()).isEqualTo("user");
+    }
+
+    @Test
+    public void testTokenWithoutUserIdIsStillValid() {
+        String token = Jwts.builder()
+            .setSubject("user")
+            .claim("auth", AuthoritiesConstants.USER)
+            .signWith(key, SignatureAlgorithm.HS512)
+            .setExpiration(new Date(new Date().getTime() + ONE_MINUTE))
+            .compact();
+
+        Authentication authentication = tokenProvider.authenticate(token);
+
+        assertThat(authentication.getName()).isEqualTo("user");
+        assertThat(authentication.getPrincipal()).isNotInstanceOf(UserPrincipal.class);
+    }
+
+    @Test
+    public void testRevokedTokenIsRefused() {
+        String token = tokenProvider.createToken(createAuthentication(), false);
+        String other = tokenProvider.createToken(createAuthentication(), false);
+        assertThat(tokenProvider.authenticate(token)).isNotNull();
+        assertThat(tokenProvider.authenticate(other)).isNotNull();
+
+        assertThat(tokenProvider.revoke(token)).isTrue();
+        verify(revokedTokenRepository).save(any());
+        when(revokedTokenRepository.existsById(Jwts.parserBuilder().setSigningKey(key).build()
+            .parseClaimsJws(token).getBody().getId())).thenReturn(true);
+
+        assertThat(tokenProvider.authenticate(token)).isNull();
+        assertThat(tokenProvider.authenticate(other)).isNotNull();
+    }
+
+    @Test
+    public void testValidTokenDoesNotQueryRevocations() {
+        String token = tokenProvider.createToken(createAuthentication(), false);
+
+        for (int i = 0; i < 10; i++) {
+            assertThat(tokenProvider.authenticate(token)).isNotNull();
+        }
+
+        verify(revokedTokenRepository, never()).existsById(anyString());
+    }
+
     private Authentication createAuthentication() {
         Collection<GrantedAuthority> authorities = new ArrayList<>();
         authorities.add(new SimpleGrantedAuthority(AuthoritiesConstants.ANONYMOUS));
@@ -0,0 +1,69 @@
+package com.hesho.reservation.security.jwt;
+
+import com.hesho.reservation.config.ApplicationProperties;
+import com.hesho.reservation.repository.RevokedTokenRepository;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Benchmark of the revocation check of valid tokens against 10,000 revoked tokens; the rare false positives of the
+ * filter query a mocked table.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TokenRevocationListBenchmark {
+
+    private static final int REVOKED_TOKENS = 10_000;
+
+    private static final int VALID_TOKENS = 1024;
+
+    private TokenRevocationList revocationList;
+
+    private String[] valid;
+
+    private int next;
+
+    @Setup
+    public void setup() {
+        List<String> revoked = new ArrayList<>();
+        for (int i = 0; i < REVOKED_TOKENS; i++) {
+            revoked.add(UUID.randomUUID().toString());
+        }
+        RevokedTokenRepository revokedTokenRepository = mock(RevokedTokenRepository.class);
+        when(revokedTokenRepository.findIdsByExpiresAtAfter(any())).thenReturn(revoked);
+        revocationList = new TokenRevocationList(revokedTokenRepository, new ApplicationProperties());
+        revocationList.refresh();
+        valid = new String[VALID_TOKENS];
+        for (int i = 0; i < VALID_TOKENS; i++) {
+            valid[i] = UUID.randomUUID().toString();
+        }
+    }
+
+    @Benchmark
+    public boolean validTokenCheck() {
+        String tokenId = valid[next];
+        next = (next + 1) & (VALID_TOKENS - 1);
+        return revocationList.isRevoked(tokenId);
+    }
+}
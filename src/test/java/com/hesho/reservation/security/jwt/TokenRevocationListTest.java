@@ -0,0 +1,88 @@
+package com.hesho.reservation.security.jwt;
+
+import com.hesho.reservation.config.ApplicationProperties;
+import com.hesho.reservation.repository.RevokedTokenRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Test class for the {@link TokenRevocationList}.
+ */
+public class TokenRevocationListTest {
+
+    private static final int VALID_CHECKS = 10_000;
+
+    private RevokedTokenRepository revokedTokenRepository;
+
+    private TokenRevocationList revocationList;
+
+    @BeforeEach
+    public void setup() {
+        revokedTokenRepository = mock(RevokedTokenRepository.class);
+        revocationList = new TokenRevocationList(revokedTokenRepository, new ApplicationProperties());
+    }
+
+    @Test
+    public void testRevokedTokenIsCheckedInTable() {
+        revocationList.revoke("revoked", Instant.now().plusSeconds(60));
+        when(revokedTokenRepository.existsById("revoked")).thenReturn(true);
+
+        assertThat(revocationList.isRevoked("revoked")).isTrue();
+        assertThat(revocationList.isRevoked("valid")).isFalse();
+        assertThat(revocationList.isRevoked(null)).isFalse();
+        verify(revokedTokenRepository).save(any());
+        verify(revokedTokenRepository, never()).existsById("valid");
+    }
+
+    @Test
+    public void testRefreshLoadsTableAndForgetsExpiredTokens() {
+        revocationList.revoke("expired", Instant.now().plusSeconds(60));
+        when(revokedTokenRepository.findIdsByExpiresAtAfter(any())).thenReturn(Collections.singletonList("remote"));
+
+        revocationList.refresh();
+
+        verify(revokedTokenRepository).deleteExpired(any());
+        assertThat(revocationList.isRevoked("expired")).isFalse();
+        revocationList.isRevoked("remote");
+        verify(revokedTokenRepository, never()).existsById("expired");
+        verify(revokedTokenRepository, times(1)).existsById("remote");
+    }
+
+    @Test
+    public void testValidTokensRarelyReachTable() {
+        List<String> revoked = new ArrayList<>();
+        for (int i = 0; i < 10_000; i++) {
+            revoked.add(UUID.randomUUID().toString());
+        }
+        when(revokedTokenRepository.findIdsByExpiresAtAfter(any())).thenReturn(revoked);
+        revocationList.refresh();
+        AtomicInteger lookups = new AtomicInteger();
+        when(revokedTokenRepository.existsById(anyString())).thenAnswer(invocation -> {
+            lookups.incrementAndGet();
+            return false;
+        });
+
+        for (int i = 0; i < VALID_CHECKS; i++) {
+            assertThat(revocationList.isRevoked(UUID.randomUUID().toString())).isFalse();
+        }
+
+        // only the rare false positives of the filter reach the table
+        assertThat(lookups.get()).isLessThan(VALID_CHECKS / 100);
+    }
+}
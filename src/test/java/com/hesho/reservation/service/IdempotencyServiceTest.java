@@ -0,0 +1,151 @@
+package com.hesho.reservation.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.hesho.reservation.config.ApplicationProperties;
+import com.hesho.reservation.domain.IdempotencyRecord;
+import com.hesho.reservation.repository.IdempotencyRecordRepository;
+import com.hesho.reservation.service.dto.ReservationDTO;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.mock.web.MockMultipartFile;
+
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+/**
+ * Test class for the {@link IdempotencyService}.
+ */
+public class IdempotencyServiceTest {
+
+    private static final String SCOPE = "POST /api/reservations";
+
+    private static final ReservationDTO REQUEST = request(1L);
+
+    private final AtomicLong sequence = new AtomicLong();
+
+    private IdempotencyRecordRepository idempotencyRecordRepository;
+
+    private IdempotencyService idempotencyService;
+
+    @BeforeEach
+    public void setup() {
+        idempotencyRecordRepository = mock(IdempotencyRecordRepository.class);
+        idempotencyService = new IdempotencyService(idempotencyRecordRepository, new ObjectMapper(), new ApplicationProperties());
+    }
+
+    @Test
+    public void testRetryReplaysFirstResponse() {
+        ReservationDTO first = idempotencyService.execute(SCOPE, "key-1", REQUEST, ReservationDTO.class, this::create);
+        ReservationDTO retry = idempotencyService.execute(SCOPE, "key-1", REQUEST, ReservationDTO.class, this::create);
+
+        assertThat(retry.getId()).isEqualTo(first.getId());
+        assertThat(sequence.get()).isEqualTo(1);
+        verifyNoInteractions(idempotencyRecordRepository);
+    }
+
+    @Test
+    public void testKeysAreScopedByEndpoint() {
+        ReservationDTO first = idempotencyService.execute(SCOPE, "key-1", REQUEST, ReservationDTO.class, this::create);
+        ReservationDTO other = idempotencyService.execute("POST /api/other", "key-1", REQUEST, ReservationDTO.class, this::create);
+
+        assertThat(other.getId()).isNotEqualTo(first.getId());
+    }
+
+    @Test
+    public void testRequestWithoutKeyAlwaysRuns() {
+        idempotencyService.execute(SCOPE, null, REQUEST, ReservationDTO.class, this::create);
+        idempotencyService.execute(SCOPE, null, REQUEST, ReservationDTO.class, this::create);
+
+        assertThat(sequence.get()).isEqualTo(2);
+    }
+
+    @Test
+    public void testFailedRequestIsNotRemembered() {
+        assertThatThrownBy(() -> idempotencyService.execute(SCOPE, "key-1", REQUEST, ReservationDTO.class, () -> {
+            throw new IllegalStateException("failure");
+        })).isInstanceOf(IllegalStateException.class);
+
+        ReservationDTO retry = idempotencyService.execute(SCOPE, "key-1", REQUEST, ReservationDTO.class, this::create);
+
+        assertThat(retry.getId()).isEqualTo(1L);
+    }
+
+    @Test
+    public void testJdbcStoreIsUsedWhenEnabled() {
+        ApplicationProperties applicationProperties = new ApplicationProperties();
+        applicationProperties.getIdempotency().setJdbcEnabled(true);
+        idempotencyService = new IdempotencyService(idempotencyRecordRepository, new ObjectMapper(), applicationProperties);
+
+        idempotencyService.execute(SCOPE, "key-1", REQUEST, ReservationDTO.class, this::create);
+        idempotencyService.execute(SCOPE, "key-1", REQUEST, ReservationDTO.class, this::create);
+
+        verify(idempotencyRecordRepository).findById(any());
+        verify(idempotencyRecordRepository).save(argThat(record -> record.isNew() && record.getRequestHash() != null));
+        verify(idempotencyRecordRepository, never()).deleteByCreatedDateBefore(any());
+    }
+
+    @Test
+    public void testKeyReusedForOtherRequestIsRejected() {
+        idempotencyService.execute(SCOPE, "key-1", REQUEST, ReservationDTO.class, this::create);
+
+        assertThatThrownBy(() -> idempotencyService.execute(SCOPE, "key-1", request(2L), ReservationDTO.class, this::create))
+            .isInstanceOf(IdempotencyKeyReusedException.class);
+        assertThat(sequence.get()).isEqualTo(1);
+    }
+
+    @Test
+    public void testStoredKeyReusedForOtherRequestIsRejected() {
+        ApplicationProperties applicationProperties = new ApplicationProperties();
+        applicationProperties.getIdempotency().setJdbcEnabled(true);
+        idempotencyService = new IdempotencyService(idempotencyRecordRepository, new ObjectMapper(), applicationProperties);
+        ArgumentCaptor<IdempotencyRecord> stored = ArgumentCaptor.forClass(IdempotencyRecord.class);
+        idempotencyService.execute(SCOPE, "key-1", REQUEST, ReservationDTO.class, this::create);
+        verify(idempotencyRecordRepository).save(stored.capture());
+        when(idempotencyRecordRepository.findById(stored.getValue().getId())).thenReturn(Optional.of(stored.getValue()));
+
+        // another node, which has not seen the key
+        IdempotencyService otherNode = new IdempotencyService(idempotencyRecordRepository, new ObjectMapper(), applicationProperties);
+
+        assertThat(otherNode.execute(SCOPE, "key-1", REQUEST, ReservationDTO.class, this::create).getId()).isEqualTo(1L);
+        assertThatThrownBy(() -> new IdempotencyService(idempotencyRecordRepository, new ObjectMapper(), applicationProperties)
+            .execute(SCOPE, "key-1", request(2L), ReservationDTO.class, this::create))
+            .isInstanceOf(IdempotencyKeyReusedException.class);
+        assertThat(sequence.get()).isEqualTo(1);
+    }
+
+    @Test
+    public void testUploadIsHashedWithoutLoadingItInMemory() throws Exception {
+        MockMultipartFile upload = spy(new MockMultipartFile("file", "place.png", "image/png", new byte[] { 1, 2, 3 }));
+        MockMultipartFile otherUpload = new MockMultipartFile("file", "place.png", "image/png", new byte[] { 1, 2, 4 });
+        idempotencyService.execute(SCOPE, "key-1", upload, ReservationDTO.class, this::create);
+
+        assertThat(idempotencyService.execute(SCOPE, "key-1", upload, ReservationDTO.class, this::create).getId()).isEqualTo(1L);
+        assertThatThrownBy(() -> idempotencyService.execute(SCOPE, "key-1", otherUpload, ReservationDTO.class, this::create))
+            .isInstanceOf(IdempotencyKeyReusedException.class);
+        verify(upload, never()).getBytes();
+    }
+
+    private static ReservationDTO request(Long placeId) {
+        ReservationDTO request = new ReservationDTO();
+        request.setPlaceId(placeId);
+        return request;
+    }
+
+    private ReservationDTO create() {
+        ReservationDTO reservation = new ReservationDTO();
+        reservation.setId(sequence.incrementAndGet());
+        return reservation;
+    }
+}
@@ -0,0 +1,120 @@
+package com.hesho.reservation.service;
+
+import com.hesho.reservation.config.ApplicationProperties;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Test class for the {@link ImageBodyCache}.
+ */
+public class ImageBodyCacheTest {
+
+    private static final String HASH = "84d89877f0d4041efb6bf91a16f0248f2fd573e6af05c19f96bedb9f882f7882";
+
+    @TempDir
+    Path directory;
+
+    private final AtomicInteger loads = new AtomicInteger();
+
+    private ApplicationProperties applicationProperties;
+
+    private MeterRegistry meterRegistry;
+
+    @BeforeEach
+    public void setup() {
+        applicationProperties = new ApplicationProperties();
+        applicationProperties.getImageCache().setMaxEntrySizeKb(1);
+        meterRegistry = new SimpleMeterRegistry();
+    }
+
+    @Test
+    public void testHitSkipsLoaderAndDisk() throws IOException {
+        ImageBodyCache imageBodyCache = new ImageBodyCache(applicationProperties, meterRegistry);
+        Path file = write("small.png", 10);
+
+        Optional<ImageFile> first = imageBodyCache.getForPlace(1L, loader(file));
+        Files.delete(file);
+        Optional<ImageFile> second = imageBodyCache.getForPlace(1L, loader(file));
+
+        assertThat(loads).hasValue(1);
+        assertThat(second).containsSame(first.get());
+        assertThat(second.get().getContent()).hasSize(10);
+        assertThat(meterRegistry.get("cache.gets").tag("cache", ImageBodyCache.CACHE_NAME).tag("result", "hit").functionCounter().count())
+            .isEqualTo(1);
+        assertThat(meterRegistry.get("cache.gets").tag("cache", ImageBodyCache.CACHE_NAME).tag("result", "miss").functionCounter().count())
+            .isEqualTo(1);
+    }
+
+    @Test
+    public void testLargeImageIsNotLoaded() throws IOException {
+        ImageBodyCache imageBodyCache = new ImageBodyCache(applicationProperties, meterRegistry);
+        Path file = write("large.png", 2048);
+
+        Optional<ImageFile> image = imageBodyCache.getForCategory(1L, loader(file));
+
+        assertThat(image).isPresent();
+        assertThat(image.get().getContent()).isNull();
+    }
+
+    @Test
+    public void testInvalidation() throws IOException {
+        ImageBodyCache imageBodyCache = new ImageBodyCache(applicationProperties, meterRegistry);
+        Path file = write("small.png", 10);
+
+        imageBodyCache.getForPlace(1L, loader(file));
+        imageBodyCache.getForCategory(1L, loader(file));
+        imageBodyCache.invalidatePlace(1L);
+        imageBodyCache.getForPlace(1L, loader(file));
+        imageBodyCache.getForCategory(1L, loader(file));
+
+        assertThat(loads).hasValue(3);
+    }
+
+    @Test
+    public void testMissingMainImageIsNotCached() {
+        ImageBodyCache imageBodyCache = new ImageBodyCache(applicationProperties, meterRegistry);
+        Supplier<Optional<ImageFile>> none = () -> {
+            loads.incrementAndGet();
+            return Optional.empty();
+        };
+
+        assertThat(imageBodyCache.getForPlace(1L, none)).isEmpty();
+        assertThat(imageBodyCache.getForPlace(1L, none)).isEmpty();
+        assertThat(loads).hasValue(2);
+    }
+
+    @Test
+    public void testBudgetEvicts() throws IOException {
+        applicationProperties.getImageCache().setMaxSizeMb(0);
+        ImageBodyCache imageBodyCache = new ImageBodyCache(applicationProperties, meterRegistry);
+        Path file = write("small.png", 10);
+
+        imageBodyCache.getForPlace(1L, loader(file));
+        imageBodyCache.getForPlace(1L, loader(file));
+
+        assertThat(loads).hasValue(2);
+    }
+
+    private Supplier<Optional<ImageFile>> loader(Path file) {
+        return () -> {
+            loads.incrementAndGet();
+            return Optional.of(new ImageFile(file, HASH));
+        };
+    }
+
+    private Path write(String fileName, int size) throws IOException {
+        return Files.write(directory.resolve(fileName), new byte[size]);
+    }
+}
@@ -0,0 +1,126 @@
+package com.hesho.reservation.service;
+
+import com.hesho.reservation.config.ApplicationProperties;
+import com.hesho.reservation.repository.ImageRepository;
+import com.hesho.reservation.service.storage.BlobStore;
+import com.hesho.reservation.service.storage.FileSystemBlobStore;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Test class for the {@link ImageFileCollector}.
+ */
+public class ImageFileCollectorTest {
+
+    @TempDir
+    Path directory;
+
+    private Path placeDirectory;
+
+    private ImageRepository imageRepository;
+
+    private SimpleMeterRegistry meterRegistry;
+
+    private ImageBlobLocks imageBlobLocks;
+
+    private ImageFileCollector imageFileCollector;
+
+    @BeforeEach
+    public void setup() throws IOException {
+        placeDirectory = directory.resolve("place");
+        Map<String, Path> directories = new HashMap<>();
+        directories.put(BlobStore.PLACE, placeDirectory);
+        directories.put(BlobStore.CATEGORY, directory.resolve("category"));
+        imageRepository = mock(ImageRepository.class);
+        when(imageRepository.findPlaceImageUrls(anyCollection())).thenReturn(Collections.singleton("referenced.png"));
+        when(imageRepository.findCategoryImageUrls(anyCollection())).thenReturn(Collections.emptySet());
+        meterRegistry = new SimpleMeterRegistry();
+        ApplicationProperties applicationProperties = new ApplicationProperties();
+        applicationProperties.getImageGc().setChunkSize(2);
+        applicationProperties.getImageGc().setMaxFilesPerSecond(10_000);
+        imageBlobLocks = new ImageBlobLocks();
+        imageFileCollector = new ImageFileCollector(imageRepository, new FileSystemBlobStore(directories), imageBlobLocks,
+            new ImageVariantService(applicationProperties, task -> { }), applicationProperties, meterRegistry);
+    }
+
+    @Test
+    public void testOrphanIsQuarantinedThenDeleted() throws IOException {
+        Path referenced = write("referenced.png", 10, Duration.ofDays(2));
+        Path orphan = write("orphan.png", 20, Duration.ofDays(2));
+        Path recent = write("recent.png", 30, Duration.ZERO);
+        Path staging = write("upload-1.tmp", 40, Duration.ofDays(2));
+
+        imageFileCollector.collect();
+
+        Path quarantined = placeDirectory.resolve(ImageFileCollector.QUARANTINE_DIRECTORY).resolve("orphan.png");
+        assertThat(referenced).exists();
+        assertThat(recent).exists();
+        assertThat(orphan).doesNotExist();
+        assertThat(quarantined).exists();
+        assertThat(staging).doesNotExist();
+        assertThat(reclaimedBytes()).isEqualTo(40);
+
+        // still in quarantine
+        imageFileCollector.collect();
+        assertThat(quarantined).exists();
+
+        Files.setLastModifiedTime(quarantined, FileTime.from(Instant.now().minus(Duration.ofDays(2))));
+        imageFileCollector.collect();
+        assertThat(quarantined).doesNotExist();
+        assertThat(reclaimedBytes()).isEqualTo(60);
+    }
+
+    @Test
+    public void testFileReferencedAgainIsRestored() throws IOException {
+        Path orphan = write("orphan.png", 20, Duration.ofDays(2));
+        imageFileCollector.collect();
+        assertThat(orphan).doesNotExist();
+
+        Path quarantined = placeDirectory.resolve(ImageFileCollector.QUARANTINE_DIRECTORY).resolve("orphan.png");
+        Files.setLastModifiedTime(quarantined, FileTime.from(Instant.now().minus(Duration.ofDays(2))));
+        when(imageRepository.countByImageUrlAndPlaceIsNotNull("orphan.png")).thenReturn(1L);
+        imageFileCollector.collect();
+
+        assertThat(orphan).exists();
+        assertThat(quarantined).doesNotExist();
+        assertThat(reclaimedBytes()).isZero();
+    }
+
+    @Test
+    public void testFileBeingUploadedIsKept() throws IOException {
+        Path uploading = write("uploading.png", 20, Duration.ofDays(2));
+        imageBlobLocks.beginUpload("uploading.png");
+
+        imageFileCollector.collect();
+
+        assertThat(uploading).exists();
+        assertThat(reclaimedBytes()).isZero();
+    }
+
+    private Path write(String fileName, int size, Duration age) throws IOException {
+        Path file = Files.write(placeDirectory.resolve(fileName), new byte[size]);
+        Files.setLastModifiedTime(file, FileTime.from(Instant.now().minus(age)));
+        return file;
+    }
+
+    private double reclaimedBytes() {
+        return meterRegistry.get(ImageFileCollector.RECLAIMED_METRIC).counter().count();
+    }
+}
@@ -0,0 +1,104 @@
+package com.hesho.reservation.service;
+
+import com.hesho.reservation.repository.ImageRepository;
+import com.hesho.reservation.repository.ImageRepository.ImageFileRow;
+import com.hesho.reservation.service.storage.BlobStore;
+import com.hesho.reservation.service.storage.FileSystemBlobStore;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.util.FileSystemUtils;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Benchmark of the path lookup of category images in the {@link ImageFileIndex} against the former probe of the
+ * place directory first; the probe also paid a database query per lookup, which is left out.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ImageFileIndexBenchmark {
+
+    private static final int FILES = 2_000;
+
+    private Path directory;
+
+    private Path placeDirectory;
+
+    private Path categoryDirectory;
+
+    private ImageFileIndex imageFileIndex;
+
+    private String[] imageUrls;
+
+    private int next;
+
+    @Setup
+    public void setup() throws IOException {
+        directory = Files.createTempDirectory("image-file-index");
+        placeDirectory = Files.createDirectory(directory.resolve("place"));
+        categoryDirectory = Files.createDirectory(directory.resolve("category"));
+        Map<String, Path> directories = new HashMap<>();
+        directories.put(BlobStore.PLACE, placeDirectory);
+        directories.put(BlobStore.CATEGORY, categoryDirectory);
+        List<ImageFileRow> rows = new ArrayList<>();
+        imageUrls = new String[FILES];
+        for (int i = 0; i < FILES; i++) {
+            imageUrls[i] = "image-" + i + ".png";
+            Files.write(categoryDirectory.resolve(imageUrls[i]), new byte[]{1});
+            rows.add(ImageFileIndexTest.row(imageUrls[i], "hash-" + i, null, (long) i));
+        }
+        ImageRepository imageRepository = mock(ImageRepository.class);
+        when(imageRepository.findAllFiles()).thenReturn(rows);
+        imageFileIndex = new ImageFileIndex(imageRepository, new FileSystemBlobStore(directories));
+        imageFileIndex.load();
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        FileSystemUtils.deleteRecursively(directory);
+    }
+
+    @Benchmark
+    public Path index() {
+        return imageFileIndex.get(nextImageUrl()).get().getPath();
+    }
+
+    @Benchmark
+    public Path directoryProbe() {
+        String imageUrl = nextImageUrl();
+        Path file = placeDirectory.resolve(imageUrl);
+        if (!Files.isReadable(file)) {
+            file = categoryDirectory.resolve(imageUrl);
+        }
+        return file;
+    }
+
+    private String nextImageUrl() {
+        String imageUrl = imageUrls[next];
+        next = (next + 1) % FILES;
+        return imageUrl;
+    }
+}
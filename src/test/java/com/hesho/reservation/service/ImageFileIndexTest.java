@@ -0,0 +1,99 @@
+package com.hesho.reservation.service;
+
+import com.hesho.reservation.repository.ImageRepository;
+import com.hesho.reservation.repository.ImageRepository.ImageFileRow;
+import com.hesho.reservation.service.storage.BlobStore;
+import com.hesho.reservation.service.storage.FileSystemBlobStore;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Test class for the {@link ImageFileIndex}.
+ */
+public class ImageFileIndexTest {
+
+    @TempDir
+    Path directory;
+
+    private Path placeDirectory;
+
+    private Path categoryDirectory;
+
+    private ImageRepository imageRepository;
+
+    private ImageFileIndex imageFileIndex;
+
+    @BeforeEach
+    public void setup() throws IOException {
+        placeDirectory = Files.createDirectory(directory.resolve("place"));
+        categoryDirectory = Files.createDirectory(directory.resolve("category"));
+        imageRepository = mock(ImageRepository.class);
+        Map<String, Path> directories = new HashMap<>();
+        directories.put(BlobStore.PLACE, placeDirectory);
+        directories.put(BlobStore.CATEGORY, categoryDirectory);
+        imageFileIndex = new ImageFileIndex(imageRepository, new FileSystemBlobStore(directories));
+    }
+
+    @Test
+    public void testLoadPicksDirectoryFromOwner() {
+        when(imageRepository.findAllFiles()).thenReturn(Arrays.asList(
+            row("place.png", "a", 1L, null),
+            row("category.png", "b", null, 1L),
+            row("shared.png", "c", null, 2L),
+            row("shared.png", "c", 2L, null),
+            row("orphan.png", "d", null, null)));
+
+        imageFileIndex.load();
+
+        assertThat(imageFileIndex.get("place.png").map(ImageFile::getPath)).contains(placeDirectory.resolve("place.png"));
+        assertThat(imageFileIndex.get("category.png").map(ImageFile::getPath)).contains(categoryDirectory.resolve("category.png"));
+        assertThat(imageFileIndex.get("shared.png").map(ImageFile::getPath)).contains(placeDirectory.resolve("shared.png"));
+        assertThat(imageFileIndex.get("category.png").map(ImageFile::getContentHash)).contains("b");
+        assertThat(imageFileIndex.get("orphan.png")).isEmpty();
+    }
+
+    @Test
+    public void testPutAndRemove() {
+        imageFileIndex.put("abc.png", new ImageFile(placeDirectory.resolve("abc.png"), "a"));
+        assertThat(imageFileIndex.get("abc.png")).isPresent();
+
+        imageFileIndex.remove("abc.png");
+        assertThat(imageFileIndex.get("abc.png")).isEmpty();
+    }
+
+    static ImageFileRow row(String imageUrl, String contentHash, Long placeId, Long categoryId) {
+        return new ImageFileRow() {
+            @Override
+            public String getImageUrl() {
+                return imageUrl;
+            }
+
+            @Override
+            public String getContentHash() {
+                return contentHash;
+            }
+
+            @Override
+            public Long getPlaceId() {
+                return placeId;
+            }
+
+            @Override
+            public Long getCategoryId() {
+                return categoryId;
+            }
+        };
+    }
+}
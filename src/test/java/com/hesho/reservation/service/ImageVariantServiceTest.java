@@ -0,0 +1,128 @@
+package com.hesho.reservation.service;
+
+import com.hesho.reservation.config.ApplicationProperties;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.core.task.SyncTaskExecutor;
+import org.springframework.core.task.TaskExecutor;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Test class for the {@link ImageVariantService}.
+ */
+public class ImageVariantServiceTest {
+
+    private static final String HASH = "84d89877f0d4041efb6bf91a16f0248f2fd573e6af05c19f96bedb9f882f7882";
+
+    @TempDir
+    Path directory;
+
+    private final List<Runnable> queued = new ArrayList<>();
+
+    private ApplicationProperties applicationProperties;
+
+    @BeforeEach
+    public void setup() {
+        applicationProperties = new ApplicationProperties();
+    }
+
+    @Test
+    public void testGenerateResizesToSmallerWidths() throws IOException {
+        Path original = write("abc.png", 1000, 500);
+
+        service(new SyncTaskExecutor()).generate(original);
+
+        assertThat(ImageIO.read(variant("abc-320.jpg").toFile()).getWidth()).isEqualTo(320);
+        assertThat(ImageIO.read(variant("abc-320.jpg").toFile()).getHeight()).isEqualTo(160);
+        assertThat(ImageIO.read(variant("abc-640.jpg").toFile()).getWidth()).isEqualTo(640);
+        assertThat(variant("abc-1280.jpg")).doesNotExist();
+    }
+
+    @Test
+    public void testFindVariantServesSmallestCopyAtLeastAsWide() throws IOException {
+        Path original = write("abc.png", 1000, 500);
+        ImageVariantService imageVariantService = service(new SyncTaskExecutor());
+        imageVariantService.generate(original);
+
+        Optional<ImageFile> variant = imageVariantService.findVariant(new ImageFile(original, HASH), 400, ImageVariantService.JPEG);
+
+        assertThat(variant).isPresent();
+        assertThat(variant.get().getPath()).isEqualTo(variant("abc-640.jpg"));
+        assertThat(variant.get().getContentHash()).isEqualTo(HASH + "-640-jpeg");
+    }
+
+    @Test
+    public void testFindVariantStartsMissingCopy() throws IOException {
+        Path original = write("abc.png", 1000, 500);
+        ImageVariantService imageVariantService = service(queued::add);
+
+        assertThat(imageVariantService.findVariant(new ImageFile(original, HASH), 300, ImageVariantService.JPEG)).isEmpty();
+        assertThat(imageVariantService.findVariant(new ImageFile(original, HASH), 300, ImageVariantService.JPEG)).isEmpty();
+        assertThat(queued).hasSize(1);
+
+        queued.get(0).run();
+
+        assertThat(imageVariantService.findVariant(new ImageFile(original, HASH), 300, ImageVariantService.JPEG).map(ImageFile::getPath))
+            .contains(variant("abc-320.jpg"));
+    }
+
+    @Test
+    public void testFindVariantServesOriginalWhenNotWider() throws IOException {
+        Path original = write("abc.png", 200, 100);
+        ImageFile file = new ImageFile(original, HASH);
+        ImageVariantService imageVariantService = service(queued::add);
+
+        assertThat(imageVariantService.findVariant(file, 100, ImageVariantService.JPEG)).contains(file);
+        assertThat(imageVariantService.findVariant(file, 5000, ImageVariantService.JPEG)).contains(file);
+        assertThat(queued).isEmpty();
+    }
+
+    @Test
+    public void testFindVariantServesUnreadableOriginal() throws IOException {
+        Path original = directory.resolve("abc.png");
+        Files.write(original, "not an image".getBytes(StandardCharsets.US_ASCII));
+        ImageFile file = new ImageFile(original, HASH);
+
+        assertThat(service(queued::add).findVariant(file, 100, ImageVariantService.WEBP)).contains(file);
+        assertThat(queued).isEmpty();
+    }
+
+    @Test
+    public void testNormalizeFormat() {
+        assertThat(ImageVariantService.normalizeFormat("JPG")).isEqualTo(ImageVariantService.JPEG);
+        assertThat(ImageVariantService.normalizeFormat("webp")).isEqualTo(ImageVariantService.WEBP);
+        assertThat(ImageVariantService.normalizeFormat("gif")).isNull();
+    }
+
+    private ImageVariantService service(TaskExecutor executor) {
+        return new ImageVariantService(applicationProperties, executor);
+    }
+
+    private Path write(String fileName, int width, int height) throws IOException {
+        BufferedImage image = new BufferedImage(width, height, BufferedImage.TYPE_INT_ARGB);
+        for (int x = 0; x < width; x++) {
+            for (int y = 0; y < height; y++) {
+                image.setRGB(x, y, 0xFF000000 | (x * 255 / width) << 16 | (y * 255 / height) << 8);
+            }
+        }
+        Path path = directory.resolve(fileName);
+        ImageIO.write(image, "png", path.toFile());
+        return path;
+    }
+
+    private Path variant(String fileName) {
+        return directory.resolve("variants").resolve(fileName);
+    }
+}
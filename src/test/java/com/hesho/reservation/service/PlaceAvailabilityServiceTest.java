@@ -0,0 +1,119 @@
+package com.hesho.reservation.service;
+
+import com.hesho.reservation.config.ApplicationProperties;
+import com.hesho.reservation.domain.Place;
+import com.hesho.reservation.domain.Reservation;
+import com.hesho.reservation.domain.enumeration.ReservationStatus;
+import com.hesho.reservation.repository.PlaceRepository;
+import com.hesho.reservation.repository.ReservationRepository;
+import com.hesho.reservation.service.dto.PlaceAvailabilityDTO;
+import com.hesho.reservation.service.dto.PlaceDTO;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.Collections;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Test class for the {@link PlaceAvailabilityService}.
+ */
+public class PlaceAvailabilityServiceTest {
+
+    private static final Long PLACE_ID = 10L;
+
+    private final LocalDate today = LocalDate.now(ZoneOffset.UTC);
+
+    private ReservationIntervalIndex index;
+
+    private PlaceAvailabilityService service;
+
+    @BeforeEach
+    public void setup() {
+        index = new ReservationIntervalIndex(mock(ReservationRepository.class));
+        PlaceRepository placeRepository = mock(PlaceRepository.class);
+        when(placeRepository.findAllIds()).thenReturn(Collections.singletonList(PLACE_ID));
+        service = new PlaceAvailabilityService(index, placeRepository, new ApplicationProperties());
+        service.load();
+    }
+
+    @Test
+    public void testBookedDaysAreReported() {
+        index.index(reservation(1L, 2, 4, ReservationStatus.APPROVED));
+
+        PlaceAvailabilityDTO availability = service.getAvailability(PLACE_ID, today, today.plusDays(5)).get();
+
+        assertThat(availability.getBookedDays()).containsExactly(today.plusDays(2), today.plusDays(3));
+        assertThat(availability.getFreeDays()).containsExactly(today, today.plusDays(1), today.plusDays(4), today.plusDays(5));
+    }
+
+    @Test
+    public void testBitmapFollowsReservationChanges() {
+        service.getAvailability(PLACE_ID, today, today.plusDays(5)).get();
+
+        index.index(reservation(1L, 1, 3, ReservationStatus.PENDING));
+        assertThat(service.getAvailability(PLACE_ID, today, today.plusDays(5)).get().getBookedDays())
+            .containsExactly(today.plusDays(1), today.plusDays(2));
+
+        index.index(reservation(1L, 1, 3, ReservationStatus.CANCELED));
+        assertThat(service.getAvailability(PLACE_ID, today, today.plusDays(5)).get().getBookedDays()).isEmpty();
+    }
+
+    @Test
+    public void testDayStaysBookedWhileAnotherReservationHoldsIt() {
+        index.index(reservation(1L, 1, 3, ReservationStatus.PENDING));
+        index.index(reservation(2L, 2, 4, ReservationStatus.PENDING));
+        service.getAvailability(PLACE_ID, today, today.plusDays(5)).get();
+
+        index.remove(1L);
+
+        assertThat(service.getAvailability(PLACE_ID, today, today.plusDays(5)).get().getBookedDays())
+            .containsExactly(today.plusDays(2), today.plusDays(3));
+    }
+
+    @Test
+    public void testDaysOutsideHorizonAreAnswered() {
+        LocalDate farDay = today.plusYears(3);
+        Reservation reservation = reservation(1L, 0, 1, ReservationStatus.PAID)
+            .startDate(farDay.atStartOfDay(ZoneOffset.UTC).toInstant())
+            .endDate(farDay.plusDays(1).atStartOfDay(ZoneOffset.UTC).toInstant());
+        index.index(reservation);
+
+        assertThat(service.getAvailability(PLACE_ID, farDay.minusDays(1), farDay.plusDays(1)).get().getBookedDays())
+            .containsExactly(farDay);
+    }
+
+    @Test
+    public void testUnknownPlaceIsNotFound() {
+        assertThat(service.getAvailability(PLACE_ID + 1, today, today.plusDays(5))).isEmpty();
+        assertThat(service.getAvailability(null, today, today.plusDays(5))).isEmpty();
+    }
+
+    @Test
+    public void testPlaceChangesUpdateKnownPlaces() {
+        PlaceDTO place = new PlaceDTO();
+        place.setId(PLACE_ID + 1);
+
+        service.onPlaceChanged(PlaceChangedEvent.saved(place));
+        assertThat(service.getAvailability(PLACE_ID + 1, today, today.plusDays(5))).isPresent();
+
+        service.onPlaceChanged(PlaceChangedEvent.deleted(PLACE_ID + 1));
+        assertThat(service.getAvailability(PLACE_ID + 1, today, today.plusDays(5))).isEmpty();
+    }
+
+    private Reservation reservation(Long id, int startDay, int endDay, ReservationStatus status) {
+        Place place = new Place();
+        place.setId(PLACE_ID);
+        Reservation reservation = new Reservation()
+            .status(status)
+            .startDate(today.plusDays(startDay).atStartOfDay(ZoneOffset.UTC).toInstant())
+            .endDate(today.plusDays(endDay).atStartOfDay(ZoneOffset.UTC).toInstant())
+            .place(place);
+        reservation.setId(id);
+        return reservation;
+    }
+}
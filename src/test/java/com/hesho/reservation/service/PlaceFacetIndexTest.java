@@ -0,0 +1,141 @@
+package com.hesho.reservation.service;
+
+import com.hesho.reservation.repository.PlaceRepository;
+import com.hesho.reservation.service.dto.CategoryDTO;
+import com.hesho.reservation.service.dto.PlaceCriteria;
+import com.hesho.reservation.service.dto.PlaceDTO;
+import com.hesho.reservation.service.dto.PlaceFacetsDTO;
+import io.github.jhipster.service.filter.DoubleFilter;
+import io.github.jhipster.service.filter.LongFilter;
+import io.github.jhipster.service.filter.StringFilter;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.tuple;
+import static org.mockito.Mockito.mock;
+
+/**
+ * Test class for the {@link PlaceFacetIndex}.
+ */
+public class PlaceFacetIndexTest {
+
+    private PlaceFacetIndex placeFacetIndex;
+
+    @BeforeEach
+    public void setup() {
+        placeFacetIndex = new PlaceFacetIndex(mock(PlaceRepository.class));
+        placeFacetIndex.put(place(1L, "Nile View", 80.0, 1L, "Apartment", "Cairo"));
+        placeFacetIndex.put(place(2L, "Zamalek Loft", 150.0, 1L, "Apartment", "Cairo"));
+        placeFacetIndex.put(place(3L, "Sea Breeze", 420.0, 2L, "Villa", "Alexandria"));
+        placeFacetIndex.put(place(4L, "Desert Camp", 40.0, 3L, "Camping", "Giza"));
+        placeFacetIndex.put(place(5L, "Corniche Flat", 120.0, 1L, "Apartment", "Alexandria"));
+        placeFacetIndex.put(place(6L, "Unpriced", null, null, null, null));
+    }
+
+    @Test
+    public void testFacetsWithoutFilter() {
+        PlaceFacetsDTO facets = placeFacetIndex.facets(null, 100);
+
+        assertThat(facets.getTotal()).isEqualTo(6);
+        assertThat(facets.getCategories()).extracting(PlaceFacetsDTO.CategoryCount::getCategoryId, PlaceFacetsDTO.CategoryCount::getCategoryName,
+            PlaceFacetsDTO.CategoryCount::getCount).containsExactly(tuple(1L, "Apartment", 3L), tuple(2L, "Villa", 1L), tuple(3L, "Camping", 1L));
+        assertThat(facets.getCities()).extracting(PlaceFacetsDTO.CityCount::getCity, PlaceFacetsDTO.CityCount::getCount)
+            .containsExactly(tuple("Alexandria", 2L), tuple("Cairo", 2L), tuple("Giza", 1L));
+        assertThat(facets.getPrices()).extracting(PlaceFacetsDTO.PriceBucket::getFrom, PlaceFacetsDTO.PriceBucket::getTo, PlaceFacetsDTO.PriceBucket::getCount)
+            .containsExactly(tuple(0.0, 100.0, 2L), tuple(100.0, 200.0, 2L), tuple(400.0, 500.0, 1L));
+    }
+
+    @Test
+    public void testFacetsIgnoreTheirOwnFilter() {
+        PlaceCriteria criteria = new PlaceCriteria();
+        LongFilter categoryId = new LongFilter();
+        categoryId.setEquals(1L);
+        criteria.setCategoryId(categoryId);
+        StringFilter city = new StringFilter();
+        city.setEquals("Cairo");
+        criteria.setCity(city);
+
+        PlaceFacetsDTO facets = placeFacetIndex.facets(criteria, 100);
+
+        assertThat(facets.getTotal()).isEqualTo(2);
+        // categories of the places in Cairo
+        assertThat(facets.getCategories()).extracting(PlaceFacetsDTO.CategoryCount::getCategoryId, PlaceFacetsDTO.CategoryCount::getCount)
+            .containsExactly(tuple(1L, 2L));
+        // cities of the apartments
+        assertThat(facets.getCities()).extracting(PlaceFacetsDTO.CityCount::getCity, PlaceFacetsDTO.CityCount::getCount)
+            .containsExactly(tuple("Cairo", 2L), tuple("Alexandria", 1L));
+        assertThat(facets.getPrices()).extracting(PlaceFacetsDTO.PriceBucket::getFrom, PlaceFacetsDTO.PriceBucket::getCount)
+            .containsExactly(tuple(0.0, 1L), tuple(100.0, 1L));
+    }
+
+    @Test
+    public void testFacetsWithPriceAndNameFilters() {
+        PlaceCriteria criteria = new PlaceCriteria();
+        DoubleFilter price = new DoubleFilter();
+        price.setLessThan(200.0);
+        criteria.setPrice(price);
+        StringFilter name = new StringFilter();
+        name.setDoesNotContain("camp");
+        criteria.setName(name);
+
+        PlaceFacetsDTO facets = placeFacetIndex.facets(criteria, 50);
+
+        assertThat(facets.getTotal()).isEqualTo(3);
+        assertThat(facets.getCategories()).extracting(PlaceFacetsDTO.CategoryCount::getCategoryId, PlaceFacetsDTO.CategoryCount::getCount)
+            .containsExactly(tuple(1L, 3L));
+        assertThat(facets.getPrices()).extracting(PlaceFacetsDTO.PriceBucket::getFrom, PlaceFacetsDTO.PriceBucket::getCount)
+            .containsExactly(tuple(50.0, 1L), tuple(100.0, 1L), tuple(150.0, 1L), tuple(400.0, 1L));
+    }
+
+    @Test
+    public void testSpecifiedFilterMatchesMissingValues() {
+        PlaceCriteria criteria = new PlaceCriteria();
+        LongFilter categoryId = new LongFilter();
+        categoryId.setSpecified(false);
+        criteria.setCategoryId(categoryId);
+
+        assertThat(placeFacetIndex.facets(criteria, 100).getTotal()).isEqualTo(1);
+    }
+
+    @Test
+    public void testFacetsFollowWrites() {
+        placeFacetIndex.put(place(4L, "Desert Camp", 40.0, 3L, "Camping", "Siwa"));
+        placeFacetIndex.remove(1L);
+        CategoryDTO category = new CategoryDTO();
+        category.setId(1L);
+        category.setName("Flat");
+        placeFacetIndex.onCategoryChanged(CategoryChangedEvent.saved(category));
+
+        PlaceFacetsDTO facets = placeFacetIndex.facets(null, 100);
+
+        assertThat(facets.getTotal()).isEqualTo(5);
+        assertThat(facets.getCategories()).extracting(PlaceFacetsDTO.CategoryCount::getCategoryName, PlaceFacetsDTO.CategoryCount::getCount)
+            .containsExactly(tuple("Flat", 2L), tuple("Villa", 1L), tuple("Camping", 1L));
+        assertThat(facets.getCities()).extracting(PlaceFacetsDTO.CityCount::getCity, PlaceFacetsDTO.CityCount::getCount)
+            .containsExactly(tuple("Alexandria", 2L), tuple("Cairo", 1L), tuple("Siwa", 1L));
+    }
+
+    @Test
+    public void testFacetsRejectUnsupportedFilters() {
+        PlaceCriteria criteria = new PlaceCriteria();
+        LongFilter imagesId = new LongFilter();
+        imagesId.setEquals(1L);
+        criteria.setImagesId(imagesId);
+
+        assertThat(PlaceFacetIndex.supports(criteria)).isFalse();
+        assertThatThrownBy(() -> placeFacetIndex.facets(criteria, 100)).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private static PlaceDTO place(Long id, String name, Double price, Long categoryId, String categoryName, String city) {
+        PlaceDTO place = new PlaceDTO();
+        place.setId(id);
+        place.setName(name);
+        place.setPrice(price);
+        place.setCategoryId(categoryId);
+        place.setCategoryName(categoryName);
+        place.setCity(city);
+        return place;
+    }
+}
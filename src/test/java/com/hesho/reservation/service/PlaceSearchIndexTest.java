@@ -0,0 +1,132 @@
+package com.hesho.reservation.service;
+
+import com.hesho.reservation.repository.PlaceRepository;
+import com.hesho.reservation.service.dto.CategoryDTO;
+import com.hesho.reservation.service.dto.PlaceDTO;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+
+/**
+ * Test class for the {@link PlaceSearchIndex}.
+ */
+public class PlaceSearchIndexTest {
+
+    private PlaceSearchIndex placeSearchIndex;
+
+    @BeforeEach
+    public void setup() {
+        placeSearchIndex = new PlaceSearchIndex(mock(PlaceRepository.class));
+        placeSearchIndex.put(place(1L, "Nile View Apartment", "Cozy flat with a terrace", 1L, "Apartment", "Cairo"));
+        placeSearchIndex.put(place(2L, "Desert Camp", "Tents under the stars, near the pyramids of Giza", 2L, "Camping", "Giza"));
+        placeSearchIndex.put(place(3L, "Sea Breeze Villa", "Villa with a pool, minutes from Cairo airport", 3L, "Villa", "Alexandria"));
+        placeSearchIndex.put(place(4L, "Café Zamalek", "Rooms above the café", 1L, "Apartment", "Cairo"));
+    }
+
+    @Test
+    public void testTokenize() {
+        assertThat(PlaceSearchIndex.tokenize("Café-Zamalek, 2 ROOMS")).containsExactly("cafe", "zamalek", "2", "rooms");
+        assertThat(PlaceSearchIndex.tokenize(null)).isEmpty();
+    }
+
+    @Test
+    public void testEditDistance() {
+        assertThat(PlaceSearchIndex.editDistance("villa", "villa")).isZero();
+        assertThat(PlaceSearchIndex.editDistance("vilal", "villa")).isEqualTo(1);
+        assertThat(PlaceSearchIndex.editDistance("vila", "villa")).isEqualTo(1);
+        assertThat(PlaceSearchIndex.editDistance("vella", "villa")).isEqualTo(1);
+        assertThat(PlaceSearchIndex.editDistance("vel", "villa")).isEqualTo(3);
+    }
+
+    @Test
+    public void testSearchRanksCityAboveDescription() {
+        // the same city in both, the shorter place first
+        assertThat(placeSearchIndex.search("cairo")).extracting(PlaceSearchIndex.Hit::getPlaceId).containsExactly(4L, 1L, 3L);
+    }
+
+    @Test
+    public void testSearchRanksShorterTextsFirst() {
+        placeSearchIndex.put(place(5L, "Loft", "Garden view, with two rooms, a kitchen, a library and a large terrace", null, null, null));
+        placeSearchIndex.put(place(6L, "House", "Garden", null, null, null));
+
+        assertThat(placeSearchIndex.search("garden")).extracting(PlaceSearchIndex.Hit::getPlaceId).containsExactly(6L, 5L);
+    }
+
+    @Test
+    public void testSearchRanksPlacesMatchingEveryTermFirst() {
+        assertThat(placeSearchIndex.search("apartment cairo terrace")).extracting(PlaceSearchIndex.Hit::getPlaceId).startsWith(1L, 4L);
+    }
+
+    @Test
+    public void testSearchMatchesPrefixes() {
+        assertThat(placeSearchIndex.search("pyr")).extracting(PlaceSearchIndex.Hit::getPlaceId).containsExactly(2L);
+        assertThat(placeSearchIndex.search("apart")).extracting(PlaceSearchIndex.Hit::getPlaceId).containsExactly(1L, 4L);
+    }
+
+    @Test
+    public void testSearchToleratesOneTypo() {
+        assertThat(placeSearchIndex.search("vilal")).extracting(PlaceSearchIndex.Hit::getPlaceId).containsExactly(3L);
+        assertThat(placeSearchIndex.search("alexandira")).extracting(PlaceSearchIndex.Hit::getPlaceId).containsExactly(3L);
+        assertThat(placeSearchIndex.search("cmaping")).extracting(PlaceSearchIndex.Hit::getPlaceId).containsExactly(2L);
+        assertThat(placeSearchIndex.search("vxxxa")).isEmpty();
+    }
+
+    @Test
+    public void testSearchIgnoresAccentsAndCase() {
+        assertThat(placeSearchIndex.search("CAFE")).extracting(PlaceSearchIndex.Hit::getPlaceId).containsExactly(4L);
+    }
+
+    @Test
+    public void testExactMatchRanksAbovePrefixAndTypo() {
+        placeSearchIndex.put(place(5L, "Sea Villas", null, null, null, null));
+
+        assertThat(placeSearchIndex.search("villa")).extracting(PlaceSearchIndex.Hit::getPlaceId).containsExactly(3L, 5L);
+    }
+
+    @Test
+    public void testPutReplacesAndRemoveDeletesPlaces() {
+        placeSearchIndex.put(place(2L, "Oasis Lodge", null, 2L, "Camping", "Siwa"));
+
+        assertThat(placeSearchIndex.search("desert")).isEmpty();
+        assertThat(placeSearchIndex.search("oasis")).extracting(PlaceSearchIndex.Hit::getPlaceId).containsExactly(2L);
+
+        placeSearchIndex.remove(2L);
+        assertThat(placeSearchIndex.search("oasis")).isEmpty();
+        assertThat(placeSearchIndex.search("camping")).isEmpty();
+    }
+
+    @Test
+    public void testCategoryRenameReindexesItsPlaces() {
+        CategoryDTO category = new CategoryDTO();
+        category.setId(1L);
+        category.setName("Studio");
+        double averageLength = placeSearchIndex.averageLength();
+
+        placeSearchIndex.onCategoryChanged(CategoryChangedEvent.saved(category));
+
+        // one term for another
+        assertThat(placeSearchIndex.averageLength()).isEqualTo(averageLength);
+
+        assertThat(placeSearchIndex.search("studio")).extracting(PlaceSearchIndex.Hit::getPlaceId).containsExactly(4L, 1L);
+        assertThat(placeSearchIndex.search("apartment")).extracting(PlaceSearchIndex.Hit::getPlaceId).containsExactly(1L);
+    }
+
+    @Test
+    public void testEmptyQueryFindsNothing() {
+        assertThat(placeSearchIndex.search(" ,; ")).isEmpty();
+        assertThat(placeSearchIndex.search(null)).isEmpty();
+    }
+
+    private static PlaceDTO place(Long id, String name, String description, Long categoryId, String categoryName, String city) {
+        PlaceDTO place = new PlaceDTO();
+        place.setId(id);
+        place.setName(name);
+        place.setDescription(description);
+        place.setCategoryId(categoryId);
+        place.setCategoryName(categoryName);
+        place.setCity(city);
+        return place;
+    }
+}
@@ -0,0 +1,100 @@
+package com.hesho.reservation.service;
+
+import com.hesho.reservation.repository.PlaceRepository;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import static org.mockito.Mockito.mock;
+
+/**
+ * Benchmark of the nearby search of the {@link PlaceSpatialIndex} against a haversine scan of every place.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PlaceSpatialIndexBenchmark {
+
+    private static final int QUERIES = 200;
+
+    @Param({"10000", "100000"})
+    private int places;
+
+    private PlaceSpatialIndex placeSpatialIndex;
+
+    private double[] latitudes;
+
+    private double[] longitudes;
+
+    private double[][] queries;
+
+    private int next;
+
+    @Setup
+    public void setup() {
+        Random random = new Random(42);
+        placeSpatialIndex = new PlaceSpatialIndex(mock(PlaceRepository.class));
+        latitudes = new double[places];
+        longitudes = new double[places];
+        for (int i = 0; i < places; i++) {
+            latitudes[i] = random.nextDouble() * 180 - 90;
+            longitudes[i] = random.nextDouble() * 360 - 180;
+            placeSpatialIndex.put((long) i, null, latitudes[i], longitudes[i]);
+        }
+        queries = new double[QUERIES][];
+        for (int i = 0; i < QUERIES; i++) {
+            queries[i] = new double[]{random.nextDouble() * 180 - 90, random.nextDouble() * 360 - 180, 50 + random.nextDouble() * 450};
+        }
+    }
+
+    @Benchmark
+    public List<PlaceSpatialIndex.Hit> spatialIndex() {
+        double[] query = nextQuery();
+        return placeSpatialIndex.findWithin(query[0], query[1], query[2], null);
+    }
+
+    @Benchmark
+    public List<Long> haversineScan() {
+        double[] query = nextQuery();
+        return scan(latitudes, longitudes, query[0], query[1], query[2]);
+    }
+
+    private double[] nextQuery() {
+        double[] query = queries[next];
+        next = (next + 1) % QUERIES;
+        return query;
+    }
+
+    /**
+     * The ids of the places within the radius, nearest first, found by computing the distance to every place.
+     */
+    static List<Long> scan(double[] latitudes, double[] longitudes, double latitude, double longitude, double radiusKm) {
+        List<double[]> hits = new ArrayList<>();
+        for (int i = 0; i < latitudes.length; i++) {
+            double distance = PlaceSpatialIndex.distanceKm(latitude, longitude, latitudes[i], longitudes[i]);
+            if (distance <= radiusKm) {
+                hits.add(new double[]{distance, i});
+            }
+        }
+        hits.sort(Comparator.<double[]>comparingDouble(hit -> hit[0]).thenComparingDouble(hit -> hit[1]));
+        return hits.stream().map(hit -> (long) hit[1]).collect(Collectors.toList());
+    }
+}
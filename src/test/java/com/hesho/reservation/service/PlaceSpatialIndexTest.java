@@ -0,0 +1,92 @@
+package com.hesho.reservation.service;
+
+import com.hesho.reservation.repository.PlaceRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Random;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+
+/**
+ * Test class for the {@link PlaceSpatialIndex}.
+ */
+public class PlaceSpatialIndexTest {
+
+    private static final int SCAN_PLACES = 10_000;
+
+    private static final int SCAN_QUERIES = 50;
+
+    private PlaceSpatialIndex placeSpatialIndex;
+
+    @BeforeEach
+    public void setup() {
+        placeSpatialIndex = new PlaceSpatialIndex(mock(PlaceRepository.class));
+    }
+
+    @Test
+    public void testDistanceKm() {
+        // Paris to London
+        assertThat(PlaceSpatialIndex.distanceKm(48.8566, 2.3522, 51.5074, -0.1278)).isBetween(343.0, 345.0);
+        assertThat(PlaceSpatialIndex.distanceKm(10, 20, 10, 20)).isZero();
+    }
+
+    @Test
+    public void testFindWithinSortsByDistance() {
+        placeSpatialIndex.put(1L, 1L, 30.05, 31.25);
+        placeSpatialIndex.put(2L, 1L, 30.01, 31.21);
+        placeSpatialIndex.put(3L, 2L, 30.02, 31.22);
+        placeSpatialIndex.put(4L, 1L, 31.20, 29.90);
+
+        List<PlaceSpatialIndex.Hit> hits = placeSpatialIndex.findWithin(30.0, 31.2, 10, null);
+
+        assertThat(hits).extracting(PlaceSpatialIndex.Hit::getPlaceId).containsExactly(2L, 3L, 1L);
+        assertThat(placeSpatialIndex.findWithin(30.0, 31.2, 10, 1L)).extracting(PlaceSpatialIndex.Hit::getPlaceId).containsExactly(2L, 1L);
+    }
+
+    @Test
+    public void testPutMovesAndRemovesPlaces() {
+        placeSpatialIndex.put(1L, null, 30.0, 31.0);
+        placeSpatialIndex.put(1L, null, 40.0, 31.0);
+
+        assertThat(placeSpatialIndex.findWithin(30.0, 31.0, 50, null)).isEmpty();
+        assertThat(placeSpatialIndex.findWithin(40.0, 31.0, 50, null)).hasSize(1);
+
+        placeSpatialIndex.put(1L, null, null, 31.0);
+        assertThat(placeSpatialIndex.findWithin(40.0, 31.0, 50, null)).isEmpty();
+    }
+
+    @Test
+    public void testFindWithinAcrossAntimeridianAndPole() {
+        placeSpatialIndex.put(1L, null, 0.0, 179.95);
+        placeSpatialIndex.put(2L, null, 89.9, 10.0);
+
+        assertThat(placeSpatialIndex.findWithin(0.0, -179.95, 20, null)).extracting(PlaceSpatialIndex.Hit::getPlaceId).containsExactly(1L);
+        assertThat(placeSpatialIndex.findWithin(89.9, -170.0, 50, null)).extracting(PlaceSpatialIndex.Hit::getPlaceId).containsExactly(2L);
+    }
+
+    @Test
+    public void testFindWithinMatchesHaversineScan() {
+        Random random = new Random(42);
+        double[] latitudes = new double[SCAN_PLACES];
+        double[] longitudes = new double[SCAN_PLACES];
+        for (int i = 0; i < SCAN_PLACES; i++) {
+            latitudes[i] = random.nextDouble() * 180 - 90;
+            longitudes[i] = random.nextDouble() * 360 - 180;
+            placeSpatialIndex.put((long) i, null, latitudes[i], longitudes[i]);
+        }
+
+        for (int i = 0; i < SCAN_QUERIES; i++) {
+            double latitude = random.nextDouble() * 180 - 90;
+            double longitude = random.nextDouble() * 360 - 180;
+            double radiusKm = 50 + random.nextDouble() * 450;
+            List<Long> indexed = placeSpatialIndex.findWithin(latitude, longitude, radiusKm, null).stream()
+                .map(PlaceSpatialIndex.Hit::getPlaceId).collect(Collectors.toList());
+
+            assertThat(indexed).isEqualTo(PlaceSpatialIndexBenchmark.scan(latitudes, longitudes, latitude, longitude, radiusKm));
+        }
+    }
+}
@@ -0,0 +1,63 @@
+package com.hesho.reservation.service;
+
+import com.hesho.reservation.config.ApplicationProperties;
+import com.hesho.reservation.repository.ReservationRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.util.Arrays;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+
+/**
+ * Test class for the {@link ReservationHoldQueue}.
+ */
+public class ReservationHoldQueueTest {
+
+    private ReservationHoldQueue holdQueue;
+
+    @BeforeEach
+    public void setup() {
+        holdQueue = new ReservationHoldQueue(mock(ReservationRepository.class), new ApplicationProperties());
+    }
+
+    @Test
+    public void testOnlyDueHoldsArePolledInExpiryOrder() {
+        Instant now = Instant.now();
+        holdQueue.add(1L, now.minusSeconds(10));
+        holdQueue.add(2L, now.plusSeconds(3600));
+        holdQueue.add(3L, now.minusSeconds(20));
+
+        assertThat(holdQueue.pollExpired(10)).containsExactly(3L, 1L);
+        assertThat(holdQueue.pollExpired(10)).isEmpty();
+    }
+
+    @Test
+    public void testPollIsBounded() {
+        Instant past = Instant.now().minusSeconds(1);
+        for (long id = 1; id <= 5; id++) {
+            holdQueue.add(id, past);
+        }
+
+        assertThat(holdQueue.pollExpired(2)).hasSize(2);
+        assertThat(holdQueue.pollExpired(10)).hasSize(3);
+    }
+
+    @Test
+    public void testRetriedHoldsAreDueImmediately() {
+        holdQueue.retry(Arrays.asList(7L, 8L));
+
+        assertThat(holdQueue.pollExpired(10)).containsExactlyInAnyOrder(7L, 8L);
+    }
+
+    @Test
+    public void testNewExpiryUsesTimeToLive() {
+        Instant before = Instant.now();
+
+        Instant expiry = holdQueue.newExpiry();
+
+        assertThat(expiry).isBetween(before.plusSeconds(900), Instant.now().plusSeconds(900));
+    }
+}
@@ -0,0 +1,146 @@
+package com.hesho.reservation.service;
+
+import com.hesho.reservation.domain.Place;
+import com.hesho.reservation.domain.Reservation;
+import com.hesho.reservation.domain.enumeration.ReservationStatus;
+import com.hesho.reservation.repository.ReservationRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+
+/**
+ * Test class for the {@link ReservationIntervalIndex}.
+ */
+public class ReservationIntervalIndexTest {
+
+    private static final Instant DAY_0 = Instant.parse("2021-03-01T00:00:00Z");
+
+    private ReservationIntervalIndex index;
+
+    @BeforeEach
+    public void setup() {
+        index = new ReservationIntervalIndex(mock(ReservationRepository.class));
+    }
+
+    @Test
+    public void testOverlappingIntervalConflicts() {
+        index.index(reservation(1L, 10L, 2, 5, ReservationStatus.PENDING));
+
+        assertThat(index.hasConflict(10L, day(4), day(6), null)).isTrue();
+        assertThat(index.hasConflict(10L, day(0), day(3), null)).isTrue();
+        assertThat(index.hasConflict(10L, day(3), day(4), null)).isTrue();
+        assertThat(index.hasConflict(10L, day(1), day(7), null)).isTrue();
+    }
+
+    @Test
+    public void testAdjacentIntervalsDoNotConflict() {
+        index.index(reservation(1L, 10L, 2, 5, ReservationStatus.PENDING));
+
+        assertThat(index.hasConflict(10L, day(5), day(6), null)).isFalse();
+        assertThat(index.hasConflict(10L, day(0), day(2), null)).isFalse();
+    }
+
+    @Test
+    public void testOtherPlacesDoNotConflict() {
+        index.index(reservation(1L, 10L, 2, 5, ReservationStatus.PENDING));
+
+        assertThat(index.hasConflict(11L, day(2), day(5), null)).isFalse();
+    }
+
+    @Test
+    public void testLongIntervalHiddenBehindShortOnesConflicts() {
+        index.index(reservation(1L, 10L, 0, 30, ReservationStatus.APPROVED));
+        index.index(reservation(2L, 10L, 5, 6, ReservationStatus.APPROVED));
+        index.index(reservation(3L, 10L, 8, 9, ReservationStatus.APPROVED));
+
+        assertThat(index.hasConflict(10L, day(20), day(21), null)).isTrue();
+        assertThat(index.hasConflict(10L, day(30), day(31), null)).isFalse();
+    }
+
+    @Test
+    public void testExcludedReservationDoesNotConflictWithItself() {
+        index.index(reservation(1L, 10L, 2, 5, ReservationStatus.PENDING));
+
+        assertThat(index.hasConflict(10L, day(3), day(6), 1L)).isFalse();
+    }
+
+    @Test
+    public void testExcludedLongReservationDoesNotHideOthers() {
+        index.index(reservation(1L, 10L, 0, 30, ReservationStatus.APPROVED));
+        for (long id = 2; id < 20; id++) {
+            index.index(reservation(id, 10L, (int) id, (int) id + 1, ReservationStatus.APPROVED));
+        }
+
+        assertThat(index.hasConflict(10L, day(20), day(25), 1L)).isFalse();
+        assertThat(index.hasConflict(10L, day(19), day(25), 1L)).isTrue();
+    }
+
+    @Test
+    public void testConflictsMatchScanOfEveryReservation() {
+        Random random = new Random(42);
+        Map<Long, int[]> booked = new HashMap<>();
+        for (int i = 0; i < 5_000; i++) {
+            long id = random.nextInt(200);
+            if (booked.containsKey(id) && random.nextBoolean()) {
+                index.remove(id);
+                booked.remove(id);
+            } else {
+                int start = random.nextInt(365);
+                int end = start + 1 + random.nextInt(random.nextInt(10) == 0 ? 90 : 7);
+                index.index(reservation(id, 10L, start, end, ReservationStatus.APPROVED));
+                booked.put(id, new int[]{start, end});
+            }
+            int start = random.nextInt(365);
+            int end = start + 1 + random.nextInt(14);
+            Long excluded = random.nextBoolean() ? null : (long) random.nextInt(200);
+            boolean expected = booked.entrySet().stream().anyMatch(entry -> !entry.getKey().equals(excluded)
+                && entry.getValue()[0] < end && entry.getValue()[1] > start);
+
+            assertThat(index.hasConflict(10L, day(start), day(end), excluded)).isEqualTo(expected);
+        }
+    }
+
+    @Test
+    public void testCanceledAndRemovedReservationsFreeThePlace() {
+        index.index(reservation(1L, 10L, 2, 5, ReservationStatus.PENDING));
+        index.index(reservation(2L, 10L, 6, 8, ReservationStatus.PENDING));
+
+        index.index(reservation(1L, 10L, 2, 5, ReservationStatus.CANCELED));
+        index.remove(2L);
+
+        assertThat(index.hasConflict(10L, day(0), day(10), null)).isFalse();
+    }
+
+    @Test
+    public void testUpdatedReservationMovesItsInterval() {
+        index.index(reservation(1L, 10L, 2, 5, ReservationStatus.PENDING));
+        index.index(reservation(1L, 11L, 7, 9, ReservationStatus.PENDING));
+
+        assertThat(index.hasConflict(10L, day(2), day(5), null)).isFalse();
+        assertThat(index.hasConflict(11L, day(8), day(10), null)).isTrue();
+    }
+
+    private static Instant day(int day) {
+        return DAY_0.plus(day, ChronoUnit.DAYS);
+    }
+
+    private static Reservation reservation(Long id, Long placeId, int startDay, int endDay, ReservationStatus status) {
+        Place place = new Place();
+        place.setId(placeId);
+        Reservation reservation = new Reservation()
+            .status(status)
+            .startDate(day(startDay))
+            .endDate(day(endDay))
+            .place(place);
+        reservation.setId(id);
+        return reservation;
+    }
+}
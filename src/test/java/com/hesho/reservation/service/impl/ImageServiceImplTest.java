@@ -0,0 +1,204 @@
+package com.hesho.reservation.service.impl;
+
+import com.hesho.reservation.config.ApplicationProperties;
+import com.hesho.reservation.domain.Image;
+import com.hesho.reservation.domain.Place;
+import com.hesho.reservation.repository.CategoryRepository;
+import com.hesho.reservation.repository.ImageRepository;
+import com.hesho.reservation.repository.PlaceRepository;
+import com.hesho.reservation.service.ImageBlobLocks;
+import com.hesho.reservation.service.ImageFile;
+import com.hesho.reservation.service.ImageBodyCache;
+import com.hesho.reservation.service.ImageFileIndex;
+import com.hesho.reservation.service.ImageVariantService;
+import com.hesho.reservation.service.dto.ImageDTO;
+import com.hesho.reservation.service.dto.ImageUploadResultDTO;
+import com.hesho.reservation.service.dto.ImageUploadResultDTO.Outcome;
+import com.hesho.reservation.service.mapper.ImageMapper;
+import com.hesho.reservation.service.storage.BlobStore;
+import com.hesho.reservation.service.storage.FileSystemBlobStore;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.core.task.SyncTaskExecutor;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyIterable;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Test class for the content addressed storage of {@link ImageServiceImpl}.
+ */
+public class ImageServiceImplTest {
+
+    private static final String HASH = "84d89877f0d4041efb6bf91a16f0248f2fd573e6af05c19f96bedb9f882f7882";
+
+    @TempDir
+    Path directory;
+
+    private final List<Image> stored = new ArrayList<>();
+
+    private final AtomicInteger saveAllCalls = new AtomicInteger();
+
+    private Path placeDirectory;
+
+    private ImageRepository imageRepository;
+
+    private ImageBlobLocks imageBlobLocks;
+
+    private ImageServiceImpl imageService;
+
+    @BeforeEach
+    public void setup() throws IOException {
+        placeDirectory = Files.createDirectory(directory.resolve("place"));
+        Path categoryDirectory = Files.createDirectory(directory.resolve("category"));
+
+        imageRepository = mock(ImageRepository.class);
+        when(imageRepository.save(any(Image.class))).thenAnswer(invocation -> {
+            Image image = invocation.getArgument(0);
+            image.setId((long) stored.size() + 1);
+            stored.add(image);
+            return image;
+        });
+        when(imageRepository.findById(anyLong())).thenAnswer(invocation ->
+            stored.stream().filter(image -> image.getId().equals(invocation.getArgument(0))).findFirst());
+        when(imageRepository.countByImageUrlAndPlaceIsNotNull(anyString())).thenAnswer(invocation ->
+            stored.stream().filter(image -> image.getImageUrl().equals(invocation.getArgument(0))).count());
+        when(imageRepository.saveAll(anyIterable())).thenAnswer(invocation -> {
+            saveAllCalls.incrementAndGet();
+            List<Image> saved = new ArrayList<>();
+            for (Image image : (Iterable<Image>) invocation.getArgument(0)) {
+                saved.add(imageRepository.save(image));
+            }
+            return saved;
+        });
+        doAnswer(invocation -> stored.removeIf(image -> image.getId().equals(invocation.getArgument(0))))
+            .when(imageRepository).deleteById(anyLong());
+
+        PlaceRepository placeRepository = mock(PlaceRepository.class);
+        when(placeRepository.findById(anyLong())).thenAnswer(invocation -> {
+            Place place = new Place();
+            place.setId(invocation.getArgument(0));
+            return Optional.of(place);
+        });
+
+        ImageMapper imageMapper = mock(ImageMapper.class);
+        when(imageMapper.toDto(any(Image.class))).thenAnswer(invocation -> {
+            Image image = invocation.getArgument(0);
+            ImageDTO imageDTO = new ImageDTO();
+            imageDTO.setId(image.getId());
+            imageDTO.setImageUrl(image.getImageUrl());
+            imageDTO.setContentHash(image.getContentHash());
+            return imageDTO;
+        });
+
+        Map<String, Path> directories = new HashMap<>();
+        directories.put(BlobStore.PLACE, placeDirectory);
+        directories.put(BlobStore.CATEGORY, categoryDirectory);
+        BlobStore blobStore = new FileSystemBlobStore(directories);
+        ImageVariantService imageVariantService = new ImageVariantService(new ApplicationProperties(), task -> { });
+        imageBlobLocks = new ImageBlobLocks();
+        imageService = new ImageServiceImpl(imageRepository, imageMapper, placeRepository, mock(CategoryRepository.class),
+            imageVariantService, imageBlobLocks, new ImageBodyCache(new ApplicationProperties(), new SimpleMeterRegistry()),
+            new ImageFileIndex(imageRepository, blobStore), new SyncTaskExecutor(), blobStore, new ApplicationProperties(),
+            mock(PlatformTransactionManager.class));
+    }
+
+    @Test
+    public void testSameContentIsStoredOnce() throws IOException {
+        ImageDTO first = imageService.saveImagesForPlace(upload("first.PNG"), 1L);
+        ImageDTO second = imageService.saveImagesForPlace(upload("second.png"), 2L);
+
+        assertThat(first.getImageUrl()).isEqualTo(HASH + ".png");
+        assertThat(first.getContentHash()).isEqualTo(HASH);
+        assertThat(second.getImageUrl()).isEqualTo(first.getImageUrl());
+        assertThat(files()).containsExactly(HASH + ".png");
+    }
+
+    @Test
+    public void testFileIsDeletedWithItsLastReference() throws IOException {
+        ImageDTO first = imageService.saveImagesForPlace(upload("first.png"), 1L);
+        ImageDTO second = imageService.saveImagesForPlace(upload("second.png"), 2L);
+
+        imageService.delete(first.getId());
+        assertThat(files()).containsExactly(HASH + ".png");
+
+        imageService.delete(second.getId());
+        assertThat(files()).isEmpty();
+    }
+
+    @Test
+    public void testFileBeingUploadedIsKept() throws IOException {
+        ImageDTO image = imageService.saveImagesForPlace(upload("first.png"), 1L);
+
+        imageBlobLocks.beginUpload(HASH + ".png");
+        imageService.delete(image.getId());
+        assertThat(files()).containsExactly(HASH + ".png");
+        imageBlobLocks.endUpload(HASH + ".png");
+        assertThat(imageBlobLocks.isUploading(HASH + ".png")).isFalse();
+    }
+
+    @Test
+    public void testUploadedFileIsServedFromIndex() {
+        ImageDTO image = imageService.saveImagesForPlace(upload("first.png"), 1L);
+
+        assertThat(imageService.findOneByImageUrl(image.getImageUrl()).map(ImageFile::getPath))
+            .contains(placeDirectory.resolve(HASH + ".png"));
+        verify(imageRepository, never()).findFirstByImageUrl(anyString());
+
+        imageService.delete(image.getId());
+        assertThat(imageService.findOneByImageUrl(image.getImageUrl())).isEmpty();
+    }
+
+    @Test
+    public void testGalleryReportsEveryFile() throws IOException {
+        List<ImageUploadResultDTO> results = imageService.saveImagesForPlace(Arrays.asList(
+            upload("first.png"),
+            new MockMultipartFile("data", "empty.png", "image/png", new byte[0]),
+            upload("second.png"),
+            upload("third.p$g"),
+            new MockMultipartFile("data", "other.png", "image/png", "9876543210".getBytes(StandardCharsets.US_ASCII))), 1L);
+
+        assertThat(results).extracting(ImageUploadResultDTO::getOutcome)
+            .containsExactly(Outcome.CREATED, Outcome.INVALID, Outcome.CREATED, Outcome.INVALID, Outcome.CREATED);
+        assertThat(results).extracting(ImageUploadResultDTO::getIndex).containsExactly(0, 1, 2, 3, 4);
+        assertThat(results.get(2).getImage().getImageUrl()).isEqualTo(results.get(0).getImage().getImageUrl());
+        assertThat(saveAllCalls).hasValue(1);
+        assertThat(stored).hasSize(3);
+        assertThat(files()).hasSize(2).contains(HASH + ".png");
+    }
+
+    private static MockMultipartFile upload(String fileName) {
+        return new MockMultipartFile("data", fileName, "image/png", "0123456789".getBytes(StandardCharsets.US_ASCII));
+    }
+
+    private List<String> files() throws IOException {
+        try (Stream<Path> files = Files.list(placeDirectory)) {
+            return files.map(file -> file.getFileName().toString()).collect(Collectors.toList());
+        }
+    }
+}
@@ -0,0 +1,206 @@
+package com.hesho.reservation.service.impl;
+
+import com.hesho.reservation.config.ApplicationProperties;
+import com.hesho.reservation.domain.Place;
+import com.hesho.reservation.domain.Reservation;
+import com.hesho.reservation.domain.enumeration.ReservationStatus;
+import com.hesho.reservation.repository.PlaceRepository;
+import com.hesho.reservation.repository.ReservationRepository;
+import com.hesho.reservation.service.PlaceLocks;
+import com.hesho.reservation.service.ReservationHoldQueue;
+import com.hesho.reservation.service.ReservationIntervalIndex;
+import com.hesho.reservation.service.dto.ReservationBatchResultDTO;
+import com.hesho.reservation.service.dto.ReservationBatchResultDTO.Outcome;
+import com.hesho.reservation.service.dto.ReservationDTO;
+import com.hesho.reservation.service.dto.ReservationStatusUpdateDTO;
+import com.hesho.reservation.service.mapper.ReservationMapper;
+import com.hesho.reservation.web.rest.errors.BadRequestAlertException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InOrder;
+
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyIterable;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Test class for the validation and batch operations of {@link ReservationServiceImpl}.
+ */
+public class ReservationServiceImplBatchTest {
+
+    private static final Instant DAY_0 = Instant.parse("2021-03-01T00:00:00Z");
+
+    private static final Long UNKNOWN_PLACE_ID = 404L;
+
+    private final AtomicLong sequence = new AtomicLong();
+
+    private final AtomicInteger saveAllCalls = new AtomicInteger();
+
+    private final List<Reservation> stored = new ArrayList<>();
+
+    private ReservationRepository reservationRepository;
+
+    private ReservationIntervalIndex reservationIntervalIndex;
+
+    private ReservationServiceImpl reservationService;
+
+    @BeforeEach
+    public void setup() {
+        reservationRepository = mock(ReservationRepository.class);
+        when(reservationRepository.saveAll(anyIterable())).thenAnswer(invocation -> {
+            saveAllCalls.incrementAndGet();
+            List<Reservation> result = new ArrayList<>();
+            for (Reservation reservation : (Iterable<Reservation>) invocation.getArgument(0)) {
+                if (reservation.getId() == null) {
+                    reservation.setId(sequence.incrementAndGet());
+                    stored.add(reservation);
+                }
+                result.add(reservation);
+            }
+            return result;
+        });
+        when(reservationRepository.findAllById(anyIterable())).thenAnswer(invocation -> {
+            Collection<Long> ids = invocation.getArgument(0);
+            return stored.stream().filter(reservation -> ids.contains(reservation.getId())).collect(Collectors.toList());
+        });
+        when(reservationRepository.findPlaceIdsByIdIn(anyCollection())).thenAnswer(invocation -> {
+            Collection<Long> ids = invocation.getArgument(0);
+            return stored.stream().filter(reservation -> ids.contains(reservation.getId()))
+                .map(reservation -> reservation.getPlace().getId()).distinct().collect(Collectors.toList());
+        });
+        when(reservationRepository.findAllSlotsByStatusNotIn(anyCollection())).thenReturn(new ArrayList<>());
+
+        ReservationMapper reservationMapper = mock(ReservationMapper.class);
+        when(reservationMapper.toEntity(any(ReservationDTO.class))).thenAnswer(invocation -> {
+            ReservationDTO dto = invocation.getArgument(0);
+            Place place = new Place();
+            place.setId(dto.getPlaceId());
+            return new Reservation().startDate(dto.getStartDate()).endDate(dto.getEndDate()).place(place);
+        });
+        when(reservationMapper.toDto(any(Reservation.class))).thenAnswer(invocation -> {
+            Reservation reservation = invocation.getArgument(0);
+            ReservationDTO dto = new ReservationDTO();
+            dto.setId(reservation.getId());
+            dto.setStatus(reservation.getStatus());
+            dto.setPlaceId(reservation.getPlace().getId());
+            return dto;
+        });
+
+        PlaceRepository placeRepository = mock(PlaceRepository.class);
+        when(placeRepository.findIdsByIdIn(anyCollection())).thenAnswer(invocation -> {
+            Collection<Long> ids = invocation.getArgument(0);
+            return ids.stream().filter(id -> !id.equals(UNKNOWN_PLACE_ID)).collect(Collectors.toList());
+        });
+
+        reservationIntervalIndex = new ReservationIntervalIndex(reservationRepository);
+        reservationService = new ReservationServiceImpl(reservationRepository, placeRepository, reservationMapper,
+            reservationIntervalIndex, new PlaceLocks(),
+            new ReservationHoldQueue(reservationRepository, new ApplicationProperties()));
+    }
+
+    @Test
+    public void testSaveRejectsEmptyOrInvertedDates() {
+        assertThatThrownBy(() -> reservationService.save(booking(1L, 2, 2)))
+            .isInstanceOf(BadRequestAlertException.class)
+            .satisfies(e -> assertThat(((BadRequestAlertException) e).getErrorKey()).isEqualTo("invaliddates"));
+        assertThatThrownBy(() -> reservationService.save(booking(1L, 3, 2)))
+            .isInstanceOf(BadRequestAlertException.class);
+        verify(reservationRepository, never()).save(any(Reservation.class));
+    }
+
+    @Test
+    public void testSaveAllReportsEachItem() {
+        ReservationDTO withId = booking(1L, 0, 1);
+        withId.setId(99L);
+
+        List<ReservationBatchResultDTO> results = reservationService.saveAll(Arrays.asList(
+            booking(1L, 0, 2),
+            booking(1L, 1, 3),
+            withId,
+            booking(2L, 0, 2),
+            booking(1L, 3, 2)));
+
+        assertThat(results).extracting(ReservationBatchResultDTO::getOutcome)
+            .containsExactly(Outcome.CREATED, Outcome.CONFLICT, Outcome.INVALID, Outcome.CREATED, Outcome.INVALID);
+        assertThat(results).extracting(ReservationBatchResultDTO::getIndex).containsExactly(0, 1, 2, 3, 4);
+        assertThat(results.get(0).getReservation().getStatus()).isEqualTo(ReservationStatus.PENDING);
+        assertThat(saveAllCalls.get()).isEqualTo(1);
+        assertThat(stored).hasSize(2);
+        assertThat(reservationIntervalIndex.hasConflict(1L, DAY_0, DAY_0.plus(1, ChronoUnit.DAYS), null)).isTrue();
+    }
+
+    @Test
+    public void testSaveAllReportsUnknownPlaceWithoutFailingTheBatch() {
+        List<ReservationBatchResultDTO> results = reservationService.saveAll(Arrays.asList(
+            booking(1L, 0, 2),
+            booking(UNKNOWN_PLACE_ID, 0, 2),
+            booking(2L, 0, 2)));
+
+        assertThat(results).extracting(ReservationBatchResultDTO::getOutcome)
+            .containsExactly(Outcome.CREATED, Outcome.NOT_FOUND, Outcome.CREATED);
+        assertThat(stored).extracting(reservation -> reservation.getPlace().getId()).containsExactly(1L, 2L);
+    }
+
+    @Test
+    public void testUpdateStatusesReportsEachItem() {
+        reservationService.saveAll(Arrays.asList(booking(1L, 0, 2), booking(1L, 2, 4)));
+        reservationService.updateStatuses(Arrays.asList(update(1L, ReservationStatus.CANCELED)));
+        reservationService.saveAll(Arrays.asList(booking(1L, 1, 2)));
+
+        List<ReservationBatchResultDTO> results = reservationService.updateStatuses(Arrays.asList(
+            update(2L, ReservationStatus.APPROVED),
+            update(42L, ReservationStatus.APPROVED),
+            update(1L, ReservationStatus.APPROVED),
+            update(3L, null)));
+
+        assertThat(results).extracting(ReservationBatchResultDTO::getOutcome)
+            .containsExactly(Outcome.UPDATED, Outcome.NOT_FOUND, Outcome.CONFLICT, Outcome.INVALID);
+        assertThat(stored.get(0).getStatus()).isEqualTo(ReservationStatus.CANCELED);
+        assertThat(stored.get(1).getStatus()).isEqualTo(ReservationStatus.APPROVED);
+        assertThat(stored.get(1).getHoldExpiresAt()).isNull();
+    }
+
+    @Test
+    public void testUpdateStatusesReadsReservationsOnceLocked() {
+        reservationService.saveAll(Arrays.asList(booking(1L, 0, 2)));
+
+        reservationService.updateStatuses(Arrays.asList(update(1L, ReservationStatus.APPROVED)));
+
+        InOrder inOrder = inOrder(reservationRepository);
+        inOrder.verify(reservationRepository).findPlaceIdsByIdIn(anyCollection());
+        inOrder.verify(reservationRepository).findAllById(anyIterable());
+        assertThat(stored.get(0).getStatus()).isEqualTo(ReservationStatus.APPROVED);
+    }
+
+    private static ReservationDTO booking(Long placeId, int startDay, int endDay) {
+        ReservationDTO booking = new ReservationDTO();
+        booking.setPlaceId(placeId);
+        booking.setStartDate(DAY_0.plus(startDay, ChronoUnit.DAYS));
+        booking.setEndDate(DAY_0.plus(endDay, ChronoUnit.DAYS));
+        return booking;
+    }
+
+    private static ReservationStatusUpdateDTO update(Long id, ReservationStatus status) {
+        ReservationStatusUpdateDTO update = new ReservationStatusUpdateDTO();
+        update.setId(id);
+        update.setStatus(status);
+        return update;
+    }
+}
@@ -0,0 +1,156 @@
+package com.hesho.reservation.service.impl;
+
+import com.hesho.reservation.config.ApplicationProperties;
+import com.hesho.reservation.domain.Place;
+import com.hesho.reservation.domain.Reservation;
+import com.hesho.reservation.repository.PlaceRepository;
+import com.hesho.reservation.repository.ReservationRepository;
+import com.hesho.reservation.security.ReservationConflictException;
+import com.hesho.reservation.service.PlaceLocks;
+import com.hesho.reservation.service.ReservationHoldQueue;
+import com.hesho.reservation.service.ReservationIntervalIndex;
+import com.hesho.reservation.service.dto.ReservationDTO;
+import com.hesho.reservation.service.mapper.ReservationMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Random;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Stress test of concurrent bookings through {@link ReservationServiceImpl}.
+ */
+public class ReservationServiceImplConcurrencyTest {
+
+    private static final Instant DAY_0 = Instant.parse("2021-03-01T00:00:00Z");
+
+    private static final int PLACES = 4;
+
+    private static final int BOOKINGS = 4000;
+
+    private static final int THREADS = 16;
+
+    private final AtomicLong sequence = new AtomicLong();
+
+    private final AtomicInteger savesInFlight = new AtomicInteger();
+
+    private final AtomicInteger maxSavesInFlight = new AtomicInteger();
+
+    private final Map<Long, AtomicInteger> savesInFlightByPlace = new ConcurrentHashMap<>();
+
+    private final AtomicInteger maxSavesInFlightByPlace = new AtomicInteger();
+
+    private final Queue<Reservation> saved = new ConcurrentLinkedQueue<>();
+
+    private ReservationServiceImpl reservationService;
+
+    @BeforeEach
+    public void setup() {
+        ReservationRepository reservationRepository = mock(ReservationRepository.class);
+        when(reservationRepository.save(any(Reservation.class))).thenAnswer(invocation -> {
+            Reservation reservation = invocation.getArgument(0);
+            AtomicInteger placeInFlight = savesInFlightByPlace.computeIfAbsent(reservation.getPlace().getId(), id -> new AtomicInteger());
+            maxSavesInFlight.accumulateAndGet(savesInFlight.incrementAndGet(), Math::max);
+            maxSavesInFlightByPlace.accumulateAndGet(placeInFlight.incrementAndGet(), Math::max);
+            try {
+                // simulate the database round trip
+                Thread.sleep(1);
+                reservation.setId(sequence.incrementAndGet());
+                saved.add(reservation);
+                return reservation;
+            } finally {
+                placeInFlight.decrementAndGet();
+                savesInFlight.decrementAndGet();
+            }
+        });
+
+        ReservationMapper reservationMapper = mock(ReservationMapper.class);
+        when(reservationMapper.toEntity(any(ReservationDTO.class))).thenAnswer(invocation -> {
+            ReservationDTO dto = invocation.getArgument(0);
+            Place place = new Place();
+            place.setId(dto.getPlaceId());
+            return new Reservation().startDate(dto.getStartDate()).endDate(dto.getEndDate()).place(place);
+        });
+        when(reservationMapper.toDto(any(Reservation.class))).thenAnswer(invocation -> {
+            Reservation reservation = invocation.getArgument(0);
+            ReservationDTO dto = new ReservationDTO();
+            dto.setId(reservation.getId());
+            dto.setPlaceId(reservation.getPlace().getId());
+            return dto;
+        });
+
+        PlaceRepository placeRepository = mock(PlaceRepository.class);
+        reservationService = new ReservationServiceImpl(reservationRepository, placeRepository, reservationMapper,
+            new ReservationIntervalIndex(reservationRepository), new PlaceLocks(),
+            new ReservationHoldQueue(reservationRepository, new ApplicationProperties()));
+    }
+
+    @Test
+    public void testConcurrentBookingsNeverOverlap() throws Exception {
+        Random random = new Random(42);
+        List<ReservationDTO> bookings = new ArrayList<>();
+        for (int i = 0; i < BOOKINGS; i++) {
+            int startDay = random.nextInt(365);
+            ReservationDTO booking = new ReservationDTO();
+            booking.setPlaceId((long) (1 + random.nextInt(PLACES)));
+            booking.setStartDate(DAY_0.plus(startDay, ChronoUnit.DAYS));
+            booking.setEndDate(DAY_0.plus(startDay + 1 + random.nextInt(3), ChronoUnit.DAYS));
+            bookings.add(booking);
+        }
+
+        AtomicInteger conflicts = new AtomicInteger();
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        List<Future<?>> futures = new ArrayList<>();
+        for (ReservationDTO booking : bookings) {
+            futures.add(executor.submit(() -> {
+                start.await();
+                try {
+                    reservationService.save(booking);
+                } catch (ReservationConflictException e) {
+                    conflicts.incrementAndGet();
+                }
+                return null;
+            }));
+        }
+        start.countDown();
+        for (Future<?> future : futures) {
+            future.get(1, TimeUnit.MINUTES);
+        }
+        executor.shutdown();
+
+        assertThat(saved.size() + conflicts.get()).isEqualTo(BOOKINGS);
+        assertThat(conflicts.get()).isPositive();
+        Map<Long, List<Reservation>> byPlace = saved.stream().collect(Collectors.groupingBy(reservation -> reservation.getPlace().getId()));
+        byPlace.values().forEach(reservations -> {
+            reservations.sort(Comparator.comparing(Reservation::getStartDate));
+            for (int i = 1; i < reservations.size(); i++) {
+                assertThat(reservations.get(i).getStartDate()).isAfterOrEqualTo(reservations.get(i - 1).getEndDate());
+            }
+        });
+        // bookings of the same place are serialized, bookings of different places are not
+        assertThat(maxSavesInFlightByPlace.get()).isEqualTo(1);
+        assertThat(maxSavesInFlight.get()).isGreaterThan(1);
+    }
+}
@@ -0,0 +1,58 @@
+package com.hesho.reservation.service.storage;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Test class for the {@link FileSystemBlobStore}.
+ */
+public class FileSystemBlobStoreTest {
+
+    @TempDir
+    Path directory;
+
+    private FileSystemBlobStore blobStore;
+
+    @BeforeEach
+    public void setup() throws IOException {
+        Map<String, Path> directories = new HashMap<>();
+        directories.put(BlobStore.PLACE, directory.resolve("place"));
+        directories.put(BlobStore.CATEGORY, directory.resolve("category"));
+        blobStore = new FileSystemBlobStore(directories);
+    }
+
+    @Test
+    public void testStagingFileIsMovedInPlace() throws IOException {
+        Path staged = blobStore.createStagingFile(BlobStore.PLACE);
+        Files.write(staged, "content".getBytes(StandardCharsets.UTF_8));
+        assertThat(staged.getParent()).isEqualTo(directory.resolve("place"));
+
+        blobStore.put("place/a.png", staged);
+
+        assertThat(staged).doesNotExist();
+        assertThat(blobStore.getLocalPath("place/a.png")).contains(directory.resolve("place").resolve("a.png"));
+        assertThat(blobStore.exists("place/a.png")).isTrue();
+        assertThat(blobStore.exists("category/a.png")).isFalse();
+        assertThat(blobStore.presign("place/a.png", Duration.ofMinutes(1))).isEmpty();
+    }
+
+    @Test
+    public void testKeysCannotLeaveTheirContainer() {
+        assertThatThrownBy(() -> blobStore.exists("place/../category/a.png")).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> blobStore.exists("place/sub/a.png")).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> blobStore.exists("a.png")).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> blobStore.exists("other/a.png")).isInstanceOf(IllegalArgumentException.class);
+    }
+}
@@ -0,0 +1,257 @@
+package com.hesho.reservation.service.storage;
+
+import com.google.common.hash.Hashing;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import software.amazon.awssdk.auth.credentials.AwsBasicCredentials;
+import software.amazon.awssdk.auth.credentials.StaticCredentialsProvider;
+import software.amazon.awssdk.core.retry.RetryPolicy;
+import software.amazon.awssdk.http.urlconnection.UrlConnectionHttpClient;
+import software.amazon.awssdk.regions.Region;
+import software.amazon.awssdk.services.s3.S3Client;
+import software.amazon.awssdk.services.s3.S3Configuration;
+import software.amazon.awssdk.services.s3.presigner.S3Presigner;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Test class for the {@link S3BlobStore}, against a minimal object store.
+ */
+public class S3BlobStoreTest {
+
+    private static final long PART_SIZE = 5L * 1024 * 1024;
+
+    private static final String STREAMING_PAYLOAD = "STREAMING-AWS4-HMAC-SHA256-PAYLOAD";
+
+    @TempDir
+    Path directory;
+
+    private HttpServer server;
+
+    private final Map<String, byte[]> objects = new ConcurrentHashMap<>();
+
+    private final List<String> requests = new CopyOnWriteArrayList<>();
+
+    private volatile boolean failParts;
+
+    private S3BlobStore blobStore;
+
+    @BeforeEach
+    public void setup() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.createContext("/", exchange -> {
+            String path = exchange.getRequestURI().getPath();
+            Map<String, String> query = parseQuery(exchange.getRequestURI().getRawQuery());
+            String method = exchange.getRequestMethod();
+            requests.add(method + " " + path + renderQuery(query));
+            byte[] body = readAll(exchange.getRequestBody());
+            if (STREAMING_PAYLOAD.equals(exchange.getRequestHeaders().getFirst("x-amz-content-sha256"))) {
+                body = decodeChunks(body);
+            }
+            byte[] response = new byte[0];
+            int status = 200;
+            if (exchange.getRequestHeaders().getFirst("Authorization") == null) {
+                status = 403;
+            } else if ("POST".equals(method) && query.containsKey("uploads")) {
+                response = ("<InitiateMultipartUploadResult xmlns=\"http://s3.amazonaws.com/doc/2006-03-01/\">" +
+                    "<Bucket>images</Bucket><Key>" + path + "</Key><UploadId>upload-1</UploadId></InitiateMultipartUploadResult>")
+                    .getBytes(StandardCharsets.UTF_8);
+            } else if ("PUT".equals(method) && query.containsKey("partNumber")) {
+                if (failParts) {
+                    status = 500;
+                } else {
+                    objects.put(path + "#" + query.get("partNumber"), body);
+                    exchange.getResponseHeaders().add("ETag", eTag(body));
+                }
+            } else if ("POST".equals(method)) {
+                ByteArrayOutputStream content = new ByteArrayOutputStream();
+                for (int part = 1; objects.containsKey(path + "#" + part); part++) {
+                    content.write(objects.remove(path + "#" + part));
+                }
+                objects.put(path, content.toByteArray());
+                response = ("<CompleteMultipartUploadResult xmlns=\"http://s3.amazonaws.com/doc/2006-03-01/\">" +
+                    "<Bucket>images</Bucket><Key>" + path + "</Key></CompleteMultipartUploadResult>").getBytes(StandardCharsets.UTF_8);
+            } else if ("PUT".equals(method)) {
+                objects.put(path, body);
+                exchange.getResponseHeaders().add("ETag", eTag(body));
+            } else if ("DELETE".equals(method)) {
+                objects.remove(path);
+                status = 204;
+            } else if (!objects.containsKey(path)) {
+                status = 404;
+            } else if ("GET".equals(method)) {
+                response = objects.get(path);
+            }
+            boolean empty = status == 204 || "HEAD".equals(method) || response.length == 0;
+            exchange.sendResponseHeaders(status, empty ? -1 : response.length);
+            try (OutputStream outputStream = exchange.getResponseBody()) {
+                if (!empty) {
+                    outputStream.write(response);
+                }
+            }
+        });
+        server.start();
+        blobStore = new S3BlobStore(s3Client(URI.create("http://localhost:" + server.getAddress().getPort()), true),
+            s3Presigner(URI.create("http://localhost:" + server.getAddress().getPort()), true), "images", PART_SIZE);
+    }
+
+    @AfterEach
+    public void stop() {
+        blobStore.close();
+        server.stop(0);
+    }
+
+    @Test
+    public void testPresignReadsFromBucket() {
+        S3BlobStore example = new S3BlobStore(s3Client(URI.create("https://s3.amazonaws.com"), false),
+            s3Presigner(URI.create("https://s3.amazonaws.com"), false), "examplebucket", PART_SIZE);
+
+        URI url = example.presign("test.txt", Duration.ofHours(24)).get();
+
+        assertThat(url.toString()).startsWith("https://examplebucket.s3.amazonaws.com/test.txt?");
+        assertThat(url.getRawQuery()).contains("X-Amz-Expires=86400").contains("X-Amz-Signature=");
+        example.close();
+    }
+
+    @Test
+    public void testPutOpenAndDelete() throws IOException {
+        Path staged = blobStore.createStagingFile(BlobStore.PLACE);
+        Files.write(staged, "content".getBytes(StandardCharsets.UTF_8));
+
+        blobStore.put(BlobStore.key(BlobStore.PLACE, "a.png"), staged);
+
+        assertThat(requests).containsExactly("PUT /images/place/a.png");
+        assertThat(blobStore.exists("place/a.png")).isTrue();
+        try (InputStream inputStream = blobStore.open("place/a.png")) {
+            assertThat(new String(readAll(inputStream), StandardCharsets.UTF_8)).isEqualTo("content");
+        }
+        blobStore.delete("place/a.png");
+        assertThat(blobStore.exists("place/a.png")).isFalse();
+        assertThatThrownBy(() -> blobStore.open("place/a.png")).isInstanceOf(NoSuchFileException.class);
+        Files.deleteIfExists(staged);
+    }
+
+    @Test
+    public void testLargeBlobIsUploadedInParts() throws IOException {
+        byte[] content = new byte[(int) (2 * PART_SIZE + 1024)];
+        for (int i = 0; i < content.length; i++) {
+            content[i] = (byte) i;
+        }
+        Path staged = Files.write(directory.resolve("large.tmp"), content);
+
+        blobStore.put("place/large.png", staged);
+
+        assertThat(requests).containsExactly(
+            "POST /images/place/large.png?uploads",
+            "PUT /images/place/large.png?partNumber=1&uploadId=upload-1",
+            "PUT /images/place/large.png?partNumber=2&uploadId=upload-1",
+            "PUT /images/place/large.png?partNumber=3&uploadId=upload-1",
+            "POST /images/place/large.png?uploadId=upload-1");
+        assertThat(objects.get("/images/place/large.png")).isEqualTo(content);
+    }
+
+    @Test
+    public void testFailedPartAbortsUpload() throws IOException {
+        failParts = true;
+        Path staged = Files.write(directory.resolve("large.tmp"), new byte[(int) PART_SIZE + 1]);
+
+        assertThatThrownBy(() -> blobStore.put("place/large.png", staged)).isInstanceOf(IOException.class);
+
+        assertThat(requests).last().isEqualTo("DELETE /images/place/large.png?uploadId=upload-1");
+    }
+
+    private static S3Client s3Client(URI endpoint, boolean pathStyleAccess) {
+        return S3Client.builder()
+            .endpointOverride(endpoint)
+            .region(Region.US_EAST_1)
+            .credentialsProvider(StaticCredentialsProvider.create(AwsBasicCredentials.create("access", "secret")))
+            .serviceConfiguration(S3Configuration.builder().pathStyleAccessEnabled(pathStyleAccess).build())
+            .overrideConfiguration(configuration -> configuration.retryPolicy(RetryPolicy.none()))
+            .httpClientBuilder(UrlConnectionHttpClient.builder())
+            .build();
+    }
+
+    private static S3Presigner s3Presigner(URI endpoint, boolean pathStyleAccess) {
+        return S3Presigner.builder()
+            .endpointOverride(endpoint)
+            .region(Region.US_EAST_1)
+            .credentialsProvider(StaticCredentialsProvider.create(AwsBasicCredentials.create("access", "secret")))
+            .serviceConfiguration(S3Configuration.builder().pathStyleAccessEnabled(pathStyleAccess).build())
+            .build();
+    }
+
+    private static Map<String, String> parseQuery(String rawQuery) {
+        Map<String, String> query = new TreeMap<>();
+        if (rawQuery != null && !rawQuery.isEmpty()) {
+            for (String parameter : rawQuery.split("&")) {
+                int equals = parameter.indexOf('=');
+                query.put(equals == -1 ? parameter : parameter.substring(0, equals), equals == -1 ? "" : parameter.substring(equals + 1));
+            }
+        }
+        return query;
+    }
+
+    private static String renderQuery(Map<String, String> query) {
+        return query.isEmpty() ? "" : query.entrySet().stream()
+            .map(parameter -> parameter.getValue().isEmpty() ? parameter.getKey() : parameter.getKey() + "=" + parameter.getValue())
+            .collect(Collectors.joining("&", "?", ""));
+    }
+
+    /**
+     * Decode a body sent with {@code aws-chunked} encoding: chunks of {@code <hex size>;chunk-signature=<signature>\r\n<data>\r\n}.
+     */
+    private static byte[] decodeChunks(byte[] body) {
+        ByteArrayOutputStream content = new ByteArrayOutputStream();
+        int position = 0;
+        while (position < body.length) {
+            int lineEnd = position;
+            while (body[lineEnd] != '\r') {
+                lineEnd++;
+            }
+            String header = new String(body, position, lineEnd - position, StandardCharsets.US_ASCII);
+            int size = Integer.parseInt(header.substring(0, header.indexOf(';')), 16);
+            if (size == 0) {
+                break;
+            }
+            content.write(body, lineEnd + 2, size);
+            position = lineEnd + 2 + size + 2;
+        }
+        return content.toByteArray();
+    }
+
+    private static String eTag(byte[] body) {
+        return "\"" + Hashing.md5().hashBytes(body) + "\"";
+    }
+
+    private static byte[] readAll(InputStream inputStream) throws IOException {
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        byte[] buffer = new byte[8192];
+        int read;
+        while ((read = inputStream.read(buffer)) != -1) {
+            outputStream.write(buffer, 0, read);
+        }
+        return outputStream.toByteArray();
+    }
+}
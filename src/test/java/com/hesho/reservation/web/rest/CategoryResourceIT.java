@@ -167,6 +167,21 @@ public class CategoryResourceIT {
             .andExpect(jsonPath("$.[*].description").value(hasItem(DEFAULT_DESCRIPTION)));
     }
     
+    @Test
+    @Transactional
+    public void getAllCategoriesWithoutCount() throws Exception {
+        // Initialize the database
+        categoryRepository.saveAndFlush(category);
+
+        // Get all the categoryList without the count query
+        restCategoryMockMvc.perform(get("/api/categories?sort=id,desc&count=false"))
+            .andExpect(status().isOk())
+            .andExpect(content().contentType(MediaType.APPLICATION_JSON_VALUE))
+            .andExpect(header().doesNotExist("X-Total-Count"))
+            .andExpect(jsonPath("$.[*].id").value(hasItem(category.getId().intValue())))
+            .andExpect(jsonPath("$.[*].name").value(hasItem(DEFAULT_NAME)));
+    }
+
     @Test
     @Transactional
     public void getCategory() throws Exception {
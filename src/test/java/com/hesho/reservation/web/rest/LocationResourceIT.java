@@ -38,11 +38,13 @@ public class LocationResourceIT {
     private static final String DEFAULT_ADDRESS = "AAAAAAAAAA";
     private static final String UPDATED_ADDRESS = "BBBBBBBBBB";
 
-    private static final String DEFAULT_LATITUDE = "AAAAAAAAAA";
-    private static final String UPDATED_LATITUDE = "BBBBBBBBBB";
+    private static final Double DEFAULT_LATITUDE = 1D;
+    private static final Double UPDATED_LATITUDE = 2D;
+    private static final Double SMALLER_LATITUDE = 1D - 1D;
 
-    private static final String DEFAULT_LONGITUDE = "AAAAAAAAAA";
-    private static final String UPDATED_LONGITUDE = "BBBBBBBBBB";
+    private static final Double DEFAULT_LONGITUDE = 1D;
+    private static final Double UPDATED_LONGITUDE = 2D;
+    private static final Double SMALLER_LONGITUDE = 1D - 1D;
 
     private static final String DEFAULT_CITY = "AAAAAAAAAA";
     private static final String UPDATED_CITY = "BBBBBBBBBB";
@@ -195,8 +197,8 @@ public class LocationResourceIT {
             .andExpect(content().contentType(MediaType.APPLICATION_JSON_VALUE))
             .andExpect(jsonPath("$.[*].id").value(hasItem(location.getId().intValue())))
             .andExpect(jsonPath("$.[*].address").value(hasItem(DEFAULT_ADDRESS)))
-            .andExpect(jsonPath("$.[*].latitude").value(hasItem(DEFAULT_LATITUDE)))
-            .andExpect(jsonPath("$.[*].longitude").value(hasItem(DEFAULT_LONGITUDE)))
+            .andExpect(jsonPath("$.[*].latitude").value(hasItem(DEFAULT_LATITUDE.doubleValue())))
+            .andExpect(jsonPath("$.[*].longitude").value(hasItem(DEFAULT_LONGITUDE.doubleValue())))
             .andExpect(jsonPath("$.[*].city").value(hasItem(DEFAULT_CITY)));
     }
     
@@ -212,8 +214,8 @@ public class LocationResourceIT {
             .andExpect(content().contentType(MediaType.APPLICATION_JSON_VALUE))
             .andExpect(jsonPath("$.id").value(location.getId().intValue()))
             .andExpect(jsonPath("$.address").value(DEFAULT_ADDRESS))
-            .andExpect(jsonPath("$.latitude").value(DEFAULT_LATITUDE))
-            .andExpect(jsonPath("$.longitude").value(DEFAULT_LONGITUDE))
+            .andExpect(jsonPath("$.latitude").value(DEFAULT_LATITUDE.doubleValue()))
+            .andExpect(jsonPath("$.longitude").value(DEFAULT_LONGITUDE.doubleValue()))
             .andExpect(jsonPath("$.city").value(DEFAULT_CITY));
     }
 
@@ -368,28 +370,54 @@ public class LocationResourceIT {
     }
                 @Test
     @Transactional
-    public void getAllLocationsByLatitudeContainsSomething() throws Exception {
+    public void getAllLocationsByLatitudeIsGreaterThanOrEqualToSomething() throws Exception {
         // Initialize the database
         locationRepository.saveAndFlush(location);
 
-        // Get all the locationList where latitude contains DEFAULT_LATITUDE
-        defaultLocationShouldBeFound("latitude.contains=" + DEFAULT_LATITUDE);
+        // Get all the locationList where latitude is greater than or equal to DEFAULT_LATITUDE
+        defaultLocationShouldBeFound("latitude.greaterThanOrEqual=" + DEFAULT_LATITUDE);
 
-        // Get all the locationList where latitude contains UPDATED_LATITUDE
-        defaultLocationShouldNotBeFound("latitude.contains=" + UPDATED_LATITUDE);
+        // Get all the locationList where latitude is greater than or equal to UPDATED_LATITUDE
+        defaultLocationShouldNotBeFound("latitude.greaterThanOrEqual=" + UPDATED_LATITUDE);
     }
 
     @Test
     @Transactional
-    public void getAllLocationsByLatitudeNotContainsSomething() throws Exception {
+    public void getAllLocationsByLatitudeIsLessThanOrEqualToSomething() throws Exception {
         // Initialize the database
         locationRepository.saveAndFlush(location);
 
-        // Get all the locationList where latitude does not contain DEFAULT_LATITUDE
-        defaultLocationShouldNotBeFound("latitude.doesNotContain=" + DEFAULT_LATITUDE);
+        // Get all the locationList where latitude is less than or equal to DEFAULT_LATITUDE
+        defaultLocationShouldBeFound("latitude.lessThanOrEqual=" + DEFAULT_LATITUDE);
 
-        // Get all the locationList where latitude does not contain UPDATED_LATITUDE
-        defaultLocationShouldBeFound("latitude.doesNotContain=" + UPDATED_LATITUDE);
+        // Get all the locationList where latitude is less than or equal to SMALLER_LATITUDE
+        defaultLocationShouldNotBeFound("latitude.lessThanOrEqual=" + SMALLER_LATITUDE);
+    }
+
+    @Test
+    @Transactional
+    public void getAllLocationsByLatitudeIsLessThanSomething() throws Exception {
+        // Initialize the database
+        locationRepository.saveAndFlush(location);
+
+        // Get all the locationList where latitude is less than DEFAULT_LATITUDE
+        defaultLocationShouldNotBeFound("latitude.lessThan=" + DEFAULT_LATITUDE);
+
+        // Get all the locationList where latitude is less than UPDATED_LATITUDE
+        defaultLocationShouldBeFound("latitude.lessThan=" + UPDATED_LATITUDE);
+    }
+
+    @Test
+    @Transactional
+    public void getAllLocationsByLatitudeIsGreaterThanSomething() throws Exception {
+        // Initialize the database
+        locationRepository.saveAndFlush(location);
+
+        // Get all the locationList where latitude is greater than DEFAULT_LATITUDE
+        defaultLocationShouldNotBeFound("latitude.greaterThan=" + DEFAULT_LATITUDE);
+
+        // Get all the locationList where latitude is greater than SMALLER_LATITUDE
+        defaultLocationShouldBeFound("latitude.greaterThan=" + SMALLER_LATITUDE);
     }
 
 
@@ -446,28 +474,54 @@ public class LocationResourceIT {
     }
                 @Test
     @Transactional
-    public void getAllLocationsByLongitudeContainsSomething() throws Exception {
+    public void getAllLocationsByLongitudeIsGreaterThanOrEqualToSomething() throws Exception {
+        // Initialize the database
+        locationRepository.saveAndFlush(location);
+
+        // Get all the locationList where longitude is greater than or equal to DEFAULT_LONGITUDE
+        defaultLocationShouldBeFound("longitude.greaterThanOrEqual=" + DEFAULT_LONGITUDE);
+
+        // Get all the locationList where longitude is greater than or equal to UPDATED_LONGITUDE
+        defaultLocationShouldNotBeFound("longitude.greaterThanOrEqual=" + UPDATED_LONGITUDE);
+    }
+
+    @Test
+    @Transactional
+    public void getAllLocationsByLongitudeIsLessThanOrEqualToSomething() throws Exception {
+        // Initialize the database
+        locationRepository.saveAndFlush(location);
+
+        // Get all the locationList where longitude is less than or equal to DEFAULT_LONGITUDE
+        defaultLocationShouldBeFound("longitude.lessThanOrEqual=" + DEFAULT_LONGITUDE);
+
+        // Get all the locationList where longitude is less than or equal to SMALLER_LONGITUDE
+        defaultLocationShouldNotBeFound("longitude.lessThanOrEqual=" + SMALLER_LONGITUDE);
+    }
+
+    @Test
+    @Transactional
+    public void getAllLocationsByLongitudeIsLessThanSomething() throws Exception {
         // Initialize the database
         locationRepository.saveAndFlush(location);
 
-        // Get all the locationList where longitude contains DEFAULT_LONGITUDE
-        defaultLocationShouldBeFound("longitude.contains=" + DEFAULT_LONGITUDE);
+        // Get all the locationList where longitude is less than DEFAULT_LONGITUDE
+        defaultLocationShouldNotBeFound("longitude.lessThan=" + DEFAULT_LONGITUDE);
 
-        // Get all the locationList where longitude contains UPDATED_LONGITUDE
-        defaultLocationShouldNotBeFound("longitude.contains=" + UPDATED_LONGITUDE);
+        // Get all the locationList where longitude is less than UPDATED_LONGITUDE
+        defaultLocationShouldBeFound("longitude.lessThan=" + UPDATED_LONGITUDE);
     }
 
     @Test
     @Transactional
-    public void getAllLocationsByLongitudeNotContainsSomething() throws Exception {
+    public void getAllLocationsByLongitudeIsGreaterThanSomething() throws Exception {
         // Initialize the database
         locationRepository.saveAndFlush(location);
 
-        // Get all the locationList where longitude does not contain DEFAULT_LONGITUDE
-        defaultLocationShouldNotBeFound("longitude.doesNotContain=" + DEFAULT_LONGITUDE);
+        // Get all the locationList where longitude is greater than DEFAULT_LONGITUDE
+        defaultLocationShouldNotBeFound("longitude.greaterThan=" + DEFAULT_LONGITUDE);
 
-        // Get all the locationList where longitude does not contain UPDATED_LONGITUDE
-        defaultLocationShouldBeFound("longitude.doesNotContain=" + UPDATED_LONGITUDE);
+        // Get all the locationList where longitude is greater than SMALLER_LONGITUDE
+        defaultLocationShouldBeFound("longitude.greaterThan=" + SMALLER_LONGITUDE);
     }
 
 
@@ -578,8 +632,8 @@ public class LocationResourceIT {
             .andExpect(content().contentType(MediaType.APPLICATION_JSON_VALUE))
             .andExpect(jsonPath("$.[*].id").value(hasItem(location.getId().intValue())))
             .andExpect(jsonPath("$.[*].address").value(hasItem(DEFAULT_ADDRESS)))
-            .andExpect(jsonPath("$.[*].latitude").value(hasItem(DEFAULT_LATITUDE)))
-            .andExpect(jsonPath("$.[*].longitude").value(hasItem(DEFAULT_LONGITUDE)))
+            .andExpect(jsonPath("$.[*].latitude").value(hasItem(DEFAULT_LATITUDE.doubleValue())))
+            .andExpect(jsonPath("$.[*].longitude").value(hasItem(DEFAULT_LONGITUDE.doubleValue())))
             .andExpect(jsonPath("$.[*].city").value(hasItem(DEFAULT_CITY)));
 
         // Check, that the count call also returns 1
@@ -704,6 +704,13 @@ public class PlaceResourceIT {
             .andExpect(status().isNotFound());
     }
 
+    @Test
+    @Transactional
+    public void getAvailabilityOfNonExistingPlace() throws Exception {
+        restPlaceMockMvc.perform(get("/api/places/{id}/availability?from=2021-03-01&to=2021-03-07", Long.MAX_VALUE))
+            .andExpect(status().isNotFound());
+    }
+
     @Test
     @Transactional
     public void updatePlace() throws Exception {
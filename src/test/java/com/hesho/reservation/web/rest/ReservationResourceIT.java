@@ -23,6 +23,7 @@ import org.springframework.transaction.annotation.Transactional;
 import javax.persistence.EntityManager;
 import java.time.Instant;
 import java.time.temporal.ChronoUnit;
+import java.util.Arrays;
 import java.util.List;
 
 import static org.assertj.core.api.Assertions.assertThat;
@@ -681,4 +682,22 @@ public class ReservationResourceIT {
         List<Reservation> reservationList = reservationRepository.findAll();
         assertThat(reservationList).hasSize(databaseSizeBeforeDelete - 1);
     }
+
+    @Test
+    @Transactional
+    public void expireHoldsLeavesConcurrentlyApprovedReservations() {
+        Instant past = Instant.now().minus(1, ChronoUnit.MINUTES);
+        Reservation pending = createEntity(em).status(ReservationStatus.PENDING).holdExpiresAt(past);
+        // approved after its hold was queued, before the sweep
+        Reservation approved = createEntity(em).status(ReservationStatus.APPROVED).holdExpiresAt(past);
+        reservationRepository.saveAndFlush(pending);
+        reservationRepository.saveAndFlush(approved);
+        List<Long> ids = Arrays.asList(pending.getId(), approved.getId());
+
+        assertThat(reservationRepository.expireHolds(ids, Instant.now())).isEqualTo(1);
+
+        assertThat(reservationRepository.findAllExpiredByIdIn(ids)).extracting(Reservation::getId)
+            .containsExactly(pending.getId());
+        assertThat(reservationRepository.findById(approved.getId()).get().getStatus()).isEqualTo(ReservationStatus.APPROVED);
+    }
 }
@@ -14,6 +14,7 @@ import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.setup.MockMvcBuilders;
 import org.springframework.transaction.annotation.Transactional;
 
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
@@ -63,6 +64,34 @@ public class UserJWTControllerIT {
             .andExpect(header().string("Authorization", not(is(emptyString()))));
     }
 
+    @Test
+    @Transactional
+    public void testLogoutRevokesToken() throws Exception {
+        User user = new User();
+        user.setLogin("user-jwt-controller-logout");
+        user.setEmail("user-jwt-controller-logout@example.com");
+        user.setActivated(true);
+        user.setPassword(passwordEncoder.encode("test"));
+
+        userRepository.saveAndFlush(user);
+
+        LoginVM login = new LoginVM();
+        login.setUsername("user-jwt-controller-logout");
+        login.setPassword("test");
+        String authorization = mockMvc.perform(post("/api/authenticate")
+            .contentType(MediaType.APPLICATION_JSON)
+            .content(TestUtil.convertObjectToJsonBytes(login)))
+            .andExpect(status().isOk())
+            .andReturn().getResponse().getHeader("Authorization");
+
+        mockMvc.perform(get("/api/account").header("Authorization", authorization))
+            .andExpect(status().isOk());
+        mockMvc.perform(post("/api/logout").header("Authorization", authorization))
+            .andExpect(status().isNoContent());
+        mockMvc.perform(get("/api/account").header("Authorization", authorization))
+            .andExpect(status().isUnauthorized());
+    }
+
     @Test
     @Transactional
     public void testAuthorizeWithRememberMe() throws Exception {
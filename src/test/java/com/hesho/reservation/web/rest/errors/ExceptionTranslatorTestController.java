@@ -1,5 +1,7 @@
 package com.hesho.reservation.web.rest.errors;
 
+import com.hesho.reservation.security.LoginOverloadedException;
+import com.hesho.reservation.service.IdempotencyKeyReusedException;
 import org.springframework.dao.ConcurrencyFailureException;
 import org.springframework.http.HttpStatus;
 import org.springframework.security.access.AccessDeniedException;
@@ -45,6 +47,16 @@ public class ExceptionTranslatorTestController {
         throw new TestResponseStatusException();
     }
 
+    @GetMapping("/login-overloaded")
+    public void loginOverloaded() {
+        throw new LoginOverloadedException(5);
+    }
+
+    @GetMapping("/idempotency-key-reused")
+    public void idempotencyKeyReused() {
+        throw new IdempotencyKeyReusedException();
+    }
+
     @GetMapping("/internal-server-error")
     public void internalServerError() {
         throw new RuntimeException();
@@ -0,0 +1,153 @@
+package com.hesho.reservation.web.rest.util;
+
+import com.hesho.reservation.service.ImageFile;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Test class for the {@link FileStreamingUtil}.
+ */
+public class FileStreamingUtilTest {
+
+    private static final String CONTENT = "0123456789";
+
+    private static final String HASH = "84d89877f0d4041efb6bf91a16f0248f2fd573e6af05c19f96bedb9f882f7882";
+
+    private static final String CACHE_CONTROL = "max-age=3600, public";
+
+    @TempDir
+    Path directory;
+
+    private ImageFile file;
+
+    private MockHttpServletRequest request;
+
+    @BeforeEach
+    public void setup() throws IOException {
+        Path path = directory.resolve("abc.png");
+        Files.write(path, CONTENT.getBytes(StandardCharsets.US_ASCII));
+        file = new ImageFile(path, HASH);
+        request = new MockHttpServletRequest("GET", "/api/images/load/abc.png");
+    }
+
+    @Test
+    public void testStreamWholeFile() throws IOException {
+        ResponseEntity<StreamingResponseBody> response = stream(file);
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(response.getHeaders().getETag()).isEqualTo("\"" + HASH + "\"");
+        assertThat(response.getHeaders().getCacheControl()).isEqualTo(CACHE_CONTROL);
+        assertThat(response.getHeaders().getContentType()).isEqualTo(MediaType.IMAGE_PNG);
+        assertThat(response.getHeaders().getContentLength()).isEqualTo(10);
+        assertThat(response.getHeaders().getLastModified()).isPositive();
+        assertThat(response.getHeaders().getFirst(HttpHeaders.ACCEPT_RANGES)).isEqualTo("bytes");
+        assertThat(body(response)).isEqualTo(CONTENT);
+    }
+
+    @Test
+    public void testIfNoneMatchDoesNotTouchTheFile() {
+        request.addHeader(HttpHeaders.IF_NONE_MATCH, "\"other\", W/\"" + HASH + "\"");
+
+        ResponseEntity<StreamingResponseBody> response = stream(new ImageFile(directory.resolve("missing.png"), HASH));
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.NOT_MODIFIED);
+        assertThat(response.getHeaders().getETag()).isEqualTo("\"" + HASH + "\"");
+        assertThat(response.getBody()).isNull();
+    }
+
+    @Test
+    public void testIfModifiedSince() {
+        HttpHeaders headers = new HttpHeaders();
+        headers.setDate(HttpHeaders.IF_MODIFIED_SINCE, System.currentTimeMillis() + 60_000);
+        request.addHeader(HttpHeaders.IF_MODIFIED_SINCE, headers.getFirst(HttpHeaders.IF_MODIFIED_SINCE));
+
+        assertThat(stream(file).getStatusCode()).isEqualTo(HttpStatus.NOT_MODIFIED);
+    }
+
+    @Test
+    public void testStreamRange() throws IOException {
+        request.addHeader(HttpHeaders.RANGE, "bytes=2-5");
+
+        ResponseEntity<StreamingResponseBody> response = stream(file);
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.PARTIAL_CONTENT);
+        assertThat(response.getHeaders().getFirst(HttpHeaders.CONTENT_RANGE)).isEqualTo("bytes 2-5/10");
+        assertThat(response.getHeaders().getContentLength()).isEqualTo(4);
+        assertThat(body(response)).isEqualTo("2345");
+    }
+
+    @Test
+    public void testStreamSuffixRange() throws IOException {
+        request.addHeader(HttpHeaders.RANGE, "bytes=-3");
+
+        ResponseEntity<StreamingResponseBody> response = stream(file);
+
+        assertThat(response.getHeaders().getFirst(HttpHeaders.CONTENT_RANGE)).isEqualTo("bytes 7-9/10");
+        assertThat(body(response)).isEqualTo("789");
+    }
+
+    @Test
+    public void testUnsatisfiableRange() {
+        request.addHeader(HttpHeaders.RANGE, "bytes=20-");
+
+        ResponseEntity<StreamingResponseBody> response = stream(file);
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.REQUESTED_RANGE_NOT_SATISFIABLE);
+        assertThat(response.getHeaders().getFirst(HttpHeaders.CONTENT_RANGE)).isEqualTo("bytes */10");
+    }
+
+    @Test
+    public void testStaleIfRangeServesWholeFile() throws IOException {
+        request.addHeader(HttpHeaders.RANGE, "bytes=2-5");
+        request.addHeader(HttpHeaders.IF_RANGE, "\"stale\"");
+
+        ResponseEntity<StreamingResponseBody> response = stream(file);
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(body(response)).isEqualTo(CONTENT);
+    }
+
+    @Test
+    public void testStreamLoadedFile() throws IOException {
+        ImageFile loaded = file.load();
+        Files.delete(file.getPath());
+        request.addHeader(HttpHeaders.RANGE, "bytes=2-5");
+
+        ResponseEntity<StreamingResponseBody> response = stream(loaded);
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.PARTIAL_CONTENT);
+        assertThat(response.getHeaders().getFirst(HttpHeaders.CONTENT_RANGE)).isEqualTo("bytes 2-5/10");
+        assertThat(body(response)).isEqualTo("2345");
+    }
+
+    @Test
+    public void testMissingFile() {
+        assertThat(stream(new ImageFile(directory.resolve("missing.png"), HASH)).getStatusCode()).isEqualTo(HttpStatus.NOT_FOUND);
+    }
+
+    private ResponseEntity<StreamingResponseBody> stream(ImageFile imageFile) {
+        return FileStreamingUtil.stream(imageFile, CACHE_CONTROL, new ServletWebRequest(request));
+    }
+
+    private static String body(ResponseEntity<StreamingResponseBody> response) throws IOException {
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        response.getBody().writeTo(outputStream);
+        return new String(outputStream.toByteArray(), StandardCharsets.US_ASCII);
+    }
+}
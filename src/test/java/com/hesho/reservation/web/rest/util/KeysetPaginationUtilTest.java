@@ -0,0 +1,64 @@
+package com.hesho.reservation.web.rest.util;
+
+import com.hesho.reservation.repository.KeysetCursor;
+import com.hesho.reservation.web.rest.errors.BadRequestAlertException;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+
+import java.time.Instant;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Test class for the {@link KeysetPaginationUtil}.
+ */
+public class KeysetPaginationUtilTest {
+
+    private static final Map<String, Class<?>> SORT_PROPERTIES = new HashMap<>();
+
+    static {
+        SORT_PROPERTIES.put("id", Long.class);
+        SORT_PROPERTIES.put("startDate", Instant.class);
+    }
+
+    private final Pageable pageable = PageRequest.of(0, 20, Sort.by("startDate"));
+
+    @Test
+    public void testCursorOfFirstPage() {
+        KeysetCursor cursor = KeysetPaginationUtil.getCursor("", pageable, SORT_PROPERTIES, "reservation");
+
+        assertThat(cursor.getSortProperty()).isEqualTo("startDate");
+        assertThat(cursor.getLastId()).isNull();
+    }
+
+    @Test
+    public void testCursorOfNextPage() {
+        String after = KeysetCursor.first("startDate", true).after(Instant.parse("2021-03-01T10:15:30Z"), 42L).encode();
+
+        KeysetCursor cursor = KeysetPaginationUtil.getCursor(after, pageable, SORT_PROPERTIES, "reservation");
+
+        assertThat(cursor.getLastId()).isEqualTo(42L);
+    }
+
+    @Test
+    public void testCursorRejectsMalformedSortKey() {
+        String after = KeysetCursor.first("startDate", true).after("yesterday", 42L).encode();
+
+        assertThatThrownBy(() -> KeysetPaginationUtil.getCursor(after, pageable, SORT_PROPERTIES, "reservation"))
+            .isInstanceOfSatisfying(BadRequestAlertException.class, e -> assertThat(e.getErrorKey()).isEqualTo("invalidcursor"));
+    }
+
+    @Test
+    public void testCursorRejectsUnsupportedSort() {
+        String after = KeysetCursor.first("status", true).after("PENDING", 42L).encode();
+
+        assertThatThrownBy(() -> KeysetPaginationUtil.getCursor(after, pageable, Collections.singletonMap("id", Long.class), "reservation"))
+            .isInstanceOfSatisfying(BadRequestAlertException.class, e -> assertThat(e.getErrorKey()).isEqualTo("invalidsort"));
+    }
+}